@@ -0,0 +1,56 @@
+/*
+ *  Copyright 2020-2022 Google LLC
+ *  Copyright 2020-2022 EPAM Systems, Inc
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.indexing.thread;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.opengroup.osdu.indexer.util.concurrent.ScopedContextPropagator;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propagates the thread scope, which replaces the request scope in this module, to worker threads.
+ * Workers get their own {@link ThreadScopeAttributes} seeded with the caller's beans, so beans created while a task
+ * runs are destroyed when it completes and never leak into the pooled thread.
+ */
+@Primary
+@Component
+public class ThreadScopeContextPropagator implements ScopedContextPropagator {
+
+  @Override
+  public Snapshot capture() {
+    Thread owner = Thread.currentThread();
+    Map<String, Object> beans = new HashMap<>(ThreadScopeContextHolder.currentThreadScopeAttributes().getBeanMap());
+    return overrides -> {
+      ThreadScopeAttributes previous = ThreadScopeContextHolder.getThreadScopeAttributes();
+      ThreadScopeAttributes attached = new ThreadScopeAttributes();
+      attached.getBeanMap().putAll(beans);
+      attached.getBeanMap().putAll(overrides);
+      ThreadScopeContextHolder.setThreadScopeAttributes(attached);
+      return () -> {
+        if (Thread.currentThread() == owner) {
+          attached.clear();
+          ThreadScopeContextHolder.setThreadScopeAttributes(previous);
+        } else {
+          // pooled threads may have inherited the attributes of the thread that created them, drop them as well
+          ThreadScopeContextHolder.removeThreadScopeAttributes();
+        }
+      };
+    };
+  }
+}
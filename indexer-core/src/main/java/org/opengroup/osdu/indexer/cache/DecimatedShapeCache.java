@@ -0,0 +1,251 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.cache;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.Setter;
+import org.opengroup.osdu.indexer.cache.weighted.RetainedSizeEstimator;
+import org.opengroup.osdu.indexer.cache.weighted.WeightedTinyLfuCache;
+import org.opengroup.osdu.indexer.model.Constants;
+import org.opengroup.osdu.indexer.model.GeoJsonObject;
+import org.opengroup.osdu.indexer.model.geojson.Geometry;
+import org.opengroup.osdu.indexer.model.geojson.GeometryCollection;
+import org.opengroup.osdu.indexer.model.geojson.IGeoJson;
+import org.opengroup.osdu.indexer.model.geojson.LineString;
+import org.opengroup.osdu.indexer.model.geojson.MultiPoint;
+import org.opengroup.osdu.indexer.model.geojson.PackedPositions;
+import org.opengroup.osdu.indexer.model.geojson.Point;
+import org.opengroup.osdu.indexer.model.geojson.Position;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-JVM cache of decimation results, keyed by a 128-bit hash of the shape content.
+ * <p>
+ * Records often share the same shape, e.g. the trajectories of a wellbore or the versions of a re-ingested survey.
+ * Only shapes with at least {@code indexer.geo.decimation.cache.min_points} line and ring positions are cached:
+ * hashing a small shape costs about as much as reducing it again, and points are never reduced. Large shapes that do
+ * not need to be decimated are cached as well, so that they are not reduced again either. The key only depends on the
+ * coordinates, so an entry can be shared by all data partitions. The cached geometries are shared by all records with
+ * the same shape and must not be modified.
+ * </p>
+ * <p>
+ * Hits, misses and evictions are exposed as function counters, together with the hit ratio gauge, when a
+ * {@link MeterRegistry} is available.
+ * </p>
+ */
+@Component
+public class DecimatedShapeCache {
+    private static final String METRIC_PREFIX = "indexer.decimated_shape_cache.";
+    private static final long DEFAULT_MAX_BYTES = 33554432L;
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final WeightedTinyLfuCache<HashCode, DecimatedShape> cache;
+    @Getter
+    private final AtomicLong hits = new AtomicLong();
+    @Getter
+    private final AtomicLong misses = new AtomicLong();
+
+    @Setter
+    @Value("${indexer.geo.decimation.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Setter
+    @Value("${indexer.geo.decimation.cache.min_points:1000}")
+    private int minPointCount = 1000;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    public DecimatedShapeCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes budget of the estimated retained size of all cached shapes
+     */
+    @Autowired
+    public DecimatedShapeCache(@Value("${indexer.geo.decimation.cache.max_bytes:33554432}") long maxBytes) {
+        cache = new WeightedTinyLfuCache<>(maxBytes, Constants.DECIMATED_SHAPE_CACHE_EXPIRATION, Constants.DECIMATED_SHAPE_MAX_CACHE_SIZE,
+                shape -> RetainedSizeEstimator.estimate(shape.geometryCollection()));
+    }
+
+    @PostConstruct
+    public void registerMeters() {
+        if (meterRegistry == null) {
+            return;
+        }
+        FunctionCounter.builder(METRIC_PREFIX + "hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "evictions", cache, WeightedTinyLfuCache::getEvictionCount).register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "hit_ratio", this, DecimatedShapeCache::getHitRatio).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true if the cache is enabled and the shape has enough line and ring positions for its decimation to be
+     * worth a lookup
+     */
+    public boolean isCacheable(GeometryCollection geometryCollection) {
+        if (!enabled || geometryCollection == null || geometryCollection.getGeometries() == null) {
+            return false;
+        }
+        long remaining = minPointCount;
+        for (GeoJsonObject geometry : geometryCollection.getGeometries()) {
+            // Points and multi-points are not reduced by the decimator
+            if (geometry instanceof MultiPoint && !(geometry instanceof LineString)) {
+                continue;
+            }
+            if (geometry instanceof Geometry<?> shape) {
+                remaining -= countPositions(shape.getCoordinates(), remaining);
+                if (remaining <= 0) {
+                    return true;
+                }
+            }
+        }
+        return remaining <= 0;
+    }
+
+    /**
+     * @param key hash of the shape, see {@link #hash(GeometryCollection, double)}
+     * @return the cached result, or null if the shape has not been decimated recently
+     */
+    public DecimatedShape get(HashCode key) {
+        if (!enabled) {
+            return null;
+        }
+        DecimatedShape shape = cache.get(key);
+        (shape == null ? misses : hits).incrementAndGet();
+        return shape;
+    }
+
+    public void put(HashCode key, DecimatedShape shape) {
+        if (enabled) {
+            cache.put(key, shape);
+        }
+    }
+
+    public void clearAll() {
+        cache.clearAll();
+    }
+
+    /**
+     * @return share of the lookups served from the cache, 0 before the first lookup
+     */
+    public double getHitRatio() {
+        long hitCount = hits.get();
+        long lookupCount = hitCount + misses.get();
+        return lookupCount == 0 ? 0 : (double) hitCount / lookupCount;
+    }
+
+    /**
+     * Hash the geometry types and the coordinate stream of the shape, with the decimation tolerance.
+     */
+    public static HashCode hash(GeometryCollection geometryCollection, double epsilon) {
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        hasher.putDouble(epsilon);
+        List<GeoJsonObject> geometries = geometryCollection.getGeometries();
+        hasher.putInt(geometries.size());
+        for (GeoJsonObject geometry : geometries) {
+            if (geometry instanceof IGeoJson shape) {
+                hasher.putUnencodedChars(shape.getType());
+            }
+            if (geometry instanceof Point point) {
+                putPosition(hasher, point.getCoordinates());
+            } else if (geometry instanceof Geometry<?> shape) {
+                putCoordinates(hasher, shape.getCoordinates());
+            } else {
+                hasher.putInt(-1);
+            }
+        }
+        return hasher.hash();
+    }
+
+    private static long countPositions(List<?> coordinates, long limit) {
+        if (coordinates == null) {
+            return 0;
+        }
+        if (coordinates instanceof PackedPositions) {
+            return coordinates.size();
+        }
+        long count = 0;
+        for (Object coordinate : coordinates) {
+            if (coordinate instanceof List<?> list) {
+                count += countPositions(list, limit - count);
+            } else if (coordinate instanceof Position) {
+                count++;
+            }
+            if (count >= limit) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    private static void putCoordinates(Hasher hasher, List<?> coordinates) {
+        // The sizes keep [[a, b], [c]] and [[a], [b, c]] apart
+        hasher.putInt(coordinates.size());
+        if (coordinates instanceof PackedPositions positions) {
+            // same values as putPosition, read without creating the positions
+            for (int i = 0; i < positions.size(); i++) {
+                hasher.putDouble(positions.getLongitude(i));
+                hasher.putDouble(positions.getLatitude(i));
+                hasher.putLong(Double.doubleToLongBits(positions.getAltitude(i)));
+            }
+            return;
+        }
+        for (Object coordinate : coordinates) {
+            if (coordinate instanceof List<?> list) {
+                putCoordinates(hasher, list);
+            } else if (coordinate instanceof Position position) {
+                putPosition(hasher, position);
+            }
+        }
+    }
+
+    private static void putPosition(Hasher hasher, Position position) {
+        if (position == null) {
+            hasher.putInt(-1);
+            return;
+        }
+        hasher.putDouble(position.getLongitude());
+        hasher.putDouble(position.getLatitude());
+        hasher.putLong(Double.doubleToLongBits(position.getAltitude()));
+    }
+
+    /**
+     * Outcome of the decimation of a shape.
+     *
+     * @param geometryCollection the decimated geometries, null if the shape was not decimated
+     * @param decimated          true if the shape has been decimated
+     */
+    public record DecimatedShape(GeometryCollection geometryCollection, boolean decimated) {
+    }
+}
@@ -15,18 +15,32 @@
 
 package org.opengroup.osdu.indexer.cache;
 
-import org.opengroup.osdu.core.common.cache.VmCache;
 import org.opengroup.osdu.indexer.cache.interfaces.IRecordChangeInfoCache;
 import org.opengroup.osdu.indexer.model.Constants;
 import org.opengroup.osdu.indexer.model.RecordChangeInfo;
+import org.opengroup.osdu.indexer.cache.weighted.RetainedSizeEstimator;
+import org.opengroup.osdu.indexer.cache.weighted.WeightedTinyLfuCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class RecordChangeInfoCacheVmImpl implements IRecordChangeInfoCache {
-    private VmCache<String, RecordChangeInfo> cache;
+    private static final long DEFAULT_MAX_BYTES = 16777216L;
+
+    private final WeightedTinyLfuCache<String, RecordChangeInfo> cache;
 
     public RecordChangeInfoCacheVmImpl() {
-        cache = new VmCache<>(Constants.DATA_CHANGE_INFO_CACHE_EXPIRATION, Constants.DATA_MAX_CACHE_SIZE);
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes budget of the estimated retained size of all cached entries
+     */
+    @Autowired
+    public RecordChangeInfoCacheVmImpl(@Value("${augmenter.record_change_info_cache.max_bytes:16777216}") long maxBytes) {
+        // the augmenter reads the last written value back, so a write must never be turned away by the admission filter
+        cache = new WeightedTinyLfuCache<>(maxBytes, Constants.DATA_CHANGE_INFO_CACHE_EXPIRATION, Constants.DATA_MAX_CACHE_SIZE, RetainedSizeEstimator::estimate, false);
     }
 
     @Override
@@ -15,18 +15,32 @@
 
 package org.opengroup.osdu.indexer.cache;
 
-import org.opengroup.osdu.core.common.cache.VmCache;
 import org.opengroup.osdu.core.common.model.storage.RecordData;
 import org.opengroup.osdu.indexer.cache.interfaces.IRelatedObjectCache;
 import org.opengroup.osdu.indexer.model.Constants;
+import org.opengroup.osdu.indexer.cache.weighted.RetainedSizeEstimator;
+import org.opengroup.osdu.indexer.cache.weighted.WeightedTinyLfuCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class RelatedObjectCacheVmImpl implements IRelatedObjectCache {
-    private VmCache<String, RecordData> cache;
+    private static final long DEFAULT_MAX_BYTES = 67108864L;
+
+    private final WeightedTinyLfuCache<String, RecordData> cache;
 
     public RelatedObjectCacheVmImpl() {
-        cache = new VmCache<>(Constants.DATA_CACHE_EXPIRATION, Constants.DATA_MAX_CACHE_SIZE);
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes budget of the estimated retained size of all cached entries
+     */
+    @Autowired
+    public RelatedObjectCacheVmImpl(@Value("${augmenter.related_object_cache.max_bytes:67108864}") long maxBytes) {
+        // the augmenter reads the last written value back, so a write must never be turned away by the admission filter
+        cache = new WeightedTinyLfuCache<>(maxBytes, Constants.DATA_CACHE_EXPIRATION, Constants.DATA_MAX_CACHE_SIZE, RetainedSizeEstimator::estimate, false);
     }
 
     @Override
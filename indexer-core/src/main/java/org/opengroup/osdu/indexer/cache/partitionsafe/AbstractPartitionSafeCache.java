@@ -27,4 +27,8 @@ public abstract class AbstractPartitionSafeCache<K, V> implements ICache<K, V> {
     protected String cacheKey(String s) {
         return this.requestInfo.getPartitionId() + "-" + this.getClass().getSimpleName().toLowerCase() + "-" + s;
     }
+
+    protected String partitionId() {
+        return this.requestInfo.getPartitionId();
+    }
 }
@@ -15,34 +15,186 @@
 
 package org.opengroup.osdu.indexer.cache.partitionsafe;
 
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.Setter;
 import org.opengroup.osdu.core.common.model.storage.RecordData;
+import org.opengroup.osdu.indexer.cache.RelatedObjectCacheVmImpl;
 import org.opengroup.osdu.indexer.cache.interfaces.IRelatedObjectCache;
+import org.opengroup.osdu.indexer.cache.weighted.RetainedSizeEstimator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import jakarta.inject.Inject;
 
+/**
+ * Two-level cache of related object data.
+ * <p>
+ * The shared tier is the {@link IRelatedObjectCache} of the deployment, e.g. Redis on Azure. When it is not the
+ * per-JVM {@link RelatedObjectCacheVmImpl}, a small near cache with a short expiration sits in front of it, so that
+ * the parents and reference data read over and over by a batch are not fetched from the shared tier every time.
+ * The near cache is bounded by the estimated retained size of its entries.
+ * Both tiers are written through and invalidated together; near entries of other pods may be stale for at most
+ * {@code augmenter.related_object_cache.near.expiration_seconds}.
+ * </p>
+ * <p>
+ * Near hits, shared hits, misses and near cache evictions are counted per partition and exposed as function counters when a
+ * {@link MeterRegistry} is available.
+ * </p>
+ */
 @Component
 public class RelatedObjectCache extends AbstractPartitionSafeCache<String, RecordData> {
+    private static final String METRIC_PREFIX = "indexer.related_object_cache.";
+    private static final String PARTITION_TAG = "partition";
+
     @Inject
     private IRelatedObjectCache cache;
 
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Setter
+    @Value("${augmenter.related_object_cache.near.enabled:true}")
+    private boolean nearCacheEnabled = true;
+
+    @Setter
+    @Value("${augmenter.related_object_cache.near.expiration_seconds:10}")
+    private int nearCacheExpirationSeconds = 10;
+
+    @Setter
+    @Value("${augmenter.related_object_cache.near.max_bytes:8388608}")
+    private long nearCacheMaxBytes = 8388608L;
+
+    private final Map<String, CacheStatistics> statistics = new ConcurrentHashMap<>();
+    private volatile Cache<String, NearEntry> nearCache;
+
     @Override
     public void put(String s, RecordData o) {
-        this.cache.put(cacheKey(s), o);
+        String key = cacheKey(s);
+        this.cache.put(key, o);
+        Cache<String, NearEntry> near = getNearCache();
+        if (near != null) {
+            if (o == null) {
+                near.invalidate(key);
+            } else {
+                near.put(key, new NearEntry(o, partitionId()));
+            }
+        }
     }
 
     @Override
     public RecordData get(String s) {
-        return this.cache.get(cacheKey(s));
+        String key = cacheKey(s);
+        CacheStatistics partitionStatistics = statisticsOf(partitionId());
+        Cache<String, NearEntry> near = getNearCache();
+        if (near != null) {
+            NearEntry entry = near.getIfPresent(key);
+            if (entry != null) {
+                partitionStatistics.nearHits.incrementAndGet();
+                return entry.recordData();
+            }
+        }
+        RecordData recordData = this.cache.get(key);
+        if (recordData == null) {
+            partitionStatistics.misses.incrementAndGet();
+            return null;
+        }
+        partitionStatistics.sharedHits.incrementAndGet();
+        if (near != null) {
+            near.put(key, new NearEntry(recordData, partitionId()));
+        }
+        return recordData;
     }
 
     @Override
     public void delete(String s) {
-        this.cache.delete(cacheKey(s));
+        String key = cacheKey(s);
+        this.cache.delete(key);
+        Cache<String, NearEntry> near = getNearCache();
+        if (near != null) {
+            near.invalidate(key);
+        }
     }
 
     @Override
     public void clearAll() {
         this.cache.clearAll();
+        Cache<String, NearEntry> near = getNearCache();
+        if (near != null) {
+            near.invalidateAll();
+        }
+    }
+
+    /**
+     * @param partitionId data partition id
+     * @return hit/miss/eviction counters of the partition
+     */
+    public CacheStatistics getStatistics(String partitionId) {
+        return statisticsOf(partitionId);
+    }
+
+    private Cache<String, NearEntry> getNearCache() {
+        if (!nearCacheEnabled || this.cache instanceof RelatedObjectCacheVmImpl) {
+            // the shared tier is already in this JVM
+            return null;
+        }
+        if (nearCache == null) {
+            synchronized (this) {
+                if (nearCache == null) {
+                    nearCache = CacheBuilder.newBuilder()
+                            .expireAfterWrite(nearCacheExpirationSeconds, TimeUnit.SECONDS)
+                            .maximumWeight(nearCacheMaxBytes)
+                            .weigher((String key, NearEntry entry) -> (int) Math.min(Integer.MAX_VALUE, RetainedSizeEstimator.estimate(entry.recordData())))
+                            .removalListener((RemovalNotification<String, NearEntry> notification) -> {
+                                if (notification.wasEvicted() && notification.getValue() != null) {
+                                    statisticsOf(notification.getValue().partitionId()).evictions.incrementAndGet();
+                                }
+                            })
+                            .build();
+                }
+            }
+        }
+        return nearCache;
+    }
+
+    private CacheStatistics statisticsOf(String partitionId) {
+        return statistics.computeIfAbsent(Strings.nullToEmpty(partitionId), key -> {
+            CacheStatistics cacheStatistics = new CacheStatistics();
+            if (meterRegistry != null) {
+                registerMeters(key, cacheStatistics);
+            }
+            return cacheStatistics;
+        });
+    }
+
+    private void registerMeters(String partitionId, CacheStatistics cacheStatistics) {
+        FunctionCounter.builder(METRIC_PREFIX + "hits.near", cacheStatistics.nearHits, AtomicLong::get).tag(PARTITION_TAG, partitionId).register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "hits.shared", cacheStatistics.sharedHits, AtomicLong::get).tag(PARTITION_TAG, partitionId).register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "misses", cacheStatistics.misses, AtomicLong::get).tag(PARTITION_TAG, partitionId).register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "evictions", cacheStatistics.evictions, AtomicLong::get).tag(PARTITION_TAG, partitionId).register(meterRegistry);
+    }
+
+    private record NearEntry(RecordData recordData, String partitionId) {
+    }
+
+    /**
+     * Counters of the related object cache of a partition.
+     */
+    @Getter
+    public static class CacheStatistics {
+        private final AtomicLong nearHits = new AtomicLong();
+        private final AtomicLong sharedHits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
     }
 }
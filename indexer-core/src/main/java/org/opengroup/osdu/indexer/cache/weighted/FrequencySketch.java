@@ -0,0 +1,84 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.cache.weighted;
+
+/**
+ * Count-min sketch of 4-bit-capped access frequencies, the admission filter of {@link WeightedTinyLfuCache}.
+ * All counters are halved after a number of increments proportional to the width, so that old popularity fades.
+ * Not thread-safe; guarded by the owning cache.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final int MAX_COUNT = 15;
+    private static final int MAX_WIDTH = 1 << 22;
+
+    private final byte[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int expectedEntries) {
+        int width = Integer.highestOneBit(Math.max(16, Math.min(MAX_WIDTH, expectedEntries)) - 1) << 1;
+        this.table = new byte[SEEDS.length][width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * width;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int index = indexOf(hash, i);
+            if (table[i][index] < MAX_COUNT) {
+                table[i][index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            frequency = Math.min(frequency, table[i][indexOf(hash, i)]);
+        }
+        return frequency;
+    }
+
+    private void reset() {
+        for (byte[] row : table) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] >>= 1;
+            }
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return ((int) h) & mask;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.cache.weighted;
+
+import java.util.Collection;
+import java.util.Map;
+import org.opengroup.osdu.core.common.model.indexer.RecordInfo;
+import org.opengroup.osdu.core.common.model.storage.RecordData;
+import org.opengroup.osdu.indexer.model.RecordChangeInfo;
+import org.opengroup.osdu.indexer.model.geojson.GeoShapeMap;
+import org.opengroup.osdu.indexer.model.geojson.GeometryCollection;
+
+/**
+ * Rough estimate of the heap retained by cached values, assuming a 64-bit JVM with compressed references and compact
+ * strings. It is only meant to weigh entries against each other, not to account for the heap exactly.
+ */
+public final class RetainedSizeEstimator {
+
+    private static final long OBJECT_HEADER = 16;
+    private static final long REFERENCE = 4;
+    private static final long STRING = 40;
+    private static final long BOXED_NUMBER = 24;
+    private static final long MAP_ENTRY = 32;
+    private static final long DEFAULT_OBJECT = 64;
+    // Position with three doubles plus its slot in the coordinates list
+    private static final long POSITION = OBJECT_HEADER + 24 + REFERENCE;
+
+    private RetainedSizeEstimator() {
+    }
+
+    public static long estimate(RecordData recordData) {
+        return recordData == null ? 0 : OBJECT_HEADER + REFERENCE + estimate(recordData.getData());
+    }
+
+    public static long estimate(RecordChangeInfo recordChangeInfo) {
+        if (recordChangeInfo == null) {
+            return 0;
+        }
+        long size = OBJECT_HEADER + 2 * REFERENCE + estimate(recordChangeInfo.getUpdatedProperties());
+        RecordInfo recordInfo = recordChangeInfo.getRecordInfo();
+        if (recordInfo != null) {
+            size += OBJECT_HEADER + estimate(recordInfo.getId()) + estimate(recordInfo.getKind()) + estimate(recordInfo.getOp());
+        }
+        return size;
+    }
+
+    public static long estimate(GeometryCollection geometryCollection) {
+        return geometryCollection == null ? 0 : DEFAULT_OBJECT + POSITION * GeoShapeMap.countPositions(geometryCollection);
+    }
+
+    public static long estimate(Object value) {
+        if (value == null || value instanceof Boolean) {
+            // null or a shared Boolean instance
+            return 0;
+        }
+        if (value instanceof String text) {
+            return STRING + text.length();
+        }
+        if (value instanceof Number) {
+            return BOXED_NUMBER;
+        }
+        if (value instanceof GeoShapeMap shape && shape.getGeometryCollection() != null) {
+            return estimate(shape.getGeometryCollection());
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = OBJECT_HEADER + 32 + tableSize(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += MAP_ENTRY + estimate(entry.getKey()) + estimate(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = OBJECT_HEADER + 16 + OBJECT_HEADER + REFERENCE * collection.size();
+            for (Object item : collection) {
+                size += estimate(item);
+            }
+            return size;
+        }
+        if (value instanceof Object[] array) {
+            long size = OBJECT_HEADER + REFERENCE * array.length;
+            for (Object item : array) {
+                size += estimate(item);
+            }
+            return size;
+        }
+        if (value instanceof double[] array) {
+            return OBJECT_HEADER + 8L * array.length;
+        }
+        return DEFAULT_OBJECT;
+    }
+
+    private static long tableSize(int entries) {
+        // hash table of a HashMap with the default load factor
+        return OBJECT_HEADER + REFERENCE * Math.max(16, Integer.highestOneBit(Math.max(1, (int) (entries / 0.75f))) << 1);
+    }
+}
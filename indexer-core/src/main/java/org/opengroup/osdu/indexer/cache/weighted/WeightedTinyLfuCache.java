@@ -0,0 +1,209 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.cache.weighted;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import org.opengroup.osdu.core.common.cache.ICache;
+
+/**
+ * In-memory cache bounded by the total weight of its entries rather than by their number, with W-TinyLFU admission.
+ * <p>
+ * New entries go to a small LRU window (1% of the weight budget). Entries leaving the window are only admitted to
+ * the main LRU region if they have been requested more often than the entries they would evict, according to a
+ * {@link FrequencySketch}. A burst of large one-off entries therefore cannot flush a working set of popular ones,
+ * and an entry heavier than the whole budget is never stored. Entries expire a fixed time after they were written.
+ * </p>
+ * <p>
+ * The admission filter only suits caches whose entries can always be recomputed. A cache holding state that is read
+ * back for correctness, e.g. the last written version of a record, must not drop a fresh write in favour of an older
+ * popular entry; it is created without the filter and then evicts by recency only.
+ * </p>
+ */
+public class WeightedTinyLfuCache<K, V> implements ICache<K, V> {
+
+    private static final double WINDOW_RATIO = 0.01;
+
+    private final long maxWeight;
+    private final long windowMaxWeight;
+    private final long expirationNanos;
+    private final ToLongFunction<V> weigher;
+    private final FrequencySketch sketch;
+    private final boolean admissionFilter;
+
+    private final LinkedHashMap<K, Node<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<V>> main = new LinkedHashMap<>(16, 0.75f, true);
+    private long windowWeight;
+    private long mainWeight;
+    private long evictionCount;
+
+    /**
+     * @param maxWeight         weight budget, e.g. in bytes
+     * @param expirationSeconds time to live of an entry after it was written
+     * @param expectedEntries   typical number of entries, sizes the frequency sketch
+     * @param weigher           weight of a value, e.g. its estimated retained size in bytes
+     */
+    public WeightedTinyLfuCache(long maxWeight, int expirationSeconds, int expectedEntries, ToLongFunction<V> weigher) {
+        this(maxWeight, expirationSeconds, expectedEntries, weigher, true);
+    }
+
+    /**
+     * @param maxWeight         weight budget, e.g. in bytes
+     * @param expirationSeconds time to live of an entry after it was written
+     * @param expectedEntries   typical number of entries, sizes the frequency sketch
+     * @param weigher           weight of a value, e.g. its estimated retained size in bytes
+     * @param admissionFilter   false to admit every write and evict the least recently used entries instead
+     */
+    public WeightedTinyLfuCache(long maxWeight, int expirationSeconds, int expectedEntries, ToLongFunction<V> weigher, boolean admissionFilter) {
+        this.maxWeight = Math.max(1, maxWeight);
+        this.windowMaxWeight = Math.max(1, (long) (this.maxWeight * WINDOW_RATIO));
+        this.expirationNanos = TimeUnit.SECONDS.toNanos(expirationSeconds);
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(expectedEntries);
+        this.admissionFilter = admissionFilter;
+    }
+
+    @Override
+    public synchronized void put(K key, V value) {
+        if (key == null) {
+            return;
+        }
+        removeNode(key);
+        if (value == null) {
+            return;
+        }
+        sketch.increment(key);
+        long weight = Math.max(1, weigher.applyAsLong(value));
+        if (weight > maxWeight) {
+            evictionCount++;
+            return;
+        }
+        window.put(key, new Node<>(value, weight, System.nanoTime()));
+        windowWeight += weight;
+        drainWindow();
+    }
+
+    @Override
+    public synchronized V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        sketch.increment(key);
+        Node<V> node = window.get(key);
+        if (node == null) {
+            node = main.get(key);
+        }
+        if (node == null) {
+            return null;
+        }
+        if (node.isExpired(System.nanoTime(), expirationNanos)) {
+            removeNode(key);
+            return null;
+        }
+        return node.value();
+    }
+
+    @Override
+    public synchronized void delete(K key) {
+        if (key != null) {
+            removeNode(key);
+        }
+    }
+
+    @Override
+    public synchronized void clearAll() {
+        window.clear();
+        main.clear();
+        windowWeight = 0;
+        mainWeight = 0;
+    }
+
+    public synchronized long getWeightedSize() {
+        return windowWeight + mainWeight;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    private void removeNode(K key) {
+        Node<V> node = window.remove(key);
+        if (node != null) {
+            windowWeight -= node.weight();
+            return;
+        }
+        node = main.remove(key);
+        if (node != null) {
+            mainWeight -= node.weight();
+        }
+    }
+
+    private void drainWindow() {
+        while (windowWeight > windowMaxWeight && !window.isEmpty()) {
+            Iterator<Map.Entry<K, Node<V>>> eldest = window.entrySet().iterator();
+            Map.Entry<K, Node<V>> candidate = eldest.next();
+            eldest.remove();
+            windowWeight -= candidate.getValue().weight();
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    private void admit(K key, Node<V> candidate) {
+        long mainMaxWeight = maxWeight - windowWeight;
+        if (mainWeight + candidate.weight() <= mainMaxWeight) {
+            main.put(key, candidate);
+            mainWeight += candidate.weight();
+            return;
+        }
+
+        // The candidate has to beat every victim it would push out, starting from the least recently used one
+        long now = System.nanoTime();
+        int candidateFrequency = admissionFilter ? sketch.frequency(key) : 0;
+        List<K> victims = new ArrayList<>();
+        long freedWeight = 0;
+        Iterator<Map.Entry<K, Node<V>>> iterator = main.entrySet().iterator();
+        while (mainWeight - freedWeight + candidate.weight() > mainMaxWeight && iterator.hasNext()) {
+            Map.Entry<K, Node<V>> victim = iterator.next();
+            if (admissionFilter && !victim.getValue().isExpired(now, expirationNanos) && sketch.frequency(victim.getKey()) >= candidateFrequency) {
+                evictionCount++;
+                return;
+            }
+            victims.add(victim.getKey());
+            freedWeight += victim.getValue().weight();
+        }
+        if (mainWeight - freedWeight + candidate.weight() > mainMaxWeight) {
+            evictionCount++;
+            return;
+        }
+        for (K victim : victims) {
+            mainWeight -= main.remove(victim).weight();
+            evictionCount++;
+        }
+        main.put(key, candidate);
+        mainWeight += candidate.weight();
+    }
+
+    private record Node<V>(V value, long weight, long writeNanos) {
+        boolean isExpired(long nowNanos, long expirationNanos) {
+            return nowNanos - writeNanos >= expirationNanos;
+        }
+    }
+}
@@ -52,6 +52,12 @@ public class IndexerConfigurationProperties {
 	private String storageQueryRecordHost;
 	private Integer storageRecordsBatchSize;
 	private Integer storageRecordsByKindBatchSize;
+	//Number of storage record batches fetched ahead of the batch being indexed
+	private Integer storageRecordsPrefetchBatches = 1;
+	//Storage records batches fetched concurrently, paced per data partition (rate 0 means not limited)
+	private Integer storageRecordsFetchParallelism = 4;
+	private Integer storageRecordsFetchRatePerSecond = 50;
+	private Integer storageRecordsFetchBurst = 10;
 	private String storageSchemaHost;
 	private String schemaHost;
 	private String entitlementsHost;
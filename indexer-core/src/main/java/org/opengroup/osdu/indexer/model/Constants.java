@@ -19,6 +19,8 @@ public class Constants {
     // It should be moved to core common later
     public static final String ANCESTRY_KINDS = "ancestry_kinds";
     public static final int CHASING_MESSAGE_DELAY_SECONDS = 30;
+    // Published chasing messages are only worth remembering until they are delivered
+    public static final int CHASING_MESSAGE_CACHE_EXPIRATION = CHASING_MESSAGE_DELAY_SECONDS;
 
     // Specifications using kind as key is not partition safe if the specifications are per data partition
     public static final int SPEC_CACHE_EXPIRATION = 600;
@@ -29,5 +31,17 @@ public class Constants {
     public static final int DATA_CHANGE_INFO_CACHE_EXPIRATION = 3600;
     public static final int DATA_MAX_CACHE_SIZE = 20000;
 
+    // Compiled schema accessor plans are process-local and rebuilt on demand
+    public static final int SCHEMA_ACCESSOR_PLAN_CACHE_EXPIRATION = 600;
+    public static final int SCHEMA_ACCESSOR_PLAN_MAX_CACHE_SIZE = 2000;
+
+    // Typed flattened schemas are process-local, the distributed FlattenedSchemaCache remains the source of truth
+    public static final int FLATTENED_SCHEMA_OBJECT_CACHE_EXPIRATION = 300;
+    public static final int FLATTENED_SCHEMA_OBJECT_MAX_CACHE_SIZE = 2000;
+
+    // Decimated shapes are keyed by their content, which is partition safe
+    public static final int DECIMATED_SHAPE_CACHE_EXPIRATION = 3600;
+    public static final int DECIMATED_SHAPE_MAX_CACHE_SIZE = 10000;
+
     public static final String AS_INGESTED_COORDINATES_FEATURE_NAME = "featureFlag.asIngestedCoordinates.enabled";
 }
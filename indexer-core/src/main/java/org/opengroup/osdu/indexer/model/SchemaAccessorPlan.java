@@ -0,0 +1,114 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.opengroup.osdu.core.common.model.indexer.ElasticType;
+
+/**
+ * Flattened data schema of a kind compiled into a list of fields, each holding its pre-split path, its resolved
+ * {@link ElasticType} and the parser of its values. Mapping a record is a straight walk over the fields, without
+ * re-interpreting the schema or resolving nested paths reflectively.
+ */
+public final class SchemaAccessorPlan {
+
+    /**
+     * Returned by {@link Field#resolve(Map)} when the path crosses a value that is not a map; such paths are left to
+     * the bean utilities to keep their exact semantics.
+     */
+    public static final Object UNRESOLVED = new Object();
+
+    private final Map<String, Object> dataSchema;
+    private final int dataSchemaSize;
+    private final List<Field> fields;
+
+    public SchemaAccessorPlan(Map<String, Object> dataSchema, List<Field> fields) {
+        this.dataSchema = dataSchema;
+        this.dataSchemaSize = dataSchema.size();
+        this.fields = Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * The schema is compared by instance, so that no record pays for a walk over the schema. The typed schemas cached
+     * by the schema service are read-only and replaced by a new instance when the schema changes, which gets a new
+     * plan. The only schemas changed in place are the per-batch copies extended with as-ingested coordinates
+     * properties, which only grow, so their size tells whether properties were added since the compilation.
+     *
+     * @param dataSchema data schema about to be mapped
+     * @return true if this plan was compiled from this schema instance, with the same number of entries
+     */
+    public boolean isCompiledFrom(Map<String, Object> dataSchema) {
+        return this.dataSchema == dataSchema && this.dataSchemaSize == dataSchema.size();
+    }
+
+    public List<Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * Parses a value of a field into the collected data of the record.
+     */
+    @FunctionalInterface
+    public interface FieldParser {
+        void parse(String recordId, String name, Object value, Map<String, Object> dataCollectorMap);
+    }
+
+    /**
+     * A single schema property.
+     *
+     * @param name            flattened property name
+     * @param path            property name split on '.', or null if the name must be resolved by the bean utilities
+     * @param elasticType     resolved type, null if the schema type is not resolvable
+     * @param parser          parser of the values, null if values of the type are not indexed
+     * @param indexNullValues true if null values are indexed for the type
+     * @param processedArray  true if the inner properties of the array items are mapped as well
+     * @param innerPlan       plan of the inner properties of a processed array, null if the schema does not define them
+     */
+    public record Field(String name, String[] path, ElasticType elasticType, FieldParser parser, boolean indexNullValues,
+                        boolean processedArray, SchemaAccessorPlan innerPlan) {
+
+        /**
+         * @param data record data
+         * @return the value of the property, null if it is missing, or {@link #UNRESOLVED}
+         */
+        public Object resolve(Map<String, Object> data) {
+            // first level property, or a nested property stored under its flattened name
+            Object value = data.get(name);
+            if (value != null) {
+                return value;
+            }
+            if (path == null) {
+                return UNRESOLVED;
+            }
+            if (path.length == 1) {
+                return null;
+            }
+            Object current = data;
+            for (String segment : path) {
+                if (current == null) {
+                    return null;
+                }
+                if (!(current instanceof Map<?, ?> map)) {
+                    return UNRESOLVED;
+                }
+                current = map.get(segment);
+            }
+            return current;
+        }
+    }
+}
@@ -15,17 +15,22 @@
 
 package org.opengroup.osdu.indexer.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.Data;
 import lombok.ToString;
+import org.opengroup.osdu.indexer.model.jackson.DoubleNumberMapDeserializer;
 
 import java.util.Map;
 
 @Data
 @ToString
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class SearchRecord {
     private String id;
     private String kind;
+    @JsonDeserialize(using = DoubleNumberMapDeserializer.class)
     private Map<String, Object> data;
 }
@@ -0,0 +1,27 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opengroup.osdu.indexer.model;
+
+import org.opengroup.osdu.core.common.model.indexer.IndexSchema;
+
+/**
+ * Typed flattened schema of a kind, tagged with the hash of the schema it was built from. Schema changes refill the
+ * shared schema cache, so a pod can tell its typed copy is stale by comparing the hash with the cached schema.
+ *
+ * @param schemaHash  hash of the schema the typed copy was built from
+ * @param indexSchema typed flattened schema
+ */
+public record VersionedIndexSchema(long schemaHash, IndexSchema indexSchema) {
+}
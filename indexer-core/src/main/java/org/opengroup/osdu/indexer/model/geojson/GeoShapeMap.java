@@ -0,0 +1,124 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opengroup.osdu.indexer.model.geojson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.opengroup.osdu.indexer.model.GeoJsonObject;
+import org.opengroup.osdu.indexer.model.geojson.jackson.GeoJsonMapper;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A parsed shape in the map form expected by the indexer, backed by its typed {@link GeometryCollection}.
+ * <p>
+ * The shape is decoded once when the record is parsed; decimation and the shape augmenter functions work on the
+ * typed geometries, and the shape is serialized straight from them into the bulk document. The map entries are
+ * only built if some code reads the shape as a map; from then on the map is the source of truth, as it may have
+ * been modified, and the typed geometries are no longer exposed.
+ * </p>
+ */
+@JsonSerialize(using = GeoShapeMap.GeoShapeMapSerializer.class)
+public class GeoShapeMap extends AbstractMap<String, Object> implements Serializable {
+    private final GeometryCollection geometryCollection;
+    private Map<String, Object> map;
+
+    public GeoShapeMap(GeometryCollection geometryCollection) {
+        this.geometryCollection = geometryCollection;
+    }
+
+    /**
+     * @return the typed geometries, or null if the shape has been accessed as a map
+     */
+    public synchronized GeometryCollection getGeometryCollection() {
+        return map == null ? geometryCollection : null;
+    }
+
+    /**
+     * @return number of positions of the shape, counted without building the map entries
+     */
+    public int getPositionCount() {
+        GeometryCollection geometries = getGeometryCollection();
+        return geometries == null ? -1 : countPositions(geometries);
+    }
+
+    /**
+     * @return number of positions of all geometries of the collection
+     */
+    public static int countPositions(GeometryCollection geometries) {
+        int count = 0;
+        for (GeoJsonObject geometry : geometries) {
+            if (geometry instanceof Point) {
+                count++;
+            } else if (geometry instanceof Geometry<?> shape) {
+                count += countPositions(shape.getCoordinates());
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return map().entrySet();
+    }
+
+    @Override
+    public Object get(Object key) {
+        return map().get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map().containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        return map().put(key, value);
+    }
+
+    private synchronized Map<String, Object> map() {
+        if (map == null) {
+            map = GeoJsonMapper.toMap(geometryCollection);
+        }
+        return map;
+    }
+
+    private static int countPositions(List<?> coordinates) {
+        if (coordinates instanceof PackedPositions) {
+            return coordinates.size();
+        }
+        int count = 0;
+        for (Object coordinate : coordinates) {
+            count += coordinate instanceof List<?> list ? countPositions(list) : 1;
+        }
+        return count;
+    }
+
+    public static class GeoShapeMapSerializer extends JsonSerializer<GeoShapeMap> {
+        @Override
+        public void serialize(GeoShapeMap value, JsonGenerator jsonGenerator, SerializerProvider provider) throws IOException {
+            GeometryCollection geometries = value.getGeometryCollection();
+            provider.defaultSerializeValue(geometries != null ? geometries : value.map(), jsonGenerator);
+        }
+    }
+}
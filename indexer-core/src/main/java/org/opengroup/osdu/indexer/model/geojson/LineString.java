@@ -16,7 +16,7 @@ package org.opengroup.osdu.indexer.model.geojson;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.NoArgsConstructor;
-import org.opengroup.osdu.indexer.model.geojson.jackson.CoordinatesDeserializer;
+import org.opengroup.osdu.indexer.model.geojson.jackson.PackedPositionsDeserializer;
 import org.opengroup.osdu.indexer.model.geojson.jackson.GeoJsonConstants;
 
 import java.util.List;
@@ -29,7 +29,7 @@ public class LineString extends MultiPoint {
     }
 
     @Override
-    @JsonDeserialize(using = CoordinatesDeserializer.class)
+    @JsonDeserialize(using = PackedPositionsDeserializer.class)
     public void setCoordinates(List<Position> coordinates) {
         super.setCoordinates(coordinates);
     }
@@ -0,0 +1,199 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.model.geojson;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.opengroup.osdu.indexer.model.geojson.jackson.PackedPositionsSerializer;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Positions of a line or a polygon ring packed into a single {@code double[]}: longitude, latitude and altitude of
+ * each position follow each other, the altitude being NaN when the position has none.
+ * <p>
+ * Lines and rings are parsed into it, so the decimation reads the coordinates without a {@link Position} per point.
+ * Other callers still see a {@code List<Position>}, the positions being created on access. It is serialized as the
+ * regular geo-json coordinates array, e.g. {@code [[lon, lat], [lon, lat, alt]]}.
+ * </p>
+ */
+@JsonSerialize(using = PackedPositionsSerializer.class)
+public final class PackedPositions extends AbstractList<Position> implements RandomAccess, Serializable {
+    public static final int STRIDE = 3;
+
+    private double[] values;
+    private int size;
+
+    public PackedPositions() {
+        this(10);
+    }
+
+    public PackedPositions(int initialCapacity) {
+        values = new double[Math.max(1, initialCapacity) * STRIDE];
+    }
+
+    /**
+     * @return the positions themselves if they are already packed, a packed copy otherwise
+     */
+    public static PackedPositions of(List<Position> positions) {
+        if (positions instanceof PackedPositions packedPositions) {
+            return packedPositions;
+        }
+        PackedPositions packedPositions = new PackedPositions(positions.size());
+        for (Position position : positions) {
+            packedPositions.append(position.getLongitude(), position.getLatitude(), position.getAltitude());
+        }
+        return packedPositions;
+    }
+
+    public PackedPositions copy() {
+        PackedPositions copy = new PackedPositions(size);
+        System.arraycopy(values, 0, copy.values, 0, size * STRIDE);
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * @return every {@code interval}-th position, and the last one
+     */
+    public PackedPositions sample(int interval) {
+        int lastIndex = size - 1;
+        PackedPositions sample = new PackedPositions(lastIndex / interval + 2);
+        for (int i = 0; i <= lastIndex; i += interval) {
+            sample.append(getLongitude(i), getLatitude(i), getAltitude(i));
+        }
+        if (lastIndex > 0 && lastIndex % interval != 0) {
+            sample.append(getLongitude(lastIndex), getLatitude(lastIndex), getAltitude(lastIndex));
+        }
+        return sample;
+    }
+
+    /**
+     * Add a position, the longitude and latitude are validated like {@link Position} does.
+     */
+    public void add(double longitude, double latitude, double altitude) {
+        append(Position.checkLongitude(longitude), Position.checkLatitude(latitude), altitude);
+    }
+
+    public double getLongitude(int index) {
+        return values[checkIndex(index) * STRIDE];
+    }
+
+    public double getLatitude(int index) {
+        return values[checkIndex(index) * STRIDE + 1];
+    }
+
+    public double getAltitude(int index) {
+        return values[checkIndex(index) * STRIDE + 2];
+    }
+
+    public boolean hasAltitude(int index) {
+        return !Double.isNaN(getAltitude(index));
+    }
+
+    /**
+     * Keep only the positions at the given indexes, in place and in their order.
+     */
+    public void retain(BitSet indexes) {
+        int length = 0;
+        for (int i = indexes.nextSetBit(0); i >= 0 && i < size; i = indexes.nextSetBit(i + 1)) {
+            System.arraycopy(values, i * STRIDE, values, length, STRIDE);
+            length += STRIDE;
+        }
+        size = length / STRIDE;
+        modCount++;
+    }
+
+    @Override
+    public Position get(int index) {
+        return Position.ofValidated(getLongitude(index), getLatitude(index), getAltitude(index));
+    }
+
+    @Override
+    public Position set(int index, Position position) {
+        Position previous = get(index);
+        write(index, position);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Position position) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Objects.requireNonNull(position, "position cannot be null");
+        ensureCapacity(size + 1);
+        System.arraycopy(values, index * STRIDE, values, (index + 1) * STRIDE, (size - index) * STRIDE);
+        size++;
+        write(index, position);
+        modCount++;
+    }
+
+    @Override
+    public Position remove(int index) {
+        Position previous = get(index);
+        System.arraycopy(values, (index + 1) * STRIDE, values, index * STRIDE, (size - index - 1) * STRIDE);
+        size--;
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void append(double longitude, double latitude, double altitude) {
+        ensureCapacity(size + 1);
+        int offset = size * STRIDE;
+        values[offset] = longitude;
+        values[offset + 1] = latitude;
+        values[offset + 2] = altitude;
+        size++;
+        modCount++;
+    }
+
+    private void write(int index, Position position) {
+        int offset = index * STRIDE;
+        values[offset] = position.getLongitude();
+        values[offset + 1] = position.getLatitude();
+        values[offset + 2] = position.getAltitude();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity * STRIDE > values.length) {
+            values = Arrays.copyOf(values, Math.max(capacity, size * 2) * STRIDE);
+        }
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return index;
+    }
+}
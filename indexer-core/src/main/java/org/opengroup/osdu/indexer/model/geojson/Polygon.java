@@ -16,10 +16,12 @@ package org.opengroup.osdu.indexer.model.geojson;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import java.util.Arrays;
 import java.util.List;
 import lombok.NoArgsConstructor;
 import org.opengroup.osdu.indexer.model.geojson.jackson.GeoJsonConstants;
+import org.opengroup.osdu.indexer.model.geojson.jackson.PackedPositionsDeserializer;
 
 @NoArgsConstructor
 public class Polygon extends Geometry<List<Position>> {
@@ -74,6 +76,7 @@ public class Polygon extends Geometry<List<Position>> {
 
     @Override
     @JsonSetter
+    @JsonDeserialize(contentUsing = PackedPositionsDeserializer.class)
     public void setCoordinates(List<List<Position>> coordinates) {
         assertClosedPolygon(coordinates);
         super.setCoordinates(coordinates);
@@ -50,26 +50,43 @@ public class Position implements Serializable {
     }
 
     public void setLongitude(double longitude) {
+        this.longitude = checkLongitude(longitude);
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = checkLatitude(latitude);
+    }
+
+    public void setAltitude(double altitude) {
+        this.altitude = altitude;
+    }
+
+    public boolean hasAltitude() {
+        return !Double.isNaN(altitude);
+    }
+
+    static double checkLongitude(double longitude) {
         if (Double.isNaN(longitude))
             throw new IllegalArgumentException("latitude must be number");
         if (longitude > 180 || longitude < -180)
             throw new IllegalArgumentException("'longitude' value is out of the range [-180, 180]");
-        this.longitude = longitude;
+        return longitude;
     }
 
-    public void setLatitude(double latitude) {
+    static double checkLatitude(double latitude) {
         if (Double.isNaN(latitude))
             throw new IllegalArgumentException("latitude must be number");
         if (latitude > 90 || latitude < -90)
             throw new IllegalArgumentException("latitude value is out of the range [-90, 90]");
-        this.latitude = latitude;
-    }
-
-    public void setAltitude(double altitude) {
-        this.altitude = altitude;
+        return latitude;
     }
 
-    public boolean hasAltitude() {
-        return !Double.isNaN(altitude);
+    // Values already validated, e.g. read back from PackedPositions
+    static Position ofValidated(double longitude, double latitude, double altitude) {
+        Position position = new Position();
+        position.longitude = longitude;
+        position.latitude = latitude;
+        position.altitude = altitude;
+        return position;
     }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opengroup.osdu.indexer.model.geojson.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.opengroup.osdu.indexer.model.geojson.GeometryCollection;
+import org.opengroup.osdu.indexer.model.geojson.LineString;
+import org.opengroup.osdu.indexer.model.geojson.MultiLineString;
+import org.opengroup.osdu.indexer.model.geojson.MultiPoint;
+import org.opengroup.osdu.indexer.model.geojson.MultiPolygon;
+import org.opengroup.osdu.indexer.model.geojson.Point;
+import org.opengroup.osdu.indexer.model.geojson.Polygon;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Converts geo-json shapes between their map form and the typed model without going through JSON text:
+ * the map is replayed as a stream of tokens straight into the deserializers.
+ */
+public final class GeoJsonMapper {
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    // Shapes in the index use the lower case type names, e.g. "geometrycollection"
+    private static final ObjectMapper INDEXED_SHAPE_MAPPER = createIndexedShapeMapper();
+    private static final ObjectMapper SERIALIZER_MAPPER = new ObjectMapper();
+
+    private GeoJsonMapper() {
+    }
+
+    /**
+     * Decode a shape in the form that is stored in the index.
+     */
+    public static GeometryCollection toGeometryCollection(Map<String, Object> shapeObj) throws IOException {
+        return decode(INDEXED_SHAPE_MAPPER, shapeObj, GeometryCollection.class);
+    }
+
+    public static <T> T decode(ObjectMapper mapper, Map<String, Object> shapeObj, Class<T> type) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(mapper, false);
+        mapper.writeValue(buffer, shapeObj);
+        try (JsonParser parser = buffer.asParser()) {
+            return mapper.readValue(parser, type);
+        }
+    }
+
+    public static Map<String, Object> toMap(GeometryCollection geometryCollection) {
+        return SERIALIZER_MAPPER.convertValue(geometryCollection, MAP_TYPE);
+    }
+
+    private static ObjectMapper createIndexedShapeMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerSubtypes(new NamedType(GeometryCollection.class, GeoJsonConstants.GEOMETRY_COLLECTION));
+        mapper.registerSubtypes(new NamedType(Polygon.class, GeoJsonConstants.POLYGON));
+        mapper.registerSubtypes(new NamedType(MultiPolygon.class, GeoJsonConstants.MULTI_POLYGON));
+        mapper.registerSubtypes(new NamedType(LineString.class, GeoJsonConstants.LINE_STRING));
+        mapper.registerSubtypes(new NamedType(MultiLineString.class, GeoJsonConstants.MULTI_LINE_STRING));
+        mapper.registerSubtypes(new NamedType(Point.class, GeoJsonConstants.POINT));
+        mapper.registerSubtypes(new NamedType(MultiPoint.class, GeoJsonConstants.MULTI_POINT));
+        return mapper;
+    }
+}
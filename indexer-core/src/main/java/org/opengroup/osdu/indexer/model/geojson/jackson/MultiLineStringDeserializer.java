@@ -18,12 +18,9 @@
 package org.opengroup.osdu.indexer.model.geojson.jackson;
 
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.ObjectCodec;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import org.opengroup.osdu.indexer.model.geojson.Position;
 
@@ -31,18 +28,6 @@ public class MultiLineStringDeserializer extends JsonDeserializer<List<List<Posi
 
     @Override
     public List<List<Position>> deserialize(JsonParser jsonParser, DeserializationContext ctxt) throws IOException {
-        List<List<Position>> multiLineStringCoordinatesList = new ArrayList<>();
-        ObjectCodec codec = jsonParser.getCodec();
-        JsonNode coordinatesNode = codec.readTree(jsonParser);
-        if (coordinatesNode.isArray()) {
-            for (JsonNode jsonNode : coordinatesNode) {
-                ArrayList<Position> positionsList = new ArrayList<>();
-                for (JsonNode positionNode : jsonNode) {
-                    positionsList.add(codec.treeToValue(positionNode, Position.class));
-                }
-                multiLineStringCoordinatesList.add(positionsList);
-            }
-        }
-        return multiLineStringCoordinatesList;
+        return PackedPositionsDeserializer.readLines(jsonParser, ctxt);
     }
 }
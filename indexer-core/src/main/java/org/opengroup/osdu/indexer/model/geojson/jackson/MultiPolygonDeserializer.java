@@ -18,10 +18,10 @@
 package org.opengroup.osdu.indexer.model.geojson.jackson;
 
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -32,20 +32,17 @@ public class MultiPolygonDeserializer extends JsonDeserializer<List<List<List<Po
     @Override
     public List<List<List<Position>>> deserialize(JsonParser jsonParser, DeserializationContext ctxt) throws IOException {
         List<List<List<Position>>> multiPolygonCoordinatesList = new ArrayList<>();
-        ObjectCodec codec = jsonParser.getCodec();
-        JsonNode coordinatesNodes = codec.readTree(jsonParser);
-        if (coordinatesNodes.isArray()) {
-            for (JsonNode innerNodes : coordinatesNodes) {
-                ArrayList<List<Position>> innerList = new ArrayList<>();
-                for (JsonNode jsonNode : innerNodes) {
-                    ArrayList<Position> positionsList = new ArrayList<>();
-                    for (JsonNode positionNode : jsonNode) {
-                        positionsList.add(codec.treeToValue(positionNode, Position.class));
-                    }
-                    innerList.add(positionsList);
-                }
-                multiPolygonCoordinatesList.add(innerList);
+        if (!jsonParser.isExpectedStartArrayToken()) {
+            jsonParser.skipChildren();
+            return multiPolygonCoordinatesList;
+        }
+
+        JsonToken token;
+        while ((token = jsonParser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw JsonMappingException.from(ctxt, "Unexpected end-of-input when binding data into Position");
             }
+            multiPolygonCoordinatesList.add(PackedPositionsDeserializer.readLines(jsonParser, ctxt));
         }
         return multiPolygonCoordinatesList;
     }
@@ -0,0 +1,117 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.model.geojson.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import org.opengroup.osdu.indexer.model.geojson.PackedPositions;
+import org.opengroup.osdu.indexer.model.geojson.Position;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the positions of a line or a polygon ring straight into {@link PackedPositions}, without creating a
+ * {@link Position} per point. Positions are validated, and reported, like {@link PositionDeserializer} does.
+ */
+public class PackedPositionsDeserializer extends JsonDeserializer<List<Position>> {
+
+    @Override
+    public List<Position> deserialize(JsonParser jsonParser, DeserializationContext context) throws IOException {
+        return readPositions(jsonParser, context);
+    }
+
+    /**
+     * @return the positions of the array at the current token, empty if the current token is not an array
+     */
+    public static PackedPositions readPositions(JsonParser jsonParser, DeserializationContext context) throws IOException {
+        PackedPositions positions = new PackedPositions();
+        if (!jsonParser.isExpectedStartArrayToken()) {
+            jsonParser.skipChildren();
+            return positions;
+        }
+
+        JsonToken token;
+        while ((token = jsonParser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_ARRAY) {
+                throw JsonMappingException.from(context, token == null
+                        ? "Unexpected end-of-input when binding data into Position"
+                        : "Cannot deserialize instance of " + Position.class.getName());
+            }
+            double longitude = extractDouble(jsonParser, context, false);
+            double latitude = extractDouble(jsonParser, context, false);
+            double altitude = extractDouble(jsonParser, context, true);
+            if (!Double.isNaN(altitude)) {
+                skipToEndOfPosition(jsonParser, context);
+            }
+            positions.add(longitude, latitude, altitude);
+        }
+        return positions;
+    }
+
+    /**
+     * @return the lines, or rings, of the array at the current token, empty if the current token is not an array
+     */
+    public static List<List<Position>> readLines(JsonParser jsonParser, DeserializationContext context) throws IOException {
+        List<List<Position>> lines = new ArrayList<>();
+        if (!jsonParser.isExpectedStartArrayToken()) {
+            jsonParser.skipChildren();
+            return lines;
+        }
+
+        JsonToken token;
+        while ((token = jsonParser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw JsonMappingException.from(context, "Unexpected end-of-input when binding data into Position");
+            }
+            lines.add(readPositions(jsonParser, context));
+        }
+        return lines;
+    }
+
+    // Returns NaN when the position is complete, after having consumed its END_ARRAY
+    private static double extractDouble(JsonParser jsonParser, DeserializationContext context, boolean optional) throws IOException {
+        JsonToken token = jsonParser.nextToken();
+        if (token == JsonToken.END_ARRAY && optional) {
+            return Double.NaN;
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return jsonParser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return jsonParser.getLongValue();
+        }
+        if (token == null || token == JsonToken.END_ARRAY) {
+            throw JsonMappingException.from(context, "Unexpected end-of-input when binding data into Position");
+        }
+        throw JsonMappingException.from(context, "Unexpected token (" + token.name() + ") when binding data into Position");
+    }
+
+    // Extra values of a position, e.g. a measure, are ignored
+    private static void skipToEndOfPosition(JsonParser jsonParser, DeserializationContext context) throws IOException {
+        JsonToken token;
+        while ((token = jsonParser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw JsonMappingException.from(context, "Unexpected end-of-input when binding data into Position");
+            }
+            jsonParser.skipChildren();
+        }
+    }
+}
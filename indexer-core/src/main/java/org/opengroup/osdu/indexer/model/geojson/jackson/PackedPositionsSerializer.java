@@ -0,0 +1,41 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.model.geojson.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.opengroup.osdu.indexer.model.geojson.PackedPositions;
+
+import java.io.IOException;
+
+public class PackedPositionsSerializer extends JsonSerializer<PackedPositions> {
+
+    @Override
+    public void serialize(PackedPositions value, JsonGenerator jsonGenerator, SerializerProvider provider) throws IOException {
+        jsonGenerator.writeStartArray();
+        for (int i = 0; i < value.size(); i++) {
+            jsonGenerator.writeStartArray();
+            jsonGenerator.writeNumber(value.getLongitude(i));
+            jsonGenerator.writeNumber(value.getLatitude(i));
+            if (value.hasAltitude(i)) {
+                jsonGenerator.writeNumber(value.getAltitude(i));
+            }
+            jsonGenerator.writeEndArray();
+        }
+        jsonGenerator.writeEndArray();
+    }
+}
@@ -15,16 +15,23 @@
 
 package org.opengroup.osdu.indexer.model.indexproperty;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Strings;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import lombok.ToString;
+import org.opengroup.osdu.indexer.util.PropertyPathTrie;
+import org.opengroup.osdu.indexer.util.PropertyUtil;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -54,6 +61,42 @@ public class AugmenterConfiguration {
     @JsonProperty("Configurations")
     private List<PropertyConfiguration> configurations;
 
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient volatile Map<String, PropertyPathTrie> relatedObjectValuePathTries;
+
+    /**
+     * The value paths extended from the related objects, grouped by related object kind. They are built once and
+     * kept with the configuration in the cache.
+     * @return tries of the value paths (without "data." prefix) keyed by related object kind
+     */
+    @JsonIgnore
+    public Map<String, PropertyPathTrie> getRelatedObjectValuePathTries() {
+        Map<String, PropertyPathTrie> tries = relatedObjectValuePathTries;
+        if(tries == null) {
+            Map<String, List<String>> valuePaths = new HashMap<>();
+            if(configurations != null) {
+                for (PropertyConfiguration configuration : configurations) {
+                    if(configuration.getPaths() == null)
+                        continue;
+                    for (PropertyPath path : configuration.getPaths()) {
+                        if (path.hasValidValueExtraction() && path.hasValidRelatedObjectsSpec()) {
+                            valuePaths.computeIfAbsent(path.getRelatedObjectsSpec().getRelatedObjectKind(), k -> new ArrayList<>())
+                                    .add(PropertyUtil.removeDataPrefix(path.getValueExtraction().getValuePath()));
+                        }
+                    }
+                }
+            }
+            tries = new HashMap<>();
+            for (Map.Entry<String, List<String>> entry : valuePaths.entrySet()) {
+                tries.put(entry.getKey(), PropertyPathTrie.of(entry.getValue()));
+            }
+            relatedObjectValuePathTries = tries;
+        }
+        return tries;
+    }
+
     public List<String> getUniqueRelatedObjectKinds() {
         if(configurations == null || configurations.isEmpty())
             return new ArrayList<>();
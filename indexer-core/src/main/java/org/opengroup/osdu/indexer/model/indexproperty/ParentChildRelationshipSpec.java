@@ -15,7 +15,11 @@
 
 package org.opengroup.osdu.indexer.model.indexproperty;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
+import org.opengroup.osdu.indexer.util.PropertyPathTrie;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -27,10 +31,28 @@ public class ParentChildRelationshipSpec {
     private String childKind;
     private List<String> childValuePaths;
 
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private transient volatile PropertyPathTrie childValuePathTrie;
+
     public ParentChildRelationshipSpec() {
         childValuePaths = new ArrayList<>();
     }
 
+    /**
+     * The trie is built on first use, after the spec has been completely merged and cached.
+     * @return trie of the child value paths
+     */
+    @JsonIgnore
+    public PropertyPathTrie getChildValuePathTrie() {
+        PropertyPathTrie trie = childValuePathTrie;
+        if(trie == null) {
+            trie = PropertyPathTrie.of(childValuePaths);
+            childValuePathTrie = trie;
+        }
+        return trie;
+    }
+
     @Override
     public boolean equals(Object another) {
         if(another == null || !(another instanceof ParentChildRelationshipSpec))
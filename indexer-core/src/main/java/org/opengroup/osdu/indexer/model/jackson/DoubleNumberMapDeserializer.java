@@ -0,0 +1,90 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.model.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deserializes an untyped JSON object the way Gson does: every number, integral or not, becomes a {@link Double}.
+ * <p>
+ * Jackson's default binding of {@code Map<String, Object>} turns integral numbers into Integer/Long, which would not
+ * compare equal to the Double values the augmenter reads from Gson decoded storage records.
+ * </p>
+ */
+public class DoubleNumberMapDeserializer extends JsonDeserializer<Map<String, Object>> {
+
+    @Override
+    public Map<String, Object> deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException {
+        JsonToken token = jsonParser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            jsonParser.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return deserializationContext.reportWrongTokenException(this, JsonToken.START_OBJECT, "Expected a JSON object");
+        }
+        return readObject(jsonParser, deserializationContext);
+    }
+
+    private Map<String, Object> readObject(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        // the parser is positioned on the first field name or on the closing brace
+        for (JsonToken token = jsonParser.currentToken(); token == JsonToken.FIELD_NAME; token = jsonParser.nextToken()) {
+            String fieldName = jsonParser.currentName();
+            jsonParser.nextToken();
+            map.put(fieldName, readValue(jsonParser, deserializationContext));
+        }
+        return map;
+    }
+
+    private List<Object> readArray(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException {
+        List<Object> list = new ArrayList<>();
+        while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+            list.add(readValue(jsonParser, deserializationContext));
+        }
+        return list;
+    }
+
+    private Object readValue(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException {
+        switch (jsonParser.currentToken()) {
+            case START_OBJECT:
+                jsonParser.nextToken();
+                return readObject(jsonParser, deserializationContext);
+            case START_ARRAY:
+                return readArray(jsonParser, deserializationContext);
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return jsonParser.getDoubleValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                return jsonParser.getText();
+            default:
+                return deserializationContext.handleUnexpectedToken(Object.class, jsonParser);
+        }
+    }
+}
@@ -17,18 +17,51 @@ package org.opengroup.osdu.indexer.schema.converter.tags;
 
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import org.opengroup.osdu.indexer.util.PropertyPathTrie;
+import org.opengroup.osdu.indexer.util.PropertyUtil;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Data
 public class VirtualProperties {
     private Map<String, VirtualProperty> items = new HashMap<>();
 
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient volatile PropertyPathTrie priorityPathTrie;
+
     @JsonAnySetter
     public void add(String key, VirtualProperty value) {
         items.put(key, value);
+        priorityPathTrie = null;
+    }
+
+    /**
+     * @return trie of the paths (without "data." prefix) of the original properties of all virtual properties
+     */
+    @JsonIgnore
+    public PropertyPathTrie getPriorityPathTrie() {
+        PropertyPathTrie trie = priorityPathTrie;
+        if (trie == null) {
+            List<String> paths = new ArrayList<>();
+            for (VirtualProperty property : items.values()) {
+                if (property != null && property.getPriorities() != null) {
+                    property.getPriorities().forEach(priority -> paths.add(PropertyUtil.removeDataPrefix(priority.getPath())));
+                }
+            }
+            trie = PropertyPathTrie.of(paths);
+            priorityPathTrie = trie;
+        }
+        return trie;
     }
 
     @JsonAnyGetter
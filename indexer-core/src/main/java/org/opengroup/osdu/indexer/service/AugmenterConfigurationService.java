@@ -20,6 +20,7 @@ import org.opengroup.osdu.core.common.model.storage.Schema;
 import org.opengroup.osdu.core.common.model.storage.SchemaItem;
 import org.opengroup.osdu.indexer.model.SearchRecord;
 import org.opengroup.osdu.indexer.model.indexproperty.AugmenterConfiguration;
+import org.opengroup.osdu.indexer.model.indexproperty.AugmenterRecord;
 
 import java.util.List;
 import java.util.Map;
@@ -31,12 +32,24 @@ public interface AugmenterConfigurationService {
 
     Map<String, Object> getExtendedProperties(String objectId, Map<String, Object> originalDataMap, AugmenterConfiguration propertyConfigurations);
 
+    /**
+     * Batch version of {@link #getExtendedProperties(String, Map, AugmenterConfiguration)}. The related objects and the
+     * children of all the given records are searched together before the extended properties of each record are extracted.
+     * The records refer to each other through their given data, rather than through the cache or the index, and a parent
+     * is resolved before its children of the same batch, so that they see its fresh and extended properties.
+     *
+     * @return extended properties of each record, in the order of the given records
+     */
+    List<Map<String, Object>> getExtendedProperties(List<AugmenterRecord> augmenterRecords);
+
     List<SchemaItem> getExtendedSchemaItems(Schema originalSchema, Map<String, Schema> relatedObjectKindSchemas, AugmenterConfiguration propertyConfigurations);
 
     String resolveConcreteKind(String kind);
 
     void cacheDataRecord(String recordId, String kind, Map<String, Object> dataMap);
 
+    void removeDataRecords(List<String> recordIds);
+
     void updateAssociatedRecords(RecordChangedMessages message, Map<String, List<String>> upsertKindIds, Map<String, List<String>> deleteKindIds, List<SearchRecord> deletedRecordsWithParentReferred);
 
     List<String> getRelatedKindsOfConfigurations(List<String> configurationIds);
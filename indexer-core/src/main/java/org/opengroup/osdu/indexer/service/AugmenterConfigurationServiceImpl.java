@@ -41,7 +41,9 @@ import org.opengroup.osdu.indexer.model.*;
 import org.opengroup.osdu.indexer.model.indexproperty.*;
 import org.opengroup.osdu.indexer.util.QueryUtil;
 import org.opengroup.osdu.indexer.util.IndexerQueueTaskBuilder;
+import org.opengroup.osdu.indexer.util.PropertyPathTrie;
 import org.opengroup.osdu.indexer.util.PropertyUtil;
+import org.opengroup.osdu.indexer.util.WatchedPropertyChangeDetector;
 import org.opengroup.osdu.indexer.util.SearchClient;
 import org.opengroup.osdu.indexer.util.function.AugmenterFunctionFactory;
 import org.opengroup.osdu.indexer.util.function.IAugmenterFunction;
@@ -50,7 +52,7 @@ import org.springframework.stereotype.Component;
 
 import jakarta.inject.Inject;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 
 @Component
@@ -94,6 +96,8 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
     @Inject
     private RecordChangeInfoCache recordChangeInfoCache;
     @Inject
+    private ChasingMessageCache chasingMessageCache;
+    @Inject
     private SchemaService schemaService;
     @Inject
     private IndexerQueueTaskBuilder indexerQueueTaskBuilder;
@@ -111,6 +115,13 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
     @Value("${augmenter.extended_list_value.max_size:2000}")
     int maxSizeOfExtendedListValue;
 
+    @Value("${augmenter.batch_resolution.max_ids_per_query:500}")
+    int maxIdsPerQuery = 500;
+
+    // Must stay well below CHASING_MESSAGE_DELAY_SECONDS so that a coalesced update is visible when the waiting message is delivered
+    @Value("${augmenter.chasing.coalesce.window.milliseconds:20000}")
+    long chasingCoalesceWindowMillis = 20000;
+
     @Override
     public boolean isConfigurationEnabled(String kind) {
         kind = PropertyUtil.getKindWithMajor(kind);
@@ -183,9 +194,94 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
 
     @Override
     public Map<String, Object> getExtendedProperties(String objectId, Map<String, Object> originalDataMap, AugmenterConfiguration augmenterConfiguration) {
-        // Get all data maps of the related objects in one query in order to improve the performance.
-        Map<String, Map<String, Object>> idObjectDataMap = getRelatedObjectsData(originalDataMap, augmenterConfiguration);
+        AugmenterRecord augmenterRecord = new AugmenterRecord(objectId, null, originalDataMap, augmenterConfiguration);
+        return getExtendedProperties(List.of(augmenterRecord)).get(0);
+    }
+
+    @Override
+    public List<Map<String, Object>> getExtendedProperties(List<AugmenterRecord> augmenterRecords) {
+        // The records of the batch are fresher than the cache and the index, so a record refers to the other records
+        // of the batch through their data maps. A parent of the batch is resolved before its children, so that they
+        // also get the properties it extends, as if each record had been merged and cached one after the other.
+        Map<String, Map<String, Object>> batchDataMaps = new HashMap<>();
+        for (AugmenterRecord augmenterRecord : augmenterRecords) {
+            if (augmenterRecord.getId() != null) {
+                batchDataMaps.put(augmenterRecord.getId(), augmenterRecord.getDataMap());
+            }
+        }
+
+        // Get all data maps of the related objects and all the children records of the whole batch in a few queries
+        // in order to improve the performance.
+        Map<String, Map<String, Object>> idObjectDataMap = getRelatedObjectsData(augmenterRecords, batchDataMaps.keySet());
+        idObjectDataMap.putAll(batchDataMaps);
+        Map<ChildrenQuery, Map<String, List<SearchRecord>>> childrenRecordsByQuery = getChildrenRecords(augmenterRecords);
+
+        List<Map<String, Object>> extendedDataMaps = new ArrayList<>(Collections.nCopies(augmenterRecords.size(), null));
+        for (int i : getResolutionOrder(augmenterRecords)) {
+            AugmenterRecord augmenterRecord = augmenterRecords.get(i);
+            Map<String, Object> extendedDataMap = getExtendedProperties(augmenterRecord.getId(), augmenterRecord.getDataMap(), augmenterRecord.getConfiguration(),
+                    idObjectDataMap, childrenRecordsByQuery, batchDataMaps);
+            extendedDataMaps.set(i, extendedDataMap);
+            if (augmenterRecord.getId() != null && !extendedDataMap.isEmpty()) {
+                Map<String, Object> mergedDataMap = new HashMap<>(augmenterRecord.getDataMap());
+                mergedDataMap.putAll(extendedDataMap);
+                idObjectDataMap.put(augmenterRecord.getId(), mergedDataMap);
+                batchDataMaps.put(augmenterRecord.getId(), mergedDataMap);
+            }
+        }
+        return extendedDataMaps;
+    }
+
+    /**
+     * @return the indexes of the given records, each parent of the batch before its children of the batch
+     */
+    private List<Integer> getResolutionOrder(List<AugmenterRecord> augmenterRecords) {
+        Map<String, Integer> batchIndexes = new HashMap<>();
+        for (int i = 0; i < augmenterRecords.size(); i++) {
+            if (augmenterRecords.get(i).getId() != null) {
+                batchIndexes.putIfAbsent(augmenterRecords.get(i).getId(), i);
+            }
+        }
+        List<Integer> order = new ArrayList<>(augmenterRecords.size());
+        boolean[] visited = new boolean[augmenterRecords.size()];
+        for (int i = 0; i < augmenterRecords.size(); i++) {
+            addToResolutionOrder(i, augmenterRecords, batchIndexes, visited, order);
+        }
+        return order;
+    }
 
+    private void addToResolutionOrder(int index, List<AugmenterRecord> augmenterRecords, Map<String, Integer> batchIndexes, boolean[] visited, List<Integer> order) {
+        if (visited[index]) {
+            // already resolved, or a cycle of references, which is resolved in the order of the batch
+            return;
+        }
+        visited[index] = true;
+        for (String parentId : getParentObjectIds(augmenterRecords.get(index))) {
+            Integer parentIndex = batchIndexes.get(parentId);
+            if (parentIndex != null) {
+                addToResolutionOrder(parentIndex, augmenterRecords, batchIndexes, visited, order);
+            }
+        }
+        order.add(index);
+    }
+
+    private Set<String> getParentObjectIds(AugmenterRecord augmenterRecord) {
+        Set<String> parentIds = new HashSet<>();
+        for (PropertyConfiguration configuration : augmenterRecord.getConfiguration().getConfigurations().stream().filter(c -> c.isValid()).toList()) {
+            for (PropertyPath path : configuration.getPaths().stream().filter(p -> p.hasValidValueExtraction()).toList()) {
+                if (path.hasValidRelatedObjectsSpec() && path.getRelatedObjectsSpec().isChildToParent()) {
+                    for (String relatedObjectId : getRelatedObjectIds(augmenterRecord.getDataMap(), path.getRelatedObjectsSpec())) {
+                        parentIds.add(PropertyUtil.removeIdPostfix(relatedObjectId));
+                    }
+                }
+            }
+        }
+        return parentIds;
+    }
+
+    private Map<String, Object> getExtendedProperties(String objectId, Map<String, Object> originalDataMap, AugmenterConfiguration augmenterConfiguration,
+                                                      Map<String, Map<String, Object>> idObjectDataMap, Map<ChildrenQuery, Map<String, List<SearchRecord>>> childrenRecordsByQuery,
+                                                      Map<String, Map<String, Object>> batchDataMaps) {
         Set<String> associatedIdentities = new HashSet<>();
         Map<String, Object> extendedDataMap = new HashMap<>();
         for (PropertyConfiguration configuration : augmenterConfiguration.getConfigurations().stream().filter(c -> c.isValid()).toList()) {
@@ -215,12 +311,16 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
                             }
                         }
                     } else {
-                        List<SearchRecord> childrenRecords = searchChildrenRecords(relatedObjectsSpec.getRelatedObjectKind(), relatedObjectsSpec.getRelatedObjectID(), objectId);
+                        List<SearchRecord> childrenRecords = childrenRecordsByQuery.getOrDefault(ChildrenQuery.of(relatedObjectsSpec), Collections.emptyMap())
+                                .getOrDefault(objectId, Collections.emptyList());
                         for (SearchRecord searchRecord : childrenRecords) {
-                            // If the child record is in the cache, that means the searchRecord was updated very recently.
-                            // In this case, use the cache's record instead of the searchRecord from search result
-                            RecordData cachedRecordData = this.relatedObjectCache.get(searchRecord.getId());
-                            Map<String, Object> childDataMap = (cachedRecordData != null)? cachedRecordData.getData() : searchRecord.getData();
+                            // If the child record is in the batch or in the cache, that means the searchRecord was updated very recently.
+                            // In this case, use the batch's or the cache's record instead of the searchRecord from search result
+                            Map<String, Object> childDataMap = batchDataMaps.get(searchRecord.getId());
+                            if (childDataMap == null) {
+                                RecordData cachedRecordData = this.relatedObjectCache.get(searchRecord.getId());
+                                childDataMap = (cachedRecordData != null)? cachedRecordData.getData() : searchRecord.getData();
+                            }
                             Map<String, Object> propertyValues = getExtendedPropertyValues(extendedPropertyName, childDataMap, path.getValueExtraction(), configuration.isExtractFirstMatch());
                             if (allPropertyValues.isEmpty() && configuration.isExtractFirstMatch()) {
                                 allPropertyValues = propertyValues;
@@ -326,23 +426,23 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
             recordInfo.setOp(OperationType.create.getValue());
         } else {
             recordInfo.setOp(OperationType.update.getValue());
-            List<String> updatedProperties = PropertyUtil.getChangedProperties(previousDataMap, dataMap);
-
             RecordChangeInfo previousChangedInfo = recordChangeInfoCache.get(recordId);
-            if(previousChangedInfo != null) {
-                if(previousChangedInfo.getRecordInfo().getOp().equals(OperationType.create.getValue())) {
-                    recordInfo.setOp(OperationType.create.getValue());
-                }
-                else if(previousChangedInfo.getUpdatedProperties() != null) {
+            if(previousChangedInfo != null && previousChangedInfo.getRecordInfo().getOp().equals(OperationType.create.getValue())) {
+                // Still a new record for the chasing, no need to diff it
+                recordInfo.setOp(OperationType.create.getValue());
+            }
+            else {
+                // Only the properties extended by the parent or children kinds can trigger the chasing,
+                // so only their values are compared
+                List<String> updatedProperties = WatchedPropertyChangeDetector.getChangedProperties(previousDataMap, dataMap, getWatchedPropertyPaths(kind));
+                if(previousChangedInfo != null && previousChangedInfo.getUpdatedProperties() != null) {
                     previousChangedInfo.getUpdatedProperties().forEach(p -> {
                         if(!updatedProperties.contains(p))
                             updatedProperties.add(p);
                     });
                 }
-            }
-
-            if(recordInfo.getOp().equals(OperationType.update.getValue()))
                 changedInfo.setUpdatedProperties(updatedProperties);
+            }
         }
         recordChangeInfoCache.put(recordId, changedInfo);
         RecordData recordData = new RecordData();
@@ -350,6 +450,14 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
         relatedObjectCache.put(recordId, recordData);
     }
 
+    @Override
+    public void removeDataRecords(List<String> recordIds) {
+        // Deleted records must not be served as related objects until their cache entries expire
+        for (String recordId : recordIds) {
+            relatedObjectCache.delete(recordId);
+        }
+    }
+
     @Override
     public void updateAssociatedRecords(RecordChangedMessages message, Map<String, List<String>> upsertKindIds,
                                         Map<String, List<String>> deleteKindIds, List<SearchRecord> deletedRecordsWithParentReferred) {
@@ -456,11 +564,71 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
         return extendedSchemaItem;
     }
 
-    private String createIdsQuery(List<String> ids) {
-        return String.format("id: (%s)", QueryUtil.createIdsFilter(ids));
+    private void createWorkerTask(String ancestors, List<RecordInfo> recordInfos) {
+        if (!isChasingCoalesceEnabled()) {
+            publishWorkerTask(ancestors, recordInfos);
+            return;
+        }
+        List<RecordInfo> uncoveredRecordInfos = coalesceChasingUpdates(ancestors, recordInfos);
+        if (uncoveredRecordInfos.isEmpty()) {
+            return;
+        }
+        publishWorkerTask(ancestors, uncoveredRecordInfos);
+        // only a message that was actually published can cover later updates
+        ChasingMessageInfo published = new ChasingMessageInfo(ancestors, System.currentTimeMillis());
+        for (RecordInfo recordInfo : uncoveredRecordInfos) {
+            chasingMessageCache.put(chasingMessageKey(recordInfo), published);
+        }
     }
 
-    private void createWorkerTask(String ancestors, List<RecordInfo> recordInfos) {
+    /**
+     * Coalescing relies on the chasing message waiting CHASING_MESSAGE_DELAY_SECONDS before its delivery. Queues that
+     * deliver it right away, e.g. on Azure and AWS, could have processed the pending message already, so every update
+     * is published there.
+     */
+    private boolean isChasingCoalesceEnabled() {
+        return chasingCoalesceWindowMillis > 0 && indexerQueueTaskBuilder.isDelayedDeliverySupported();
+    }
+
+    /**
+     * A record that already has a chasing message waiting for its delivery does not need another one for an update that
+     * happens shortly after: the waiting message will re-index the record when the update is visible. This only holds if
+     * the waiting message does not exclude more ancestry kinds from further chasing than the update; otherwise the
+     * update is published with its own ancestry kinds, which are never narrowed so that circular chasing stays stopped.
+     * @return the record infos not covered by a waiting message
+     */
+    private List<RecordInfo> coalesceChasingUpdates(String ancestors, List<RecordInfo> recordInfos) {
+        List<RecordInfo> uncoveredRecordInfos = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        Set<String> ancestrySet = toAncestrySet(ancestors);
+        for (RecordInfo recordInfo : recordInfos) {
+            ChasingMessageInfo pending = chasingMessageCache.get(chasingMessageKey(recordInfo));
+            if (pending != null && now - pending.getPublishedAtMillis() < chasingCoalesceWindowMillis
+                    && ancestrySet.containsAll(toAncestrySet(pending.getAncestors()))) {
+                continue;
+            }
+            uncoveredRecordInfos.add(recordInfo);
+        }
+        return uncoveredRecordInfos;
+    }
+
+    private String chasingMessageKey(RecordInfo recordInfo) {
+        return recordInfo.getKind() + ANCESTRY_KINDS_DELIMITER + recordInfo.getId();
+    }
+
+    private Set<String> toAncestrySet(String ancestors) {
+        Set<String> ancestrySet = new LinkedHashSet<>();
+        if (!Strings.isNullOrEmpty(ancestors)) {
+            for (String kind : ancestors.split(ANCESTRY_KINDS_DELIMITER)) {
+                if (!kind.isEmpty()) {
+                    ancestrySet.add(kind);
+                }
+            }
+        }
+        return ancestrySet;
+    }
+
+    private void publishWorkerTask(String ancestors, List<RecordInfo> recordInfos) {
         Map<String, String> attributes = new HashMap<>();
         DpsHeaders headers = this.requestInfo.getHeadersWithDwdAuthZ();
         attributes.put(DpsHeaders.ACCOUNT_ID, headers.getAccountId());
@@ -479,8 +647,7 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
         RecordData recordData = relatedObjectCache.get(id);
         Map<String, Object> data = (recordData != null)? recordData.getData() : null;
         if (data == null) {
-            String queryString = String.format("id: \"%s\"", id);
-            Query query = QueryUtil.createSimpleTextQuery(queryString);
+            Query query = QueryUtil.createIdsQuery(List.of(id));
             SearchRecord searchRecord = searchFirstRecord(kind, query);
             if (searchRecord != null) {
                 data = searchRecord.getData();
@@ -493,19 +660,17 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
         return data;
     }
 
-    private Map<String, Map<String, Object>> getRelatedObjectsData(Map<String, Object> originalDataMap, AugmenterConfiguration augmenterConfiguration) {
+    private Map<String, Map<String, Object>> getRelatedObjectsData(List<AugmenterRecord> augmenterRecords, Set<String> batchRecordIds) {
         Map<String, Map<String, Object>> idData = new HashMap<>();
         Map<String, Set<String>> kindIds = new HashMap<>();
-        for (PropertyConfiguration configuration : augmenterConfiguration.getConfigurations().stream().filter(c -> c.isValid()).toList()) {
-            for (PropertyPath path : configuration.getPaths().stream().filter(p -> p.hasValidValueExtraction()).toList()) {
-                if (path.hasValidRelatedObjectsSpec()) {
-                    RelatedObjectsSpec relatedObjectsSpec = path.getRelatedObjectsSpec();
-                    List<String> relatedObjectIds = getRelatedObjectIds(originalDataMap, relatedObjectsSpec);
-                    String relatedObjectKind = relatedObjectsSpec.getRelatedObjectKind();
-                    if(!kindIds.containsKey(relatedObjectKind)) {
-                        kindIds.put(relatedObjectKind, new HashSet<>());
+        for (AugmenterRecord augmenterRecord : augmenterRecords) {
+            for (PropertyConfiguration configuration : augmenterRecord.getConfiguration().getConfigurations().stream().filter(c -> c.isValid()).toList()) {
+                for (PropertyPath path : configuration.getPaths().stream().filter(p -> p.hasValidValueExtraction()).toList()) {
+                    if (path.hasValidRelatedObjectsSpec() && path.getRelatedObjectsSpec().isChildToParent()) {
+                        RelatedObjectsSpec relatedObjectsSpec = path.getRelatedObjectsSpec();
+                        List<String> relatedObjectIds = getRelatedObjectIds(augmenterRecord.getDataMap(), relatedObjectsSpec);
+                        kindIds.computeIfAbsent(relatedObjectsSpec.getRelatedObjectKind(), k -> new HashSet<>()).addAll(relatedObjectIds);
                     }
-                    kindIds.get(relatedObjectKind).addAll(relatedObjectIds);
                 }
             }
         }
@@ -516,6 +681,10 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
             for (Map.Entry<String, Set<String>> entry : kindIds.entrySet()) {
                 for (String recordId : entry.getValue()) {
                     String id = PropertyUtil.removeIdPostfix(recordId);
+                    if (batchRecordIds.contains(id)) {
+                        // taken from the batch
+                        continue;
+                    }
                     RecordData recordData = relatedObjectCache.get(id);
                     Map<String, Object> data = (recordData != null)? recordData.getData() : null;
                     if (data != null) {
@@ -526,8 +695,10 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
                     }
                 }
             }
-            if (!kindsToSearch.isEmpty()) {
-                List<SearchRecord> records = searchRelatedRecords(kindsToSearch, idsToSearch);
+            for (int from = 0; from < idsToSearch.size(); from += getMaxIdsPerQuery()) {
+                int to = Math.min(idsToSearch.size(), from + getMaxIdsPerQuery());
+                List<String> kinds = new ArrayList<>(new LinkedHashSet<>(kindsToSearch.subList(from, to)));
+                List<SearchRecord> records = searchRelatedRecords(kinds, idsToSearch.subList(from, to));
                 for (SearchRecord searchRecord : records) {
                     Map<String, Object> data = searchRecord.getData();
                     String id = searchRecord.getId();
@@ -541,6 +712,76 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
         return idData;
     }
 
+    private Map<ChildrenQuery, Map<String, List<SearchRecord>>> getChildrenRecords(List<AugmenterRecord> augmenterRecords) {
+        Map<ChildrenQuery, Set<String>> queryParentIds = new LinkedHashMap<>();
+        for (AugmenterRecord augmenterRecord : augmenterRecords) {
+            Map<String, Object> originalDataMap = augmenterRecord.getDataMap();
+            for (PropertyConfiguration configuration : augmenterRecord.getConfiguration().getConfigurations().stream().filter(c -> c.isValid()).toList()) {
+                if (originalDataMap.get(configuration.getExtendedPropertyName()) != null) {
+                    // the property won't be extended, see getExtendedProperties
+                    continue;
+                }
+                for (PropertyPath path : configuration.getPaths().stream().filter(p -> p.hasValidValueExtraction()).toList()) {
+                    if (path.hasValidRelatedObjectsSpec() && !path.getRelatedObjectsSpec().isChildToParent()) {
+                        queryParentIds.computeIfAbsent(ChildrenQuery.of(path.getRelatedObjectsSpec()), k -> new LinkedHashSet<>()).add(augmenterRecord.getId());
+                    }
+                }
+            }
+        }
+
+        Map<ChildrenQuery, Map<String, List<SearchRecord>>> childrenRecordsByQuery = new HashMap<>();
+        for (Map.Entry<ChildrenQuery, Set<String>> entry : queryParentIds.entrySet()) {
+            ChildrenQuery childrenQuery = entry.getKey();
+            List<String> parentIds = new ArrayList<>(entry.getValue());
+            Map<String, List<SearchRecord>> parentChildrenRecords = new HashMap<>();
+            for (int from = 0; from < parentIds.size(); from += getMaxIdsPerQuery()) {
+                List<String> chunk = parentIds.subList(from, Math.min(parentIds.size(), from + getMaxIdsPerQuery()));
+                List<SearchRecord> childrenRecords = searchChildrenRecords(childrenQuery.childrenObjectKind(), childrenQuery.childrenObjectField(), chunk);
+                if (chunk.size() == 1) {
+                    parentChildrenRecords.put(chunk.get(0), childrenRecords);
+                    continue;
+                }
+                Set<String> chunkParentIds = new HashSet<>(chunk);
+                for (SearchRecord childRecord : childrenRecords) {
+                    for (String parentId : getReferredParentIds(childRecord, childrenQuery.childrenObjectField(), chunkParentIds)) {
+                        parentChildrenRecords.computeIfAbsent(parentId, k -> new ArrayList<>()).add(childRecord);
+                    }
+                }
+            }
+            childrenRecordsByQuery.put(childrenQuery, parentChildrenRecords);
+        }
+        return childrenRecordsByQuery;
+    }
+
+    private Set<String> getReferredParentIds(SearchRecord childRecord, String childrenObjectField, Set<String> parentIds) {
+        Set<String> referredParentIds = new HashSet<>();
+        if (childRecord.getData() == null) {
+            return referredParentIds;
+        }
+        for (Object value : getPropertyValues(childRecord.getData(), childrenObjectField, null, false, false).values()) {
+            for (Object reference : (value instanceof List<?> references) ? references : List.of(value)) {
+                if (reference == null) {
+                    continue;
+                }
+                String referredId = PropertyUtil.removeIdPostfix(reference.toString());
+                if (parentIds.contains(referredId)) {
+                    referredParentIds.add(referredId);
+                } else {
+                    // reference with version
+                    int idx = referredId.lastIndexOf(':');
+                    if (idx > 0 && parentIds.contains(referredId.substring(0, idx))) {
+                        referredParentIds.add(referredId.substring(0, idx));
+                    }
+                }
+            }
+        }
+        return referredParentIds;
+    }
+
+    private int getMaxIdsPerQuery() {
+        return Math.max(1, maxIdsPerQuery);
+    }
+
     private Map<String, List<RecordChangeInfo>> createRecordChangeInfoMap(Map<String, List<String>> upsertKindIds, Map<String, List<String>> deleteKindIds) {
         Map<String, List<RecordChangeInfo>> recordChangeInfoMap = new HashMap<>();
         for (Map.Entry<String, List<String>> entry : upsertKindIds.entrySet()) {
@@ -800,6 +1041,34 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
     }
 
 
+    private Set<String> getWatchedPropertyPaths(String kind) {
+        Set<String> watchedPaths = new HashSet<>();
+        // Properties of this kind extended by its parent kinds
+        ParentChildRelationshipSpecs specs = getParentChildRelatedObjectsSpecs(kind);
+        if(specs != null && specs.getSpecList() != null) {
+            for (ParentChildRelationshipSpec spec : specs.getSpecList()) {
+                watchedPaths.addAll(spec.getChildValuePaths());
+            }
+        }
+
+        // Properties of this kind extended by its children kinds
+        for (String childKind : getChildrenKinds(kind)) {
+            AugmenterConfiguration augmenterConfiguration = this.getConfiguration(childKind);
+            if(augmenterConfiguration == null)
+                continue;
+
+            for (PropertyConfiguration propertyConfiguration : augmenterConfiguration.getConfigurations()) {
+                for (PropertyPath propertyPath : propertyConfiguration.getPaths()) {
+                    if (propertyPath.hasValidValueExtraction() && propertyPath.hasValidRelatedObjectsSpec() &&
+                        PropertyUtil.hasSameMajorKind(kind, propertyPath.getRelatedObjectsSpec().getRelatedObjectKind())) {
+                        watchedPaths.add(PropertyUtil.removeDataPrefix(propertyPath.getValueExtraction().getValuePath()));
+                    }
+                }
+            }
+        }
+        return watchedPaths;
+    }
+
     private List<String> getChildrenKinds(String parentKind) {
         final String parentKindWithMajor = PropertyUtil.getKindWithMajor(parentKind);
         ChildrenKinds childrenKinds = childrenKindsCache.get(parentKindWithMajor);
@@ -914,15 +1183,9 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
         List<String> childRecordIds = new ArrayList<>();
         for (RecordChangeInfo recordChangeInfo : childRecordChangeInfos) {
             if (recordChangeInfo.getRecordInfo().getOp().equals(OperationType.update.getValue())) {
-                String updatedExtendedProperty = recordChangeInfo.getUpdatedProperties().stream().filter(p -> {
-                    for (String valuePath : spec.getChildValuePaths()) {
-                        if (PropertyUtil.isPropertyPathMatched(valuePath, p) ||
-                            PropertyUtil.isPropertyPathMatched(p, valuePath)) {
-                            return true;
-                        }
-                    }
-                    return false;
-                }).findFirst().orElse(null);
+                PropertyPathTrie childValuePathTrie = spec.getChildValuePathTrie();
+                String updatedExtendedProperty = recordChangeInfo.getUpdatedProperties().stream()
+                        .filter(childValuePathTrie::touches).findFirst().orElse(null);
 
                 if (updatedExtendedProperty != null) {
                     // The parent property that is extended by the children was updated
@@ -944,22 +1207,14 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
 
         AugmenterConfiguration augmenterConfiguration = this.getConfiguration(childKind);
         if(augmenterConfiguration != null) {
-            for (PropertyConfiguration propertyConfiguration : augmenterConfiguration.getConfigurations()) {
-                for (PropertyPath propertyPath : propertyConfiguration.getPaths().stream().filter(
-                        p -> p.hasValidValueExtraction() && p.hasValidRelatedObjectsSpec()).toList()) {
-                    String relatedObjectKind = propertyPath.getRelatedObjectsSpec().getRelatedObjectKind();
-                    String valuePath = PropertyUtil.removeDataPrefix(propertyPath.getValueExtraction().getValuePath());
-
-                    // Find any parent record which has changed property that is extended by the child (kind)
-                    RecordChangeInfo parentRecordChangeInfo = parentRecordChangeInfos.stream().filter(info -> {
-                        if (PropertyUtil.hasSameMajorKind(info.getRecordInfo().getKind(), relatedObjectKind)) {
-                            List<String> matchedProperties = info.getUpdatedProperties().stream().filter(
-                                    p -> PropertyUtil.isPropertyPathMatched(p, valuePath) || PropertyUtil.isPropertyPathMatched(valuePath, p)).toList();
-                            return !matchedProperties.isEmpty();
-                        }
-                        return false;
-                    }).findFirst().orElse(null);
-                    if (parentRecordChangeInfo != null) {
+            for (Map.Entry<String, PropertyPathTrie> entry : augmenterConfiguration.getRelatedObjectValuePathTries().entrySet()) {
+                String relatedObjectKind = entry.getKey();
+                PropertyPathTrie valuePathTrie = entry.getValue();
+
+                // Find any parent record which has changed property that is extended by the child (kind)
+                for (RecordChangeInfo info : parentRecordChangeInfos) {
+                    if (PropertyUtil.hasSameMajorKind(info.getRecordInfo().getKind(), relatedObjectKind) &&
+                        info.getUpdatedProperties().stream().anyMatch(valuePathTrie::touches)) {
                         return true;
                     }
                 }
@@ -985,32 +1240,37 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
             multiKinds.add(kindWithMajor);
         }
         List<String> processedIds = recordChangeInfos.stream().map(recordChangeInfo -> recordChangeInfo.getRecordInfo().getId()).toList();
-        String queryString = String.format("data.%s:(%s)", ASSOCIATED_IDENTITIES_PROPERTY, QueryUtil.createIdsFilter(processedIds));
-        Query query = QueryUtil.createSimpleTextQuery(queryString);
         List<String> returnedFields = List.of("kind", "id", "data." + ASSOCIATED_IDENTITIES_PROPERTY);
-        List<SearchRecord> records = this.search(multiKinds, query, null, returnedFields, NO_LIMIT);
 
+        // A popular parent can have a huge number of children. Stream them page by page and enqueue the chasing
+        // tasks as the batches fill up, so that only one page and one batch are held at a time
         List<RecordInfo> recordInfos = new ArrayList<>();
-        for (SearchRecord searchRecord : records) {
-            Map<String, Object> data = searchRecord.getData();
-            if (!data.containsKey(ASSOCIATED_IDENTITIES_PROPERTY) || data.get(ASSOCIATED_IDENTITIES_PROPERTY) == null)
-                continue;
-
-            List<String> associatedParentIds = (List<String>) data.get(ASSOCIATED_IDENTITIES_PROPERTY);
-            List<RecordChangeInfo> associatedParentRecordChangeInfos = recordChangeInfos.stream().filter(
-                    info -> associatedParentIds.contains(info.getRecordInfo().getId())).toList();
-            if (areExtendedPropertiesChanged(searchRecord.getKind(), associatedParentRecordChangeInfos)) {
-                RecordInfo recordInfo = new RecordInfo();
-                recordInfo.setKind(searchRecord.getKind());
-                recordInfo.setId(searchRecord.getId());
-                recordInfo.setOp(OperationType.update.getValue());
-                recordInfos.add(recordInfo);
-
-                if (recordInfos.size() >= configurationProperties.getStorageRecordsByKindBatchSize()) {
-                    createWorkerTask(ancestors, recordInfos);
-                    recordInfos = new ArrayList<>();
+        final int limit = configurationProperties.getStorageRecordsByKindBatchSize();
+        // A child associated with parents of several chunks is found by each of them but is checked once
+        Set<String> processedChildIds = new HashSet<>();
+        for (List<String> chunk : QueryUtil.partitionIds(processedIds, getMaxIdsPerQuery())) {
+            Query query = QueryUtil.createReferencesQuery("data." + ASSOCIATED_IDENTITIES_PROPERTY, chunk);
+            this.search(multiKinds, query, null, returnedFields, NO_LIMIT, page -> {
+                for (SearchRecord searchRecord : page) {
+                    Map<String, Object> data = searchRecord.getData();
+                    if (data == null || !data.containsKey(ASSOCIATED_IDENTITIES_PROPERTY) || data.get(ASSOCIATED_IDENTITIES_PROPERTY) == null)
+                        continue;
+                    if (!processedChildIds.add(searchRecord.getId()))
+                        continue;
+
+                    List<String> associatedParentIds = (List<String>) data.get(ASSOCIATED_IDENTITIES_PROPERTY);
+                    List<RecordChangeInfo> associatedParentRecordChangeInfos = recordChangeInfos.stream().filter(
+                            info -> associatedParentIds.contains(info.getRecordInfo().getId())).toList();
+                    if (areExtendedPropertiesChanged(searchRecord.getKind(), associatedParentRecordChangeInfos)) {
+                        recordInfos.add(createRecordInfo(searchRecord.getKind(), searchRecord.getId(), OperationType.update));
+
+                        if (recordInfos.size() >= limit) {
+                            createWorkerTask(ancestors, recordInfos);
+                            recordInfos.clear();
+                        }
+                    }
                 }
-            }
+            });
         }
         if (!recordInfos.isEmpty()) {
             createWorkerTask(ancestors, recordInfos);
@@ -1124,19 +1384,19 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
                 kind += "*";
             kinds.add(kind);
         }
-        String queryString = createIdsQuery(relatedObjectIds);
-        Query query = QueryUtil.createSimpleTextQuery(queryString);
+        Query query = QueryUtil.createIdsQuery(relatedObjectIds);
         return this.search(kinds, query, null, null, NO_LIMIT);
     }
 
     private Map<String, List<String>> searchKindIds(String majorKind, List<String> ids) {
         String kind = PropertyUtil.isConcreteKind(majorKind) ? majorKind : majorKind + "*";
-        String queryString = createIdsQuery(ids);
-        Query query = QueryUtil.createSimpleTextQuery(queryString);
         List<String> returnedFields = List.of("kind", "id");
 
         Map<String, List<String>> kindIds = new HashMap<>();
-        List<SearchRecord> records = this.search(kind, query, null, returnedFields, NO_LIMIT);
+        List<SearchRecord> records = new ArrayList<>();
+        for (List<String> chunk : QueryUtil.partitionIds(ids, getMaxIdsPerQuery())) {
+            records.addAll(this.search(kind, QueryUtil.createIdsQuery(chunk), null, returnedFields, NO_LIMIT));
+        }
         for (SearchRecord searchRecord : records) {
             if (kindIds.containsKey(searchRecord.getKind())) {
                 kindIds.get(searchRecord.getKind()).add(searchRecord.getId());
@@ -1151,39 +1411,46 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
 
     private List<String> searchUniqueParentIds(String childKind, List<String> childRecordIds, String parentObjectIdPath) {
         Set<String> parentIds = new HashSet<>();
-        String queryString = createIdsQuery(childRecordIds);
-        Query query = QueryUtil.createSimpleTextQuery(queryString);
         List<String> returnedFields = Arrays.asList(parentObjectIdPath);
+        String parentObjectIdProperty = PropertyUtil.removeDataPrefix(parentObjectIdPath);
 
-        List<SearchRecord> searchRecords = this.search(childKind, query, null, returnedFields, NO_LIMIT);
-        parentObjectIdPath = PropertyUtil.removeDataPrefix(parentObjectIdPath);
-        Map<String, SearchRecord> idRecords = searchRecords.stream().collect(Collectors.toMap(SearchRecord::getId, record -> record));
+        // The cached data takes precedence. Only the children missing from the cache need to be searched
+        Set<String> uncachedChildRecordIds = new LinkedHashSet<>();
         for(String childRecordId :  childRecordIds) {
             RecordData recordData = this.relatedObjectCache.get(childRecordId);
-            Map<String, Object> data = null;
             if(recordData != null && recordData.getData() != null) {
-                data = recordData.getData();
+                addParentId(recordData.getData(), parentObjectIdProperty, parentIds);
             }
             else {
-                SearchRecord searchRecord = idRecords.getOrDefault(childRecordId, null);
-                if(searchRecord != null) {
-                    data = searchRecord.getData();
-                }
+                uncachedChildRecordIds.add(childRecordId);
             }
-            if(data != null && data.containsKey(parentObjectIdPath)) {
-                Object id = data.get(parentObjectIdPath);
-                if (id != null && !parentIds.contains(id)) {
-                    parentIds.add(id.toString());
+        }
+
+        Set<String> processedChildRecordIds = new HashSet<>();
+        for (List<String> chunk : QueryUtil.partitionIds(new ArrayList<>(uncachedChildRecordIds), getMaxIdsPerQuery())) {
+            this.search(List.of(childKind), QueryUtil.createIdsQuery(chunk), null, returnedFields, NO_LIMIT, page -> {
+                for (SearchRecord searchRecord : page) {
+                    if (processedChildRecordIds.add(searchRecord.getId())) {
+                        addParentId(searchRecord.getData(), parentObjectIdProperty, parentIds);
+                    }
                 }
-            }
+            });
         }
         return new ArrayList<>(parentIds);
     }
 
-    private List<SearchRecord> searchChildrenRecords(String childrenObjectKind, String childrenObjectField, String parentId) {
+    private void addParentId(Map<String, Object> data, String parentObjectIdProperty, Set<String> parentIds) {
+        if(data != null && data.containsKey(parentObjectIdProperty)) {
+            Object id = data.get(parentObjectIdProperty);
+            if (id != null) {
+                parentIds.add(id.toString());
+            }
+        }
+    }
+
+    private List<SearchRecord> searchChildrenRecords(String childrenObjectKind, String childrenObjectField, List<String> parentIds) {
         String kind = PropertyUtil.isConcreteKind(childrenObjectKind) ? childrenObjectKind : childrenObjectKind + "*";
-        String queryString = String.format("%s: \"%s\"", childrenObjectField, parentId);
-        Query query = QueryUtil.createSimpleTextQuery(queryString);
+        Query query = QueryUtil.createReferencesQuery(childrenObjectField, parentIds);
         return this.search(kind, query, null, null, NO_LIMIT);
     }
 
@@ -1214,4 +1481,50 @@ public class AugmenterConfigurationServiceImpl implements AugmenterConfiguration
         }
         return new ArrayList<>();
     }
+
+    /**
+     * Only the search failures are logged and swallowed. A failure of the page consumer, e.g. while publishing a
+     * chasing task, is rethrown to the caller as it would have been without paging.
+     */
+    private void search(List<String> kinds, Query query, List<SortOptions> sortOptions, List<String> returnedFields, int limit, Consumer<List<SearchRecord>> pageConsumer) {
+        try {
+            searchClient.search(kinds, query, sortOptions, returnedFields, limit, page -> {
+                try {
+                    pageConsumer.accept(page);
+                }
+                catch (RuntimeException ex) {
+                    throw new PageConsumerException(ex);
+                }
+            });
+        }
+        catch (PageConsumerException ex) {
+            throw ex.getCause();
+        }
+        catch (Exception ex) {
+            this.jaxRsDpsLog.error(SEARCH_GENERAL_ERROR, ex);
+        }
+    }
+
+    /**
+     * Carries a page consumer failure through the search client, so that it is not taken for a search failure.
+     */
+    private static final class PageConsumerException extends RuntimeException {
+        PageConsumerException(RuntimeException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized RuntimeException getCause() {
+            return (RuntimeException) super.getCause();
+        }
+    }
+
+    /**
+     * Search of the children of the given kind that refer to their parent with the given field.
+     */
+    private record ChildrenQuery(String childrenObjectKind, String childrenObjectField) {
+        static ChildrenQuery of(RelatedObjectsSpec relatedObjectsSpec) {
+            return new ChildrenQuery(relatedObjectsSpec.getRelatedObjectKind(), relatedObjectsSpec.getRelatedObjectID());
+        }
+    }
 }
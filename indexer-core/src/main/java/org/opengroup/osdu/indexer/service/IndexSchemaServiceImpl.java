@@ -17,13 +17,16 @@ package org.opengroup.osdu.indexer.service;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.elasticsearch._types.ElasticsearchException;
 import com.google.common.base.Strings;
+import com.google.common.hash.Hashing;
 import com.google.gson.Gson;
 import jakarta.inject.Inject;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,9 +42,12 @@ import org.opengroup.osdu.core.common.model.storage.Schema;
 import org.opengroup.osdu.core.common.model.storage.SchemaItem;
 import org.opengroup.osdu.core.common.search.ElasticIndexNameResolver;
 import org.opengroup.osdu.indexer.cache.partitionsafe.FlattenedSchemaCache;
+import org.opengroup.osdu.indexer.cache.partitionsafe.FlattenedSchemaObjectCache;
+import org.opengroup.osdu.indexer.cache.partitionsafe.SchemaAccessorPlanCache;
 import org.opengroup.osdu.indexer.cache.partitionsafe.SchemaCache;
 import org.opengroup.osdu.indexer.cache.partitionsafe.VirtualPropertiesSchemaCache;
 import org.opengroup.osdu.indexer.model.Kind;
+import org.opengroup.osdu.indexer.model.VersionedIndexSchema;
 import org.opengroup.osdu.indexer.model.indexproperty.AugmenterConfiguration;
 import org.opengroup.osdu.indexer.schema.converter.exeption.SchemaProcessingException;
 import org.opengroup.osdu.indexer.service.exception.ElasticsearchMappingException;
@@ -73,8 +79,12 @@ public class IndexSchemaServiceImpl implements IndexSchemaService {
     @Inject
     private FlattenedSchemaCache flattenedSchemaCache;
     @Inject
+    private FlattenedSchemaObjectCache flattenedSchemaObjectCache;
+    @Inject
     private VirtualPropertiesSchemaCache virtualPropertiesSchemaCache;
     @Inject
+    private SchemaAccessorPlanCache schemaAccessorPlanCache;
+    @Inject
     private AugmenterConfigurationService augmenterConfigurationService;
     @Inject
     private AugmenterSetting augmenterSetting;
@@ -183,13 +193,19 @@ public class IndexSchemaServiceImpl implements IndexSchemaService {
                 return cacheAndGetFlattenedSchema(kind, schema);
             }
         } else {
+            // schema upserts on other pods refill the shared schema cache, the typed copy of this pod is only valid
+            // if it was built from the schema that is cached now
+            VersionedIndexSchema flatSchemaObj = this.flattenedSchemaObjectCache.get(kind);
+            if (flatSchemaObj != null && flatSchemaObj.schemaHash() == hashSchema(schema)) {
+                return flatSchemaObj.indexSchema();
+            }
             // search flattened schema in memcache
             String flattenedSchema = this.flattenedSchemaCache.get(kind);
             if (Strings.isNullOrEmpty(flattenedSchema)) {
                 schema = this.getSchema(kind, "");
                 return cacheAndGetFlattenedSchema(kind, schema);
             }
-            return this.gson.fromJson(flattenedSchema, IndexSchema.class);
+            return cacheFlattenedSchemaObject(kind, schema, this.gson.fromJson(flattenedSchema, IndexSchema.class));
         }
     }
 
@@ -235,10 +251,34 @@ public class IndexSchemaServiceImpl implements IndexSchemaService {
         IndexSchema flatSchemaObj = normalizeSchema(schema);
         if (flatSchemaObj != null) {
             this.flattenedSchemaCache.put(kind, gson.toJson(flatSchemaObj));
+            flatSchemaObj = cacheFlattenedSchemaObject(kind, schema, flatSchemaObj);
         }
         return flatSchemaObj;
     }
 
+    /**
+     * Keep the parsed flattened schema in the process-local tier so that batches of the same kind share one instance
+     * instead of parsing the cached JSON again. The instance is shared, so its maps are made read-only. It is tagged
+     * with the hash of the schema it was built from, see {@link VersionedIndexSchema}.
+     */
+    private IndexSchema cacheFlattenedSchemaObject(String kind, String schema, IndexSchema flatSchemaObj) {
+        if (flatSchemaObj == null) {
+            return null;
+        }
+        IndexSchema readOnlySchema = IndexSchema.builder()
+                .kind(flatSchemaObj.getKind())
+                .type(flatSchemaObj.getType())
+                .dataSchema(flatSchemaObj.getDataSchema() == null ? null : Collections.unmodifiableMap(flatSchemaObj.getDataSchema()))
+                .metaSchema(flatSchemaObj.getMetaSchema() == null ? null : Collections.unmodifiableMap(flatSchemaObj.getMetaSchema()))
+                .build();
+        this.flattenedSchemaObjectCache.put(kind, new VersionedIndexSchema(hashSchema(schema), readOnlySchema));
+        return readOnlySchema;
+    }
+
+    static long hashSchema(String schema) {
+        return Hashing.murmur3_128().hashString(Strings.nullToEmpty(schema), StandardCharsets.UTF_8).asLong();
+    }
+
     private String mergeSchemaFromPropertyConfiguration(String originalSchemaStr, AugmenterConfiguration augmenterConfiguration, String accessors) throws UnsupportedEncodingException, URISyntaxException {
         Map<String, Schema> relatedObjectKindSchemas = getSchemaOfRelatedObjectKinds(augmenterConfiguration, accessors);
         Schema originalSchema = gson.fromJson(originalSchemaStr, Schema.class);
@@ -308,6 +348,8 @@ public class IndexSchemaServiceImpl implements IndexSchemaService {
     private void invalidateCache(String kind) {
         this.schemaCache.delete(kind);
         this.flattenedSchemaCache.delete(kind);
+        this.flattenedSchemaObjectCache.delete(kind);
+        this.schemaAccessorPlanCache.delete(kind);
         this.virtualPropertiesSchemaCache.delete(kind);
     }
 
@@ -39,7 +39,9 @@ import org.opengroup.osdu.indexer.model.Kind;
 import org.opengroup.osdu.indexer.model.XcollaborationHolder;
 import org.opengroup.osdu.indexer.service.exception.ElasticsearchMappingException;
 import org.opengroup.osdu.indexer.util.CustomIndexAnalyzerSetting;
+import org.opengroup.osdu.indexer.util.PropertyUtil;
 import org.opengroup.osdu.indexer.util.TypeMapper;
+import org.opengroup.osdu.indexer.util.geo.decimator.ShapeResolutionLevels;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -72,6 +74,8 @@ public class IndexerMappingServiceImpl extends MappingServiceImpl implements IMa
     private XcollaborationHolder xcollaborationHolder;
     @Autowired
     private CustomIndexAnalyzerSetting customIndexAnalyzerSetting;
+    @Autowired
+    private ShapeResolutionLevels shapeResolutionLevels;
 
 
     /**
@@ -154,12 +158,14 @@ public class IndexerMappingServiceImpl extends MappingServiceImpl implements IMa
         Map<String, Object> metaMapping = new HashMap<>();
         Kind kind = new Kind(schema.getKind());
 
+        // the schema may be shared through the schema cache, add bag of words to a copy of its meta attributes
+        Map<String, Object> metaSchema = new HashMap<>(schema.getMetaSchema());
         boolean bagOfWordsEnabled = this.featureFlagChecker.isFeatureEnabled(BAG_OF_WORDS_FEATURE_NAME);
         if(bagOfWordsEnabled){
-            schema.getMetaSchema().put(BAG_OF_WORDS.getValue(), null);
+            metaSchema.put(BAG_OF_WORDS.getValue(), null);
         }
 
-        for (Map.Entry<String, Object> entry : schema.getMetaSchema().entrySet()) {
+        for (Map.Entry<String, Object> entry : metaSchema.entrySet()) {
             if (entry.getKey().equals(RecordMetaAttribute.AUTHORITY.getValue())) {
                 metaMapping.put(entry.getKey(), TypeMapper.getMetaAttributeIndexerMapping(entry.getKey(), kind.getAuthority()));
             } else if (entry.getKey().equals(RecordMetaAttribute.SOURCE.getValue())) {
@@ -182,6 +188,14 @@ public class IndexerMappingServiceImpl extends MappingServiceImpl implements IMa
         for (Map.Entry<String, Object> entry : schema.getDataSchema().entrySet()) {
             dataMapping.put(entry.getKey(), TypeMapper.getDataAttributeIndexerMapping(entry.getValue(), keywordLowerEnabled, bagOfWordsEnabled, customIndexAnalyzerEnabled));
         }
+
+        // coarse levels of the default location are mapped like the full resolution shape they are derived from
+        Object defaultLocationMapping = dataMapping.get(PropertyUtil.VIRTUAL_DEFAULT_LOCATION_WGS84_PATH);
+        if (defaultLocationMapping != null) {
+            for (ShapeResolutionLevels.Level level : this.shapeResolutionLevels.getLevels()) {
+                dataMapping.putIfAbsent(level.propertyPath(), defaultLocationMapping);
+            }
+        }
         return dataMapping;
     }
 
@@ -233,18 +247,20 @@ public class IndexerMappingServiceImpl extends MappingServiceImpl implements IMa
                 properties.put(attribute, TypeMapper.getMetaAttributeIndexerMapping(attribute, null));
             }
         }
+        // indices created before the coarse levels were configured are not dynamic, add the missing level fields
+        Map<String, Object> dataMapping = getMissingShapeLevelMappings(props);
         boolean bagOfWordsEnabled = this.featureFlagChecker.isFeatureEnabled(BAG_OF_WORDS_FEATURE_NAME);
         if (bagOfWordsEnabled) {
             // sync data-source attributes
-            Map<String, Object> dataMapping = this.getDataMapping(schema);
-            if (!dataMapping.isEmpty()) {
-                // inner properties.data.properties block
-                Map<String, Object> dataProperties = new HashMap<>();
-                dataProperties.put(Constants.PROPERTIES, dataMapping);
-
-                // data & meta block
-                properties.put(Constants.DATA, dataProperties);
-            }
+            dataMapping.putAll(this.getDataMapping(schema));
+        }
+        if (!dataMapping.isEmpty()) {
+            // inner properties.data.properties block
+            Map<String, Object> dataProperties = new HashMap<>();
+            dataProperties.put(Constants.PROPERTIES, dataMapping);
+
+            // data & meta block
+            properties.put(Constants.DATA, dataProperties);
         }
 
         if (properties.isEmpty()) {
@@ -271,6 +287,46 @@ public class IndexerMappingServiceImpl extends MappingServiceImpl implements IMa
         missing.remove(X_COLLABORATION);
     }
 
+    /**
+     * Gather the coarse levels of the default location, that are missing in mapping that came from elastic,
+     * mapped like the full resolution shape of the index.
+     */
+    private Map<String, Object> getMissingShapeLevelMappings(Map<String, Object> props) {
+        Map<String, Object> levelMappings = new HashMap<>();
+        List<ShapeResolutionLevels.Level> levels = this.shapeResolutionLevels.getLevels();
+        if (levels.isEmpty()) return levelMappings;
+
+        Map<String, Object> dataProperties = getProperties(props.get(Constants.DATA));
+        Object defaultLocationMapping = getFieldMapping(dataProperties, PropertyUtil.VIRTUAL_DEFAULT_LOCATION_WGS84_PATH);
+        if (defaultLocationMapping == null) return levelMappings;
+
+        for (ShapeResolutionLevels.Level level : levels) {
+            if (getFieldMapping(dataProperties, level.propertyPath()) == null) {
+                levelMappings.put(level.propertyPath(), defaultLocationMapping);
+            }
+        }
+        return levelMappings;
+    }
+
+    /**
+     * Elasticsearch returns the mapping of a dotted field name as nested object properties
+     */
+    private Object getFieldMapping(Map<String, Object> properties, String path) {
+        Object fieldMapping = null;
+        for (String name : path.split("\\.")) {
+            if (properties == null) return null;
+            fieldMapping = properties.get(name);
+            properties = getProperties(fieldMapping);
+        }
+        return fieldMapping;
+    }
+
+    private Map<String, Object> getProperties(Object objectMapping) {
+        if (!(objectMapping instanceof Map<?, ?> map)) return null;
+        Object properties = map.get(Constants.PROPERTIES);
+        return properties instanceof Map ? (Map<String, Object>) properties : null;
+    }
+
     /**
      * Let's gather fields, that are missing in mapping that came from elastic,
      * but present in hardcoded TypeMapper.class.
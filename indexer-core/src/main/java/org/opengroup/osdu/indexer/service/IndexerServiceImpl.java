@@ -33,19 +33,21 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.apache.http.HttpStatus;
 import org.opengroup.osdu.core.common.Constants;
 import org.opengroup.osdu.core.common.feature.IFeatureFlag;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
-import org.opengroup.osdu.core.common.model.entitlements.Acl;
 import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.http.RequestStatus;
@@ -59,7 +61,6 @@ import org.opengroup.osdu.core.common.model.indexer.RecordInfo;
 import org.opengroup.osdu.core.common.model.indexer.RecordStatus;
 import org.opengroup.osdu.core.common.model.indexer.Records;
 import org.opengroup.osdu.core.common.model.search.RecordChangedMessages;
-import org.opengroup.osdu.core.common.model.search.RecordMetaAttribute;
 import org.opengroup.osdu.core.common.provider.interfaces.IRequestInfo;
 import org.opengroup.osdu.core.common.search.ElasticIndexNameResolver;
 import org.opengroup.osdu.core.common.util.CollaborationContextUtil;
@@ -68,12 +69,20 @@ import org.opengroup.osdu.indexer.model.BulkRequestResult;
 import org.opengroup.osdu.indexer.model.SearchRecord;
 import org.opengroup.osdu.indexer.model.XcollaborationHolder;
 import org.opengroup.osdu.indexer.model.indexproperty.AugmenterConfiguration;
+import org.opengroup.osdu.indexer.model.indexproperty.AugmenterRecord;
 import org.opengroup.osdu.indexer.provider.interfaces.IPublisher;
 import org.opengroup.osdu.indexer.service.exception.ElasticsearchMappingException;
 import org.opengroup.osdu.indexer.util.AugmenterSetting;
 import org.opengroup.osdu.indexer.util.IndexerQueueTaskBuilder;
 import org.opengroup.osdu.indexer.util.RequestScopedElasticsearchClient;
+import org.opengroup.osdu.indexer.util.bulk.AdaptiveBulkSizeController;
+import org.opengroup.osdu.indexer.util.bulk.BulkDocumentSizeEstimator;
+import org.opengroup.osdu.indexer.util.bulk.BulkRequestDispatcher;
+import org.opengroup.osdu.indexer.util.bulk.IndexerDocument;
+import org.opengroup.osdu.indexer.util.bulk.SplittingBulkRequestBuilder;
+import org.opengroup.osdu.indexer.util.concurrent.ParallelRecordMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
@@ -132,6 +141,15 @@ public class IndexerServiceImpl implements IndexerService {
     private AugmenterConfigurationService augmenterConfigurationService;
     @Inject
     private AugmenterSetting augmenterSetting;
+    @Inject
+    private AdaptiveBulkSizeController bulkSizeController;
+    @Inject
+    private BulkRequestDispatcher bulkRequestDispatcher;
+    @Inject
+    private ParallelRecordMapper parallelRecordMapper;
+
+    @Value("${augmenter.batch_resolution.enabled:true}")
+    boolean augmenterBatchResolutionEnabled = true;
 
     @Autowired
     private IFeatureFlag asIngestedCoordinatesFeatureFlag;
@@ -181,6 +199,11 @@ public class IndexerServiceImpl implements IndexerService {
             if (deleteRecordMap != null && !deleteRecordMap.isEmpty()) {
                 List<String> deleteFailureRecordIds = processDeleteRecords(deleteRecordMap);
                 retryRecordIds.addAll(deleteFailureRecordIds);
+                if (this.augmenterSetting.isEnabled()) {
+                    List<String> deletedIds = deleteRecordMap.values().stream().flatMap(List::stream)
+                            .filter(id -> !deleteFailureRecordIds.contains(id)).toList();
+                    augmenterConfigurationService.removeDataRecords(deletedIds);
+                }
             }
 
             // process legacy storage schema change messages
@@ -326,17 +349,36 @@ public class IndexerServiceImpl implements IndexerService {
 
         if (recordIds.isEmpty()) return new LinkedList<>();
 
-        // get records via storage api
-        Records storageRecords = this.storageService.getStorageRecords(recordIds, recordChangedInfos);
-        List<String> failedOrRetryRecordIds = new LinkedList<>(storageRecords.getMissingRetryRecords());
-
-        // map storage records to indexer payload
-        RecordIndexerPayload recordIndexerPayload = this.getIndexerPayload(upsertRecordMap, schemas, storageRecords);
+        List<String> failedOrRetryRecordIds = new LinkedList<>();
+        AtomicInteger storageRecordCount = new AtomicInteger();
+        AtomicInteger indexerPayloadCount = new AtomicInteger();
+        PendingUpsertPayload pendingPayload = new PendingUpsertPayload();
+        Map<String, ElasticsearchMappingException> syncedMappings = new HashMap<>();
+
+        // get records via storage api, the next batches are fetched while a batch is mapped
+        this.storageService.streamStorageRecords(recordIds, recordChangedInfos, storageRecords -> {
+            failedOrRetryRecordIds.addAll(storageRecords.getMissingRetryRecords());
+            storageRecordCount.addAndGet(storageRecords.getRecords().size());
+
+            // map storage records to indexer payload
+            RecordIndexerPayload recordIndexerPayload = this.getIndexerPayload(upsertRecordMap, schemas, storageRecords,
+                    this.augmenterBatchResolutionEnabled ? pendingPayload.augmenterRecords : null);
+            indexerPayloadCount.addAndGet(recordIndexerPayload.getRecords().size());
+            pendingPayload.add(recordIndexerPayload);
+
+            // the payload of a message is indexed at once, only messages larger than a bulk are indexed while they are fetched
+            if (pendingPayload.records.size() >= this.bulkSizeController.getMaxOperations()) {
+                failedOrRetryRecordIds.addAll(flushUpsertPayload(pendingPayload, syncedMappings));
+            }
+        });
+        failedOrRetryRecordIds.addAll(flushUpsertPayload(pendingPayload, syncedMappings));
 
-        jaxRsDpsLog.info(String.format("records change messages received : %s | valid storage bulk records: %s | valid index payload: %s", recordIds.size(), storageRecords.getRecords().size(), recordIndexerPayload.getRecords().size()));
+        jaxRsDpsLog.info(String.format("records change messages received : %s | valid storage bulk records: %s | valid index payload: %s", recordIds.size(), storageRecordCount.get(), indexerPayloadCount.get()));
 
-        // index records
-        failedOrRetryRecordIds.addAll(processElasticMappingAndUpsertRecords(recordIndexerPayload));
+        // this should only happen if storage service returned WRONG records with kind for all the records in the messages
+        if (indexerPayloadCount.get() == 0) {
+            throw new AppException(RequestStatus.STORAGE_CONFLICT, "Indexer error", "upsert record failed, storage service returned incorrect records");
+        }
 
         return failedOrRetryRecordIds;
     }
@@ -359,6 +401,12 @@ public class IndexerServiceImpl implements IndexerService {
                     this.jobStatus.addOrUpdateRecordStatus(entry.getValue().keySet(), IndexingStatus.WARN, HttpStatus.SC_BAD_REQUEST, error, debugInfo);
                 }
 
+                if (schemaObj.getDataSchema() != null && this.asIngestedCoordinatesFeatureFlag.isFeatureEnabled(AS_INGESTED_COORDINATES_FEATURE_NAME)) {
+                    // cached schemas are shared and read-only, the AsIngestedCoordinates enrichment works on a copy per batch
+                    schemaObj = IndexSchema.builder().kind(schemaObj.getKind()).type(schemaObj.getType())
+                            .dataSchema(new HashMap<>(schemaObj.getDataSchema())).metaSchema(schemaObj.getMetaSchema()).build();
+                }
+
                 schemas.put(kind, schemaObj);
             }
         } catch (AppException e) {
@@ -370,10 +418,16 @@ public class IndexerServiceImpl implements IndexerService {
         return schemas;
     }
 
-    private RecordIndexerPayload getIndexerPayload(Map<String, Map<String, OperationType>> upsertRecordMap, Map<String, IndexSchema> kindSchemaMap, Records records) {
+    /**
+     * @param augmenterRecords collects the records whose extended properties are merged when the payload is indexed,
+     *                         null to merge them record by record while mapping
+     */
+    private RecordIndexerPayload getIndexerPayload(Map<String, Map<String, OperationType>> upsertRecordMap, Map<String, IndexSchema> kindSchemaMap, Records records,
+                                                   List<AugmenterRecord> augmenterRecords) {
         List<Records.Entity> storageValidRecords = records.getRecords();
         List<RecordIndexerPayload.Record> indexerPayload = new ArrayList<>();
         Set<IndexSchema> schemasSet = new LinkedHashSet<>();
+        Map<String, ParallelRecordMapper.Mapped<Map<String, Object>>> mappedDataPayloads = this.mapDataPayloadsInParallel(upsertRecordMap, kindSchemaMap, storageValidRecords);
 
         for (Records.Entity storageRecord : storageValidRecords) {
 
@@ -397,18 +451,66 @@ public class IndexerServiceImpl implements IndexerService {
             schemasSet.add(schema);
 
             // skip indexing of records if data block is empty
-            RecordIndexerPayload.Record document = prepareIndexerPayload(schema, storageRecord, idOperationMap, asIngestedCoordinatesPaths);
+            RecordIndexerPayload.Record document = prepareIndexerPayload(schema, storageRecord, idOperationMap, asIngestedCoordinatesPaths, mappedDataPayloads.get(storageRecord.getId()), augmenterRecords);
             if (document != null) {
                 indexerPayload.add(document);
             }
         }
 
-        // this should only happen if storage service returned WRONG records with kind for all the records in the messages
-        if (indexerPayload.isEmpty()) {
-            throw new AppException(RequestStatus.STORAGE_CONFLICT, "Indexer error", "upsert record failed, storage service returned incorrect records");
+        return RecordIndexerPayload.builder().records(indexerPayload).schemas(new ArrayList<>(schemasSet)).build();
+    }
+
+    /**
+     * Merge the extended properties of the pending records, then index them.
+     */
+    private List<String> flushUpsertPayload(PendingUpsertPayload pendingPayload, Map<String, ElasticsearchMappingException> syncedMappings) throws Exception {
+        if (pendingPayload.records.isEmpty()) {
+            return new LinkedList<>();
         }
+        mergeExtendedProperties(pendingPayload.augmenterRecords);
+        RecordIndexerPayload recordIndexerPayload = RecordIndexerPayload.builder()
+                .records(new ArrayList<>(pendingPayload.records))
+                .schemas(new ArrayList<>(pendingPayload.schemas))
+                .build();
+        pendingPayload.clear();
+        return processElasticMappingAndUpsertRecords(recordIndexerPayload, syncedMappings);
+    }
 
-        return RecordIndexerPayload.builder().records(indexerPayload).schemas(new ArrayList<>(schemasSet)).build();
+    /**
+     * Map the data blocks of large batches concurrently. Only records that reach the schema mapping step in
+     * {@link #prepareIndexerPayload} are mapped here; their status updates are replayed when the result is consumed,
+     * so the sequential loop in {@link #getIndexerPayload} still decides the order of the payload and of the statuses.
+     * The as-ingested coordinates schema enrichment is order dependent, so batches are mapped sequentially while it is on.
+     */
+    private Map<String, ParallelRecordMapper.Mapped<Map<String, Object>>> mapDataPayloadsInParallel(Map<String, Map<String, OperationType>> upsertRecordMap, Map<String, IndexSchema> kindSchemaMap, List<Records.Entity> storageRecords) {
+        if (!this.parallelRecordMapper.isParallel(storageRecords.size()) || this.asIngestedCoordinatesFeatureFlag.isFeatureEnabled(AS_INGESTED_COORDINATES_FEATURE_NAME)) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Records.Entity> mappableRecords = new LinkedHashMap<>();
+        Set<String> duplicatedIds = new HashSet<>();
+        for (Records.Entity storageRecord : storageRecords) {
+            IndexSchema schema = kindSchemaMap.get(storageRecord.getKind());
+            if (upsertRecordMap.containsKey(storageRecord.getKind()) && schema != null && !schema.isDataSchemaMissing()
+                    && storageRecord.getData() != null && !storageRecord.getData().isEmpty()
+                    && mappableRecords.putIfAbsent(storageRecord.getId(), storageRecord) != null) {
+                duplicatedIds.add(storageRecord.getId());
+            }
+        }
+        // duplicated ids stay on the sequential path
+        mappableRecords.keySet().removeAll(duplicatedIds);
+        if (!this.parallelRecordMapper.isParallel(mappableRecords.size())) {
+            return Collections.emptyMap();
+        }
+
+        List<Records.Entity> recordsToMap = new ArrayList<>(mappableRecords.values());
+        List<ParallelRecordMapper.Mapped<Map<String, Object>>> mapped = this.parallelRecordMapper.map(recordsToMap,
+                storageRecord -> this.storageIndexerPayloadMapper.mapDataPayload(null, kindSchemaMap.get(storageRecord.getKind()), storageRecord.getData(), storageRecord.getId()));
+        Map<String, ParallelRecordMapper.Mapped<Map<String, Object>>> mappedDataPayloads = new HashMap<>();
+        for (int i = 0; i < recordsToMap.size(); i++) {
+            mappedDataPayloads.put(recordsToMap.get(i).getId(), mapped.get(i));
+        }
+        return mappedDataPayloads;
     }
 
     private ArrayList<String> findAsIngestedCoordinatesPaths(Map<String, Object> dataMap, String path) {
@@ -446,7 +548,8 @@ public class IndexerServiceImpl implements IndexerService {
         schemaObj.getDataSchema().putAll(asIngestedProperties);
     }
 
-    private RecordIndexerPayload.Record prepareIndexerPayload(IndexSchema schemaObj, Records.Entity storageRecord, Map<String, OperationType> idToOperationMap, ArrayList<String> asIngestedCoordinatesPaths) {
+    private RecordIndexerPayload.Record prepareIndexerPayload(IndexSchema schemaObj, Records.Entity storageRecord, Map<String, OperationType> idToOperationMap, ArrayList<String> asIngestedCoordinatesPaths,
+                                                              ParallelRecordMapper.Mapped<Map<String, Object>> mappedDataPayload, List<AugmenterRecord> augmenterRecords) {
 
         RecordIndexerPayload.Record document = null;
 
@@ -460,7 +563,9 @@ public class IndexerServiceImpl implements IndexerService {
             } else if (schemaObj.isDataSchemaMissing()) {
                 document.setSchemaMissing(true);
             } else {
-                Map<String, Object> dataMap = this.storageIndexerPayloadMapper.mapDataPayload(asIngestedCoordinatesPaths, schemaObj, storageRecordData, storageRecord.getId());
+                Map<String, Object> dataMap = mappedDataPayload != null
+                        ? mappedDataPayload.get(this.jobStatus)
+                        : this.storageIndexerPayloadMapper.mapDataPayload(asIngestedCoordinatesPaths, schemaObj, storageRecordData, storageRecord.getId());
                 if (dataMap.isEmpty()) {
                     document.setMappingMismatch(true);
                     String message = String.format("complete schema mismatch: none of the data attribute can be mapped | data: %s", storageRecordData);
@@ -472,12 +577,18 @@ public class IndexerServiceImpl implements IndexerService {
                     try {
                         if (augmenterConfigurationService.isConfigurationEnabled(storageRecord.getKind())) {
                             AugmenterConfiguration augmenterConfiguration = augmenterConfigurationService.getConfiguration(storageRecord.getKind());
-                            if (augmenterConfiguration != null) {
-                                // Merge extended properties
-                                dataMap = mergeDataFromPropertyConfiguration(storageRecord.getId(), dataMap, augmenterConfiguration);
+                            if (augmenterConfiguration != null && augmenterRecords != null) {
+                                // Extended properties are merged and cached together with the other records of the batch,
+                                // which are resolved against each other's fresh data
+                                augmenterRecords.add(new AugmenterRecord(storageRecord.getId(), storageRecord.getKind(), dataMap, augmenterConfiguration));
+                            } else {
+                                if (augmenterConfiguration != null) {
+                                    // Merge extended properties
+                                    dataMap = mergeDataFromPropertyConfiguration(storageRecord.getId(), dataMap, augmenterConfiguration);
+                                }
+                                // We cache the dataMap in case the update of this object will trigger update of the related objects.
+                                augmenterConfigurationService.cacheDataRecord(storageRecord.getId(), storageRecord.getKind(), dataMap);
                             }
-                            // We cache the dataMap in case the update of this object will trigger update of the related objects.
-                            augmenterConfigurationService.cacheDataRecord(storageRecord.getId(), storageRecord.getKind(), dataMap);
                         }
                         else if(INDEX_PROPERTY_PATH_CONFIGURATION_KIND.equals(storageRecord.getKind())) {
                             // We cache the dataMap that will be used to update the schema mapping of the related kinds
@@ -485,9 +596,7 @@ public class IndexerServiceImpl implements IndexerService {
                         }
                     }
                     catch(Exception ex) {
-                        String message = String.format("Augmenter error: %s", ex.getMessage());
-                        this.jobStatus.addOrUpdateRecordStatus(storageRecord.getId(), IndexingStatus.WARN, HttpStatus.SC_BAD_REQUEST, message);
-                        jaxRsDpsLog.error(String.format("Augmenter: Failed to merge extended properties of the record with id: '%s' and kind: '%s'", storageRecord.getId(), storageRecord.getKind()), ex);
+                        reportAugmenterError(storageRecord.getId(), storageRecord.getKind(), ex);
                     }
                 }
 
@@ -544,6 +653,49 @@ public class IndexerServiceImpl implements IndexerService {
         return document;
     }
 
+    private void mergeExtendedProperties(List<AugmenterRecord> augmenterRecords) {
+        if (augmenterRecords == null || augmenterRecords.isEmpty()) {
+            return;
+        }
+
+        List<Map<String, Object>> extendedDataMaps;
+        try {
+            extendedDataMaps = augmenterConfigurationService.getExtendedProperties(augmenterRecords);
+        } catch (Exception ex) {
+            // one bad record or a failed lookup must not cost the extended properties of the whole batch
+            jaxRsDpsLog.warning(String.format("Augmenter: batch resolution of %d records failed, resolving them one by one | error: %s", augmenterRecords.size(), ex.getMessage()));
+            for (AugmenterRecord augmenterRecord : augmenterRecords) {
+                try {
+                    Map<String, Object> dataMap = mergeDataFromPropertyConfiguration(augmenterRecord.getId(), augmenterRecord.getDataMap(), augmenterRecord.getConfiguration());
+                    augmenterConfigurationService.cacheDataRecord(augmenterRecord.getId(), augmenterRecord.getKind(), dataMap);
+                } catch (Exception recordEx) {
+                    reportAugmenterError(augmenterRecord.getId(), augmenterRecord.getKind(), recordEx);
+                }
+            }
+            return;
+        }
+
+        for (int i = 0; i < augmenterRecords.size(); i++) {
+            AugmenterRecord augmenterRecord = augmenterRecords.get(i);
+            try {
+                Map<String, Object> extendedDataMap = extendedDataMaps.get(i);
+                if (!extendedDataMap.isEmpty()) {
+                    augmenterRecord.getDataMap().putAll(extendedDataMap);
+                }
+                // We cache the dataMap in case the update of this object will trigger update of the related objects.
+                augmenterConfigurationService.cacheDataRecord(augmenterRecord.getId(), augmenterRecord.getKind(), augmenterRecord.getDataMap());
+            } catch (Exception ex) {
+                reportAugmenterError(augmenterRecord.getId(), augmenterRecord.getKind(), ex);
+            }
+        }
+    }
+
+    private void reportAugmenterError(String recordId, String kind, Exception ex) {
+        String message = String.format("Augmenter error: %s", ex.getMessage());
+        this.jobStatus.addOrUpdateRecordStatus(recordId, IndexingStatus.WARN, HttpStatus.SC_BAD_REQUEST, message);
+        jaxRsDpsLog.error(String.format("Augmenter: Failed to merge extended properties of the record with id: '%s' and kind: '%s'", recordId, kind), ex);
+    }
+
     private Map<String, Object> mergeDataFromPropertyConfiguration(String objectId, Map<String, Object> originalDataMap, AugmenterConfiguration augmenterConfiguration) {
         Map<String, Object> extendedDataMap = augmenterConfigurationService.getExtendedProperties(objectId, originalDataMap, augmenterConfiguration);
         if (!extendedDataMap.isEmpty()) {
@@ -553,7 +705,7 @@ public class IndexerServiceImpl implements IndexerService {
         return originalDataMap;
     }
 
-    private List<String> processElasticMappingAndUpsertRecords(RecordIndexerPayload recordIndexerPayload)
+    private List<String> processElasticMappingAndUpsertRecords(RecordIndexerPayload recordIndexerPayload, Map<String, ElasticsearchMappingException> syncedMappings)
         throws Exception {
         if (recordIndexerPayload.getSchemas() == null || recordIndexerPayload.getSchemas().isEmpty()) {
             return new LinkedList<>();
@@ -562,7 +714,7 @@ public class IndexerServiceImpl implements IndexerService {
         ElasticsearchClient restClient = requestScopedClient.getClient();
         
         // process the schema
-        this.cacheOrCreateElasticMapping(recordIndexerPayload, restClient);
+        this.cacheOrCreateElasticMapping(recordIndexerPayload, restClient, syncedMappings);
 
         // process the records
         List<RecordIndexerPayload.Record> records = recordIndexerPayload.getRecords();
@@ -590,25 +742,33 @@ public class IndexerServiceImpl implements IndexerService {
         }
     }
 
-    private void cacheOrCreateElasticMapping(RecordIndexerPayload recordIndexerPayload, ElasticsearchClient restClient) throws Exception {
+    /**
+     * @param syncedMappings kinds whose index was already created or synced while processing the message, with the
+     *                       error of the sync if it failed
+     */
+    private void cacheOrCreateElasticMapping(RecordIndexerPayload recordIndexerPayload, ElasticsearchClient restClient,
+                                             Map<String, ElasticsearchMappingException> syncedMappings) throws Exception {
         List<IndexSchema> schemas = recordIndexerPayload.getSchemas();
 
         for (IndexSchema schema : schemas) {
+            if (syncedMappings.containsKey(schema.getKind())) {
+                ElasticsearchMappingException syncError = syncedMappings.get(schema.getKind());
+                if (syncError != null) {
+                    failRecordsOfKind(recordIndexerPayload, schema.getKind(), syncError);
+                }
+                continue;
+            }
+
             String index = this.elasticIndexNameResolver.getIndexNameFromKind(schema.getKind());
 
             // check if index exist and sync meta attribute schema if required
             if (this.indicesService.isIndexReady(restClient, index)) {
                 try {
                     this.mappingService.syncMetaAttributeIndexMappingIfRequired(restClient, schema);
+                    syncedMappings.put(schema.getKind(), null);
                 } catch (ElasticsearchMappingException e) {
-                    List<Record> schemaRecords = recordIndexerPayload.getRecords()
-                        .stream()
-                        .filter(schemaRecord -> Objects.equals(schemaRecord.getKind(), schema.getKind()))
-                        .toList();
-                    for (Record schemaRecord : schemaRecords) {
-                        this.jobStatus.addOrUpdateRecordStatus(schemaRecord.getId(), IndexingStatus.FAIL, e.getStatus(), String.format("Error reconciling index mapping with kind schema from schema-service: %s", e.getMessage()));
-                        schemaRecord.setData(Collections.emptyMap());
-                    }
+                    syncedMappings.put(schema.getKind(), e);
+                    failRecordsOfKind(recordIndexerPayload, schema.getKind(), e);
                 }
                 continue;
             }
@@ -618,14 +778,25 @@ public class IndexerServiceImpl implements IndexerService {
             if (!this.indicesService.createIndex(restClient, index, null, mapping)) {
                 throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, ELASTIC_ERROR, "Error creating index.", String.format("Failed to get confirmation from elastic server for index: %s", index));
             }
+            syncedMappings.put(schema.getKind(), null);
+        }
+    }
+
+    private void failRecordsOfKind(RecordIndexerPayload recordIndexerPayload, String kind, ElasticsearchMappingException e) {
+        List<Record> schemaRecords = recordIndexerPayload.getRecords()
+            .stream()
+            .filter(schemaRecord -> Objects.equals(schemaRecord.getKind(), kind))
+            .toList();
+        for (Record schemaRecord : schemaRecords) {
+            this.jobStatus.addOrUpdateRecordStatus(schemaRecord.getId(), IndexingStatus.FAIL, e.getStatus(), String.format("Error reconciling index mapping with kind schema from schema-service: %s", e.getMessage()));
+            schemaRecord.setData(Collections.emptyMap());
         }
     }
 
     private BulkRequestResult upsertRecords(List<RecordIndexerPayload.Record> records, ElasticsearchClient client) throws AppException {
         if (records == null || records.isEmpty()) return new BulkRequestResult(Collections.emptyList(), Collections.emptyList());
 
-        BulkRequest.Builder bulkRequestBuilder = new BulkRequest.Builder();
-        bulkRequestBuilder.timeout(BULK_REQUEST_TIMEOUT);
+        SplittingBulkRequestBuilder bulkRequestBuilder = createBulkRequestBuilder();
 
         for (RecordIndexerPayload.Record payloadRecord : records) {
             if ((payloadRecord.getData() == null || payloadRecord.getData().isEmpty()) && !payloadRecord.skippedDataIndexing()) {
@@ -633,7 +804,7 @@ public class IndexerServiceImpl implements IndexerService {
                 jaxRsDpsLog.warning(String.format("data not found for record: %s", payloadRecord));
             }
 
-            Map<String, Object> sourceMap = getSourceMap(payloadRecord);
+            IndexerDocument document = getIndexerDocument(payloadRecord);
             String index = this.elasticIndexNameResolver.getIndexNameFromKind(payloadRecord.getKind());
 
             // For index to be indexed we are using id that record has (osdu version).
@@ -646,28 +817,29 @@ public class IndexerServiceImpl implements IndexerService {
                 indexId = payloadRecord.getId();
             }
 
-            IndexOperation<Map<String, Object>> indexOperation = new IndexOperation.Builder<Map<String, Object>>()
+            IndexOperation<IndexerDocument> indexOperation = new IndexOperation.Builder<IndexerDocument>()
                 .index(index)
                 .id(indexId)
-                .document(sourceMap)
+                .document(document)
                 .build();
 
-            bulkRequestBuilder.operations(new BulkOperation.Builder().index(indexOperation).build());
+            bulkRequestBuilder.add(new BulkOperation.Builder().index(indexOperation).build(),
+                BulkDocumentSizeEstimator.estimateOperation(index, indexId, document));
         }
 
         return processBulkRequest(client, bulkRequestBuilder.build());
     }
 
     private List<String> processDeleteRecords(Map<String, List<String>> deleteRecordMap){
-        BulkRequest.Builder bulkRequestBuilder = new BulkRequest.Builder();
-        bulkRequestBuilder.timeout(BULK_REQUEST_TIMEOUT);
+        SplittingBulkRequestBuilder bulkRequestBuilder = createBulkRequestBuilder();
         for (Map.Entry<String, List<String>> deleteRecord : deleteRecordMap.entrySet()) {
 
             String index = this.elasticIndexNameResolver.getIndexNameFromKind(deleteRecord.getKey());
 
             for (String id : deleteRecord.getValue()) {
                 DeleteOperation deleteOperation = DeleteOperation.of(builder -> builder.index(index).id(id));
-                bulkRequestBuilder.operations(new BulkOperation.Builder().delete(deleteOperation).build());
+                bulkRequestBuilder.add(new BulkOperation.Builder().delete(deleteOperation).build(),
+                    BulkDocumentSizeEstimator.estimateOperation(index, id, null));
             }
         }
 
@@ -675,26 +847,52 @@ public class IndexerServiceImpl implements IndexerService {
         return processBulkRequest(restClient, bulkRequestBuilder.build()).getFailureRecordIds();
     }
 
-    private BulkRequestResult processBulkRequest(ElasticsearchClient client, BulkRequest bulkRequest) throws AppException {
+    private SplittingBulkRequestBuilder createBulkRequestBuilder() {
+        return new SplittingBulkRequestBuilder(
+            this.bulkSizeController.getByteLimit(this.requestInfo.getPartitionId()),
+            this.bulkSizeController.getMaxOperations(),
+            BULK_REQUEST_TIMEOUT);
+    }
 
-        if (bulkRequest.operations().isEmpty()) {
+    private BulkRequestResult processBulkRequest(ElasticsearchClient client, List<SplittingBulkRequestBuilder.SubBulk> subBulks) throws AppException {
+        if (subBulks.isEmpty()) {
             return new BulkRequestResult(Collections.emptyList(), Collections.emptyList());
         }
+        if (subBulks.size() > 1) {
+            jaxRsDpsLog.info(String.format("elasticsearch bulk request split into %d sub-bulks | estimated size: %d bytes",
+                subBulks.size(), subBulks.stream().mapToLong(SplittingBulkRequestBuilder.SubBulk::estimatedBytes).sum()));
+        }
 
-        List<String> failureRecordIds = new LinkedList<>();
-        List<String> retryUpsertRecordIds = new LinkedList<>();
-        int failedRequestStatus = 500;
-        Exception failedRequestCause = null;
+        // sub-bulks are sent concurrently, their responses are applied to the job status on this thread in order
+        String partitionId = this.requestInfo.getPartitionId();
+        List<BulkRequestDispatcher.Outcome> outcomes = this.bulkRequestDispatcher.dispatch(client, partitionId, subBulks);
+
+        // a transport failure of one sub-bulk only fails its own operations when there are other sub-bulks
+        boolean isolateFailures = subBulks.size() > 1;
+        BulkExecution execution = new BulkExecution();
+        for (int i = 0; i < subBulks.size(); i++) {
+            processBulkOutcome(partitionId, subBulks.get(i).request(), outcomes.get(i), execution, isolateFailures);
+        }
+
+        // retry entire message if all records are failing
+        execution.throwIfAllFailed();
+        return execution.toResult();
+    }
+
+    private void processBulkOutcome(String partitionId, BulkRequest bulkRequest, BulkRequestDispatcher.Outcome outcome, BulkExecution execution, boolean isolateFailures) throws AppException {
+        execution.operationCount += bulkRequest.operations().size();
 
         try {
-            long startTime = System.currentTimeMillis();
-            BulkResponse bulkResponse = client.bulk(bulkRequest);
-            long stopTime = System.currentTimeMillis();
+            if (outcome.failure() != null) {
+                throw outcome.failure();
+            }
+            BulkResponse bulkResponse = outcome.response();
 
             // log failed bulk requests
             ArrayList<String> bulkFailures = new ArrayList<>();
             int succeededResponses = 0;
             int failedResponses = 0;
+            boolean throttled = false;
             for (BulkResponseItem bulkItemResponse : bulkResponse.items()) {
                 if (bulkItemResponse.error() != null) {
                     String failureMessage = String.format("elasticsearch bulk service status: %s | id: %s | message: %s",
@@ -705,15 +903,16 @@ public class IndexerServiceImpl implements IndexerService {
                     this.jobStatus.addOrUpdateRecordStatus(bulkItemResponse.id(), IndexingStatus.FAIL, bulkItemResponse.status(), bulkItemResponse.error().reason());
 
                     if (bulkItemResponse.status() == HttpStatus.SC_BAD_REQUEST && bulkItemResponse.error().reason().contains(MAPPER_PARSING_EXCEPTION_TYPE)) {
-                        retryUpsertRecordIds.add(bulkItemResponse.id());
+                        execution.retryUpsertRecordIds.add(bulkItemResponse.id());
                     } else if (canIndexerRetry(bulkItemResponse)) {
-                        failureRecordIds.add(bulkItemResponse.id());
+                        execution.failureRecordIds.add(bulkItemResponse.id());
 
-                        if (failedRequestCause == null) {
-                            failedRequestCause = new Exception(bulkItemResponse.error().reason());
-                            failedRequestStatus = bulkItemResponse.status();
+                        if (execution.failedRequestCause == null) {
+                            execution.failedRequestCause = new Exception(bulkItemResponse.error().reason());
+                            execution.failedRequestStatus = bulkItemResponse.status();
                         }
                     }
+                    throttled |= bulkItemResponse.status() == HttpStatus.SC_TOO_MANY_REQUESTS;
 
                     failedResponses++;
                 } else {
@@ -736,71 +935,67 @@ public class IndexerServiceImpl implements IndexerService {
                 this.jaxRsDpsLog.warning(bulkFailures);
             }
 
-            jaxRsDpsLog.info(String.format("records in elasticsearch service bulk request: %s | successful: %s | failed: %s | time taken for bulk request: %d milliseconds",
-                bulkRequest.operations().size(), succeededResponses, failedResponses, stopTime - startTime));
-
-            // retry entire message if all records are failing
-            if (bulkRequest.operations().size() == failureRecordIds.size()) {
-                throw new AppException(
-                    failedRequestStatus,
-                    ELASTIC_ERROR,
-                    failedRequestCause == null ? "Unknown error" : failedRequestCause.getMessage(),
-                    failedRequestCause);
+            if (throttled) {
+                this.bulkSizeController.onThrottled(partitionId);
+            } else {
+                this.bulkSizeController.onCompleted(partitionId, bulkResponse.took());
             }
+
+            jaxRsDpsLog.info(String.format("records in elasticsearch service bulk request: %s | successful: %s | failed: %s | time taken for bulk request: %d milliseconds",
+                bulkRequest.operations().size(), succeededResponses, failedResponses, outcome.elapsedMillis()));
         } catch (IOException e) {
             // throw explicit 504 for IOException
-            throw new AppException(HttpStatus.SC_GATEWAY_TIMEOUT, ELASTIC_ERROR, "Request cannot be completed in specified time.", e);
+            handleBulkRequestFailure(bulkRequest, execution, isolateFailures,
+                new AppException(HttpStatus.SC_GATEWAY_TIMEOUT, ELASTIC_ERROR, "Request cannot be completed in specified time.", e));
         } catch (ElasticsearchException e) {
-            throw new AppException(e.status(), ELASTIC_ERROR, e.getMessage(), e);
-        }catch (AppException e){
+            if (e.status() == HttpStatus.SC_TOO_MANY_REQUESTS || e.status() == HttpStatus.SC_REQUEST_TOO_LONG) {
+                this.bulkSizeController.onThrottled(partitionId);
+            }
+            handleBulkRequestFailure(bulkRequest, execution, isolateFailures, new AppException(e.status(), ELASTIC_ERROR, e.getMessage(), e));
+        } catch (AppException e) {
             throw e;
         } catch (Exception e) {
-            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, ELASTIC_ERROR, e.getMessage(), e);
+            handleBulkRequestFailure(bulkRequest, execution, isolateFailures, new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, ELASTIC_ERROR, e.getMessage(), e));
         }
-        return new BulkRequestResult(failureRecordIds, retryUpsertRecordIds);
     }
 
-    private Map<String, Object> getSourceMap(RecordIndexerPayload.Record payloadRecord) {
-
-        Map<String, Object> indexerPayload = new HashMap<>();
-
-        // get the key and get the corresponding object from the individualRecord object
-        if (payloadRecord.getData() != null) {
-            Map<String, Object> data = new HashMap<>();
-            for (Map.Entry<String, Object> entry : payloadRecord.getData().entrySet()) {
-                data.put(entry.getKey(), entry.getValue());
+    private void handleBulkRequestFailure(BulkRequest bulkRequest, BulkExecution execution, boolean isolateFailures, AppException e) throws AppException {
+        if (!isolateFailures) {
+            throw e;
+        }
+        jaxRsDpsLog.warning(String.format("elasticsearch sub-bulk request with %d operations failed: %s", bulkRequest.operations().size(), e.getMessage()), e);
+        if (execution.requestFailure == null) {
+            execution.requestFailure = e;
+        }
+        for (BulkOperation operation : bulkRequest.operations()) {
+            String recordId = getOperationRecordId(operation);
+            if (recordId == null) {
+                continue;
             }
-            indexerPayload.put(Constants.DATA, data);
+            this.jobStatus.addOrUpdateRecordStatus(recordId, IndexingStatus.FAIL, e.getError().getCode(), e.getError().getMessage());
+            execution.failureRecordIds.add(recordId);
         }
+    }
 
-        indexerPayload.put(RecordMetaAttribute.ID.getValue(), payloadRecord.getId());
-        indexerPayload.put(RecordMetaAttribute.KIND.getValue(), payloadRecord.getKind());
-        indexerPayload.put(RecordMetaAttribute.AUTHORITY.getValue(), payloadRecord.getAuthority());
-        indexerPayload.put(RecordMetaAttribute.SOURCE.getValue(), payloadRecord.getSource());
-        indexerPayload.put(RecordMetaAttribute.NAMESPACE.getValue(), payloadRecord.getNamespace());
-        indexerPayload.put(RecordMetaAttribute.TYPE.getValue(), payloadRecord.getType());
-        indexerPayload.put(RecordMetaAttribute.VERSION.getValue(), payloadRecord.getVersion());
-        indexerPayload.put(RecordMetaAttribute.ACL.getValue(), payloadRecord.getAcl());
-        indexerPayload.put(RecordMetaAttribute.TAGS.getValue(), payloadRecord.getTags());
-        indexerPayload.put(RecordMetaAttribute.X_ACL.getValue(), Acl.flattenAcl(payloadRecord.getAcl()));
-        indexerPayload.put(RecordMetaAttribute.LEGAL.getValue(), payloadRecord.getLegal());
-        indexerPayload.put(RecordMetaAttribute.INDEX_STATUS.getValue(), payloadRecord.getIndexProgress());
-        if (payloadRecord.getAncestry() != null) {
-            indexerPayload.put(RecordMetaAttribute.ANCESTRY.getValue(), payloadRecord.getAncestry());
+    private String getOperationRecordId(BulkOperation operation) {
+        String id = null;
+        if (operation.isIndex()) {
+            id = operation.index().id();
+        } else if (operation.isDelete()) {
+            id = operation.delete().id();
         }
-        indexerPayload.put(RecordMetaAttribute.CREATE_USER.getValue(), payloadRecord.getCreateUser());
-        indexerPayload.put(RecordMetaAttribute.CREATE_TIME.getValue(), payloadRecord.getCreateTime());
-        if (!Strings.isNullOrEmpty(payloadRecord.getModifyUser())) {
-            indexerPayload.put(RecordMetaAttribute.MODIFY_USER.getValue(), payloadRecord.getModifyUser());
-        }
-        if (!Strings.isNullOrEmpty(payloadRecord.getModifyTime())) {
-            indexerPayload.put(RecordMetaAttribute.MODIFY_TIME.getValue(), payloadRecord.getModifyTime());
+        if (id != null && xcollaborationHolder.isFeatureEnabledAndHeaderExists()) {
+            id = xcollaborationHolder.removeXcollaborationValue(id);
         }
+        return id;
+    }
+
+    private IndexerDocument getIndexerDocument(RecordIndexerPayload.Record payloadRecord) {
+        Object collaborationId = null;
         if (xcollaborationHolder.isFeatureEnabledAndHeaderExists()) {
-            indexerPayload.computeIfAbsent(XcollaborationHolder.X_COLLABORATION,
-                k -> xcollaborationHolder.getCollaborationContext().orElseThrow().getId());
+            collaborationId = xcollaborationHolder.getCollaborationContext().orElseThrow().getId();
         }
-        return indexerPayload;
+        return new IndexerDocument(payloadRecord, collaborationId);
     }
 
     private boolean canIndexerRetry(BulkResponseItem bulkItemResponse) {
@@ -859,5 +1054,53 @@ public class IndexerServiceImpl implements IndexerService {
         }
     }
 
+    /**
+     * Outcome of one or more (sub-)bulk requests of the same batch, merged into a single {@link BulkRequestResult}.
+     */
+    private static class BulkExecution {
+        private int operationCount = 0;
+        private final List<String> failureRecordIds = new LinkedList<>();
+        private final List<String> retryUpsertRecordIds = new LinkedList<>();
+        private int failedRequestStatus = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+        private Exception failedRequestCause = null;
+        private AppException requestFailure = null;
+
+        private void throwIfAllFailed() throws AppException {
+            if (operationCount != failureRecordIds.size()) {
+                return;
+            }
+            if (requestFailure != null) {
+                throw requestFailure;
+            }
+            throw new AppException(
+                failedRequestStatus,
+                ELASTIC_ERROR,
+                failedRequestCause == null ? "Unknown error" : failedRequestCause.getMessage(),
+                failedRequestCause);
+        }
 
+        private BulkRequestResult toResult() {
+            return new BulkRequestResult(failureRecordIds, retryUpsertRecordIds);
+        }
+    }
+
+    /**
+     * Indexer payload of the storage batches of a message that are mapped but not indexed yet.
+     */
+    private static final class PendingUpsertPayload {
+        private final List<RecordIndexerPayload.Record> records = new ArrayList<>();
+        private final Set<IndexSchema> schemas = new LinkedHashSet<>();
+        private final List<AugmenterRecord> augmenterRecords = new ArrayList<>();
+
+        private void add(RecordIndexerPayload recordIndexerPayload) {
+            records.addAll(recordIndexerPayload.getRecords());
+            schemas.addAll(recordIndexerPayload.getSchemas());
+        }
+
+        private void clear() {
+            records.clear();
+            schemas.clear();
+            augmenterRecords.clear();
+        }
+    }
 }
@@ -47,6 +47,7 @@ import org.elasticsearch.client.Request;
 import org.elasticsearch.client.Response;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.search.IndexInfo;
 import org.opengroup.osdu.core.common.search.ElasticIndexNameResolver;
 import org.opengroup.osdu.core.common.search.Preconditions;
@@ -54,6 +55,8 @@ import org.opengroup.osdu.indexer.cache.partitionsafe.IndexCache;
 import org.opengroup.osdu.indexer.util.CustomIndexAnalyzerSetting;
 import org.opengroup.osdu.indexer.util.RequestScopedElasticsearchClient;
 import org.opengroup.osdu.indexer.util.TypeMapper;
+import org.opengroup.osdu.indexer.util.concurrent.AsyncRetryExecutor;
+import org.opengroup.osdu.indexer.util.concurrent.RetryPolicy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -67,7 +70,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
 
 import static co.elastic.clients.elasticsearch._types.HealthStatus.*;
 
@@ -95,6 +98,10 @@ public class IndicesServiceImpl implements IndicesService {
     private ObjectMapper objectMapper;
     @Autowired
     private CustomIndexAnalyzerSetting customIndexAnalyzerSetting;
+    @Autowired
+    private DpsHeaders headers;
+    @Autowired
+    private AsyncRetryExecutor retryExecutor;
     @Value("${index.health.retry.threshold:5}")
     private int healthRetryThreshold;
     @Value("${index.health.retry.sleepPeriodInMilliseconds:5000}")
@@ -213,17 +220,25 @@ public class IndicesServiceImpl implements IndicesService {
         if (!exists.value()) {
             return false;
         }
-        String actualHealthStatus = null;
-        for(int retryCount = 0; retryCount <= healthRetryThreshold; retryCount++) {
-            List<IndexInfo> indexHealthInfos = this.getIndexInfo(client, index);
-            if (!indexHealthInfos.isEmpty()) {
-                actualHealthStatus = indexHealthInfos.get(0).getHealth();
-                if (Green.jsonValue().equalsIgnoreCase(actualHealthStatus) || Yellow.jsonValue().equalsIgnoreCase(actualHealthStatus)) {
-                    return true;
-                }
-            }
-            sleepInMilliSeconds(healthRetrySleepPeriodInMilliseconds);
+        // poll the health on the retry executor's timer instead of sleeping on this thread
+        RetryPolicy<List<IndexInfo>> healthPolicy = RetryPolicy.onResult(healthRetryThreshold, healthRetrySleepPeriodInMilliseconds,
+                indexHealthInfos -> !isHealthy(indexHealthInfos));
+        CompletableFuture<Boolean> healthy = retryExecutor.executeAsync(headers.getPartitionId(), healthPolicy, () -> this.getIndexInfo(client, index))
+                .thenApply(indexHealthInfos -> toIndexHealth(index, indexHealthInfos));
+        try {
+            return AsyncRetryExecutor.await(healthy);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
         }
+    }
+
+    private boolean toIndexHealth(String index, List<IndexInfo> indexHealthInfos) {
+        if (isHealthy(indexHealthInfos)) {
+            return true;
+        }
+        String actualHealthStatus = indexHealthInfos.isEmpty() ? null : indexHealthInfos.get(0).getHealth();
         if (Red.jsonValue().equalsIgnoreCase(actualHealthStatus)) {
             throw new AppException(HttpStatus.SC_SERVICE_UNAVAILABLE,
                     "Index not available for indexing",
@@ -232,12 +247,12 @@ public class IndicesServiceImpl implements IndicesService {
         return false;
     }
 
-    private void sleepInMilliSeconds(int milliseconds) {
-        try {
-            TimeUnit.MILLISECONDS.sleep(milliseconds);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+    private boolean isHealthy(List<IndexInfo> indexHealthInfos) {
+        if (indexHealthInfos == null || indexHealthInfos.isEmpty()) {
+            return false;
         }
+        String actualHealthStatus = indexHealthInfos.get(0).getHealth();
+        return Green.jsonValue().equalsIgnoreCase(actualHealthStatus) || Yellow.jsonValue().equalsIgnoreCase(actualHealthStatus);
     }
 
     private IndexSettings getDefaultIndexSettings() {
@@ -14,7 +14,6 @@
 
 package org.opengroup.osdu.indexer.service;
 
-import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import com.google.common.base.Strings;
 import com.google.gson.Gson;
 
@@ -110,11 +109,12 @@ public class ReindexServiceImpl implements ReindexService {
             this.replayReindexMsg(msgs, 0L, null);
         }
         if (!records.getNotFound().isEmpty()) {
-            String queryString = String.format("id: (%s)", QueryUtil.createIdsFilter(records.getNotFound()));
-            Query query = QueryUtil.createSimpleTextQuery(queryString);
             List<String> returnedFields = List.of("kind", "id");
             try {
-                List<SearchRecord> results = searchClient.search("*:*:*:*", query, null, returnedFields, records.getNotFound().size());
+                List<SearchRecord> results = new ArrayList<>();
+                for (List<String> ids : QueryUtil.partitionIds(records.getNotFound())) {
+                    results.addAll(searchClient.search("*:*:*:*", QueryUtil.createIdsQuery(ids), null, returnedFields, ids.size()));
+                }
                 List<RecordInfo> msgs = results.stream()
                         .map(record -> RecordInfo.builder().id(record.getId()).kind(record.getKind()).op(OperationType.delete.name()).build()).collect(Collectors.toList());
                 this.replayReindexMsg(msgs, 0L, null);
@@ -26,14 +26,18 @@ import org.opengroup.osdu.core.common.model.indexer.ElasticType;
 import org.opengroup.osdu.core.common.model.indexer.IndexSchema;
 import org.opengroup.osdu.core.common.model.indexer.IndexingStatus;
 import org.opengroup.osdu.core.common.model.indexer.JobStatus;
+import org.opengroup.osdu.indexer.cache.partitionsafe.SchemaAccessorPlanCache;
 import org.opengroup.osdu.indexer.cache.partitionsafe.VirtualPropertiesSchemaCache;
+import org.opengroup.osdu.indexer.model.SchemaAccessorPlan;
 import org.opengroup.osdu.indexer.schema.converter.config.SchemaConverterConfig;
 import org.opengroup.osdu.indexer.schema.converter.tags.Priority;
 import org.opengroup.osdu.indexer.schema.converter.tags.VirtualProperties;
 import org.opengroup.osdu.indexer.schema.converter.tags.VirtualProperty;
+import org.opengroup.osdu.indexer.util.PropertyPathTrie;
 import org.opengroup.osdu.indexer.util.PropertyUtil;
 import org.opengroup.osdu.indexer.util.geo.decimator.DecimatedResult;
 import org.opengroup.osdu.indexer.util.geo.decimator.GeoShapeDecimator;
+import org.opengroup.osdu.indexer.util.geo.decimator.ShapeResolutionLevels;
 import org.opengroup.osdu.indexer.util.geo.extractor.PointExtractor;
 import org.opengroup.osdu.indexer.util.BooleanFeatureFlagClient;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,7 +46,6 @@ import org.springframework.stereotype.Component;
 import jakarta.inject.Inject;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static org.opengroup.osdu.indexer.model.Constants.AS_INGESTED_COORDINATES_FEATURE_NAME;
 import static org.opengroup.osdu.indexer.config.IndexerConfigurationProperties.MAP_BOOL2STRING_FEATURE_NAME;
@@ -64,8 +67,12 @@ public class StorageIndexerPayloadMapper {
     @Inject
     private VirtualPropertiesSchemaCache virtualPropertiesSchemaCache;
     @Inject
+    private SchemaAccessorPlanCache schemaAccessorPlanCache;
+    @Inject
     private GeoShapeDecimator decimator;
     @Inject
+    private ShapeResolutionLevels shapeResolutionLevels;
+    @Inject
     private PointExtractor pointExtractor;
 
     @Autowired
@@ -84,7 +91,7 @@ public class StorageIndexerPayloadMapper {
             return dataCollectorMap;
         }
 
-        mapDataPayload(storageSchema.getDataSchema(), storageRecordData, recordId, dataCollectorMap);
+        mapDataPayload(getAccessorPlan(storageSchema), storageRecordData, recordId, dataCollectorMap);
         mapVirtualPropertiesPayload(storageSchema, recordId, dataCollectorMap);
         if (this.featureFlagChecker.isFeatureEnabled(AS_INGESTED_COORDINATES_FEATURE_NAME)) {
             mapAsIngestedCoordinatesPayload(recordId, asIngestedCoordinatesPaths, storageRecordData, dataCollectorMap);
@@ -93,107 +100,149 @@ public class StorageIndexerPayloadMapper {
         return dataCollectorMap;
     }
 
-    private Map<String, Object> mapDataPayload(Map<String, Object> dataSchema, Map<String, Object> storageRecordData,
+    private Map<String, Object> mapDataPayload(SchemaAccessorPlan accessorPlan, Map<String, Object> storageRecordData,
                                                String recordId, Map<String, Object> dataCollectorMap) {
 
-        // get the key and get the corresponding object from the storageRecord object
-        for (Map.Entry<String, Object> entry : dataSchema.entrySet()) {
-            String schemaPropertyName = entry.getKey();
-            Object storageRecordValue = getPropertyValue(recordId, storageRecordData, schemaPropertyName);
-            ElasticType elasticType = defineElasticType(entry.getValue());
+        // walk the compiled schema and get the corresponding object from the storageRecord object
+        for (SchemaAccessorPlan.Field field : accessorPlan.getFields()) {
+            String schemaPropertyName = field.name();
 
-            if (Objects.isNull(elasticType)) {
+            if (Objects.isNull(field.elasticType())) {
                 this.jobStatus
                         .addOrUpdateRecordStatus(recordId, IndexingStatus.WARN, HttpStatus.SC_BAD_REQUEST,
                                 String.format("record-id: %s | %s for entry %s", recordId, "Not resolvable elastic type", schemaPropertyName));
                 continue;
             }
 
-            if (schemaConfig.getProcessedArraysTypes().contains(elasticType.getValue().toLowerCase()) && Objects.nonNull(storageRecordValue)) {
-                processInnerProperties(recordId, dataCollectorMap, entry.getValue(), schemaPropertyName, (List<Map>) storageRecordValue);
+            Object storageRecordValue = getPropertyValue(recordId, storageRecordData, field);
+
+            if (field.processedArray() && Objects.nonNull(storageRecordValue)) {
+                processInnerProperties(recordId, dataCollectorMap, field, (List<Map>) storageRecordValue);
             }
 
-            if (storageRecordValue == null && !nullIndexedValueSupported(elasticType)) {
+            if (storageRecordValue == null && !field.indexNullValues()) {
                 continue;
             }
 
-            switch (elasticType) {
-                case KEYWORD:
-                case TEXT:
-                    this.attributeParsingService.tryParseString(recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case KEYWORD_ARRAY:
-                case TEXT_ARRAY:
-                    this.attributeParsingService.tryParseValueArray(String.class, recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case INTEGER_ARRAY:
-                    this.attributeParsingService.tryParseValueArray(Integer.class, recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case INTEGER:
-                    this.attributeParsingService.tryParseInteger(recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case LONG_ARRAY:
-                    this.attributeParsingService.tryParseValueArray(Long.class, recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case LONG:
-                    this.attributeParsingService.tryParseLong(recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case FLOAT_ARRAY:
-                    this.attributeParsingService.tryParseValueArray(Float.class, recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case FLOAT:
-                    this.attributeParsingService.tryParseFloat(recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case DOUBLE_ARRAY:
-                    this.attributeParsingService.tryParseValueArray(Double.class, recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case DOUBLE:
-                    this.attributeParsingService.tryParseDouble(recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case BOOLEAN_ARRAY:
-                    this.attributeParsingService.tryParseValueArray(Boolean.class, recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case BOOLEAN:
-                    this.attributeParsingService.tryParseBoolean(recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case DATE_ARRAY:
-                    this.attributeParsingService.tryParseValueArray(Date.class, recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case DATE:
-                    this.attributeParsingService.tryParseDate(recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case GEO_POINT:
-                    this.attributeParsingService.tryParseGeopoint(recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case GEO_SHAPE:
-                    this.attributeParsingService.tryParseGeojson(recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case FLATTENED:
-                    // flattened type inner properties will be added "as is" without parsing as they types not present in schema
-                    this.attributeParsingService.tryParseFlattened(recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case OBJECT:
-                    // object type inner properties will be added "as is" without parsing as they types not present in schema
-                    this.attributeParsingService.tryParseObject(recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
-                    break;
-                case UNDEFINED:
-                    // don't do anything for now
-                    break;
+            if (field.parser() != null) {
+                field.parser().parse(recordId, schemaPropertyName, storageRecordValue, dataCollectorMap);
             }
         }
 
         return dataCollectorMap;
     }
 
-    private void processInnerProperties(String recordId, Map<String, Object> dataCollectorMap, Object schemaPropertyWithInnerProperties,
-                                        String name, List<Map> storageRecordValue) {
-        Map schemaPropertyMap = (Map) schemaPropertyWithInnerProperties;
-        Map innerProperties = (Map) schemaPropertyMap.get(Constants.PROPERTIES);
+    private void processInnerProperties(String recordId, Map<String, Object> dataCollectorMap, SchemaAccessorPlan.Field field, List<Map> storageRecordValue) {
         ArrayList<Map> innerPropertiesMappingCollector = new ArrayList<>();
         storageRecordValue.stream()
             .filter(Objects::nonNull)
-            .forEach(recordData -> innerPropertiesMappingCollector.add(mapDataPayload(innerProperties, recordData, recordId, new HashMap<>())));
-        dataCollectorMap.put(name, innerPropertiesMappingCollector);
+            .forEach(recordData -> {
+                if (field.innerPlan() == null) {
+                    throw new IllegalArgumentException(String.format("inner properties are not defined in the schema of property: %s", field.name()));
+                }
+                innerPropertiesMappingCollector.add(mapDataPayload(field.innerPlan(), recordData, recordId, new HashMap<>()));
+            });
+        dataCollectorMap.put(field.name(), innerPropertiesMappingCollector);
+    }
+
+    /**
+     * The accessor plan of a kind is compiled once and reused for all records mapped against the same typed schema.
+     * A new typed schema, or a schema that grew after compilation, e.g. with as-ingested coordinates properties, gets
+     * a new plan. Schema changes also drop the plan with the other schema caches of the kind.
+     */
+    private SchemaAccessorPlan getAccessorPlan(IndexSchema storageSchema) {
+        Map<String, Object> dataSchema = storageSchema.getDataSchema();
+        SchemaAccessorPlan accessorPlan = this.schemaAccessorPlanCache.get(storageSchema.getKind());
+        if (accessorPlan == null || !accessorPlan.isCompiledFrom(dataSchema)) {
+            accessorPlan = compileAccessorPlan(dataSchema);
+            this.schemaAccessorPlanCache.put(storageSchema.getKind(), accessorPlan);
+        }
+        return accessorPlan;
+    }
+
+    private SchemaAccessorPlan compileAccessorPlan(Map<String, Object> dataSchema) {
+        List<SchemaAccessorPlan.Field> fields = new ArrayList<>(dataSchema.size());
+        for (Map.Entry<String, Object> entry : dataSchema.entrySet()) {
+            String schemaPropertyName = entry.getKey();
+            ElasticType elasticType = defineElasticType(entry.getValue());
+            if (Objects.isNull(elasticType)) {
+                fields.add(new SchemaAccessorPlan.Field(schemaPropertyName, null, null, null, false, false, null));
+                continue;
+            }
+
+            boolean processedArray = schemaConfig.getProcessedArraysTypes().contains(elasticType.getValue().toLowerCase());
+            SchemaAccessorPlan innerPlan = null;
+            if (processedArray && entry.getValue() instanceof Map schemaPropertyMap
+                    && schemaPropertyMap.get(Constants.PROPERTIES) instanceof Map innerProperties) {
+                innerPlan = compileAccessorPlan((Map<String, Object>) innerProperties);
+            }
+            fields.add(new SchemaAccessorPlan.Field(schemaPropertyName, splitPropertyPath(schemaPropertyName), elasticType,
+                    getFieldParser(elasticType), nullIndexedValueSupported(elasticType), processedArray, innerPlan));
+        }
+        return new SchemaAccessorPlan(dataSchema, fields);
+    }
+
+    private String[] splitPropertyPath(String propertyKey) {
+        // indexed or mapped property expressions are left to the bean utilities
+        if (propertyKey.indexOf('[') >= 0 || propertyKey.indexOf('(') >= 0) {
+            return null;
+        }
+        String[] path = propertyKey.split("\\.", -1);
+        for (String segment : path) {
+            if (segment.isEmpty()) {
+                return null;
+            }
+        }
+        return path;
+    }
+
+    private SchemaAccessorPlan.FieldParser getFieldParser(ElasticType elasticType) {
+        IAttributeParsingService parser = this.attributeParsingService;
+        switch (elasticType) {
+            case KEYWORD:
+            case TEXT:
+                return parser::tryParseString;
+            case KEYWORD_ARRAY:
+            case TEXT_ARRAY:
+                return (recordId, name, value, dataMap) -> parser.tryParseValueArray(String.class, recordId, name, value, dataMap);
+            case INTEGER_ARRAY:
+                return (recordId, name, value, dataMap) -> parser.tryParseValueArray(Integer.class, recordId, name, value, dataMap);
+            case INTEGER:
+                return parser::tryParseInteger;
+            case LONG_ARRAY:
+                return (recordId, name, value, dataMap) -> parser.tryParseValueArray(Long.class, recordId, name, value, dataMap);
+            case LONG:
+                return parser::tryParseLong;
+            case FLOAT_ARRAY:
+                return (recordId, name, value, dataMap) -> parser.tryParseValueArray(Float.class, recordId, name, value, dataMap);
+            case FLOAT:
+                return parser::tryParseFloat;
+            case DOUBLE_ARRAY:
+                return (recordId, name, value, dataMap) -> parser.tryParseValueArray(Double.class, recordId, name, value, dataMap);
+            case DOUBLE:
+                return parser::tryParseDouble;
+            case BOOLEAN_ARRAY:
+                return (recordId, name, value, dataMap) -> parser.tryParseValueArray(Boolean.class, recordId, name, value, dataMap);
+            case BOOLEAN:
+                return parser::tryParseBoolean;
+            case DATE_ARRAY:
+                return (recordId, name, value, dataMap) -> parser.tryParseValueArray(Date.class, recordId, name, value, dataMap);
+            case DATE:
+                return parser::tryParseDate;
+            case GEO_POINT:
+                return parser::tryParseGeopoint;
+            case GEO_SHAPE:
+                return parser::tryParseGeojson;
+            case FLATTENED:
+                // flattened type inner properties will be added "as is" without parsing as they types not present in schema
+                return parser::tryParseFlattened;
+            case OBJECT:
+                // object type inner properties will be added "as is" without parsing as they types not present in schema
+                return parser::tryParseObject;
+            default:
+                // UNDEFINED and the other types: don't do anything for now
+                return null;
+        }
     }
 
     private ElasticType defineElasticType(Object entryValue) {
@@ -207,6 +256,11 @@ public class StorageIndexerPayloadMapper {
         return elasticType;
     }
 
+    private Object getPropertyValue(String recordId, Map<String, Object> storageRecordData, SchemaAccessorPlan.Field field) {
+        Object propertyVal = field.resolve(storageRecordData);
+        return propertyVal == SchemaAccessorPlan.UNRESOLVED ? getPropertyValue(recordId, storageRecordData, field.name()) : propertyVal;
+    }
+
     public Object getPropertyValue(String recordId, Map<String, Object> storageRecordData, String propertyKey) {
 
         try {
@@ -238,20 +292,29 @@ public class StorageIndexerPayloadMapper {
         String originalGeoShapeProperty = null;
         VirtualProperties virtualProperties = this.virtualPropertiesSchemaCache.get(storageSchema.getKind());
         if(virtualProperties != null) {
+            // Index the properties by the original property paths they are nested under in a single pass,
+            // instead of scanning all the properties for each priority
+            PropertyPathTrie priorityPathTrie = virtualProperties.getPriorityPathTrie();
+            Map<String, List<String>> propertyNamesByOriginalPath = new HashMap<>();
+            for (String propertyName : dataCollectorMap.keySet()) {
+                indexPropertyName(priorityPathTrie, propertyName, propertyNamesByOriginalPath);
+            }
+
             for (Map.Entry<String, VirtualProperty> entry : virtualProperties.getProperties().entrySet()) {
                 if (entry.getValue().getPriorities() == null || entry.getValue().getPriorities().size() == 0) {
                     continue;
                 }
-                Priority priority = chooseOriginalProperty(entry.getKey(), entry.getValue().getPriorities(), dataCollectorMap);
+                Priority priority = chooseOriginalProperty(entry.getKey(), entry.getValue().getPriorities(), dataCollectorMap, propertyNamesByOriginalPath);
                 String virtualPropertyPath = PropertyUtil.removeDataPrefix(entry.getKey());
                 String originalPropertyPath = PropertyUtil.removeDataPrefix(priority.getPath());
 
                 // Populate the virtual property values from the chosen original property
-                List<String> originalPropertyNames = dataCollectorMap.keySet().stream()
-                        .filter(originalPropertyName -> PropertyUtil.isPropertyPathMatched(originalPropertyName, originalPropertyPath))
-                        .collect(Collectors.toList());
+                List<String> originalPropertyNames = new ArrayList<>(propertyNamesByOriginalPath.getOrDefault(originalPropertyPath, List.of()));
                 originalPropertyNames.forEach(originalPropertyName -> {
                     String virtualPropertyName = virtualPropertyPath + originalPropertyName.substring(originalPropertyPath.length());
+                    if (!dataCollectorMap.containsKey(virtualPropertyName)) {
+                        indexPropertyName(priorityPathTrie, virtualPropertyName, propertyNamesByOriginalPath);
+                    }
                     dataCollectorMap.put(virtualPropertyName, dataCollectorMap.get(originalPropertyName));
                 });
 
@@ -299,10 +362,36 @@ public class StorageIndexerPayloadMapper {
         }
         if(dataCollectorMap.containsKey(PropertyUtil.VIRTUAL_DEFAULT_LOCATION_WGS84_PATH)) {
             dataCollectorMap.put(PropertyUtil.VIRTUAL_DEFAULT_LOCATION_IS_DECIMATED_PATH, result.isDecimated());
+            addCoarseGeoShapes(dataCollectorMap);
+        }
+    }
+
+    private void addCoarseGeoShapes(Map<String, Object> dataCollectorMap) throws JsonProcessingException {
+        List<ShapeResolutionLevels.Level> levels = shapeResolutionLevels.getLevels();
+        if(levels.isEmpty())
+            return;
+
+        Map<String, Object> shapeObj = (Map<String, Object>)dataCollectorMap.get(PropertyUtil.VIRTUAL_DEFAULT_LOCATION_WGS84_PATH);
+        if(shapeObj == null)
+            return;
+
+        // Levels go from the finest to the coarsest, so each one is reduced from the previous, smaller shape
+        for(ShapeResolutionLevels.Level level : levels) {
+            DecimatedResult result = decimator.decimateShapeObj(shapeObj, level.epsilonMeters());
+            if(result.isDecimated()) {
+                shapeObj = result.getDecimatedShapeObj();
+            }
+            dataCollectorMap.put(level.propertyPath(), shapeObj);
+        }
+    }
+
+    private void indexPropertyName(PropertyPathTrie priorityPathTrie, String propertyName, Map<String, List<String>> propertyNamesByOriginalPath) {
+        for (String originalPropertyPath : priorityPathTrie.getMatchedPaths(propertyName)) {
+            propertyNamesByOriginalPath.computeIfAbsent(originalPropertyPath, k -> new ArrayList<>()).add(propertyName);
         }
     }
 
-    private Priority chooseOriginalProperty(String virtualPropertyPath, List<Priority> priorities, Map<String, Object> dataCollectorMap) {
+    private Priority chooseOriginalProperty(String virtualPropertyPath, List<Priority> priorities, Map<String, Object> dataCollectorMap, Map<String, List<String>> propertyNamesByOriginalPath) {
         if (PropertyUtil.VIRTUAL_DEFAULT_LOCATION.equals(virtualPropertyPath) || PropertyUtil.DATA_VIRTUAL_DEFAULT_LOCATION.equals(virtualPropertyPath)) {
             // Specially handle "data.VirtualProperties.DefaultLocation" -- check the value of the field "wgs84Coordinates"
             for (Priority priority : priorities) {
@@ -315,9 +404,7 @@ public class StorageIndexerPayloadMapper {
 
         for (Priority priority : priorities) {
             String originalPropertyPath = PropertyUtil.removeDataPrefix(priority.getPath());
-            List<String> originalPropertyNames = dataCollectorMap.keySet().stream()
-                    .filter(name -> PropertyUtil.isPropertyPathMatched(name, originalPropertyPath))
-                    .collect(Collectors.toList());
+            List<String> originalPropertyNames = propertyNamesByOriginalPath.getOrDefault(originalPropertyPath, List.of());
             for (String originalPropertyName : originalPropertyNames) {
                 if (dataCollectorMap.containsKey(originalPropertyName) && dataCollectorMap.get(originalPropertyName) != null)
                     return priority;
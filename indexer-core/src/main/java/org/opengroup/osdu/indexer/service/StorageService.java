@@ -30,9 +30,20 @@ public interface StorageService {
 
     Records getStorageRecords(List<String> ids) throws URISyntaxException;
 
+    /**
+     * Fetch the records in batches and hand every validated batch to the consumer, in request order.
+     * The next batches are fetched while the consumer processes the current one.
+     */
+    void streamStorageRecords(List<String> ids, List<RecordInfo> recordChangedInfos, RecordsBatchConsumer consumer) throws Exception;
+
     RecordQueryResponse getRecordsByKind(RecordReindexRequest request) throws URISyntaxException;
 
     String getStorageSchema(String kind) throws URISyntaxException, UnsupportedEncodingException;
 
     List<String> getAllKinds() throws URISyntaxException;
+
+    @FunctionalInterface
+    interface RecordsBatchConsumer {
+        void accept(Records records) throws Exception;
+    }
 }
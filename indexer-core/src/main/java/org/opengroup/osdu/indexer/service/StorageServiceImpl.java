@@ -49,6 +49,8 @@ import org.opengroup.osdu.core.common.model.storage.RecordIds;
 import org.opengroup.osdu.core.common.provider.interfaces.IRequestInfo;
 import org.opengroup.osdu.indexer.config.IndexerConfigurationProperties;
 import org.opengroup.osdu.indexer.model.XcollaborationHolder;
+import org.opengroup.osdu.indexer.util.concurrent.PartitionRateLimiter;
+import org.opengroup.osdu.indexer.util.concurrent.StorageFetchExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -58,6 +60,8 @@ import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static org.opengroup.osdu.core.common.Constants.SLB_FRAME_OF_REFERENCE_VALUE;
@@ -85,6 +89,10 @@ public class StorageServiceImpl implements StorageService {
     private IndexerConfigurationProperties configurationProperties;
     @Autowired
     private XcollaborationHolder xCollaborationHolder;
+    @Autowired
+    private StorageFetchExecutor storageFetchExecutor;
+    @Autowired
+    private PartitionRateLimiter rateLimiter;
 
     @Override
     public Records getStorageRecords(List<String> ids, List<RecordInfo> recordChangedInfos) throws AppException, URISyntaxException {
@@ -92,20 +100,54 @@ public class StorageServiceImpl implements StorageService {
         List<String> notFound = new ArrayList<>();
         List<ConversionStatus> conversionStatuses = new ArrayList<>();
         List<String> missingRetryRecordIds = new ArrayList<>();
-        Map<String, String> recordChangedMap = recordChangedInfos.stream().collect(Collectors.toMap(RecordInfo::getId, RecordInfo::getKind, (a, b) -> b));
-        Map<String, String> validRecordKindPatchMap = getValidRecordKindPatchMap(recordChangedInfos);
 
-        List<List<String>> batch = Lists.partition(ids, configurationProperties.getStorageRecordsBatchSize());
-        for (List<String> recordsBatch : batch) {
-            Records storageOut = this.getRecords(recordsBatch, recordChangedMap, validRecordKindPatchMap);
+        // batches are fetched concurrently but merged in request order
+        this.fetchRecordBatches(ids, recordChangedInfos, this.getFetchParallelism(), storageOut -> {
             valid.addAll(storageOut.getRecords());
             notFound.addAll(storageOut.getNotFound());
             conversionStatuses.addAll(storageOut.getConversionStatuses());
             missingRetryRecordIds.addAll(storageOut.getMissingRetryRecords());
-        }
+        });
         return Records.builder().records(valid).notFound(notFound).conversionStatuses(conversionStatuses).missingRetryRecords(missingRetryRecordIds).build();
     }
 
+    @Override
+    public void streamStorageRecords(List<String> ids, List<RecordInfo> recordChangedInfos, RecordsBatchConsumer consumer) throws Exception {
+        Integer prefetchBatches = configurationProperties.getStorageRecordsPrefetchBatches();
+        int maxInFlight = Math.max(prefetchBatches == null ? 1 : prefetchBatches + 1, this.getFetchParallelism());
+        this.fetchRecordBatches(ids, recordChangedInfos, maxInFlight, consumer::accept);
+    }
+
+    private <E extends Exception> void fetchRecordBatches(List<String> ids, List<RecordInfo> recordChangedInfos, int maxInFlight, RecordsBatchHandler<E> handler) throws E, URISyntaxException {
+        Map<String, String> recordChangedMap = recordChangedInfos.stream().collect(Collectors.toMap(RecordInfo::getId, RecordInfo::getKind, (a, b) -> b));
+        Map<String, String> validRecordKindPatchMap = getValidRecordKindPatchMap(recordChangedInfos);
+
+        List<List<String>> batch = Lists.partition(ids, configurationProperties.getStorageRecordsBatchSize());
+        if (batch.size() <= 1 || maxInFlight <= 1) {
+            for (List<String> recordsBatch : batch) {
+                handler.accept(this.getRecords(recordsBatch, recordChangedMap, validRecordKindPatchMap));
+            }
+            return;
+        }
+
+        // at most maxInFlight batches are fetched or wait for the handler, so memory stays bounded whatever the message size
+        String partitionId = this.requestInfo.getHeaders().getPartitionId();
+        Deque<Future<HttpResponse>> fetchedBatches = new ArrayDeque<>();
+        int nextBatch = 0;
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                for (; nextBatch < batch.size() && nextBatch < i + maxInFlight; nextBatch++) {
+                    FetchServiceHttpRequest request = this.createRecordsRequest(batch.get(nextBatch));
+                    fetchedBatches.add(this.storageFetchExecutor.submit(() -> this.sendRecordsRequest(request, partitionId)));
+                }
+                HttpResponse response = this.awaitRecordsResponse(fetchedBatches.poll());
+                handler.accept(this.validateStorageResponse(response, batch.get(i), recordChangedMap, validRecordKindPatchMap));
+            }
+        } finally {
+            fetchedBatches.forEach(fetchedBatch -> fetchedBatch.cancel(true));
+        }
+    }
+
     @Override
     public Records getStorageRecords(List<String> ids) throws URISyntaxException {
         List<Records.Entity> valid = new ArrayList<>();
@@ -125,6 +167,29 @@ public class StorageServiceImpl implements StorageService {
     }
 
     protected Records getRecords(List<String> ids, Map<String, String> recordChangedMap, Map<String, String> validRecordKindPatchMap) throws URISyntaxException {
+        FetchServiceHttpRequest request = this.createRecordsRequest(ids);
+        HttpResponse response = this.sendRecordsRequest(request, this.requestInfo.getHeaders().getPartitionId());
+        return this.validateStorageResponse(response, ids, recordChangedMap, validRecordKindPatchMap);
+    }
+
+    private HttpResponse sendRecordsRequest(FetchServiceHttpRequest request, String partitionId) throws URISyntaxException {
+        Integer ratePerSecond = configurationProperties.getStorageRecordsFetchRatePerSecond();
+        Integer burst = configurationProperties.getStorageRecordsFetchBurst();
+        try {
+            this.rateLimiter.acquire(partitionId, ratePerSecond == null ? 0 : ratePerSecond, burst == null ? 1 : burst);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(HttpStatus.SC_SERVICE_UNAVAILABLE, "Storage service error", "Interrupted while waiting to call Storage service", e);
+        }
+        return this.urlFetchService.sendRequest(request);
+    }
+
+    private int getFetchParallelism() {
+        Integer parallelism = configurationProperties.getStorageRecordsFetchParallelism();
+        return parallelism == null ? 1 : parallelism;
+    }
+
+    private FetchServiceHttpRequest createRecordsRequest(List<String> ids) {
         // e.g. {"records":["test:10"]}
         String body = this.gson.toJson(RecordIds.builder().records(ids).build());
 
@@ -133,15 +198,30 @@ public class StorageServiceImpl implements StorageService {
             headers.put(DpsHeaders.COLLABORATION, xCollaborationHolder.getXCollaborationHeader());
         }
         headers.put(FRAME_OF_REFERENCE, SLB_FRAME_OF_REFERENCE_VALUE);
-        FetchServiceHttpRequest request = FetchServiceHttpRequest
+        log.debug("Is isFeatureEnabledAndHeaderExists: {}", xCollaborationHolder.isFeatureEnabledAndHeaderExists());
+        return FetchServiceHttpRequest
                 .builder()
                 .httpMethod(HttpMethods.POST)
                 .url(configurationProperties.getStorageQueryRecordForConversionHost())
                 .headers(headers)
                 .body(body).build();
-        HttpResponse response = this.urlFetchService.sendRequest(request);
-        log.debug("Is isFeatureEnabledAndHeaderExists: {}", xCollaborationHolder.isFeatureEnabledAndHeaderExists());
-        return this.validateStorageResponse(response, ids, recordChangedMap, validRecordKindPatchMap);
+    }
+
+    private HttpResponse awaitRecordsResponse(Future<HttpResponse> fetchedBatch) throws URISyntaxException {
+        try {
+            return fetchedBatch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(HttpStatus.SC_SERVICE_UNAVAILABLE, "Storage service error", "Interrupted while fetching records from Storage service", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof URISyntaxException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Storage service error", "Failed to fetch records from Storage service", e);
+        }
     }
 
     protected Records getRecords(List<String> ids) throws URISyntaxException {
@@ -167,6 +247,8 @@ public class StorageServiceImpl implements StorageService {
     }
 
     private Records validateStorageResponse(HttpResponse response, List<String> ids, Map<String, String> recordChangedMap, Map<String, String> validRecordKindPatchMap) {
+        // the url fetch service only hands the body over as a String; providers decorate it (e.g. records:batch retries)
+        // so the batch is not streamed from the raw connection
         String bulkStorageData = response.getBody();
 
         // retry entire payload -- storage service returned empty response
@@ -348,4 +430,9 @@ public class StorageServiceImpl implements StorageService {
         JsonElement results = asJsonObject.get("results");
         return response.getResponseCode() != HttpStatus.SC_OK ? null : this.gson.fromJson(results, List.class);
     }
+
+    @FunctionalInterface
+    private interface RecordsBatchHandler<E extends Exception> {
+        void accept(Records records) throws E;
+    }
 }
@@ -46,15 +46,15 @@ public class CloudConnectedOuterServicesBuilder implements ConnectedOuterService
   private static final String NOT_AVAILABLE = "N/A";
 
   private final List<RedisCache> redisCaches;
-  private final ElasticClientHandler elasticClient;
+  private final ElasticClientRegistry elasticClientRegistry;
   private final IElasticSettingService elasticSettingService;
 
   public CloudConnectedOuterServicesBuilder(
       List<RedisCache> redisCaches,
-      ElasticClientHandler elasticClient,
+      ElasticClientRegistry elasticClientRegistry,
       IElasticSettingService elasticSettingService) {
     this.redisCaches = redisCaches;
-    this.elasticClient = elasticClient;
+    this.elasticClientRegistry = elasticClientRegistry;
     this.elasticSettingService = elasticSettingService;
   }
 
@@ -89,8 +89,10 @@ public class CloudConnectedOuterServicesBuilder implements ConnectedOuterService
   }
 
   private ConnectedOuterService fetchElasticInfo(String partitionId, ClusterSettings settings) {
+    ElasticClientRegistry.Lease lease = null;
     try {
-      ElasticsearchClient client = elasticClient.createRestClient(settings);
+      lease = elasticClientRegistry.acquire(partitionId, settings);
+      ElasticsearchClient client = lease.getClient();
       return ConnectedOuterService.builder()
           .name(NAME_PREFIX + partitionId)
           .version(client.info().version().number())
@@ -107,6 +109,10 @@ public class CloudConnectedOuterServicesBuilder implements ConnectedOuterService
           .name(NAME_PREFIX + partitionId)
           .version(NOT_AVAILABLE)
           .build();
+    } finally {
+      if (lease != null) {
+        lease.release();
+      }
     }
   }
 }
@@ -0,0 +1,287 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.java.Log;
+import org.opengroup.osdu.core.common.model.indexer.IElasticSettingService;
+import org.opengroup.osdu.core.common.model.search.ClusterSettings;
+import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Long-lived, partition-keyed registry of Elasticsearch clients.
+ * A client (and its connection pool) is shared by all requests of a partition and is only rebuilt
+ * when the partition's {@link ClusterSettings} change. Callers lease a client and release it when done;
+ * replaced clients are closed once their last lease is released, and clients that have not been leased
+ * for {@code elasticsearch.client.registry.idle.eviction.seconds} are evicted.
+ */
+@Component
+@Log
+public class ElasticClientRegistry implements DisposableBean {
+
+    private static final String METRIC_PREFIX = "indexer.elastic.client.";
+    private static final String PARTITION_TAG = "partition";
+
+    @Setter
+    @Getter
+    @Value("${elasticsearch.client.registry.idle.eviction.seconds:1800}")
+    private long idleEvictionSeconds = 1800;
+
+    @Setter
+    @Getter
+    @Value("${elasticsearch.client.registry.eviction.interval.seconds:60}")
+    private long evictionIntervalSeconds = 60;
+
+    @Autowired
+    private ElasticClientHandler elasticClientHandler;
+
+    @Autowired
+    private IElasticSettingService elasticSettingService;
+
+    @Autowired
+    private TenantInfo tenantInfo;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, PooledClient> clients = new ConcurrentHashMap<>();
+    private final Map<String, ClientStatistics> statistics = new ConcurrentHashMap<>();
+    private ScheduledExecutorService evictionExecutor;
+
+    @PostConstruct
+    public void startEviction() {
+        evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "elastic-client-registry-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictionExecutor.scheduleWithFixedDelay(this::evictIdleClients, evictionIntervalSeconds, evictionIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Lease the Elasticsearch client of the current partition.
+     *
+     * @return lease that must be released once the caller is done with the client
+     */
+    public Lease acquire() {
+        return acquire(tenantInfo.getDataPartitionId(), elasticSettingService.getElasticClusterInformation());
+    }
+
+    /**
+     * Lease the Elasticsearch client of the given partition, rebuilding it if the cluster settings have changed.
+     *
+     * @param partitionId     data partition id
+     * @param clusterSettings current cluster settings of the partition
+     * @return lease that must be released once the caller is done with the client
+     */
+    public Lease acquire(String partitionId, ClusterSettings clusterSettings) {
+        ClientStatistics clientStatistics = getOrCreateStatistics(partitionId);
+        PooledClient pooledClient = clients.compute(partitionId, (key, current) -> {
+            if (current != null && isSameCluster(current.settings, clusterSettings)) {
+                clientStatistics.reused.incrementAndGet();
+                current.leases.incrementAndGet();
+                return current;
+            }
+            if (current != null) {
+                log.info(String.format("Elasticsearch cluster settings changed for partition: %s, rebuilding client", key));
+                clientStatistics.rebuilt.incrementAndGet();
+                retire(current);
+            }
+            log.fine("Creating pooled Elasticsearch client for partition: " + key);
+            PooledClient created = new PooledClient(key, clusterSettings, elasticClientHandler.createRestClient(clusterSettings));
+            clientStatistics.created.incrementAndGet();
+            created.leases.incrementAndGet();
+            return created;
+        });
+        pooledClient.lastAccessTime = System.currentTimeMillis();
+        return new Lease(this, pooledClient);
+    }
+
+    /**
+     * Close and remove clients that have no active lease and have been idle longer than the eviction threshold.
+     */
+    public void evictIdleClients() {
+        long threshold = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(idleEvictionSeconds);
+        for (String partitionId : clients.keySet()) {
+            clients.computeIfPresent(partitionId, (key, current) -> {
+                if (current.leases.get() > 0 || current.lastAccessTime > threshold) {
+                    return current;
+                }
+                log.fine("Evicting idle Elasticsearch client for partition: " + key);
+                getOrCreateStatistics(key).evicted.incrementAndGet();
+                retire(current);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * @return point-in-time utilization snapshot of the pooled clients keyed by partition id
+     */
+    public Map<String, ClientStatistics.Snapshot> getStatistics() {
+        Map<String, ClientStatistics.Snapshot> snapshots = new HashMap<>();
+        statistics.forEach((partitionId, clientStatistics) -> {
+            PooledClient pooledClient = clients.get(partitionId);
+            snapshots.put(partitionId, clientStatistics.snapshot(pooledClient == null ? 0 : pooledClient.leases.get(), pooledClient != null));
+        });
+        return snapshots;
+    }
+
+    @Override
+    public void destroy() {
+        if (evictionExecutor != null) {
+            evictionExecutor.shutdownNow();
+        }
+        clients.values().forEach(this::retire);
+        clients.clear();
+    }
+
+    private void release(PooledClient pooledClient) {
+        pooledClient.lastAccessTime = System.currentTimeMillis();
+        if (pooledClient.leases.decrementAndGet() <= 0 && pooledClient.retired) {
+            pooledClient.close();
+        }
+    }
+
+    private void retire(PooledClient pooledClient) {
+        pooledClient.retired = true;
+        if (pooledClient.leases.get() <= 0) {
+            pooledClient.close();
+        }
+    }
+
+    private boolean isSameCluster(ClusterSettings current, ClusterSettings updated) {
+        // settings may be re-hydrated from a distributed cache, so compare by value rather than by reference
+        return current == updated || (current != null && updated != null
+                && Objects.equals(current.getHost(), updated.getHost())
+                && current.getPort() == updated.getPort()
+                && Objects.equals(current.getUserNameAndPassword(), updated.getUserNameAndPassword())
+                && current.isHttps() == updated.isHttps()
+                && current.isTls() == updated.isTls());
+    }
+
+    private ClientStatistics getOrCreateStatistics(String partitionId) {
+        return statistics.computeIfAbsent(partitionId, key -> {
+            ClientStatistics clientStatistics = new ClientStatistics();
+            if (meterRegistry != null) {
+                registerMeters(key, clientStatistics);
+            }
+            return clientStatistics;
+        });
+    }
+
+    private void registerMeters(String partitionId, ClientStatistics clientStatistics) {
+        Gauge.builder(METRIC_PREFIX + "leases.active", clients, map -> {
+                    PooledClient pooledClient = map.get(partitionId);
+                    return pooledClient == null ? 0 : pooledClient.leases.get();
+                })
+                .tag(PARTITION_TAG, partitionId)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "created", clientStatistics.created, AtomicLong::get).tag(PARTITION_TAG, partitionId).register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "reused", clientStatistics.reused, AtomicLong::get).tag(PARTITION_TAG, partitionId).register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "rebuilt", clientStatistics.rebuilt, AtomicLong::get).tag(PARTITION_TAG, partitionId).register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "evicted", clientStatistics.evicted, AtomicLong::get).tag(PARTITION_TAG, partitionId).register(meterRegistry);
+    }
+
+    /**
+     * A leased Elasticsearch client. The client must not be used after {@link #release()}.
+     */
+    public static final class Lease {
+        private final ElasticClientRegistry registry;
+        private final PooledClient pooledClient;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Lease(ElasticClientRegistry registry, PooledClient pooledClient) {
+            this.registry = registry;
+            this.pooledClient = pooledClient;
+        }
+
+        public ElasticsearchClient getClient() {
+            return pooledClient.client;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                registry.release(pooledClient);
+            }
+        }
+    }
+
+    /**
+     * Lifetime counters of the clients created for a partition.
+     */
+    public static final class ClientStatistics {
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong reused = new AtomicLong();
+        private final AtomicLong rebuilt = new AtomicLong();
+        private final AtomicLong evicted = new AtomicLong();
+
+        private Snapshot snapshot(int activeLeases, boolean pooled) {
+            return new Snapshot(activeLeases, pooled, created.get(), reused.get(), rebuilt.get(), evicted.get());
+        }
+
+        public record Snapshot(int activeLeases, boolean pooled, long created, long reused, long rebuilt, long evicted) {
+        }
+    }
+
+    private static final class PooledClient {
+        private final String partitionId;
+        private final ClusterSettings settings;
+        private final ElasticsearchClient client;
+        private final AtomicInteger leases = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private volatile boolean retired;
+        private volatile long lastAccessTime = System.currentTimeMillis();
+
+        private PooledClient(String partitionId, ClusterSettings settings, ElasticsearchClient client) {
+            this.partitionId = partitionId;
+            this.settings = settings;
+            this.client = client;
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                client._transport().close();
+            } catch (IOException e) {
+                log.warning(String.format("Error closing Elasticsearch client of partition %s: %s", partitionId, e.getMessage()));
+            }
+        }
+    }
+}
@@ -55,6 +55,13 @@ import static org.opengroup.osdu.core.common.Constants.WORKER_RELATIVE_URL;
         createTask(WORKER_RELATIVE_URL, payload, countdownMillis, headers);
     }
 
+    /**
+     * @return true if the countdown of a task is honored, i.e. the task is not delivered before it elapsed
+     */
+    public boolean isDelayedDeliverySupported() {
+        return true;
+    }
+
     public void createReIndexTask(String payload, DpsHeaders headers) {
         createTask(REINDEX_RELATIVE_URL, payload, 0l, headers);
     }
@@ -0,0 +1,146 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opengroup.osdu.indexer.util;
+
+import com.google.api.client.util.Strings;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable trie of property paths, keyed by the path segments delimited with ".". It answers the questions
+ * otherwise answered by calling {@link PropertyUtil#isPropertyPathMatched(String, String)} against every path,
+ * in time proportional to the length of the queried property path instead of the number of paths.
+ */
+public final class PropertyPathTrie {
+    private static final char PROPERTY_DELIMITER = '.';
+    private static final PropertyPathTrie EMPTY = new PropertyPathTrie(new Node(), 0);
+
+    private final Node root;
+    private final int size;
+
+    private PropertyPathTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static PropertyPathTrie empty() {
+        return EMPTY;
+    }
+
+    public static PropertyPathTrie of(Collection<String> paths) {
+        if (paths == null || paths.isEmpty()) {
+            return EMPTY;
+        }
+
+        Node root = new Node();
+        int size = 0;
+        for (String path : paths) {
+            if (Strings.isNullOrEmpty(path)) {
+                continue;
+            }
+            Node node = root;
+            int start = 0;
+            while (true) {
+                int end = path.indexOf(PROPERTY_DELIMITER, start);
+                String segment = end < 0 ? path.substring(start) : path.substring(start, end);
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+                if (end < 0) {
+                    break;
+                }
+                start = end + 1;
+            }
+            if (node.path == null) {
+                node.path = path;
+                size++;
+            }
+        }
+        return size == 0 ? EMPTY : new PropertyPathTrie(root, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param propertyPath property path, e.g. "ProjectedBottomHoleLocation.Wgs84Coordinates"
+     * @return the paths of the trie which the given property path is equal to or nested under, shortest first
+     */
+    public List<String> getMatchedPaths(String propertyPath) {
+        if (isEmpty() || Strings.isNullOrEmpty(propertyPath)) {
+            return Collections.emptyList();
+        }
+
+        List<String> matchedPaths = null;
+        Node node = root;
+        int start = 0;
+        while (node != null) {
+            int end = propertyPath.indexOf(PROPERTY_DELIMITER, start);
+            node = node.children.get(end < 0 ? propertyPath.substring(start) : propertyPath.substring(start, end));
+            if (node != null && node.path != null) {
+                if (matchedPaths == null) {
+                    matchedPaths = new ArrayList<>(1);
+                }
+                matchedPaths.add(node.path);
+            }
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+        return matchedPaths == null ? Collections.emptyList() : matchedPaths;
+    }
+
+    /**
+     * @param propertyPath property path, e.g. "ProjectedBottomHoleLocation"
+     * @return true if the given property path is equal to, nested under or the parent of any path of the trie
+     */
+    public boolean touches(String propertyPath) {
+        if (isEmpty() || Strings.isNullOrEmpty(propertyPath)) {
+            return false;
+        }
+
+        Node node = root;
+        int start = 0;
+        while (true) {
+            int end = propertyPath.indexOf(PROPERTY_DELIMITER, start);
+            node = node.children.get(end < 0 ? propertyPath.substring(start) : propertyPath.substring(start, end));
+            if (node == null) {
+                return false;
+            }
+            if (node.path != null) {
+                return true;
+            }
+            if (end < 0) {
+                // every node below the root leads to at least one path
+                return true;
+            }
+            start = end + 1;
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>(4);
+        private String path;
+    }
+}
@@ -15,16 +15,24 @@
 
 package org.opengroup.osdu.indexer.util;
 
+import co.elastic.clients.elasticsearch._types.FieldValue;
 import co.elastic.clients.elasticsearch._types.SortOptions;
 import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.mapping.FieldType;
 import co.elastic.clients.elasticsearch._types.query_dsl.*;
+import com.google.common.collect.Lists;
 import org.apache.commons.lang3.StringUtils;
+import org.opengroup.osdu.core.common.model.search.RecordMetaAttribute;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 public class QueryUtil {
+    public static final int MAX_IDS_PER_QUERY = 1024;
+
     private static final String CONFIGURATIONS_PATH = "data.Configurations";
     private static final String CONFIGURATIONS_PATHS_PATH = "data.Configurations.Paths";
     private static final String RELATIONSHIP_DIRECTION_FIELD = "data.Configurations.Paths.RelatedObjectsSpec.RelationshipDirection";
@@ -60,17 +68,52 @@ public class QueryUtil {
         return queryBuilder.build();
     }
 
-    public static String createIdsFilter(List<String> ids) {
-        StringBuilder idsBuilder = new StringBuilder();
+    /**
+     * Exact lookup of records by id: a {@code terms} query on the keyword {@code id} field, so no query string is parsed.
+     * Id postfixes are removed and duplicated ids are sent once. Large id sets should be split with {@link #partitionIds}.
+     */
+    public static Query createIdsQuery(Collection<String> ids) {
+        List<FieldValue> values = toIdValues(ids);
+        return new Query.Builder()
+                .terms(t -> t.field(RecordMetaAttribute.ID.getValue()).terms(v -> v.value(values)))
+                .build();
+    }
+
+    /**
+     * Exact lookup of the records that refer to one of the given ids with the given field, e.g. {@code data.WellboreID}.
+     * Links are indexed as keywords while other string properties are indexed as text with a {@code keyword} sub-field,
+     * so both are matched with a {@code terms} query. Large id sets should be split with {@link #partitionIds}.
+     */
+    public static Query createReferencesQuery(String field, Collection<String> ids) {
+        List<FieldValue> values = toIdValues(ids);
+        BoolQuery.Builder boolQueryBuilder = QueryBuilders.bool();
+        boolQueryBuilder.should(s -> s.terms(t -> t.field(field).terms(v -> v.value(values))));
+        boolQueryBuilder.should(s -> s.terms(t -> t.field(field + ".keyword").terms(v -> v.value(values))));
+        boolQueryBuilder.minimumShouldMatch("1");
+        return new Query.Builder().bool(boolQueryBuilder.build()).build();
+    }
+
+    private static List<FieldValue> toIdValues(Collection<String> ids) {
+        Set<String> uniqueIds = new LinkedHashSet<>();
+        List<FieldValue> values = new ArrayList<>();
         for (String id : ids) {
-            if (!idsBuilder.isEmpty()) {
-                idsBuilder.append(" OR ");
+            String recordId = PropertyUtil.removeIdPostfix(id);
+            if (uniqueIds.add(recordId)) {
+                values.add(FieldValue.of(recordId));
             }
-            idsBuilder.append("\"");
-            idsBuilder.append(PropertyUtil.removeIdPostfix(id));
-            idsBuilder.append("\"");
         }
-        return idsBuilder.toString();
+        return values;
+    }
+
+    public static List<List<String>> partitionIds(List<String> ids) {
+        return partitionIds(ids, MAX_IDS_PER_QUERY);
+    }
+
+    /**
+     * Split the ids of a lookup into chunks of at most {@code maxIdsPerQuery} ids.
+     */
+    public static List<List<String>> partitionIds(List<String> ids, int maxIdsPerQuery) {
+        return Lists.partition(ids, Math.max(1, maxIdsPerQuery));
     }
 
     public static List<SortOptions> createSortOptionsList(List<String> fields, List<SortOrder> orders) throws Exception {
@@ -17,6 +17,7 @@
 package org.opengroup.osdu.indexer.util;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.java.Log;
 import org.springframework.beans.factory.DisposableBean;
@@ -24,12 +25,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.RequestScope;
 
-import java.io.IOException;
-
 /**
- * A request-scoped bean that manages the lifecycle of an Elasticsearch client.
- * Each HTTP request will get its own instance of this bean, and the client will be
- * automatically closed when the request completes.
+ * A request-scoped bean that leases the partition's pooled Elasticsearch client from the
+ * {@link ElasticClientRegistry}. Each HTTP request will get its own instance of this bean, and the lease
+ * will be automatically released when the request completes.
  */
 @Getter
 @Component
@@ -39,25 +38,25 @@ public class RequestScopedElasticsearchClient implements DisposableBean {
 
     private final ElasticsearchClient client;
 
+    @Getter(AccessLevel.NONE)
+    private final ElasticClientRegistry.Lease lease;
+
     @Autowired
-    public RequestScopedElasticsearchClient(ElasticClientHandler elasticClientHandler) {
-        log.fine("Creating new request-scoped Elasticsearch client");
-        this.client = elasticClientHandler.createRestClientFromClusterInfo();
+    public RequestScopedElasticsearchClient(ElasticClientRegistry elasticClientRegistry) {
+        log.fine("Leasing pooled Elasticsearch client for request");
+        this.lease = elasticClientRegistry.acquire();
+        this.client = lease.getClient();
     }
 
     /**
-     * Close the client when the bean is destroyed (at the end of the request).
+     * Release the lease when the bean is destroyed (at the end of the request). The client itself stays
+     * open in the registry and is reused by subsequent requests of the same partition.
      */
     @Override
     public void destroy() throws Exception {
-        if (client != null) {
-            log.fine("Closing request-scoped Elasticsearch client");
-            try {
-                // Access the transport and close it
-                client._transport().close();
-            } catch (IOException e) {
-                log.warning("Error closing Elasticsearch client: " + e.getMessage());
-            }
+        if (lease != null) {
+            log.fine("Releasing pooled Elasticsearch client lease");
+            lease.release();
         }
     }
 }
@@ -27,22 +27,23 @@ import co.elastic.clients.elasticsearch.core.search.Hit;
 import co.elastic.clients.elasticsearch.core.search.HitsMetadata;
 import co.elastic.clients.elasticsearch.core.search.ResponseBody;
 import co.elastic.clients.elasticsearch.core.search.SourceConfig;
-import com.google.gson.Gson;
 import jakarta.inject.Inject;
 import org.apache.commons.lang3.StringUtils;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.search.RecordMetaAttribute;
 import org.opengroup.osdu.core.common.search.ElasticIndexNameResolver;
 import org.opengroup.osdu.indexer.model.SearchRecord;
+import org.opengroup.osdu.indexer.util.concurrent.AsyncRetryExecutor;
+import org.opengroup.osdu.indexer.util.concurrent.RetryPolicy;
 import org.springframework.stereotype.Component;
 import java.io.IOException;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class SearchClient {
@@ -59,12 +60,20 @@ public class SearchClient {
     @Inject
     private RequestScopedElasticsearchClient requestScopedClient;
 
+    @Inject
+    private DpsHeaders headers;
+
+    @Inject
+    private AsyncRetryExecutor retryExecutor;
+
     private final static int MAX_PAGE_SIZE = 5000; //5k
     private final static int MAX_RECORDS_COUNT = Integer.MAX_VALUE;
     private final Time SEARCH_TIMEOUT = Time.of(t -> t.time("120s"));
 
-    private final int MAX_SEARCH_RETRY = 3;
-    private final long BACKOFF_TIME_UNIT = 1000; //ms
+    private static final int MAX_SEARCH_RETRY = 3;
+    private static final long BACKOFF_TIME_UNIT = 1000; //ms
+    private static final RetryPolicy<SearchResponse<SearchRecord>> SEARCH_RETRY_POLICY =
+            RetryPolicy.onException(MAX_SEARCH_RETRY, 2 * BACKOFF_TIME_UNIT, 8 * BACKOFF_TIME_UNIT, SearchClient::isRetryable);
 
 
     // if returnedField contains property matching from excludes than query result will NOT include that property
@@ -75,8 +84,6 @@ public class SearchClient {
     private final Set<String> queryableExcludes =
             new HashSet<>(Collections.singletonList(RecordMetaAttribute.INDEX_STATUS.getValue()));
 
-    private final Gson gson = new Gson();
-
     public List<SearchRecord> search(String kind, Query query, List<SortOptions> sortOptions, List<String> returnedFields, int limit) throws Exception {
         if(StringUtils.isEmpty(kind)) {
             throw new Exception("kind can't be null or empty");
@@ -84,7 +91,24 @@ public class SearchClient {
         return search(List.of(kind), query, sortOptions, returnedFields, limit);
     }
 
+    public void search(String kind, Query query, List<SortOptions> sortOptions, List<String> returnedFields, int limit, PageConsumer pageConsumer) throws Exception {
+        if(StringUtils.isEmpty(kind)) {
+            throw new Exception("kind can't be null or empty");
+        }
+        search(List.of(kind), query, sortOptions, returnedFields, limit, pageConsumer);
+    }
+
     public List<SearchRecord> search(List<String> kinds, Query query, List<SortOptions> sortOptions, List<String> returnedFields, int limit) throws Exception {
+        List<SearchRecord> records = new ArrayList<>();
+        search(kinds, query, sortOptions, returnedFields, limit, records::addAll);
+        return records;
+    }
+
+    /**
+     * Streaming version of {@link #search(List, Query, List, List, int)}: the matching records are handed to the consumer
+     * one page at a time, so the caller never has to hold all of them at once.
+     */
+    public void search(List<String> kinds, Query query, List<SortOptions> sortOptions, List<String> returnedFields, int limit, PageConsumer pageConsumer) throws Exception {
         if(kinds == null || kinds.isEmpty()) {
             throw new Exception("kinds can't be null or empty");
         }
@@ -100,14 +124,15 @@ public class SearchClient {
         // Use normal query without pagination
         List<SearchRecord> records = query(client, index, query, sortOptions, returnedFields, pageSize);
         if(records.size() < MAX_PAGE_SIZE || records.size() >= limit) {
-            return records;
+            pageConsumer.accept(records);
+            return;
         }
 
         // Use search_after and PIT to do pagination if the number of records is larger than one page size
         String pitId = null;
         try {
             pitId = openPointInTime(client, index);
-            return queryWithPit(client, pitId, query, sortOptions, returnedFields, pageSize, limit);
+            queryWithPit(client, pitId, query, sortOptions, returnedFields, pageSize, limit, pageConsumer);
         }
         finally {
             if(pitId != null) {
@@ -129,17 +154,12 @@ public class SearchClient {
                 .ccsMinimizeRoundtrips(true)
                 .build();
 
-        // Execute
-        SearchResponse<Map<String, Object>> searchResponse = searchWithRetry(client, elasticSearchRequest);
-
-        // Convert SearchResponse
-        List<SearchRecord> results = getSearchRecords(searchResponse);
-
-        return results;
+        // Execute and convert SearchResponse
+        return AsyncRetryExecutor.await(searchWithRetry(client, elasticSearchRequest).thenApply(this::getSearchRecords));
     }
 
-    private List<SearchRecord> queryWithPit(ElasticsearchClient client, String pitId, Query query, List<SortOptions> sortOptions, List<String> returnedFields, int pageSize, int limit) throws Exception {
-        List<SearchRecord> results = new ArrayList<>();
+    private void queryWithPit(ElasticsearchClient client, String pitId, Query query, List<SortOptions> sortOptions, List<String> returnedFields, int pageSize, int limit, PageConsumer pageConsumer) throws Exception {
+        int count = 0;
         List<FieldValue> fieldValues = null;
         // SortOptions can't be null or empty in search with search_after and PIT
         // Otherwise, the returned fieldValues will be empty and cause infinite loop
@@ -157,70 +177,44 @@ public class SearchClient {
                     .pit(pit -> pit.id(pitId).keepAlive(SEARCH_TIMEOUT))
                     .build();
 
-            // Execute
-            SearchResponse<Map<String, Object>> searchResponse = searchWithRetry(client, elasticSearchRequest);
+            // Execute and convert SearchResponse; the next page depends on the sort values of this one and the
+            // consumer runs on the calling thread, so each page is awaited before the next request
+            Page page = AsyncRetryExecutor.await(searchWithRetry(client, elasticSearchRequest).thenApply(this::toPage));
+            List<SearchRecord> batch = page.records();
+            count += batch.size();
+            pageConsumer.accept(batch);
 
-            // Convert SearchResponse
-            List<SearchRecord> batch = getSearchRecords(searchResponse);
-            results.addAll(batch);
-
-            if(batch.size() < pageSize || results.size() >= limit) {
+            if(batch.size() < pageSize || count >= limit) {
                 break; // Done
             }
             else {
                 // Prepare for next page
-                HitsMetadata<Map<String, Object>> searchHits = searchResponse.hits();
-                int length = searchHits.hits().size();
-                fieldValues = searchHits.hits().get(length -1).sort();
-                if(results.size() + pageSize > limit) {
-                    pageSize = limit - results.size();
+                fieldValues = page.lastSortValues();
+                if(count + pageSize > limit) {
+                    pageSize = limit - count;
                 }
             }
         }
+    }
 
-        return results;
+    private CompletableFuture<SearchResponse<SearchRecord>> searchWithRetry(ElasticsearchClient client, SearchRequest elasticSearchRequest) {
+        // retries wait on the retry executor's timer rather than sleeping on this thread
+        return retryExecutor.executeAsync(headers.getPartitionId(), SEARCH_RETRY_POLICY,
+                () -> client.search(elasticSearchRequest, SearchRecord.class));
     }
 
-    private SearchResponse<Map<String, Object>> searchWithRetry(ElasticsearchClient client, SearchRequest elasticSearchRequest) throws IOException, ElasticsearchException {
-        int nTry = 0;
-
-        SearchResponse<Map<String, Object>> results = null;
-        while(nTry <= MAX_SEARCH_RETRY) {
-            nTry++;
-            try {
-                results = client.search(elasticSearchRequest, (Type) Map.class);
-                break;
-            } catch (ElasticsearchException e) {
-                int statusCode = e.status();
-                if (nTry <= MAX_SEARCH_RETRY && (statusCode == 408 || statusCode == 429 || statusCode >= 500)) {
-                    logger.debug(String.format("Retry search %d times with status code %d", nTry, statusCode));
-                    doExponentialBackOff(nTry);
-                }
-                else {
-                    throw e;
-                }
-            } catch (IOException e) {
-                if (nTry <= MAX_SEARCH_RETRY) {
-                    logger.debug(String.format("Retry search %d times because of IOException", nTry));
-                    doExponentialBackOff(nTry);
-                }
-                else {
-                    throw e;
-                }
-            }
-        }
-        if(results == null) {
-            results = new SearchResponse.Builder<Map<String, Object>>().build();
-        }
-        return results;
+    private Page toPage(ResponseBody<SearchRecord> searchResponse) {
+        List<Hit<SearchRecord>> hits = searchResponse.hits().hits();
+        List<FieldValue> lastSortValues = (hits == null || hits.isEmpty()) ? null : hits.get(hits.size() - 1).sort();
+        return new Page(getSearchRecords(searchResponse), lastSortValues);
     }
 
-    private void doExponentialBackOff(int factor) {
-        try {
-            Thread.sleep(((long)Math.pow(2, factor)) * BACKOFF_TIME_UNIT);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    private static boolean isRetryable(Exception e) {
+        if (e instanceof ElasticsearchException elasticsearchException) {
+            int statusCode = elasticsearchException.status();
+            return statusCode == 408 || statusCode == 429 || statusCode >= 500;
         }
+        return e instanceof IOException;
     }
 
     private SearchRequest.Builder createSearchBuilder(Query query, List<SortOptions> sortOptions, List<String> returnedFields, int pageSize) {
@@ -251,13 +245,13 @@ public class SearchClient {
     }
 
     private List<SearchRecord> getSearchRecords(
-            ResponseBody<Map<String, Object>> searchResponse) {
+            ResponseBody<SearchRecord> searchResponse) {
+        // the hits are decoded into SearchRecord by the client's JsonpMapper while the response is parsed
         List<SearchRecord> results = new ArrayList<>();
-        HitsMetadata<Map<String, Object>> searchHits = searchResponse.hits();
+        HitsMetadata<SearchRecord> searchHits = searchResponse.hits();
         if (searchHits.hits() != null) {
-            for (Hit<Map<String, Object>> hit : searchHits.hits()) {
-                Map<String, Object> hitFields = hit.source();
-                results.add(gson.fromJson(gson.toJson(hitFields), SearchRecord.class));
+            for (Hit<SearchRecord> hit : searchHits.hits()) {
+                results.add(hit.source());
             }
         }
         return results;
@@ -291,4 +285,14 @@ public class SearchClient {
         }
     }
 
+    private record Page(List<SearchRecord> records, List<FieldValue> lastSortValues) {
+    }
+
+    /**
+     * Receives the records of a search one page at a time.
+     */
+    @FunctionalInterface
+    public interface PageConsumer {
+        void accept(List<SearchRecord> page) throws Exception;
+    }
 }
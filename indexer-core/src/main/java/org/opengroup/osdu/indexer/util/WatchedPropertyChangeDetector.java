@@ -0,0 +1,173 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opengroup.osdu.indexer.util;
+
+import com.google.api.client.util.Strings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Detects the changes of a record that matter to the augmenter. Instead of diffing the whole data maps, only the
+ * values at the watched property paths (e.g. "FacilityName" or "VerticalMeasurements[].VerticalMeasurementID")
+ * are hashed and compared, so the cost is proportional to the watched values rather than to the record size.
+ * <p>
+ * Hashes follow the semantics of {@link PropertyUtil#getChangedProperties(Map, Map)}: properties with null value are
+ * the same as absent properties, the order of map entries does not matter, the order of list items does, and an
+ * integer is the same as a double with the same value.
+ * </p>
+ */
+public final class WatchedPropertyChangeDetector {
+    private static final String PROPERTY_DELIMITER = ".";
+    private static final String ARRAY_SYMBOL = "[]";
+
+    private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+    private static final long TRUE_HASH = 0x2545F4914F6CDD1DL;
+    private static final long FALSE_HASH = 0x5851F42D4C957F2DL;
+    private static final long MAP_SEED = 0x14057B7EF767814FL;
+    private static final long LIST_SEED = 0x27BB2EE687B0B0FDL;
+    private static final long STRING_SEED = 0x3C6EF372FE94F82BL;
+    private static final long NUMBER_SEED = 0x5BE0CD19137E2179L;
+
+    private WatchedPropertyChangeDetector() {
+    }
+
+    /**
+     * @param previousData previous data of the record, may be null
+     * @param data         current data of the record, may be null
+     * @param watchedPaths property paths without "data." prefix, nested object paths are delimited with "[]."
+     * @return the watched paths whose values differ between the previous and the current data
+     */
+    public static List<String> getChangedProperties(Map<String, Object> previousData, Map<String, Object> data, Collection<String> watchedPaths) {
+        List<String> changedProperties = new ArrayList<>();
+        if (watchedPaths == null || watchedPaths.isEmpty()) {
+            return changedProperties;
+        }
+
+        Set<String> uniquePaths = new LinkedHashSet<>(watchedPaths);
+        for (String path : uniquePaths) {
+            if (Strings.isNullOrEmpty(path)) {
+                continue;
+            }
+            String[] segments = toSegments(path);
+            if (hashAt(previousData, segments, 0) != hashAt(data, segments, 0)) {
+                changedProperties.add(path);
+            }
+        }
+        return changedProperties;
+    }
+
+    static long hashAt(Object node, String[] segments, int index) {
+        if (index == segments.length || node == null) {
+            return hash(node);
+        }
+        if (node instanceof Map<?, ?> map) {
+            Object child = map.get(segments[index]);
+            if (child == null && index < segments.length - 1) {
+                // the record may keep a nested property under a flattened key such as "Location.Wgs84Coordinates"
+                String flattenedKey = String.join(PROPERTY_DELIMITER, Arrays.copyOfRange(segments, index, segments.length));
+                if (map.containsKey(flattenedKey)) {
+                    return hash(map.get(flattenedKey));
+                }
+            }
+            return hashAt(child, segments, index + 1);
+        }
+        if (node instanceof List<?> list) {
+            // the values of an array of nested objects, in item order
+            long hash = LIST_SEED;
+            for (Object item : list) {
+                hash = mix(hash * 31 + hashAt(item, segments, index));
+            }
+            return mix(hash + list.size());
+        }
+        // the path goes deeper than the value
+        return NULL_HASH;
+    }
+
+    static long hash(Object value) {
+        if (value == null) {
+            return NULL_HASH;
+        }
+        if (value instanceof Boolean bool) {
+            return bool ? TRUE_HASH : FALSE_HASH;
+        }
+        if (value instanceof Number number) {
+            return hash(number);
+        }
+        if (value instanceof CharSequence text) {
+            return hash(text);
+        }
+        if (value instanceof Map<?, ?> map) {
+            // sum of the entry hashes is independent of the iteration order
+            long hash = MAP_SEED;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (entry.getValue() != null) {
+                    hash += mix(hash(String.valueOf(entry.getKey())) ^ Long.rotateLeft(hash(entry.getValue()), 29));
+                }
+            }
+            return mix(hash);
+        }
+        if (value instanceof List<?> list) {
+            long hash = LIST_SEED;
+            for (Object item : list) {
+                hash = mix(hash * 31 + hash(item));
+            }
+            return mix(hash + list.size());
+        }
+        return hash(value.toString());
+    }
+
+    private static long hash(Number number) {
+        double value = number.doubleValue();
+        long bits;
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 0x1p63) {
+            // 1 and 1.0 are the same value
+            bits = (long) value;
+        } else {
+            bits = Double.doubleToLongBits(value);
+        }
+        return mix(NUMBER_SEED ^ bits);
+    }
+
+    private static long hash(CharSequence text) {
+        long hash = STRING_SEED ^ text.length();
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    // finalizer of SplitMix64
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private static String[] toSegments(String path) {
+        String[] segments = path.split("\\.");
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i].endsWith(ARRAY_SYMBOL)) {
+                segments[i] = segments[i].substring(0, segments[i].length() - ARRAY_SYMBOL.length());
+            }
+        }
+        return segments;
+    }
+}
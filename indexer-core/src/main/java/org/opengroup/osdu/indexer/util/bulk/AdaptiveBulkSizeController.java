@@ -0,0 +1,96 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.bulk;
+
+import com.google.common.base.Strings;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Additive-increase/multiplicative-decrease controller of the byte cap used to split bulk requests.
+ * The cap of a partition grows by a fixed step after every fast bulk and is halved after a throttled
+ * (429/413) or slow one, always staying within the configured bounds.
+ */
+@Component
+@Getter
+@Setter
+public class AdaptiveBulkSizeController {
+
+    @Value("${elasticsearch.bulk.max.operations:1000}")
+    private int maxOperations = 1000;
+
+    @Value("${elasticsearch.bulk.min.bytes:1048576}")
+    private long minBytes = 1048576L;
+
+    @Value("${elasticsearch.bulk.max.bytes:20971520}")
+    private long maxBytes = 20971520L;
+
+    @Value("${elasticsearch.bulk.initial.bytes:10485760}")
+    private long initialBytes = 10485760L;
+
+    @Value("${elasticsearch.bulk.increase.step.bytes:1048576}")
+    private long increaseStepBytes = 1048576L;
+
+    @Value("${elasticsearch.bulk.target.took.milliseconds:5000}")
+    private long targetTookMillis = 5000L;
+
+    private final Map<String, AtomicLong> byteLimits = new ConcurrentHashMap<>();
+
+    /**
+     * @param partitionId data partition id
+     * @return current byte cap of a single bulk request for the partition
+     */
+    public long getByteLimit(String partitionId) {
+        return limitOf(partitionId).get();
+    }
+
+    /**
+     * Additive increase when the bulk was served within the target time, multiplicative decrease otherwise.
+     *
+     * @param partitionId data partition id
+     * @param tookMillis  'took' reported by Elasticsearch for the bulk
+     */
+    public void onCompleted(String partitionId, long tookMillis) {
+        if (tookMillis > targetTookMillis) {
+            decrease(partitionId);
+        } else {
+            limitOf(partitionId).updateAndGet(limit -> Math.min(maxBytes, limit + increaseStepBytes));
+        }
+    }
+
+    /**
+     * Multiplicative decrease after Elasticsearch rejected (part of) a bulk with 429 or 413.
+     *
+     * @param partitionId data partition id
+     */
+    public void onThrottled(String partitionId) {
+        decrease(partitionId);
+    }
+
+    private void decrease(String partitionId) {
+        limitOf(partitionId).updateAndGet(limit -> Math.max(minBytes, limit / 2));
+    }
+
+    private AtomicLong limitOf(String partitionId) {
+        return byteLimits.computeIfAbsent(Strings.nullToEmpty(partitionId),
+                key -> new AtomicLong(Math.max(minBytes, Math.min(maxBytes, initialBytes))));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.bulk;
+
+import java.util.Collection;
+import java.util.Map;
+import org.opengroup.osdu.indexer.model.geojson.GeoShapeMap;
+
+/**
+ * Cheap upper-bound estimate of the serialized JSON size of a bulk document, computed by walking the
+ * document tree instead of serializing it.
+ */
+public final class BulkDocumentSizeEstimator {
+
+    // action/metadata line of an index or delete operation, excluding index name and id
+    static final int ACTION_LINE_OVERHEAD = 40;
+    private static final int NUMBER_SIZE = 24;
+    private static final int LITERAL_SIZE = 5;
+    // "[lon,lat],"
+    private static final int POSITION_SIZE = 2 * NUMBER_SIZE + 4;
+    // type names and brackets of the geometries
+    private static final int SHAPE_OVERHEAD = 64;
+
+    private BulkDocumentSizeEstimator() {
+    }
+
+    public static long estimateOperation(String index, String id, Object document) {
+        long size = ACTION_LINE_OVERHEAD + length(index) + length(id);
+        if (document != null) {
+            size += estimate(document) + 1;
+        }
+        return size;
+    }
+
+    public static long estimate(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return LITERAL_SIZE;
+        }
+        if (value instanceof CharSequence text) {
+            // quotes plus a little headroom for escaped characters
+            return text.length() + 2L + (text.length() >> 4);
+        }
+        if (value instanceof Number) {
+            return NUMBER_SIZE;
+        }
+        if (value instanceof IndexerDocument document) {
+            return document.estimateSize();
+        }
+        if (value instanceof GeoShapeMap shape && shape.getPositionCount() >= 0) {
+            // walking the shape as a map would build its map entries
+            return SHAPE_OVERHEAD + (long) POSITION_SIZE * shape.getPositionCount();
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 2;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += length(String.valueOf(entry.getKey())) + 4 + estimate(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 2;
+            for (Object item : collection) {
+                size += estimate(item) + 1;
+            }
+            return size;
+        }
+        if (value instanceof Object[] array) {
+            long size = 2;
+            for (Object item : array) {
+                size += estimate(item) + 1;
+            }
+            return size;
+        }
+        if (value instanceof double[] array) {
+            return 2L + (long) array.length * (NUMBER_SIZE + 1);
+        }
+        // beans such as Acl, Legal or IndexProgress are small; their string form is a fair approximation
+        return length(value.toString()) + 2L;
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.bulk;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import com.google.common.base.Strings;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends the sub-bulks of a batch concurrently. At most {@code elasticsearch.bulk.max.concurrent.requests}
+ * sub-bulks of a partition are in flight at a time, and the estimated bytes of all in-flight sub-bulks of the
+ * pod are bounded by {@code elasticsearch.bulk.max.inflight.bytes}. Permits are taken by the calling thread
+ * before a sub-bulk is handed to the executor, so a busy pod slows down producers instead of queueing payloads.
+ * <p>
+ * Outcomes are returned in sub-bulk order and must be processed by the caller, which keeps request-scoped state
+ * such as {@code JobStatus} confined to the calling thread.
+ * </p>
+ */
+@Component
+@Getter
+@Setter
+public class BulkRequestDispatcher implements DisposableBean {
+
+    private static final int BYTES_PER_PERMIT = 1024;
+
+    @Value("${elasticsearch.bulk.max.concurrent.requests:4}")
+    private int maxConcurrentRequests = 4;
+
+    @Value("${elasticsearch.bulk.max.inflight.bytes:104857600}")
+    private long maxInFlightBytes = 104857600L;
+
+    @Value("${elasticsearch.bulk.dispatcher.threads:16}")
+    private int dispatcherThreads = 16;
+
+    private final Map<String, Semaphore> partitionRequestPermits = new ConcurrentHashMap<>();
+    private volatile Semaphore inFlightBytePermits;
+    private volatile ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        getExecutor();
+    }
+
+    /**
+     * Send the given bulk requests and wait for all of them to complete.
+     *
+     * @param client      Elasticsearch client of the partition
+     * @param partitionId data partition id
+     * @param subBulks    bulk requests with their estimated size
+     * @return one outcome per sub-bulk, in the same order
+     */
+    public List<Outcome> dispatch(ElasticsearchClient client, String partitionId, List<SplittingBulkRequestBuilder.SubBulk> subBulks) {
+        List<Outcome> outcomes = new ArrayList<>(subBulks.size());
+        if (subBulks.size() == 1 || maxConcurrentRequests <= 1) {
+            // nothing to overlap, avoid the thread hand-off
+            for (SplittingBulkRequestBuilder.SubBulk subBulk : subBulks) {
+                outcomes.add(execute(client, subBulk.request()));
+            }
+            return outcomes;
+        }
+
+        Semaphore requestPermits = partitionRequestPermits.computeIfAbsent(Strings.nullToEmpty(partitionId), key -> new Semaphore(maxConcurrentRequests));
+        Semaphore bytePermits = getInFlightBytePermits();
+        List<Future<Outcome>> futures = new ArrayList<>(subBulks.size());
+        for (SplittingBulkRequestBuilder.SubBulk subBulk : subBulks) {
+            int bytes = toBytePermits(subBulk.estimatedBytes());
+            try {
+                requestPermits.acquire();
+                try {
+                    bytePermits.acquire(bytes);
+                } catch (InterruptedException e) {
+                    requestPermits.release();
+                    throw e;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.add(null);
+                outcomes.add(Outcome.failed(e, 0));
+                continue;
+            }
+            try {
+                futures.add(getExecutor().submit(() -> {
+                    try {
+                        return execute(client, subBulk.request());
+                    } finally {
+                        bytePermits.release(bytes);
+                        requestPermits.release();
+                    }
+                }));
+                outcomes.add(null);
+            } catch (RejectedExecutionException e) {
+                bytePermits.release(bytes);
+                requestPermits.release();
+                futures.add(null);
+                outcomes.add(Outcome.failed(e, 0));
+            }
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            Future<Outcome> future = futures.get(i);
+            if (future != null) {
+                outcomes.set(i, await(future));
+            }
+        }
+        return outcomes;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private Outcome execute(ElasticsearchClient client, BulkRequest bulkRequest) {
+        long startTime = System.currentTimeMillis();
+        try {
+            BulkResponse response = client.bulk(bulkRequest);
+            return Outcome.completed(response, System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            return Outcome.failed(e, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private Outcome await(Future<Outcome> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Outcome.failed(e, 0);
+        } catch (ExecutionException e) {
+            return Outcome.failed(e.getCause() instanceof Exception cause ? cause : e, 0);
+        }
+    }
+
+    private int toBytePermits(long estimatedBytes) {
+        // an oversized sub-bulk takes the whole budget rather than waiting forever
+        long permits = Math.max(1, estimatedBytes / BYTES_PER_PERMIT);
+        return (int) Math.min(permits, maxBytePermits());
+    }
+
+    private int maxBytePermits() {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxInFlightBytes / BYTES_PER_PERMIT));
+    }
+
+    private Semaphore getInFlightBytePermits() {
+        if (inFlightBytePermits == null) {
+            synchronized (this) {
+                if (inFlightBytePermits == null) {
+                    inFlightBytePermits = new Semaphore(maxBytePermits());
+                }
+            }
+        }
+        return inFlightBytePermits;
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    AtomicInteger threadCount = new AtomicInteger();
+                    executor = Executors.newFixedThreadPool(Math.max(1, dispatcherThreads), runnable -> {
+                        Thread thread = new Thread(runnable, "elastic-bulk-dispatcher-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Result of a single bulk request: either the response or the failure, with the measured round-trip time.
+     */
+    public record Outcome(BulkResponse response, Exception failure, long elapsedMillis) {
+
+        static Outcome completed(BulkResponse response, long elapsedMillis) {
+            return new Outcome(response, null, elapsedMillis);
+        }
+
+        static Outcome failed(Exception failure, long elapsedMillis) {
+            return new Outcome(null, failure, elapsedMillis);
+        }
+    }
+}
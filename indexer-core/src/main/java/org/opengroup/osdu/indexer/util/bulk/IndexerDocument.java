@@ -0,0 +1,99 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.bulk;
+
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.JsonpSerializable;
+import com.google.common.base.Strings;
+import jakarta.json.stream.JsonGenerator;
+import java.util.function.BiConsumer;
+import org.opengroup.osdu.core.common.Constants;
+import org.opengroup.osdu.core.common.model.entitlements.Acl;
+import org.opengroup.osdu.core.common.model.indexer.RecordIndexerPayload;
+import org.opengroup.osdu.core.common.model.search.RecordMetaAttribute;
+import org.opengroup.osdu.indexer.model.XcollaborationHolder;
+
+/**
+ * Elasticsearch source of an indexed record. The meta attributes and the already mapped {@code data} of the record are
+ * written straight into the bulk request body when it is serialized, instead of being copied into a source map first.
+ */
+public final class IndexerDocument implements JsonpSerializable {
+
+    private final RecordIndexerPayload.Record payloadRecord;
+    private final Object collaborationId;
+
+    public IndexerDocument(RecordIndexerPayload.Record payloadRecord, Object collaborationId) {
+        this.payloadRecord = payloadRecord;
+        this.collaborationId = collaborationId;
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, JsonpMapper mapper) {
+        generator.writeStartObject();
+        forEachField((name, value) -> {
+            generator.writeKey(name);
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof String text) {
+                generator.write(text);
+            } else {
+                mapper.serialize(value, generator);
+            }
+        });
+        generator.writeEnd();
+    }
+
+    /**
+     * @return upper-bound estimate of the serialized size of the document, see {@link BulkDocumentSizeEstimator}
+     */
+    public long estimateSize() {
+        long[] size = {2};
+        forEachField((name, value) -> size[0] += name.length() + 4 + BulkDocumentSizeEstimator.estimate(value));
+        return size[0];
+    }
+
+    private void forEachField(BiConsumer<String, Object> field) {
+        if (payloadRecord.getData() != null) {
+            field.accept(Constants.DATA, payloadRecord.getData());
+        }
+        field.accept(RecordMetaAttribute.ID.getValue(), payloadRecord.getId());
+        field.accept(RecordMetaAttribute.KIND.getValue(), payloadRecord.getKind());
+        field.accept(RecordMetaAttribute.AUTHORITY.getValue(), payloadRecord.getAuthority());
+        field.accept(RecordMetaAttribute.SOURCE.getValue(), payloadRecord.getSource());
+        field.accept(RecordMetaAttribute.NAMESPACE.getValue(), payloadRecord.getNamespace());
+        field.accept(RecordMetaAttribute.TYPE.getValue(), payloadRecord.getType());
+        field.accept(RecordMetaAttribute.VERSION.getValue(), payloadRecord.getVersion());
+        field.accept(RecordMetaAttribute.ACL.getValue(), payloadRecord.getAcl());
+        field.accept(RecordMetaAttribute.TAGS.getValue(), payloadRecord.getTags());
+        field.accept(RecordMetaAttribute.X_ACL.getValue(), Acl.flattenAcl(payloadRecord.getAcl()));
+        field.accept(RecordMetaAttribute.LEGAL.getValue(), payloadRecord.getLegal());
+        field.accept(RecordMetaAttribute.INDEX_STATUS.getValue(), payloadRecord.getIndexProgress());
+        if (payloadRecord.getAncestry() != null) {
+            field.accept(RecordMetaAttribute.ANCESTRY.getValue(), payloadRecord.getAncestry());
+        }
+        field.accept(RecordMetaAttribute.CREATE_USER.getValue(), payloadRecord.getCreateUser());
+        field.accept(RecordMetaAttribute.CREATE_TIME.getValue(), payloadRecord.getCreateTime());
+        if (!Strings.isNullOrEmpty(payloadRecord.getModifyUser())) {
+            field.accept(RecordMetaAttribute.MODIFY_USER.getValue(), payloadRecord.getModifyUser());
+        }
+        if (!Strings.isNullOrEmpty(payloadRecord.getModifyTime())) {
+            field.accept(RecordMetaAttribute.MODIFY_TIME.getValue(), payloadRecord.getModifyTime());
+        }
+        if (collaborationId != null) {
+            field.accept(XcollaborationHolder.X_COLLABORATION, collaborationId);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.bulk;
+
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects bulk operations and splits them into sub-bulks that each stay within a byte and an operation cap.
+ * Operations keep their insertion order across the produced sub-bulks. A single operation larger than the
+ * byte cap is sent alone in its own sub-bulk.
+ */
+public class SplittingBulkRequestBuilder {
+
+    private final long maxBytes;
+    private final int maxOperations;
+    private final Time timeout;
+
+    private final List<SubBulk> subBulks = new ArrayList<>();
+    private List<BulkOperation> currentOperations = new ArrayList<>();
+    private long currentBytes = 0;
+
+    public SplittingBulkRequestBuilder(long maxBytes, int maxOperations, Time timeout) {
+        this.maxBytes = Math.max(1, maxBytes);
+        this.maxOperations = Math.max(1, maxOperations);
+        this.timeout = timeout;
+    }
+
+    public SplittingBulkRequestBuilder add(BulkOperation operation, long estimatedBytes) {
+        if (!currentOperations.isEmpty()
+                && (currentBytes + estimatedBytes > maxBytes || currentOperations.size() >= maxOperations)) {
+            flush();
+        }
+        currentOperations.add(operation);
+        currentBytes += estimatedBytes;
+        return this;
+    }
+
+    public List<SubBulk> build() {
+        flush();
+        return subBulks;
+    }
+
+    private void flush() {
+        if (currentOperations.isEmpty()) {
+            return;
+        }
+        List<BulkOperation> operations = currentOperations;
+        BulkRequest.Builder builder = new BulkRequest.Builder().operations(operations);
+        if (timeout != null) {
+            builder.timeout(timeout);
+        }
+        subBulks.add(new SubBulk(builder.build(), currentBytes));
+        currentOperations = new ArrayList<>();
+        currentBytes = 0;
+    }
+
+    /**
+     * A bulk request together with its estimated payload size.
+     */
+    public record SubBulk(BulkRequest request, long estimatedBytes) {
+    }
+}
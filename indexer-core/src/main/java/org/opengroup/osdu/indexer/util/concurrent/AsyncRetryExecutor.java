@@ -0,0 +1,311 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.concurrent;
+
+import com.google.common.base.Strings;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retries calls to Elasticsearch without sleeping on the calling thread.
+ * <p>
+ * The first attempt runs on the calling thread. A retry is scheduled on a timer after its {@link RetryPolicy} delay
+ * and then runs on a small pool with the caller's scope attached; no thread is held while a retry is waiting.
+ * Retries of a partition are further limited by:
+ * <ul>
+ *     <li>a circuit breaker, opened after {@code elasticsearch.retry.circuit.failure.threshold} consecutive retryable
+ *     failures. While open, calls fail fast with 503 instead of piling up; after
+ *     {@code elasticsearch.retry.circuit.open.milliseconds} a single trial call decides whether it closes again.</li>
+ *     <li>a retry budget: every call earns {@code elasticsearch.retry.budget.ratio} retries, up to
+ *     {@code elasticsearch.retry.budget.max}, so retries cannot multiply the load of a struggling cluster. Only retries
+ *     after a failed attempt are paid from the budget; polling a resource that is not ready yet, e.g. an index health,
+ *     is bounded by its policy alone.</li>
+ * </ul>
+ * Only retryable failures count against the circuit. A non-retryable failure, e.g. a 404 or a bad request, leaves the
+ * circuit as it is, since it tells nothing about the health of the cluster.
+ * </p>
+ */
+@Slf4j
+@Component
+@Getter
+@Setter
+public class AsyncRetryExecutor implements DisposableBean {
+
+    @Value("${elasticsearch.retry.threads:8}")
+    private int retryThreads = 8;
+
+    @Value("${elasticsearch.retry.circuit.failure.threshold:20}")
+    private int circuitFailureThreshold = 20;
+
+    @Value("${elasticsearch.retry.circuit.open.milliseconds:30000}")
+    private long circuitOpenMillis = 30000L;
+
+    @Value("${elasticsearch.retry.budget.ratio:0.2}")
+    private double retryBudgetRatio = 0.2;
+
+    @Value("${elasticsearch.retry.budget.max:100}")
+    private double retryBudgetMax = 100;
+
+    @Autowired
+    private ScopedContextPropagator contextPropagator;
+
+    private final Map<String, PartitionState> partitionStates = new ConcurrentHashMap<>();
+    private volatile ScheduledExecutorService scheduler;
+    private volatile ExecutorService executor;
+
+    /**
+     * Waits for a call made with {@link #executeAsync} at the boundary of a synchronous API.
+     *
+     * @param future future returned by {@link #executeAsync}, or composed from it
+     * @return result of the future
+     * @throws Exception failure the future completed with
+     */
+    public static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Call with retries.
+     *
+     * @param partitionId data partition id
+     * @param policy      retry policy
+     * @param attempt     call to make, must be safe to repeat
+     * @return future completed with the result of the last attempt, or with its failure
+     */
+    public <T> CompletableFuture<T> executeAsync(String partitionId, RetryPolicy<T> policy, Callable<T> attempt) {
+        PartitionState state = stateOf(partitionId);
+        if (!state.tryAcquire(System.nanoTime())) {
+            return CompletableFuture.failedFuture(circuitOpen(partitionId));
+        }
+        state.onCall(retryBudgetRatio, retryBudgetMax);
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        ScopedContextPropagator.Snapshot snapshot = contextPropagator.capture();
+        run(new Retry<>(partitionId, state, policy, attempt, snapshot, future), 0);
+        return future;
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> void run(Retry<T> retry, int retryCount) {
+        T result;
+        try {
+            result = retry.attempt().call();
+        } catch (Exception e) {
+            if (!retry.policy().retryableException().test(e)) {
+                retry.state().onNeutral();
+                retry.future().completeExceptionally(e);
+                return;
+            }
+            retry.state().onFailure(System.nanoTime(), circuitFailureThreshold, circuitOpenMillis);
+            if (!scheduleRetry(retry, retryCount + 1, e)) {
+                retry.future().completeExceptionally(e);
+            }
+            return;
+        } catch (Throwable t) {
+            retry.state().onNeutral();
+            retry.future().completeExceptionally(t);
+            return;
+        }
+        retry.state().onSuccess();
+        if (!retry.policy().retryableResult().test(result) || !scheduleRetry(retry, retryCount + 1, null)) {
+            retry.future().complete(result);
+        }
+    }
+
+    private <T> boolean scheduleRetry(Retry<T> retry, int retryCount, Exception cause) {
+        if (retryCount > retry.policy().maxRetries()) {
+            return false;
+        }
+        // a retry on result polls a resource that answered, only retries of failures are paid from the budget
+        if (cause != null && !retry.state().tryWithdrawRetry()) {
+            return false;
+        }
+        long delayMillis = retry.policy().delayMillis(retryCount);
+        if (cause != null) {
+            log.debug("Retry {} of partition {} in {} ms because of {}", retryCount, retry.partitionId(), delayMillis, cause.toString());
+        }
+        try {
+            getScheduler().schedule(() -> dispatch(retry, retryCount, cause), delayMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private <T> void dispatch(Retry<T> retry, int retryCount, Exception cause) {
+        Runnable task = () -> {
+            if (!retry.state().tryAcquire(System.nanoTime())) {
+                // the circuit opened while the retry was waiting, give up with the failure we already have
+                retry.future().completeExceptionally(cause != null ? cause : circuitOpen(retry.partitionId()));
+                return;
+            }
+            try (ScopedContextPropagator.Attachment ignored = retry.snapshot().attach(Map.of())) {
+                run(retry, retryCount);
+            }
+        };
+        try {
+            getExecutor().execute(task);
+        } catch (RejectedExecutionException e) {
+            retry.future().completeExceptionally(cause != null ? cause : e);
+        }
+    }
+
+    private AppException circuitOpen(String partitionId) {
+        return new AppException(HttpStatus.SC_SERVICE_UNAVAILABLE, "Elasticsearch unavailable",
+                String.format("Calls to Elasticsearch of partition %s are suspended after repeated failures", partitionId));
+    }
+
+    private PartitionState stateOf(String partitionId) {
+        return partitionStates.computeIfAbsent(Strings.nullToEmpty(partitionId), key -> new PartitionState(retryBudgetMax));
+    }
+
+    private ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            synchronized (this) {
+                if (scheduler == null) {
+                    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "elastic-retry-scheduler");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    AtomicInteger threadCount = new AtomicInteger();
+                    executor = Executors.newFixedThreadPool(Math.max(1, retryThreads), runnable -> {
+                        Thread thread = new Thread(runnable, "elastic-retry-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return executor;
+    }
+
+    private record Retry<T>(String partitionId, PartitionState state, RetryPolicy<T> policy, Callable<T> attempt,
+                            ScopedContextPropagator.Snapshot snapshot, CompletableFuture<T> future) {
+    }
+
+    /**
+     * Circuit breaker and retry budget of a partition.
+     */
+    static final class PartitionState {
+        private int consecutiveFailures;
+        private long openUntilNanos;
+        private boolean trialInFlight;
+        private double retryBalance;
+
+        PartitionState(double retryBudgetMax) {
+            this.retryBalance = retryBudgetMax;
+        }
+
+        /**
+         * @return false while the circuit is open, or half-open with its trial call still in flight
+         */
+        synchronized boolean tryAcquire(long nowNanos) {
+            if (openUntilNanos == 0) {
+                return true;
+            }
+            if (nowNanos - openUntilNanos < 0 || trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+
+        synchronized void onSuccess() {
+            consecutiveFailures = 0;
+            openUntilNanos = 0;
+            trialInFlight = false;
+        }
+
+        /**
+         * Outcome that tells nothing about the health of the cluster: the circuit is left as it is, only a trial call
+         * is released so that the next call can try again.
+         */
+        synchronized void onNeutral() {
+            trialInFlight = false;
+        }
+
+        synchronized void onFailure(long nowNanos, int failureThreshold, long openMillis) {
+            consecutiveFailures++;
+            if (trialInFlight || consecutiveFailures >= Math.max(1, failureThreshold)) {
+                openUntilNanos = nowNanos + TimeUnit.MILLISECONDS.toNanos(openMillis);
+                if (openUntilNanos == 0) {
+                    openUntilNanos = 1;
+                }
+                trialInFlight = false;
+            }
+        }
+
+        synchronized void onCall(double ratio, double max) {
+            retryBalance = Math.min(max, retryBalance + ratio);
+        }
+
+        synchronized boolean tryWithdrawRetry() {
+            if (retryBalance < 1) {
+                return false;
+            }
+            retryBalance -= 1;
+            return true;
+        }
+    }
+}
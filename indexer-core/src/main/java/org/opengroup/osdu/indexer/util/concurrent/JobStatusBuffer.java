@@ -0,0 +1,90 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opengroup.osdu.indexer.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import org.opengroup.osdu.core.common.model.indexer.IndexingStatus;
+import org.opengroup.osdu.core.common.model.indexer.JobStatus;
+import org.opengroup.osdu.core.common.model.indexer.RecordInfo;
+
+/**
+ * Per-task stand-in for the request's {@link JobStatus}. Every mutation made by a worker thread is buffered
+ * instead of being applied, and is replayed onto the request's job status by the calling thread, in the order
+ * it was made. The shared job status is therefore never written concurrently, and its final content does not
+ * depend on the scheduling of the workers.
+ * <p>
+ * Reads only see the statuses of the task itself, which are never recorded here: workers are expected to report
+ * statuses, not to make decisions on the statuses of the whole request.
+ * </p>
+ */
+public class JobStatusBuffer extends JobStatus {
+
+    private final List<Consumer<JobStatus>> updates = new ArrayList<>();
+
+    @Override
+    public void initialize(List<RecordInfo> recordInfos) {
+        List<RecordInfo> snapshot = recordInfos == null ? null : new ArrayList<>(recordInfos);
+        updates.add(jobStatus -> jobStatus.initialize(snapshot));
+    }
+
+    @Override
+    public void addOrUpdateRecordStatus(Collection<String> recordIds, IndexingStatus indexingStatus, int statusCode, String message, String debugInfo) {
+        List<String> snapshot = recordIds == null ? null : new ArrayList<>(recordIds);
+        updates.add(jobStatus -> jobStatus.addOrUpdateRecordStatus(snapshot, indexingStatus, statusCode, message, debugInfo));
+    }
+
+    @Override
+    public void addOrUpdateRecordStatus(Collection<String> recordIds, IndexingStatus indexingStatus, int statusCode, String message) {
+        List<String> snapshot = recordIds == null ? null : new ArrayList<>(recordIds);
+        updates.add(jobStatus -> jobStatus.addOrUpdateRecordStatus(snapshot, indexingStatus, statusCode, message));
+    }
+
+    @Override
+    public void addOrUpdateRecordStatus(String recordId, IndexingStatus indexingStatus, int statusCode, String message, String debugInfo) {
+        updates.add(jobStatus -> jobStatus.addOrUpdateRecordStatus(recordId, indexingStatus, statusCode, message, debugInfo));
+    }
+
+    @Override
+    public void addOrUpdateRecordStatus(String recordId, IndexingStatus indexingStatus, int statusCode, String message) {
+        updates.add(jobStatus -> jobStatus.addOrUpdateRecordStatus(recordId, indexingStatus, statusCode, message));
+    }
+
+    @Override
+    public void finalizeRecordStatus(String errorMessage) {
+        updates.add(jobStatus -> jobStatus.finalizeRecordStatus(errorMessage));
+    }
+
+    /**
+     * Apply the buffered updates, then the debug infos added through {@link #getDebugInfos()}, to the given job
+     * status and clear the buffer.
+     *
+     * @param jobStatus job status of the request
+     */
+    public void replayTo(JobStatus jobStatus) {
+        updates.forEach(update -> update.accept(jobStatus));
+        updates.clear();
+        if (!getDebugInfos().isEmpty()) {
+            jobStatus.getDebugInfos().addAll(getDebugInfos());
+            getDebugInfos().clear();
+        }
+    }
+
+    public int getPendingUpdateCount() {
+        return updates.size() + getDebugInfos().size();
+    }
+}
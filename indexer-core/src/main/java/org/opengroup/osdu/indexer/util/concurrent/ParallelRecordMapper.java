@@ -0,0 +1,186 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.Setter;
+import org.opengroup.osdu.core.common.model.indexer.JobStatus;
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps the records of a batch on a dedicated fork-join pool.
+ * <p>
+ * Every task runs with the caller's scope attached, except for {@link JobStatus}, which is replaced by a
+ * {@link JobStatusBuffer} of its own. Results are returned in input order and each of them replays its buffered
+ * status updates when it is read, so the calling thread observes exactly the status sequence of a sequential run.
+ * </p>
+ */
+@Component
+@Getter
+@Setter
+public class ParallelRecordMapper implements DisposableBean {
+
+    private static final String JOB_STATUS_BEAN_NAME = "jobStatus";
+
+    @Value("${indexer.payload.mapping.parallelism:0}")
+    private int parallelism = 0;
+
+    @Value("${indexer.payload.mapping.parallel.threshold:8}")
+    private int parallelThreshold = 8;
+
+    @Autowired
+    private ScopedContextPropagator contextPropagator;
+
+    @Autowired(required = false)
+    private ListableBeanFactory beanFactory;
+
+    private volatile String jobStatusTargetBeanName;
+    private volatile ForkJoinPool pool;
+
+    /**
+     * @param recordCount number of records of the batch
+     * @return true if the batch is large enough to be worth mapping in parallel
+     */
+    public boolean isParallel(int recordCount) {
+        return getEffectiveParallelism() > 1 && recordCount >= Math.max(2, parallelThreshold);
+    }
+
+    /**
+     * Apply the mapper to all items concurrently and wait for completion.
+     *
+     * @param items  items to map
+     * @param mapper mapping function, may update record statuses through the request's {@link JobStatus}
+     * @return one result per item, in input order
+     */
+    public <T, R> List<Mapped<R>> map(List<T> items, Function<T, R> mapper) {
+        ScopedContextPropagator.Snapshot snapshot = contextPropagator.capture();
+        String jobStatusBean = getJobStatusTargetBeanName();
+
+        List<ForkJoinTask<Mapped<R>>> tasks = new ArrayList<>(items.size());
+        for (T item : items) {
+            ForkJoinTask<Mapped<R>> task;
+            try {
+                task = getPool().submit(() -> execute(snapshot, jobStatusBean, item, mapper));
+            } catch (RejectedExecutionException e) {
+                // pool is shutting down, map on the calling thread instead
+                task = ForkJoinTask.adapt(() -> execute(snapshot, jobStatusBean, item, mapper));
+                task.invoke();
+            }
+            tasks.add(task);
+        }
+
+        List<Mapped<R>> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<Mapped<R>> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private <T, R> Mapped<R> execute(ScopedContextPropagator.Snapshot snapshot, String jobStatusBean, T item, Function<T, R> mapper) {
+        JobStatusBuffer statusBuffer = new JobStatusBuffer();
+        try (ScopedContextPropagator.Attachment ignored = snapshot.attach(Map.of(jobStatusBean, statusBuffer))) {
+            return new Mapped<>(mapper.apply(item), null, statusBuffer);
+        } catch (Exception e) {
+            return new Mapped<>(null, e, statusBuffer);
+        }
+    }
+
+    private int getEffectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    private String getJobStatusTargetBeanName() {
+        if (jobStatusTargetBeanName == null) {
+            String targetBeanName = ScopedProxyUtils.getTargetBeanName(JOB_STATUS_BEAN_NAME);
+            if (beanFactory != null) {
+                for (String beanName : beanFactory.getBeanNamesForType(JobStatus.class, true, false)) {
+                    if (ScopedProxyUtils.isScopedTarget(beanName)) {
+                        targetBeanName = beanName;
+                        break;
+                    }
+                }
+            }
+            jobStatusTargetBeanName = targetBeanName;
+        }
+        return jobStatusTargetBeanName;
+    }
+
+    private ForkJoinPool getPool() {
+        if (pool == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    pool = new ForkJoinPool(getEffectiveParallelism(), forkJoinPool -> {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                        thread.setName("indexer-payload-mapper-" + thread.getPoolIndex());
+                        return thread;
+                    }, null, false);
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Result of mapping a single item, together with the record status updates made while mapping it.
+     */
+    public static final class Mapped<R> {
+        private final R value;
+        private final Exception failure;
+        private final JobStatusBuffer statusBuffer;
+
+        private Mapped(R value, Exception failure, JobStatusBuffer statusBuffer) {
+            this.value = value;
+            this.failure = failure;
+            this.statusBuffer = statusBuffer;
+        }
+
+        /**
+         * Replay the buffered status updates onto the request's job status, then return the mapped value or
+         * rethrow the mapping failure.
+         *
+         * @param jobStatus job status of the request
+         * @return mapped value
+         * @throws Exception the exception thrown by the mapper
+         */
+        public R get(JobStatus jobStatus) throws Exception {
+            statusBuffer.replayTo(jobStatus);
+            if (failure != null) {
+                throw failure;
+            }
+            return value;
+        }
+    }
+}
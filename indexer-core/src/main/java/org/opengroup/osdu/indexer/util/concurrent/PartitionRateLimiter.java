@@ -0,0 +1,85 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.concurrent;
+
+import com.google.common.base.Strings;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-partition token buckets that pace outgoing requests of this pod. A bucket holds up to {@code burst} tokens and
+ * is refilled at {@code permitsPerSecond}; a caller finding it empty reserves the next token and sleeps until it is
+ * due, so concurrent callers are served in reservation order.
+ */
+@Component
+public class PartitionRateLimiter {
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Wait until a request of the partition may be sent.
+     *
+     * @param partitionId      data partition id
+     * @param permitsPerSecond sustained request rate of the partition, not limited when not positive
+     * @param burst            number of requests that may be sent at once after an idle period
+     * @throws InterruptedException if interrupted while waiting for a token
+     */
+    public void acquire(String partitionId, double permitsPerSecond, int burst) throws InterruptedException {
+        if (permitsPerSecond <= 0) {
+            return;
+        }
+        TokenBucket bucket = buckets.compute(Strings.nullToEmpty(partitionId), (key, current) ->
+                current != null && current.isConfiguredWith(permitsPerSecond, burst) ? current : new TokenBucket(permitsPerSecond, burst));
+        long waitNanos = bucket.reserve(System.nanoTime());
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    static final class TokenBucket {
+        private final double permitsPerSecond;
+        private final int capacity;
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(double permitsPerSecond, int burst) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.capacity = Math.max(1, burst);
+            this.tokens = this.capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        boolean isConfiguredWith(double permitsPerSecond, int burst) {
+            return this.permitsPerSecond == permitsPerSecond && this.capacity == Math.max(1, burst);
+        }
+
+        /**
+         * Take a token, going into debt when the bucket is empty.
+         *
+         * @return nanoseconds to wait until the taken token is due
+         */
+        synchronized long reserve(long nowNanos) {
+            if (nowNanos > lastRefillNanos) {
+                tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+                lastRefillNanos = nowNanos;
+            }
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) (-tokens * TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        }
+    }
+}
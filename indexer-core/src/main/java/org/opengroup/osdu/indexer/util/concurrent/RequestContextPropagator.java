@@ -0,0 +1,107 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.concurrent;
+
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Default {@link ScopedContextPropagator} for the servlet request scope, backed by {@link RequestContextHolder}.
+ * <p>
+ * Request scoped beans that are first used by a worker thread are created off the request thread. Their creation
+ * is serialized across the workers of a snapshot and the first instance stored wins, so all workers and the
+ * request thread keep sharing a single instance per request.
+ * </p>
+ */
+@Component
+public class RequestContextPropagator implements ScopedContextPropagator {
+
+    @Override
+    public Snapshot capture() {
+        RequestAttributes captured = RequestContextHolder.getRequestAttributes();
+        Object lock = new Object();
+        return overrides -> {
+            RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+            if (captured != null) {
+                RequestContextHolder.setRequestAttributes(new WorkerRequestAttributes(captured, overrides, lock));
+            }
+            return () -> {
+                if (previous == null) {
+                    RequestContextHolder.resetRequestAttributes();
+                } else {
+                    RequestContextHolder.setRequestAttributes(previous);
+                }
+            };
+        };
+    }
+
+    private record WorkerRequestAttributes(RequestAttributes delegate, Map<String, Object> overrides, Object lock) implements RequestAttributes {
+
+        @Override
+        public Object getAttribute(String name, int scope) {
+            if (scope == SCOPE_REQUEST && overrides.containsKey(name)) {
+                return overrides.get(name);
+            }
+            return delegate.getAttribute(name, scope);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value, int scope) {
+            synchronized (lock) {
+                // another worker may have created the same scoped bean meanwhile, the scope reads the winner back
+                if (scope != SCOPE_REQUEST || delegate.getAttribute(name, scope) == null) {
+                    delegate.setAttribute(name, value, scope);
+                }
+            }
+        }
+
+        @Override
+        public void removeAttribute(String name, int scope) {
+            synchronized (lock) {
+                delegate.removeAttribute(name, scope);
+            }
+        }
+
+        @Override
+        public String[] getAttributeNames(int scope) {
+            return delegate.getAttributeNames(scope);
+        }
+
+        @Override
+        public void registerDestructionCallback(String name, Runnable callback, int scope) {
+            synchronized (lock) {
+                delegate.registerDestructionCallback(name, callback, scope);
+            }
+        }
+
+        @Override
+        public Object resolveReference(String key) {
+            return delegate.resolveReference(key);
+        }
+
+        @Override
+        public String getSessionId() {
+            return delegate.getSessionId();
+        }
+
+        @Override
+        public Object getSessionMutex() {
+            return delegate.getSessionMutex();
+        }
+    }
+}
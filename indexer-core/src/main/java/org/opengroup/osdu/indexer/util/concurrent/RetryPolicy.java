@@ -0,0 +1,55 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.concurrent;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * When and how long {@link AsyncRetryExecutor} waits before retrying an attempt.
+ * <p>
+ * The delay before retry {@code n} grows exponentially from {@code baseDelayMillis} up to {@code maxDelayMillis}
+ * and is jittered within its upper half, so callers failing together do not retry in lockstep.
+ * </p>
+ *
+ * @param maxRetries         number of retries after the first attempt
+ * @param baseDelayMillis    delay before the first retry, before jitter
+ * @param maxDelayMillis     upper bound of the delay, before jitter
+ * @param retryableException exceptions worth retrying; they also count as failures of the partition's circuit breaker
+ * @param retryableResult    results worth retrying, e.g. a resource that is not ready yet; these retries are not paid
+ *                           from the partition's retry budget
+ */
+public record RetryPolicy<T>(int maxRetries, long baseDelayMillis, long maxDelayMillis,
+                             Predicate<Exception> retryableException, Predicate<T> retryableResult) {
+
+    public static <T> RetryPolicy<T> onException(int maxRetries, long baseDelayMillis, long maxDelayMillis, Predicate<Exception> retryableException) {
+        return new RetryPolicy<>(maxRetries, baseDelayMillis, maxDelayMillis, retryableException, result -> false);
+    }
+
+    public static <T> RetryPolicy<T> onResult(int maxRetries, long delayMillis, Predicate<T> retryableResult) {
+        return new RetryPolicy<>(maxRetries, delayMillis, delayMillis, exception -> false, retryableResult);
+    }
+
+    /**
+     * @param retry 1-based number of the retry
+     * @return jittered delay before the retry, in milliseconds
+     */
+    public long delayMillis(int retry) {
+        long ceiling = Math.max(0, Math.min(maxDelayMillis, baseDelayMillis << Math.min(Math.max(0, retry - 1), 30)));
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.concurrent;
+
+import java.util.Map;
+
+/**
+ * Carries the request (or thread) scope of the calling thread over to worker threads, so that scoped beans such as
+ * {@code DpsHeaders} or {@code JaxRsDpsLog} resolve to the caller's instances while a task runs on a pool thread.
+ */
+public interface ScopedContextPropagator {
+
+    /**
+     * Capture the scope of the calling thread.
+     *
+     * @return snapshot that can be attached to any number of worker threads
+     */
+    Snapshot capture();
+
+    interface Snapshot {
+
+        /**
+         * Bind the captured scope to the current thread until the returned attachment is closed.
+         *
+         * @param scopedBeanOverrides scoped bean instances, keyed by their scoped target bean name, that replace the
+         *                            caller's instances for this attachment only
+         * @return attachment restoring the previous scope of the thread when closed
+         */
+        Attachment attach(Map<String, Object> scopedBeanOverrides);
+    }
+
+    interface Attachment extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.concurrent;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs Storage service calls on a dedicated pool so they can overlap with the mapping and indexing of records
+ * already received. Every task runs with the caller's scope attached, so request-scoped collaborators such as
+ * {@code IUrlFetchService} or {@code DpsHeaders} resolve to the caller's instances.
+ * <p>
+ * Tasks must not update record statuses; responses are validated on the calling thread.
+ * </p>
+ */
+@Component
+@Getter
+@Setter
+public class StorageFetchExecutor implements DisposableBean {
+
+    @Value("${storage.records.fetch.threads:16}")
+    private int fetchThreads = 16;
+
+    @Autowired
+    private ScopedContextPropagator contextPropagator;
+
+    private volatile ExecutorService executor;
+
+    /**
+     * Submit a Storage call on behalf of the calling thread.
+     *
+     * @param task call to execute
+     * @return future of the call result
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        ScopedContextPropagator.Snapshot snapshot = contextPropagator.capture();
+        Callable<T> scopedTask = () -> {
+            try (ScopedContextPropagator.Attachment ignored = snapshot.attach(Map.of())) {
+                return task.call();
+            }
+        };
+        try {
+            return getExecutor().submit(scopedTask);
+        } catch (RejectedExecutionException e) {
+            // pool is shutting down, call on the calling thread instead
+            try {
+                return CompletableFuture.completedFuture(task.call());
+            } catch (Exception ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    AtomicInteger threadCount = new AtomicInteger();
+                    executor = Executors.newFixedThreadPool(Math.max(1, fetchThreads), runnable -> {
+                        Thread thread = new Thread(runnable, "storage-records-fetcher-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return executor;
+    }
+}
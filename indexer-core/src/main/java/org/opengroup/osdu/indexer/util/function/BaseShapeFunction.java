@@ -15,14 +15,13 @@
 
 package org.opengroup.osdu.indexer.util.function;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.jsontype.NamedType;
 import com.google.common.base.Strings;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.opengroup.osdu.core.common.model.indexer.StorageType;
 import org.opengroup.osdu.core.common.model.storage.SchemaItem;
-import org.opengroup.osdu.indexer.model.geojson.*;
-import org.opengroup.osdu.indexer.model.geojson.jackson.GeoJsonConstants;
+import org.opengroup.osdu.indexer.model.geojson.GeoShapeMap;
+import org.opengroup.osdu.indexer.model.geojson.GeometryCollection;
+import org.opengroup.osdu.indexer.model.geojson.jackson.GeoJsonMapper;
 import org.opengroup.osdu.indexer.model.indexproperty.ValueExtraction;
 import org.opengroup.osdu.indexer.util.PropertyUtil;
 import org.springframework.util.CollectionUtils;
@@ -35,8 +34,6 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public abstract class BaseShapeFunction implements IAugmenterFunction {
-    private ObjectMapper deserializerMapper = null;
-
     @Override
     public boolean isMatched(ValueExtraction valueExtraction) {
         if(valueExtraction != null && valueExtraction.isValid()) {
@@ -82,9 +79,12 @@ public abstract class BaseShapeFunction implements IAugmenterFunction {
             try {
                 String valuePath = valuePaths.get(0);
                 Map<String, Object> shapeObj = (Map<String, Object>) originalPropertyValues.getOrDefault(valuePath, null);
-                if(shapeObj != null) {
-                    ObjectMapper objectMapper = getDeserializerMapper();
-                    geometryCollection = objectMapper.readValue(objectMapper.writeValueAsString(shapeObj), GeometryCollection.class);
+                if(shapeObj instanceof GeoShapeMap geoShapeMap) {
+                    // The functions only read the geometries
+                    geometryCollection = geoShapeMap.getGeometryCollection();
+                }
+                if(shapeObj != null && geometryCollection == null) {
+                    geometryCollection = GeoJsonMapper.toGeometryCollection(shapeObj);
                 }
             }
             catch(Exception e) {
@@ -123,18 +123,4 @@ public abstract class BaseShapeFunction implements IAugmenterFunction {
 
         return valueExtraction.getValuePath().trim();
     }
-
-    private synchronized ObjectMapper getDeserializerMapper() {
-        if (deserializerMapper == null) {
-            deserializerMapper = new ObjectMapper();
-            deserializerMapper.registerSubtypes(new NamedType(GeometryCollection.class, GeoJsonConstants.GEOMETRY_COLLECTION));
-            deserializerMapper.registerSubtypes(new NamedType(Polygon.class, GeoJsonConstants.POLYGON));
-            deserializerMapper.registerSubtypes(new NamedType(MultiPolygon.class, GeoJsonConstants.MULTI_POLYGON));
-            deserializerMapper.registerSubtypes(new NamedType(LineString.class, GeoJsonConstants.LINE_STRING));
-            deserializerMapper.registerSubtypes(new NamedType(MultiLineString.class, GeoJsonConstants.MULTI_LINE_STRING));
-            deserializerMapper.registerSubtypes(new NamedType(Point.class, GeoJsonConstants.POINT));
-            deserializerMapper.registerSubtypes(new NamedType(MultiPoint.class, GeoJsonConstants.MULTI_POINT));
-        }
-        return deserializerMapper;
-    }
 }
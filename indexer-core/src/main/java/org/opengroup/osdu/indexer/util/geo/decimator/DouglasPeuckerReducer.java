@@ -15,51 +15,61 @@
 
 package org.opengroup.osdu.indexer.util.geo.decimator;
 
+import org.opengroup.osdu.indexer.model.geojson.PackedPositions;
 import org.opengroup.osdu.indexer.model.geojson.Position;
 import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Component
 public class DouglasPeuckerReducer {
 
     public List<Integer> getPointIndexesToKeep(List<Position> coordinates, double xyScalar, double epsilon) {
-        List<Integer> pointIndexesToKeep = new ArrayList<>();
+        BitSet pointsToKeep = getPointsToKeep(PackedPositions.of(coordinates), xyScalar, epsilon);
+        List<Integer> pointIndexesToKeep = new ArrayList<>(pointsToKeep.cardinality());
+        for (int i = pointsToKeep.nextSetBit(0); i >= 0; i = pointsToKeep.nextSetBit(i + 1)) {
+            pointIndexesToKeep.add(i);
+        }
+        return pointIndexesToKeep;
+    }
+
+    /**
+     * @return the indexes of the points to keep, set bits are in ascending order and free of duplicates by construction
+     */
+    public BitSet getPointsToKeep(PackedPositions coordinates, double xyScalar, double epsilon) {
+        BitSet pointsToKeep = new BitSet(coordinates.size());
 
         int firstPointIndex = 0;
         int lastPointIndex = coordinates.size() - 1;
-        pointIndexesToKeep.add(firstPointIndex);
-        pointIndexesToKeep.add(lastPointIndex);
+        if (lastPointIndex < 0)
+            return pointsToKeep;
+        pointsToKeep.set(firstPointIndex);
+        pointsToKeep.set(lastPointIndex);
 
         // The first and the last point cannot be the same when applying Doublas/Peucker algorithm
-        while(firstPointIndex < lastPointIndex && arePointsEqual(coordinates.get(firstPointIndex), coordinates.get(lastPointIndex)))
+        while(firstPointIndex < lastPointIndex && arePointsEqual(coordinates, firstPointIndex, lastPointIndex))
             lastPointIndex--;
 
         // Keep full resolution for very small objects, i.e. to preserve small rectangles which might be used for accuracy testing
         if (lastPointIndex < 6)
         {
-            for (int i = 1; i <= lastPointIndex; i++)
-                pointIndexesToKeep.add(i);
+            pointsToKeep.set(1, lastPointIndex + 1);
         }
         else {
             // Save the last point used for reduction. It is ok to keep duplicate points
-            pointIndexesToKeep.add(lastPointIndex);
+            pointsToKeep.set(lastPointIndex);
 
-            List<Integer> boundaryPointIndexes = getBoundaryPointIndexes(coordinates, firstPointIndex, lastPointIndex);
-            pointIndexesToKeep.addAll(boundaryPointIndexes);
+            setBoundaryPoints(coordinates, firstPointIndex, lastPointIndex, pointsToKeep);
 
-            reduce(coordinates, firstPointIndex, lastPointIndex, xyScalar, epsilon, pointIndexesToKeep);
+            reduce(coordinates, firstPointIndex, lastPointIndex, xyScalar, epsilon, pointsToKeep);
         }
 
-        // Make sure that the duplicate points are removed
-        return pointIndexesToKeep.stream().distinct().sorted().collect(Collectors.toList());
+        return pointsToKeep;
     }
 
-    private List<Integer> getBoundaryPointIndexes(List<Position> coordinates, int firstPointIndex, int lastPointIndex) {
+    private void setBoundaryPoints(PackedPositions coordinates, int firstPointIndex, int lastPointIndex, BitSet pointsToKeep) {
 
         double xMin = Double.NaN;
         double xMax = Double.NaN;
@@ -74,11 +84,9 @@ public class DouglasPeuckerReducer {
         int zMinIndex = firstPointIndex;
         int zMaxIndex = firstPointIndex;
         for(int i = firstPointIndex; i <= lastPointIndex; i++) {
-            Position position = coordinates.get(i);
-            double xValue = position.getLongitude();
-            double yValue = position.getLatitude();
-            double zValue = position.getAltitude();
-
+            double xValue = coordinates.getLongitude(i);
+            double yValue = coordinates.getLatitude(i);
+            double zValue = coordinates.getAltitude(i);
             if(!Double.isNaN(xValue)) {
                 if (Double.isNaN(xMin) || xValue < xMin)
                 {
@@ -124,35 +132,51 @@ public class DouglasPeuckerReducer {
             }
         }
 
-        Set<Integer> boundaryPointIndexes = new HashSet<> (Arrays.asList(xMinIndex, xMaxIndex, yMinIndex, yMaxIndex, zMinIndex, zMaxIndex));
-        return new ArrayList<>(boundaryPointIndexes);
+        pointsToKeep.set(xMinIndex);
+        pointsToKeep.set(xMaxIndex);
+        pointsToKeep.set(yMinIndex);
+        pointsToKeep.set(yMaxIndex);
+        pointsToKeep.set(zMinIndex);
+        pointsToKeep.set(zMaxIndex);
     }
 
-    private void reduce(List<Position> coordinates, int firstPointIndex, int lastPointIndex, double xyScalar, double epsilon, List<Integer> pointIndexesToKeep) {
-        double maxDistance = 0d;
-        int indexFarthest = 0;
-
-        Position startPoint = coordinates.get(firstPointIndex);
-        Position endPoint = coordinates.get(lastPointIndex);
-        for (int index = firstPointIndex + 1; index < lastPointIndex; index++)
-        {
-            Position testPoint = coordinates.get(index);
-            double distance = calculatePerpendicularDistance(startPoint, endPoint, testPoint, xyScalar);
-            if (distance > maxDistance)
+    private void reduce(PackedPositions coordinates, int firstPointIndex, int lastPointIndex, double xyScalar, double epsilon, BitSet pointsToKeep) {
+        // Segments still to be bisected, as pairs of first and last point indexes. An explicit stack instead of
+        // recursion, as the depth can reach the number of points on lines with hundreds of thousands of them
+        int[] segments = new int[64];
+        int top = 0;
+        segments[top++] = firstPointIndex;
+        segments[top++] = lastPointIndex;
+        while (top > 0) {
+            int last = segments[--top];
+            int first = segments[--top];
+
+            double maxDistance = 0d;
+            int indexFarthest = 0;
+            for (int index = first + 1; index < last; index++)
             {
-                maxDistance = distance;
-                indexFarthest = index;
+                double distance = calculatePerpendicularDistance(coordinates, first, last, index, xyScalar);
+                if (distance > maxDistance)
+                {
+                    maxDistance = distance;
+                    indexFarthest = index;
+                }
             }
-        }
 
-        if (maxDistance > epsilon && indexFarthest != 0)
-        {
-            // Add the largest point that exceeds the tolerance
-            pointIndexesToKeep.add(indexFarthest);
+            if (maxDistance > epsilon && indexFarthest != 0)
+            {
+                // Add the largest point that exceeds the tolerance
+                pointsToKeep.set(indexFarthest);
 
-            // Bisect and recur
-            reduce(coordinates, firstPointIndex, indexFarthest, xyScalar, epsilon, pointIndexesToKeep);
-            reduce(coordinates, indexFarthest, lastPointIndex, xyScalar, epsilon, pointIndexesToKeep);
+                // Bisect
+                if (top + 4 > segments.length) {
+                    segments = Arrays.copyOf(segments, segments.length * 2);
+                }
+                segments[top++] = indexFarthest;
+                segments[top++] = last;
+                segments[top++] = first;
+                segments[top++] = indexFarthest;
+            }
         }
     }
 
@@ -160,19 +184,19 @@ public class DouglasPeuckerReducer {
     /// Calculates the perpendicular distance between a point and a line
     /// </summary>
     /// <returns></returns>
-    private double calculatePerpendicularDistance(Position startPoint, Position endPoint, Position testPoint, double xyScalar) {
-        boolean hasAltitude = startPoint.hasAltitude();
-        double lineStartX = startPoint.getLongitude() * xyScalar;
-        double lineStartY = startPoint.getLatitude() * xyScalar;
-        double lineStartZ = startPoint.getAltitude();
+    private double calculatePerpendicularDistance(PackedPositions coordinates, int startIndex, int endIndex, int testIndex, double xyScalar) {
+        boolean hasAltitude = coordinates.hasAltitude(startIndex);
+        double lineStartX = coordinates.getLongitude(startIndex) * xyScalar;
+        double lineStartY = coordinates.getLatitude(startIndex) * xyScalar;
+        double lineStartZ = coordinates.getAltitude(startIndex);
 
-        double lineEndX = endPoint.getLongitude() * xyScalar;
-        double lineEndY = endPoint.getLatitude() * xyScalar;
-        double lineEndZ = endPoint.getAltitude();
+        double lineEndX = coordinates.getLongitude(endIndex) * xyScalar;
+        double lineEndY = coordinates.getLatitude(endIndex) * xyScalar;
+        double lineEndZ = coordinates.getAltitude(endIndex);
 
-        double testPointX = testPoint.getLongitude() * xyScalar;
-        double testPointY = testPoint.getLatitude() * xyScalar;
-        double testPointZ = testPoint.getAltitude();
+        double testPointX = coordinates.getLongitude(testIndex) * xyScalar;
+        double testPointY = coordinates.getLatitude(testIndex) * xyScalar;
+        double testPointZ = coordinates.getAltitude(testIndex);
 
         double vX = lineEndX - lineStartX;
         double vY = lineEndY - lineStartY;
@@ -198,10 +222,10 @@ public class DouglasPeuckerReducer {
         return Math.sqrt(Math.pow(pbX - testPointX, 2) + Math.pow(pbY - testPointY, 2) + (hasAltitude ? Math.pow(pbZ - testPointZ, 2) : 0));
     }
 
-    private boolean arePointsEqual(Position point1, Position point2)
+    private boolean arePointsEqual(PackedPositions coordinates, int index1, int index2)
     {
-        return point1.getLatitude() == point2.getLatitude() &&
-                point1.getLongitude() == point2.getLongitude() &&
-                (!point1.hasAltitude() || point1.getAltitude() == point2.getAltitude());
+        return coordinates.getLatitude(index1) == coordinates.getLatitude(index2) &&
+                coordinates.getLongitude(index1) == coordinates.getLongitude(index2) &&
+                (!coordinates.hasAltitude(index1) || coordinates.getAltitude(index1) == coordinates.getAltitude(index2));
     }
 }
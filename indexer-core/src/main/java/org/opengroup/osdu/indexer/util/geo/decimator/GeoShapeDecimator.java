@@ -16,55 +16,135 @@
 package org.opengroup.osdu.indexer.util.geo.decimator;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.google.common.hash.HashCode;
+import org.opengroup.osdu.indexer.cache.DecimatedShapeCache;
+import org.opengroup.osdu.indexer.cache.DecimatedShapeCache.DecimatedShape;
+import org.opengroup.osdu.indexer.model.GeoJsonObject;
 import org.opengroup.osdu.indexer.model.geojson.*;
 import org.opengroup.osdu.indexer.model.geojson.jackson.GeoJsonConstants;
+import org.opengroup.osdu.indexer.model.geojson.jackson.GeoJsonMapper;
 import org.springframework.stereotype.Component;
 import jakarta.inject.Inject;
-import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @Component
 public class GeoShapeDecimator {
-    private final ObjectMapper deserializerMapper;
-    private final ObjectMapper serializerMapper;
-
     @Inject
     private GeometryDecimator decimator;
 
-    public GeoShapeDecimator() {
-        serializerMapper = new ObjectMapper();
-        deserializerMapper = createDeserializerMapper();
-    }
+    @Inject
+    private DecimatedShapeCache decimatedShapeCache;
 
     public DecimatedResult decimateShapeObj(Map<String, Object> shapeObj) throws JsonProcessingException {
+        return decimateShapeObj(shapeObj, GeometryDecimator.NORMAL_SHAPE_DECIMATION_EPSILON);
+    }
+
+    /**
+     * @param epsilon tolerance of the reduction, in meters
+     */
+    public DecimatedResult decimateShapeObj(Map<String, Object> shapeObj, double epsilon) throws JsonProcessingException {
         DecimatedResult result = new DecimatedResult();
-        String type = (String)shapeObj.getOrDefault(GeoJsonConstants.TYPE, null);
-        if(type != null && type.equals(GeoJsonConstants.GEOMETRY_COLLECTION)) {
-            GeometryCollection geometryCollection = deserializerMapper.readValue(deserializerMapper.writeValueAsString(shapeObj), GeometryCollection.class);
-            boolean decimated = decimator.decimate(geometryCollection);
-            result.setDecimated(decimated);
-            if(decimated) {
-                Map<String, Object> decimatedShapeObj = serializerMapper.readValue(serializerMapper.writeValueAsString(geometryCollection), new TypeReference<Map<String, Object>>() {});
-                result.setDecimatedShapeObj(decimatedShapeObj);
+        GeometryCollection geometryCollection = toGeometryCollection(shapeObj);
+        if(geometryCollection != null) {
+            DecimatedShape decimatedShape = decimate(geometryCollection, shapeObj instanceof GeoShapeMap, epsilon);
+            result.setDecimated(decimatedShape.decimated());
+            if(decimatedShape.decimated()) {
+                result.setDecimatedShapeObj(new GeoShapeMap(decimatedShape.geometryCollection()));
             }
         }
 
         return result;
     }
 
-    @NotNull
-    private static ObjectMapper createDeserializerMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerSubtypes(new NamedType(GeometryCollection.class, GeoJsonConstants.GEOMETRY_COLLECTION));
-        mapper.registerSubtypes(new NamedType(Polygon.class, GeoJsonConstants.POLYGON));
-        mapper.registerSubtypes(new NamedType(MultiPolygon.class, GeoJsonConstants.MULTI_POLYGON));
-        mapper.registerSubtypes(new NamedType(LineString.class, GeoJsonConstants.LINE_STRING));
-        mapper.registerSubtypes(new NamedType(MultiLineString.class, GeoJsonConstants.MULTI_LINE_STRING));
-        mapper.registerSubtypes(new NamedType(Point.class, GeoJsonConstants.POINT));
-        mapper.registerSubtypes(new NamedType(MultiPoint.class, GeoJsonConstants.MULTI_POINT));
-        return mapper;
+    private DecimatedShape decimate(GeometryCollection geometryCollection, boolean shared, double epsilon) {
+        HashCode key = null;
+        if(decimatedShapeCache.isCacheable(geometryCollection)) {
+            key = DecimatedShapeCache.hash(geometryCollection, epsilon);
+            DecimatedShape decimatedShape = decimatedShapeCache.get(key);
+            if(decimatedShape != null)
+                return decimatedShape;
+        }
+
+        // The decimation modifies the lines in place, while the parsed shape may also be the value of other properties
+        if(shared)
+            geometryCollection = copyOf(geometryCollection);
+        boolean decimated = decimator.decimate(geometryCollection, epsilon);
+        DecimatedShape decimatedShape = new DecimatedShape(decimated ? geometryCollection : null, decimated);
+        if(key != null)
+            decimatedShapeCache.put(key, decimatedShape);
+        return decimatedShape;
+    }
+
+    private GeometryCollection toGeometryCollection(Map<String, Object> shapeObj) throws JsonProcessingException {
+        if(shapeObj instanceof GeoShapeMap geoShapeMap) {
+            GeometryCollection geometryCollection = geoShapeMap.getGeometryCollection();
+            if(geometryCollection != null)
+                return geometryCollection;
+        }
+
+        String type = (String)shapeObj.getOrDefault(GeoJsonConstants.TYPE, null);
+        if(type == null || !type.equals(GeoJsonConstants.GEOMETRY_COLLECTION))
+            return null;
+
+        try {
+            return GeoJsonMapper.toGeometryCollection(shapeObj);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static GeometryCollection copyOf(GeometryCollection geometryCollection) {
+        GeometryCollection copy = new GeometryCollection();
+        for (GeoJsonObject geometry : geometryCollection.getGeometries()) {
+            copy.add(copyOf(geometry));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static GeoJsonObject copyOf(GeoJsonObject geometry) {
+        Geometry<Object> copy;
+        if (geometry instanceof LineString) {
+            copy = (Geometry<Object>) (Geometry<?>) new LineString();
+        } else if (geometry instanceof MultiLineString) {
+            copy = (Geometry<Object>) (Geometry<?>) new MultiLineString();
+        } else if (geometry instanceof Polygon) {
+            copy = (Geometry<Object>) (Geometry<?>) new Polygon();
+        } else if (geometry instanceof MultiPolygon) {
+            copy = (Geometry<Object>) (Geometry<?>) new MultiPolygon();
+        } else {
+            // points are not decimated
+            return geometry;
+        }
+        List<Object> coordinates = (List<Object>) copyOfCoordinates(((Geometry<?>) geometry).getCoordinates());
+        if (copy instanceof LineString) {
+            // keeps the positions of the line packed
+            copy.setCoordinates(coordinates);
+        } else {
+            // add to the coordinates directly, the shape has been validated when it was parsed
+            copy.getCoordinates().addAll(coordinates);
+        }
+        return copy;
+    }
+
+    private static Object copyOfCoordinates(Object coordinates) {
+        if (coordinates instanceof PackedPositions positions) {
+            return positions.copy();
+        }
+        if (coordinates instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(copyOfCoordinates(item));
+            }
+            return copy;
+        }
+        // positions are kept or dropped by the decimation, never modified
+        return coordinates;
     }
 }
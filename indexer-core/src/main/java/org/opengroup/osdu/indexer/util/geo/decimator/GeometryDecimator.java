@@ -15,102 +15,245 @@
 
 package org.opengroup.osdu.indexer.util.geo.decimator;
 
+import lombok.Setter;
 import org.apache.commons.collections.CollectionUtils;
 import org.opengroup.osdu.indexer.model.GeoJsonObject;
 import org.opengroup.osdu.indexer.model.geojson.*;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import jakarta.inject.Inject;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Reduces the lines and polygon rings of a shape with the Douglas-Peucker algorithm.
+ * <p>
+ * The lines are independent of each other, so the ones of a shape with at least
+ * {@code indexer.geo.decimation.parallel.threshold} points in total are reduced on a dedicated fork-join pool.
+ * Each line is reduced exactly as it would be sequentially, so the output does not depend on the mode.
+ * </p>
+ */
 @Component
-public class GeometryDecimator {
-    private static final double NORMAL_SHAPE_DECIMATION_EPSILON = 10; // meters
+public class GeometryDecimator implements DisposableBean {
+    static final double NORMAL_SHAPE_DECIMATION_EPSILON = 10; // meters
     private static final double DEGREES_TO_METERS = 100000; // approximate using 100km per degree
     private static final int MAX_SHAPE_POINT_COUNT_FOR_LINE_DECIMATION = 300000;
     private static final double TOLERANCE_FACTOR = 1.2;
+    // Lines of a fork-join task are not split further below this number of points
+    private static final int MIN_TASK_POINT_COUNT = 10000;
+
+    @Setter
+    @Value("${indexer.geo.decimation.parallelism:0}")
+    private int parallelism = 0;
+
+    @Setter
+    @Value("${indexer.geo.decimation.parallel.threshold:100000}")
+    private int parallelThreshold = 100000;
 
     @Inject
     private DouglasPeuckerReducer reducer;
 
+    private volatile ForkJoinPool pool;
+
     public boolean decimate(GeometryCollection geometryCollection) {
         return decimate(geometryCollection, NORMAL_SHAPE_DECIMATION_EPSILON);
     }
 
-    private boolean decimate(GeometryCollection geometryCollection, double epsilon) {
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * @param epsilon tolerance of the reduction, in meters
+     * @return true if any line or ring of the shape has been reduced, in place
+     */
+    public boolean decimate(GeometryCollection geometryCollection, double epsilon) {
         if(geometryCollection == null || geometryCollection.getGeometries() == null)
             return false;
 
-        boolean decimated = false;
+        List<List<Position>> lines = new ArrayList<>();
         for(GeoJsonObject geoJsonObject: geometryCollection.getGeometries()) {
-            decimated |= decimateBasicGeometry(geoJsonObject, epsilon);
+            collectLines(geoJsonObject, lines);
+        }
+
+        if(lines.size() > 1) {
+            long[] pointCounts = getCumulativePointCounts(lines);
+            if(isParallel(pointCounts[lines.size()])) {
+                try {
+                    return getPool().invoke(new LinesDecimationTask(lines, pointCounts, 0, lines.size(), epsilon));
+                } catch (RejectedExecutionException e) {
+                    // pool is shutting down, decimate on the calling thread instead
+                }
+            }
+        }
+
+        boolean decimated = false;
+        for(List<Position> line : lines) {
+            decimated |= decimateLine(line, epsilon);
         }
         return decimated;
     }
 
+    private boolean isParallel(long pointCount) {
+        return getEffectiveParallelism() > 1 && pointCount >= parallelThreshold;
+    }
+
+    private void collectLines(GeoJsonObject geometry, List<List<Position>> lines) {
+        // Decimation is limited to the geometry of the instances
+        // of LineString, MultiLineString, Polygon and MultiPolygon
+        if(geometry instanceof Geometry &&
+                (geometry instanceof LineString || !(geometry instanceof MultiPoint))) {
+            collectLines(((Geometry<?>) geometry).getCoordinates(), lines);
+        }
+    }
+
     @SuppressWarnings("unchecked")
-    private boolean decimate(List<?> coordinates, double epsilon) {
+    private void collectLines(List<?> coordinates, List<List<Position>> lines) {
         if(CollectionUtils.isEmpty(coordinates))
-            return false;
+            return;
 
-        boolean decimated = false;
         Object firstElement = coordinates.get(0);
         if(firstElement instanceof List){
             for(Object coordinatesElement : coordinates) {
-                decimated |= decimate((List<?>) coordinatesElement, epsilon);
+                collectLines((List<?>) coordinatesElement, lines);
             }
         } else if(firstElement instanceof Position){
-            decimated = decimateLine((List<Position>) coordinates, epsilon);
+            lines.add((List<Position>) coordinates);
         }
-        return decimated;
     }
 
-    private boolean decimateBasicGeometry(GeoJsonObject geometry, double epsilon) {
-        // Decimation is limited to the geometry of the instances
-        // of LineString, MultiLineString, Polygon and MultiPolygon
-        return geometry instanceof Geometry &&
-                (geometry instanceof LineString || !(geometry instanceof MultiPoint)) &&
-                decimate(((Geometry<?>) geometry).getCoordinates(), epsilon);
+    private static long[] getCumulativePointCounts(List<List<Position>> lines) {
+        long[] pointCounts = new long[lines.size() + 1];
+        for(int i = 0; i < lines.size(); i++) {
+            pointCounts[i + 1] = pointCounts[i] + lines.get(i).size();
+        }
+        return pointCounts;
     }
 
     private boolean decimateLine(List<Position> coordinates, double epsilon) {
         if(coordinates == null || coordinates.size() < 3)
             return false;
 
-        // Douglas/Peucker algorithm is expensive, apply simple sampling if the line has too many points
-        coordinates = downSamplePoints(coordinates);
+        // Lines parsed from geo-json are packed already, the others are packed here
+        PackedPositions positions = PackedPositions.of(coordinates);
 
-        List<Integer> pointIndexes = reducer.getPointIndexesToKeep(coordinates, DEGREES_TO_METERS, epsilon);
+        // Douglas/Peucker algorithm is expensive, apply simple sampling if the line has too many points
+        int samplingInterval = getSamplingInterval(positions.size());
+        BitSet pointsToKeep;
+        if(samplingInterval > 1) {
+            BitSet sampledPointsToKeep = reducer.getPointsToKeep(positions.sample(samplingInterval), DEGREES_TO_METERS, epsilon);
+            pointsToKeep = toOriginalIndexes(sampledPointsToKeep, samplingInterval, positions.size());
+        } else {
+            pointsToKeep = reducer.getPointsToKeep(positions, DEGREES_TO_METERS, epsilon);
+        }
 
-        boolean decimated = (coordinates.size() > pointIndexes.size());
+        int pointCount = pointsToKeep.cardinality();
+        boolean decimated = (coordinates.size() > pointCount);
         if(decimated) {
-            List<Position> decimatedCoordinates = new ArrayList<>();
-            for(int i : pointIndexes) {
-                decimatedCoordinates.add(coordinates.get(i));
-            }
+            if(coordinates == positions) {
+                positions.retain(pointsToKeep);
+            } else {
+                List<Position> decimatedCoordinates = new ArrayList<>(pointCount);
+                for(int i = pointsToKeep.nextSetBit(0); i >= 0; i = pointsToKeep.nextSetBit(i + 1)) {
+                    decimatedCoordinates.add(coordinates.get(i));
+                }
 
-            coordinates.clear();
-            coordinates.addAll(decimatedCoordinates);
+                coordinates.clear();
+                coordinates.addAll(decimatedCoordinates);
+            }
         }
         return decimated;
     }
 
-    private List<Position> downSamplePoints(List<Position> coordinates) {
+    private int getSamplingInterval(int pointCount) {
         //Don't sample it if the number of point is not much larger than MaxShapePointCountForLineDecimation
-        if (coordinates.size() <= MAX_SHAPE_POINT_COUNT_FOR_LINE_DECIMATION * TOLERANCE_FACTOR) {
-            return coordinates;
+        if (pointCount <= MAX_SHAPE_POINT_COUNT_FOR_LINE_DECIMATION * TOLERANCE_FACTOR) {
+            return 1;
+        }
+        return (int)Math.ceil(pointCount / (double)MAX_SHAPE_POINT_COUNT_FOR_LINE_DECIMATION);
+    }
+
+    // The sample holds every samplingInterval-th point and the last one
+    private static BitSet toOriginalIndexes(BitSet sampledIndexes, int samplingInterval, int pointCount) {
+        BitSet indexes = new BitSet(pointCount);
+        for(int i = sampledIndexes.nextSetBit(0); i >= 0; i = sampledIndexes.nextSetBit(i + 1)) {
+            indexes.set((int) Math.min((long) i * samplingInterval, pointCount - 1));
         }
+        return indexes;
+    }
 
-        List<Position> sampledPoints = new ArrayList<>();
-        int interval = (int)Math.ceil(coordinates.size() / (double)MAX_SHAPE_POINT_COUNT_FOR_LINE_DECIMATION);
-        for(int i = 0; i < coordinates.size(); i += interval) {
-            sampledPoints.add(coordinates.get(i));
+    private int getEffectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    private ForkJoinPool getPool() {
+        if (pool == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    pool = new ForkJoinPool(getEffectiveParallelism(), forkJoinPool -> {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                        thread.setName("indexer-geo-decimator-" + thread.getPoolIndex());
+                        return thread;
+                    }, null, false);
+                }
+            }
         }
-        // Add the last point
-        sampledPoints.add(coordinates.get(coordinates.size() -1));
-        return sampledPoints;
+        return pool;
     }
 
+    /**
+     * Decimates the lines [from, to), splitting them in two halves of about the same number of points.
+     */
+    private final class LinesDecimationTask extends RecursiveTask<Boolean> {
+        private final List<List<Position>> lines;
+        private final long[] pointCounts;
+        private final int from;
+        private final int to;
+        private final double epsilon;
+
+        private LinesDecimationTask(List<List<Position>> lines, long[] pointCounts, int from, int to, double epsilon) {
+            this.lines = lines;
+            this.pointCounts = pointCounts;
+            this.from = from;
+            this.to = to;
+            this.epsilon = epsilon;
+        }
+
+        @Override
+        protected Boolean compute() {
+            if(to - from == 1 || pointCounts[to] - pointCounts[from] <= MIN_TASK_POINT_COUNT) {
+                boolean decimated = false;
+                for(int i = from; i < to; i++) {
+                    decimated |= decimateLine(lines.get(i), epsilon);
+                }
+                return decimated;
+            }
+
+            int middle = getMiddle();
+            LinesDecimationTask first = new LinesDecimationTask(lines, pointCounts, from, middle, epsilon);
+            first.fork();
+            boolean decimated = new LinesDecimationTask(lines, pointCounts, middle, to, epsilon).compute();
+            return first.join() | decimated;
+        }
 
+        private int getMiddle() {
+            long halfPointCount = pointCounts[from] + (pointCounts[to] - pointCounts[from]) / 2;
+            int index = Arrays.binarySearch(pointCounts, from + 1, to, halfPointCount);
+            if(index < 0) {
+                index = -index - 1;
+            }
+            return Math.max(from + 1, Math.min(to - 1, index));
+        }
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.geo.decimator;
+
+import com.google.common.base.Strings;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import lombok.Getter;
+import org.opengroup.osdu.indexer.util.PropertyUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coarse decimation levels of {@code VirtualProperties.DefaultLocation.Wgs84Coordinates}.
+ * <p>
+ * Each level of {@code indexer.geo.decimation.coarse.epsilon.meters}, e.g. {@code 100,1000}, is indexed as an extra
+ * geo_shape field next to the full resolution shape, e.g. {@code VirtualProperties.DefaultLocation.Wgs84Coordinates100m},
+ * so that map viewports at low zoom levels can query a much smaller shape. No level is configured by default.
+ * </p>
+ * <p>
+ * The levels are parsed once at startup, so an invalid value fails the startup rather than the indexing.
+ * </p>
+ */
+@Component
+public class ShapeResolutionLevels {
+
+    @Value("${indexer.geo.decimation.coarse.epsilon.meters:}")
+    private String coarseEpsilonMeters = "";
+
+    /**
+     * The configured levels, from the finest to the coarsest
+     */
+    @Getter
+    private List<Level> levels = List.of();
+
+    @PostConstruct
+    public void init() {
+        levels = parse(Strings.nullToEmpty(coarseEpsilonMeters));
+    }
+
+    public void setCoarseEpsilonMeters(String coarseEpsilonMeters) {
+        this.coarseEpsilonMeters = coarseEpsilonMeters;
+        init();
+    }
+
+    private static List<Level> parse(String epsilonMeters) {
+        TreeSet<Integer> epsilons = new TreeSet<>();
+        for (String value : epsilonMeters.split(",")) {
+            value = value.trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            int epsilon;
+            try {
+                epsilon = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(String.format(
+                        "invalid indexer.geo.decimation.coarse.epsilon.meters level '%s', expected a whole number of meters", value), e);
+            }
+            // levels at or below the default resolution would only duplicate the full resolution shape
+            if (epsilon > GeometryDecimator.NORMAL_SHAPE_DECIMATION_EPSILON) {
+                epsilons.add(epsilon);
+            }
+        }
+        List<Level> parsedLevels = new ArrayList<>(epsilons.size());
+        for (int epsilon : epsilons) {
+            parsedLevels.add(new Level(epsilon, PropertyUtil.VIRTUAL_DEFAULT_LOCATION_WGS84_PATH + epsilon + "m"));
+        }
+        return Collections.unmodifiableList(parsedLevels);
+    }
+
+    /**
+     * @param epsilonMeters tolerance of the Douglas-Peucker reduction of the level
+     * @param propertyPath  path of the geo_shape field of the level
+     */
+    public record Level(int epsilonMeters, String propertyPath) {
+    }
+}
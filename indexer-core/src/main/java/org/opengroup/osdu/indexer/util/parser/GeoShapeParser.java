@@ -15,12 +15,18 @@
 package org.opengroup.osdu.indexer.util.parser;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.exc.InvalidTypeIdException;
+import java.io.IOException;
 import java.util.Map;
 import org.opengroup.osdu.core.common.search.Preconditions;
+import org.opengroup.osdu.indexer.model.GeoJsonObject;
+import org.opengroup.osdu.indexer.model.geojson.Feature;
 import org.opengroup.osdu.indexer.model.geojson.FeatureCollection;
+import org.opengroup.osdu.indexer.model.geojson.GeoShapeMap;
+import org.opengroup.osdu.indexer.model.geojson.GeometryCollection;
+import org.opengroup.osdu.indexer.model.geojson.IGeoJson;
+import org.opengroup.osdu.indexer.model.geojson.jackson.GeoJsonMapper;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.RequestScope;
 
@@ -36,13 +42,36 @@ public class GeoShapeParser {
         if (objectMap.isEmpty()) throw new IllegalArgumentException("shape not included");
 
         try {
-            FeatureCollection collection = mapper.readValue(mapper.writeValueAsString(objectMap), FeatureCollection.class);
-            return mapper.readValue(mapper.writeValueAsString(collection), new TypeReference<Map<String, Object>>() {
-            });
+            // The shape is decoded (and validated) once, and kept typed for the decimation and the bulk document
+            FeatureCollection collection = GeoJsonMapper.decode(mapper, objectMap, FeatureCollection.class);
+            return new GeoShapeMap(toGeometryCollection(collection));
         } catch (InvalidTypeIdException e) {
             throw new IllegalArgumentException("must be a valid FeatureCollection");
         } catch (JsonProcessingException e){
             throw new IllegalArgumentException(e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    // Same flattening of the features as FeatureCollectionSerializer
+    private GeometryCollection toGeometryCollection(FeatureCollection collection) {
+        GeometryCollection geometryCollection = new GeometryCollection();
+        for (Feature feature : collection.getFeatures()) {
+            if (feature.getGeometry() instanceof GeometryCollection geometries) {
+                for (GeoJsonObject shape : geometries.getGeometries()) {
+                    addGeoShape(shape, geometryCollection);
+                }
+            } else {
+                addGeoShape(feature.getGeometry(), geometryCollection);
+            }
+        }
+        return geometryCollection;
+    }
+
+    private void addGeoShape(GeoJsonObject shape, GeometryCollection geometryCollection) {
+        if (shape instanceof IGeoJson) {
+            geometryCollection.add(shape);
         }
     }
 }
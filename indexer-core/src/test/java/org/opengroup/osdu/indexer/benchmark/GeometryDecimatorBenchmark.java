@@ -0,0 +1,124 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.opengroup.osdu.indexer.model.geojson.GeometryCollection;
+import org.opengroup.osdu.indexer.model.geojson.jackson.GeoJsonMapper;
+import org.opengroup.osdu.indexer.util.geo.decimator.DouglasPeuckerReducer;
+import org.opengroup.osdu.indexer.util.geo.decimator.GeometryDecimator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.opengroup.osdu.indexer.testutils.ReflectionTestUtil.setFieldValueForClass;
+
+/**
+ * Compares the sequential and the fork-join decimation of multi-part shapes. The shapes are the geo-json fixtures
+ * of the decimator tests, with their geometries repeated {@code partCopies} times to get shapes with thousands of
+ * lines and rings. Run it from the IDE or with
+ * {@code mvn -pl indexer-core test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.opengroup.osdu.indexer.benchmark.GeometryDecimatorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeometryDecimatorBenchmark {
+
+    @Param({"geometrycollection_multipolygon.json", "geometrycollection_multipolygon_with_holes.json", "geometrycollection_multilinestring.json"})
+    private String fixture;
+
+    @Param({"1", "50"})
+    private int partCopies;
+
+    private Map<String, Object> shapeObj;
+    private GeometryDecimator sequentialDecimator;
+    private GeometryDecimator parallelDecimator;
+    private GeometryCollection geometryCollection;
+
+    @Setup
+    public void setup() throws IOException {
+        Map<String, Object> fixtureShapeObj;
+        try (InputStream inputStream = GeometryDecimatorBenchmark.class.getResourceAsStream("/geo/decimator/" + fixture)) {
+            fixtureShapeObj = new ObjectMapper().readValue(inputStream, new TypeReference<Map<String, Object>>() {});
+        }
+        List<Object> geometries = new ArrayList<>();
+        for (int i = 0; i < partCopies; i++) {
+            geometries.addAll((List<?>) fixtureShapeObj.get("geometries"));
+        }
+        shapeObj = Map.of("type", "geometrycollection", "geometries", geometries);
+
+        sequentialDecimator = createDecimator(1);
+        parallelDecimator = createDecimator(0);
+    }
+
+    // The decimation modifies the shape in place
+    @Setup(Level.Invocation)
+    public void decodeShape() throws IOException {
+        geometryCollection = GeoJsonMapper.toGeometryCollection(shapeObj);
+    }
+
+    @TearDown
+    public void tearDown() {
+        parallelDecimator.destroy();
+    }
+
+    @Benchmark
+    public boolean sequential() {
+        return sequentialDecimator.decimate(geometryCollection);
+    }
+
+    @Benchmark
+    public boolean parallel() {
+        return parallelDecimator.decimate(geometryCollection);
+    }
+
+    private static GeometryDecimator createDecimator(int parallelism) {
+        GeometryDecimator decimator = new GeometryDecimator();
+        setFieldValueForClass(decimator, "reducer", new DouglasPeuckerReducer());
+        decimator.setParallelism(parallelism);
+        decimator.setParallelThreshold(0);
+        return decimator;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GeometryDecimatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.cache;
+
+import com.google.common.hash.HashCode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.opengroup.osdu.indexer.cache.DecimatedShapeCache.DecimatedShape;
+import org.opengroup.osdu.indexer.model.geojson.GeometryCollection;
+import org.opengroup.osdu.indexer.model.geojson.LineString;
+import org.opengroup.osdu.indexer.model.geojson.MultiPoint;
+import org.opengroup.osdu.indexer.model.geojson.Point;
+import org.opengroup.osdu.indexer.model.geojson.Position;
+import org.opengroup.osdu.indexer.model.geojson.Polygon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.opengroup.osdu.indexer.testutils.ReflectionTestUtil.setFieldValueForClass;
+
+public class DecimatedShapeCacheTest {
+
+    @Test
+    public void should_hash_same_content_to_same_key() {
+        assertEquals(DecimatedShapeCache.hash(line(1, 2, 3), 10), DecimatedShapeCache.hash(line(1, 2, 3), 10));
+    }
+
+    @Test
+    public void should_hash_different_shapes_to_different_keys() {
+        HashCode key = DecimatedShapeCache.hash(line(1, 2, 3), 10);
+
+        assertNotEquals(key, DecimatedShapeCache.hash(line(1, 2, 4), 10));
+        assertNotEquals(key, DecimatedShapeCache.hash(line(1, 2, 3), 100));
+        GeometryCollection multiPoint = new GeometryCollection();
+        multiPoint.add(new MultiPoint(new Position(1, 1), new Position(2, 2), new Position(3, 3)));
+        assertNotEquals(key, DecimatedShapeCache.hash(multiPoint, 10));
+    }
+
+    @Test
+    public void should_count_hits_and_misses() {
+        DecimatedShapeCache cache = new DecimatedShapeCache();
+        HashCode key = DecimatedShapeCache.hash(line(1, 2, 3), 10);
+        DecimatedShape shape = new DecimatedShape(line(1, 3), true);
+
+        assertNull(cache.get(key));
+        cache.put(key, shape);
+        assertSame(shape, cache.get(key));
+        assertSame(shape, cache.get(key));
+
+        assertEquals(2, cache.getHits().get());
+        assertEquals(1, cache.getMisses().get());
+        assertEquals(2.0 / 3, cache.getHitRatio(), 0.0001);
+    }
+
+    @Test
+    public void should_cache_only_shapes_with_enough_line_positions() {
+        DecimatedShapeCache cache = new DecimatedShapeCache();
+        cache.setMinPointCount(3);
+
+        assertFalse(cache.isCacheable(line(1, 2)));
+        assertTrue(cache.isCacheable(line(1, 2, 3)));
+
+        GeometryCollection points = new GeometryCollection();
+        points.add(new Point(1, 1));
+        points.add(new MultiPoint(new Position(1, 1), new Position(2, 2), new Position(3, 3)));
+        assertFalse(cache.isCacheable(points));
+
+        GeometryCollection polygon = new GeometryCollection();
+        polygon.add(new Polygon(new Position(0, 0), new Position(1, 0), new Position(1, 1), new Position(0, 0)));
+        assertTrue(cache.isCacheable(polygon));
+
+        cache.setEnabled(false);
+        assertFalse(cache.isCacheable(line(1, 2, 3)));
+    }
+
+    @Test
+    public void should_exposeStatistics_asFunctionCounters() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DecimatedShapeCache cache = new DecimatedShapeCache();
+        setFieldValueForClass(cache, "meterRegistry", meterRegistry);
+        cache.registerMeters();
+
+        HashCode key = DecimatedShapeCache.hash(line(1, 2, 3), 10);
+        cache.get(key);
+        cache.put(key, new DecimatedShape(line(1, 3), true));
+        cache.get(key);
+
+        FunctionCounter hits = meterRegistry.get("indexer.decimated_shape_cache.hits").functionCounter();
+        FunctionCounter misses = meterRegistry.get("indexer.decimated_shape_cache.misses").functionCounter();
+        assertEquals(1, hits.count(), 0);
+        assertEquals(1, misses.count(), 0);
+        assertEquals(0, meterRegistry.get("indexer.decimated_shape_cache.evictions").functionCounter().count(), 0);
+        assertEquals(0.5, meterRegistry.get("indexer.decimated_shape_cache.hit_ratio").gauge().value(), 0.0001);
+    }
+
+    private static GeometryCollection line(double... longitudes) {
+        Position[] positions = new Position[longitudes.length];
+        for (int i = 0; i < longitudes.length; i++) {
+            positions[i] = new Position(longitudes[i], longitudes[i]);
+        }
+        GeometryCollection geometryCollection = new GeometryCollection();
+        geometryCollection.add(new LineString(positions));
+        return geometryCollection;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.cache.partitionsafe;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.opengroup.osdu.core.common.model.storage.RecordData;
+import org.opengroup.osdu.core.common.provider.interfaces.IRequestInfo;
+import org.opengroup.osdu.indexer.cache.RelatedObjectCacheVmImpl;
+import org.opengroup.osdu.indexer.cache.interfaces.IRelatedObjectCache;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.*;
+import static org.opengroup.osdu.indexer.testutils.ReflectionTestUtil.setFieldValueForClass;
+
+@RunWith(SpringRunner.class)
+public class RelatedObjectCacheTest {
+
+    @Mock
+    private IRelatedObjectCache cache;
+    @Mock
+    private IRequestInfo requestInfo;
+    @InjectMocks
+    private RelatedObjectCache sut;
+
+    @Before
+    public void setup() {
+        when(this.requestInfo.getPartitionId()).thenReturn("opendes");
+    }
+
+    @Test
+    public void should_serveRepeatedReads_fromNearCache() {
+        RecordData recordData = new RecordData();
+        when(this.cache.get("opendes-relatedobjectcache-key")).thenReturn(recordData);
+
+        assertSame(recordData, this.sut.get("key"));
+        assertSame(recordData, this.sut.get("key"));
+
+        verify(this.cache, times(1)).get("opendes-relatedobjectcache-key");
+        RelatedObjectCache.CacheStatistics statistics = this.sut.getStatistics("opendes");
+        assertEquals(1, statistics.getSharedHits().get());
+        assertEquals(1, statistics.getNearHits().get());
+        assertEquals(0, statistics.getMisses().get());
+    }
+
+    @Test
+    public void should_countMiss_whenNotInSharedCache() {
+        assertNull(this.sut.get("key"));
+
+        assertEquals(1, this.sut.getStatistics("opendes").getMisses().get());
+        assertEquals(0, this.sut.getStatistics("tenant1").getMisses().get());
+    }
+
+    @Test
+    public void should_writeThroughBothTiers_whenAddingToCache() {
+        RecordData recordData = new RecordData();
+
+        this.sut.put("key", recordData);
+
+        verify(this.cache, times(1)).put("opendes-relatedobjectcache-key", recordData);
+        assertSame(recordData, this.sut.get("key"));
+        verify(this.cache, never()).get(anyString());
+    }
+
+    @Test
+    public void should_invalidateBothTiers_whenDeletingFromCache() {
+        this.sut.put("key", new RecordData());
+
+        this.sut.delete("key");
+
+        verify(this.cache, times(1)).delete("opendes-relatedobjectcache-key");
+        assertNull(this.sut.get("key"));
+        verify(this.cache, times(1)).get("opendes-relatedobjectcache-key");
+    }
+
+    @Test
+    public void should_countEvictions_ofNearCache() {
+        // room for a single empty record
+        this.sut.setNearCacheMaxBytes(30);
+
+        this.sut.put("key1", new RecordData());
+        this.sut.put("key2", new RecordData());
+
+        assertEquals(1, this.sut.getStatistics("opendes").getEvictions().get());
+    }
+
+    @Test
+    public void should_notUseNearCache_whenSharedCacheIsInThisJvm() {
+        RelatedObjectCacheVmImpl vmCache = spy(new RelatedObjectCacheVmImpl());
+        setFieldValueForClass(this.sut, "cache", vmCache);
+        RecordData recordData = new RecordData();
+        this.sut.put("key", recordData);
+
+        assertSame(recordData, this.sut.get("key"));
+        assertSame(recordData, this.sut.get("key"));
+
+        verify(vmCache, times(2)).get("opendes-relatedobjectcache-key");
+        assertEquals(2, this.sut.getStatistics("opendes").getSharedHits().get());
+    }
+
+    @Test
+    public void should_exposeStatistics_asFunctionCounters() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        setFieldValueForClass(this.sut, "meterRegistry", meterRegistry);
+        RecordData recordData = new RecordData();
+        when(this.cache.get("opendes-relatedobjectcache-key")).thenReturn(recordData);
+
+        this.sut.get("key");
+        this.sut.get("key");
+        this.sut.get("other");
+
+        FunctionCounter nearHits = meterRegistry.find("indexer.related_object_cache.hits.near").tag("partition", "opendes").functionCounter();
+        FunctionCounter misses = meterRegistry.find("indexer.related_object_cache.misses").tag("partition", "opendes").functionCounter();
+        assertNotNull(nearHits);
+        assertNotNull(misses);
+        assertEquals(1.0, nearHits.count(), 0.0);
+        assertEquals(1.0, misses.count(), 0.0);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.cache.weighted;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.indexer.RecordInfo;
+import org.opengroup.osdu.core.common.model.storage.RecordData;
+import org.opengroup.osdu.indexer.model.RecordChangeInfo;
+
+public class RetainedSizeEstimatorTest {
+
+    @Test
+    public void should_weighLargeRecordData_muchMoreThanSmallOne() {
+        RecordData small = recordData(Map.of("Code", "ABC", "Name", "Reference"));
+        List<Object> stations = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            stations.add(Map.of("MD", (double) i, "TVD", (double) i, "Azimuth", 1.5));
+        }
+        RecordData large = recordData(Map.of("Stations", stations));
+
+        long smallSize = RetainedSizeEstimator.estimate(small);
+        long largeSize = RetainedSizeEstimator.estimate(large);
+
+        assertTrue(smallSize > 0 && smallSize < 1000);
+        assertTrue(largeSize > 1000 * smallSize);
+    }
+
+    @Test
+    public void should_grow_withStringLength() {
+        assertEquals(RetainedSizeEstimator.estimate("abc") + 97, RetainedSizeEstimator.estimate("x".repeat(100)));
+    }
+
+    @Test
+    public void should_weighRecordChangeInfo() {
+        RecordInfo recordInfo = new RecordInfo();
+        recordInfo.setId("opendes:master-data--Wellbore:1");
+        recordInfo.setKind("osdu:wks:master-data--Wellbore:1.0.0");
+        recordInfo.setOp("update");
+        RecordChangeInfo changeInfo = new RecordChangeInfo();
+        changeInfo.setRecordInfo(recordInfo);
+        long withoutProperties = RetainedSizeEstimator.estimate(changeInfo);
+
+        changeInfo.setUpdatedProperties(List.of("FacilityName", "VerticalMeasurements[].VerticalMeasurement"));
+
+        assertTrue(withoutProperties > 0);
+        assertTrue(RetainedSizeEstimator.estimate(changeInfo) > withoutProperties);
+        assertEquals(0, RetainedSizeEstimator.estimate((RecordChangeInfo) null));
+    }
+
+    private RecordData recordData(Map<String, Object> data) {
+        RecordData recordData = new RecordData();
+        recordData.setData(new HashMap<>(data));
+        return recordData;
+    }
+}
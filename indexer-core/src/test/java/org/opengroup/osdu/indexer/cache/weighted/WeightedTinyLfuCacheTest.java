@@ -0,0 +1,146 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.cache.weighted;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class WeightedTinyLfuCacheTest {
+
+    private static final int EXPIRATION_SECONDS = 3600;
+
+    @Test
+    public void should_putGetAndDelete_andTrackWeight() {
+        WeightedTinyLfuCache<String, String> cache = new WeightedTinyLfuCache<>(1000, EXPIRATION_SECONDS, 100, String::length);
+
+        cache.put("a", "12345");
+        cache.put("b", "123");
+
+        assertEquals("12345", cache.get("a"));
+        assertEquals(8, cache.getWeightedSize());
+
+        cache.put("a", "1");
+        assertEquals(4, cache.getWeightedSize());
+
+        cache.delete("b");
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.getWeightedSize());
+
+        cache.clearAll();
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getWeightedSize());
+    }
+
+    @Test
+    public void should_notStore_entryHeavierThanBudget() {
+        WeightedTinyLfuCache<String, String> cache = new WeightedTinyLfuCache<>(10, EXPIRATION_SECONDS, 100, String::length);
+
+        cache.put("huge", "12345678901");
+
+        assertNull(cache.get("huge"));
+        assertEquals(0, cache.getWeightedSize());
+    }
+
+    @Test
+    public void should_stayWithinBudget() {
+        WeightedTinyLfuCache<String, String> cache = new WeightedTinyLfuCache<>(1000, EXPIRATION_SECONDS, 100, String::length);
+
+        for (int i = 0; i < 500; i++) {
+            cache.put("key" + i, "x".repeat(1 + i % 97));
+            assertTrue(cache.getWeightedSize() <= 1000);
+        }
+    }
+
+    @Test
+    public void should_keepPopularEntries_whenScannedByOneOffEntries() {
+        WeightedTinyLfuCache<String, String> cache = new WeightedTinyLfuCache<>(1000, EXPIRATION_SECONDS, 100, String::length);
+        String value = "x".repeat(100);
+        for (int i = 0; i < 9; i++) {
+            cache.put("hot" + i, value);
+        }
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 9; i++) {
+                cache.get("hot" + i);
+            }
+        }
+
+        for (int i = 0; i < 50; i++) {
+            cache.put("scan" + i, value);
+        }
+
+        for (int i = 0; i < 9; i++) {
+            assertNotNull(cache.get("hot" + i));
+        }
+        assertTrue(cache.getWeightedSize() <= 1000);
+    }
+
+    @Test
+    public void should_admitCandidate_moreFrequentThanVictim() {
+        WeightedTinyLfuCache<String, String> cache = new WeightedTinyLfuCache<>(300, EXPIRATION_SECONDS, 100, String::length);
+        String value = "x".repeat(100);
+        cache.put("a", value);
+        cache.put("b", value);
+        cache.put("c", value);
+        for (int i = 0; i < 5; i++) {
+            assertNull(cache.get("d"));
+        }
+
+        cache.put("d", value);
+
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("d"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void should_admitEveryWrite_andEvictByRecency_withoutAdmissionFilter() {
+        WeightedTinyLfuCache<String, String> cache = new WeightedTinyLfuCache<>(1000, EXPIRATION_SECONDS, 100, String::length, false);
+        String value = "x".repeat(100);
+        for (int i = 0; i < 9; i++) {
+            cache.put("hot" + i, value);
+        }
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 9; i++) {
+                cache.get("hot" + i);
+            }
+        }
+
+        for (int i = 0; i < 50; i++) {
+            cache.put("fresh" + i, value);
+            assertEquals(value, cache.get("fresh" + i));
+        }
+
+        assertNull(cache.get("hot0"));
+        for (int i = 41; i < 50; i++) {
+            assertNotNull(cache.get("fresh" + i));
+        }
+        assertTrue(cache.getWeightedSize() <= 1000);
+    }
+
+    @Test
+    public void should_expireEntries() {
+        WeightedTinyLfuCache<String, String> cache = new WeightedTinyLfuCache<>(1000, 0, 100, String::length);
+
+        cache.put("a", "value");
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getWeightedSize());
+    }
+}
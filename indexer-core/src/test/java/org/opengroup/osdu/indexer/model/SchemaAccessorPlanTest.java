@@ -0,0 +1,93 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.indexer.ElasticType;
+
+public class SchemaAccessorPlanTest {
+
+    @Test
+    public void should_resolveFirstLevelAndNestedValues() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("Name", "name");
+        data.put("Location", ImmutableMap.of("Wgs84Coordinates", ImmutableMap.of("type", "Point")));
+        data.put("Facility.Name", "flattened");
+
+        assertEquals("name", field("Name").resolve(data));
+        assertEquals("Point", field("Location.Wgs84Coordinates.type").resolve(data));
+        assertEquals("flattened", field("Facility.Name").resolve(data));
+    }
+
+    @Test
+    public void should_returnNull_givenMissingValues() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("Location", ImmutableMap.of("Wgs84Coordinates", ImmutableMap.of("type", "Point")));
+
+        assertNull(field("Missing").resolve(data));
+        assertNull(field("Missing.Nested").resolve(data));
+        assertNull(field("Location.Missing.type").resolve(data));
+    }
+
+    @Test
+    public void should_leaveNonMapIntermediatesAndPropertyExpressionsUnresolved() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("Names", Arrays.asList("a", "b"));
+
+        assertSame(SchemaAccessorPlan.UNRESOLVED, field("Names.Value").resolve(data));
+        assertSame(SchemaAccessorPlan.UNRESOLVED, new SchemaAccessorPlan.Field("Names[0]", null, ElasticType.TEXT, null, true, false, null).resolve(data));
+    }
+
+    @Test
+    public void should_detectSchemaGrowth() {
+        Map<String, Object> dataSchema = new HashMap<>();
+        dataSchema.put("Name", "text");
+        SchemaAccessorPlan plan = new SchemaAccessorPlan(dataSchema, new ArrayList<>());
+
+        assertTrue(plan.isCompiledFrom(dataSchema));
+
+        dataSchema.put("Count", "integer");
+        assertFalse(plan.isCompiledFrom(dataSchema));
+    }
+
+    @Test
+    public void should_notReusePlan_givenOtherSchemaInstance() {
+        Map<String, Object> dataSchema = new HashMap<>();
+        dataSchema.put("Name", "text");
+        dataSchema.put("Count", "integer");
+        SchemaAccessorPlan plan = new SchemaAccessorPlan(dataSchema, new ArrayList<>());
+
+        Map<String, Object> changedSchema = new HashMap<>(dataSchema);
+        changedSchema.put("Count", "long");
+        assertFalse(plan.isCompiledFrom(changedSchema));
+        assertFalse(plan.isCompiledFrom(new HashMap<>(dataSchema)));
+    }
+
+    private SchemaAccessorPlan.Field field(String name) {
+        return new SchemaAccessorPlan.Field(name, name.split("\\.", -1), ElasticType.TEXT, null, true, false, null);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.model.geojson;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class GeoShapeMapTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void should_serialize_typed_geometries_as_map_form() throws Exception {
+        GeoShapeMap shape = new GeoShapeMap(createGeometryCollection());
+
+        Map<String, Object> serialized = objectMapper.readValue(objectMapper.writeValueAsString(shape), new TypeReference<Map<String, Object>>() {});
+
+        assertNotNull(shape.getGeometryCollection());
+        assertEquals(createExpectedMap(), serialized);
+    }
+
+    @Test
+    public void should_count_positions_without_building_map() {
+        GeometryCollection geometryCollection = createGeometryCollection();
+        GeoShapeMap shape = new GeoShapeMap(geometryCollection);
+
+        assertEquals(4, shape.getPositionCount());
+        assertSame(geometryCollection, shape.getGeometryCollection());
+    }
+
+    @Test
+    public void should_detach_typed_geometries_once_accessed_as_map() throws Exception {
+        GeoShapeMap shape = new GeoShapeMap(createGeometryCollection());
+
+        assertEquals(createExpectedMap(), shape);
+        shape.put("type", "geometrycollection");
+
+        assertNull(shape.getGeometryCollection());
+        assertEquals(-1, shape.getPositionCount());
+        Map<String, Object> serialized = objectMapper.readValue(objectMapper.writeValueAsString(shape), new TypeReference<Map<String, Object>>() {});
+        assertEquals(createExpectedMap(), serialized);
+    }
+
+    private GeometryCollection createGeometryCollection() {
+        GeometryCollection geometryCollection = new GeometryCollection();
+        geometryCollection.add(new Point(10.5, 20.5));
+        geometryCollection.add(new LineString(new Position(1.0, 2.0), new Position(3.0, 4.0), new Position(5.0, 6.0)));
+        return geometryCollection;
+    }
+
+    private Map<String, Object> createExpectedMap() {
+        List<Object> lineCoordinates = new ArrayList<>();
+        lineCoordinates.add(List.of(1.0, 2.0));
+        lineCoordinates.add(List.of(3.0, 4.0));
+        lineCoordinates.add(List.of(5.0, 6.0));
+        return Map.of(
+                "type", "geometrycollection",
+                "geometries", List.of(
+                        Map.of("type", "point", "coordinates", List.of(10.5, 20.5)),
+                        Map.of("type", "linestring", "coordinates", lineCoordinates)));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.model.geojson;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class PackedPositionsTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void should_pack_positions() {
+        PackedPositions positions = PackedPositions.of(List.of(new Position(1.5, 2.5), new Position(3, 4, 5.5)));
+
+        assertEquals(2, positions.size());
+        assertEquals(1.5, positions.getLongitude(0), 0);
+        assertEquals(2.5, positions.getLatitude(0), 0);
+        assertFalse(positions.hasAltitude(0));
+        assertTrue(positions.hasAltitude(1));
+        assertEquals(new Position(3, 4, 5.5), positions.get(1));
+        assertSame(positions, PackedPositions.of(positions));
+    }
+
+    @Test
+    public void should_reject_position_out_of_range() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new PackedPositions().add(190.0, 4.0, Double.NaN));
+        assertTrue(exception.getMessage().contains("'longitude' value is out of the range"));
+    }
+
+    @Test
+    public void should_retain_positions_in_place() {
+        PackedPositions positions = new PackedPositions(1);
+        for (int i = 0; i < 10; i++) {
+            positions.add(i, i, Double.NaN);
+        }
+        BitSet indexes = new BitSet();
+        indexes.set(0);
+        indexes.set(4);
+        indexes.set(9);
+
+        positions.retain(indexes);
+
+        assertEquals(List.of(new Position(0, 0), new Position(4, 4), new Position(9, 9)), positions);
+    }
+
+    @Test
+    public void should_sample_positions_with_last_one() {
+        PackedPositions positions = new PackedPositions();
+        for (int i = 0; i < 10; i++) {
+            positions.add(i, i, Double.NaN);
+        }
+
+        PackedPositions sample = positions.sample(4);
+
+        assertEquals(List.of(new Position(0, 0), new Position(4, 4), new Position(8, 8), new Position(9, 9)), sample);
+    }
+
+    @Test
+    public void should_read_and_write_line_coordinates() throws Exception {
+        LineString lineString = objectMapper.readValue(
+                "{\"type\": \"LineString\", \"coordinates\": [[1.5, 2], [3, 4, 5.5, 7]]}", LineString.class);
+
+        assertTrue(lineString.getCoordinates() instanceof PackedPositions);
+        assertEquals(List.of(new Position(1.5, 2), new Position(3, 4, 5.5)), lineString.getCoordinates());
+        assertEquals("[[1.5,2.0],[3.0,4.0,5.5]]", objectMapper.writeValueAsString(lineString.getCoordinates()));
+    }
+
+    @Test
+    public void should_read_polygon_rings() throws Exception {
+        Polygon polygon = objectMapper.readValue(
+                "{\"type\": \"Polygon\", \"coordinates\": [[[0, 0], [1, 0], [1, 1], [0, 0]]]}", Polygon.class);
+
+        assertTrue(polygon.getExteriorRing() instanceof PackedPositions);
+        assertEquals(4, polygon.getExteriorRing().size());
+    }
+
+    @Test
+    public void should_reject_malformed_position() {
+        JsonMappingException exception = assertThrows(JsonMappingException.class, () -> objectMapper.readValue(
+                "{\"type\": \"LineString\", \"coordinates\": [[1, \"a\"]]}", LineString.class));
+        assertTrue(exception.getOriginalMessage().contains("Unexpected token (VALUE_STRING) when binding data into Position"));
+    }
+}
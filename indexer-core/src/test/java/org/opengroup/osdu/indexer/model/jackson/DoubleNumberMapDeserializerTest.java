@@ -0,0 +1,65 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.model.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import org.junit.Test;
+import org.opengroup.osdu.indexer.model.SearchRecord;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DoubleNumberMapDeserializerTest {
+
+    private static final String RECORD_JSON = "{\"id\":\"opendes:wellbore:1\",\"kind\":\"opendes:wks:wellbore:1.0.0\",\"data\":{"
+            + "\"Count\":3,\"BigCount\":12345678901,\"Depth\":12.5,\"Name\":\"well\",\"Active\":true,\"Missing\":null,"
+            + "\"Nested\":{\"Level\":1,\"Values\":[1,2.5,{\"Inner\":7}]},\"Empty\":{}}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void should_decodeNumbersAsDouble_likeGson() throws Exception {
+        SearchRecord jacksonRecord = objectMapper.readValue(RECORD_JSON, SearchRecord.class);
+        SearchRecord gsonRecord = new Gson().fromJson(RECORD_JSON, SearchRecord.class);
+
+        assertEquals(gsonRecord.getData(), jacksonRecord.getData());
+
+        Map<String, Object> data = jacksonRecord.getData();
+        assertEquals(3.0, data.get("Count"));
+        assertEquals(12345678901.0, data.get("BigCount"));
+        assertEquals(12.5, data.get("Depth"));
+        assertEquals("well", data.get("Name"));
+        assertEquals(Boolean.TRUE, data.get("Active"));
+        assertNull(data.get("Missing"));
+        Map<String, Object> nested = (Map<String, Object>) data.get("Nested");
+        assertEquals(1.0, nested.get("Level"));
+        List<Object> values = (List<Object>) nested.get("Values");
+        assertEquals(2.5, values.get(1));
+        assertEquals(7.0, ((Map<String, Object>) values.get(2)).get("Inner"));
+        assertEquals(Map.of(), data.get("Empty"));
+    }
+
+    @Test
+    public void should_keepNullData() throws Exception {
+        SearchRecord record = objectMapper.readValue("{\"id\":\"opendes:wellbore:1\",\"data\":null}", SearchRecord.class);
+
+        assertNull(record.getData());
+    }
+}
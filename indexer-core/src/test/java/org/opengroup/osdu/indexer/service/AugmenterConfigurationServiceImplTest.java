@@ -18,6 +18,8 @@ package org.opengroup.osdu.indexer.service;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -50,6 +52,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.indexer.IndexingStatus;
 import org.opengroup.osdu.core.common.model.indexer.JobStatus;
@@ -62,12 +65,14 @@ import org.opengroup.osdu.core.common.model.storage.SchemaItem;
 import org.opengroup.osdu.core.common.provider.interfaces.IRequestInfo;
 import org.opengroup.osdu.indexer.cache.partitionsafe.AugmenterConfigurationCache;
 import org.opengroup.osdu.indexer.cache.partitionsafe.AugmenterConfigurationEnabledCache;
+import org.opengroup.osdu.indexer.cache.partitionsafe.ChasingMessageCache;
 import org.opengroup.osdu.indexer.cache.partitionsafe.ChildRelationshipSpecsCache;
 import org.opengroup.osdu.indexer.cache.partitionsafe.ChildrenKindsCache;
 import org.opengroup.osdu.indexer.cache.partitionsafe.KindCache;
 import org.opengroup.osdu.indexer.cache.partitionsafe.RecordChangeInfoCache;
 import org.opengroup.osdu.indexer.cache.partitionsafe.RelatedObjectCache;
 import org.opengroup.osdu.indexer.config.IndexerConfigurationProperties;
+import org.opengroup.osdu.indexer.model.ChasingMessageInfo;
 import org.opengroup.osdu.indexer.model.Constants;
 import org.opengroup.osdu.indexer.model.RecordChangeInfo;
 import org.opengroup.osdu.indexer.model.SchemaIdentity;
@@ -75,6 +80,10 @@ import org.opengroup.osdu.indexer.model.SchemaInfo;
 import org.opengroup.osdu.indexer.model.SchemaInfoResponse;
 import org.opengroup.osdu.indexer.model.SearchRecord;
 import org.opengroup.osdu.indexer.model.indexproperty.AugmenterConfiguration;
+import org.opengroup.osdu.indexer.model.indexproperty.AugmenterRecord;
+import org.opengroup.osdu.indexer.model.indexproperty.ChildrenKinds;
+import org.opengroup.osdu.indexer.model.indexproperty.ParentChildRelationshipSpec;
+import org.opengroup.osdu.indexer.model.indexproperty.ParentChildRelationshipSpecs;
 import org.opengroup.osdu.indexer.util.IndexerQueueTaskBuilder;
 import org.opengroup.osdu.indexer.util.SearchClient;
 import org.opengroup.osdu.indexer.util.function.AugmenterFunctionFactory;
@@ -104,6 +113,8 @@ public class AugmenterConfigurationServiceImplTest {
     @Mock
     private RecordChangeInfoCache recordChangeInfoCache;
     @Mock
+    private ChasingMessageCache chasingMessageCache;
+    @Mock
     private SearchClient searchClient;
     @Mock
     private SchemaService schemaService;
@@ -127,6 +138,7 @@ public class AugmenterConfigurationServiceImplTest {
     @Before
     public void setup() throws Exception {
         this.sut.maxSizeOfExtendedListValue = 1000;
+        when(this.indexerQueueTaskBuilder.isDelayedDeliverySupported()).thenReturn(true);
     }
 
     @Test
@@ -322,6 +334,72 @@ public class AugmenterConfigurationServiceImplTest {
         Assert.assertEquals(4977, totalDepth, 0.00001);
     }
 
+    @Test
+    public void getExtendedProperties_of_batch_from_children_objects_with_single_query() throws Exception {
+        AugmenterConfiguration propertyConfigurations = getConfiguration("wellbore_configuration_record.json");
+        String jsonText = getJsonFromFile("welllog_search_records.json");
+        Type type = new TypeToken<List<SearchRecord>>() {}.getType();
+        List<SearchRecord> childrenRecords = gson.fromJson(jsonText, type);
+        when(this.searchClient.search(anyString(), any(), any(), any(), anyInt())).thenReturn(childrenRecords);
+
+        List<AugmenterRecord> augmenterRecords = Arrays.asList(
+                new AugmenterRecord("opendes:master-data--Wellbore:nz-100000113552", "osdu:wks:master-data--Wellbore:1.0.0", getDataMap("wellbore_data.json"), propertyConfigurations),
+                new AugmenterRecord("opendes:master-data--Wellbore:nz-100000113553", "osdu:wks:master-data--Wellbore:1.0.0", getDataMap("wellbore_data.json"), propertyConfigurations));
+        List<Map<String, Object>> extendedProperties = this.sut.getExtendedProperties(augmenterRecords);
+
+        Assert.assertEquals(2, extendedProperties.size());
+        verifyMap(getDataMap("wellbore_extended_data.json"), extendedProperties.get(0));
+        Assert.assertFalse(extendedProperties.get(1).containsKey("WellLogs"));
+        verify(this.searchClient, times(1)).search(anyString(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    public void getExtendedProperties_of_batch_resolves_child_against_parent_of_same_batch() throws Exception {
+        String parentId = "opendes:master-data--Well:1816bd81";
+        Map<String, Object> parentDataMap = new HashMap<>();
+        parentDataMap.put("FacilityName", "Fresh Well");
+        parentDataMap.put("NameAliases", List.of(Map.of(
+                "AliasName", "UWI-1",
+                "AliasNameTypeID", "opendes:reference-data--AliasNameType:UniqueIdentifier:")));
+        Map<String, Object> childDataMap = new HashMap<>();
+        childDataMap.put("WellID", parentId + ":");
+
+        // the previous version of the parent must not be used, nor searched
+        RecordData staleParentData = new RecordData();
+        staleParentData.setData(Map.of("FacilityName", "Stale Well", "WellUWI", "UWI-0"));
+        when(this.relatedObjectCache.get(parentId)).thenReturn(staleParentData);
+
+        AugmenterConfiguration childConfiguration = getChildToParentConfiguration("osdu:wks:master-data--Wellbore:1.",
+                "osdu:wks:master-data--Well:1.", "data.WellID", Map.of("WellName", "data.FacilityName", "WellUWI", "data.WellUWI"));
+        // the child comes first, the parent has to be resolved before it to extend its UWI
+        List<AugmenterRecord> augmenterRecords = Arrays.asList(
+                new AugmenterRecord("opendes:master-data--Wellbore:nz-100000113552", "osdu:wks:master-data--Wellbore:1.0.0", childDataMap, childConfiguration),
+                new AugmenterRecord(parentId, "osdu:wks:master-data--Well:1.0.0", parentDataMap, getConfiguration("well_configuration_record.json")));
+        List<Map<String, Object>> extendedProperties = this.sut.getExtendedProperties(augmenterRecords);
+
+        Assert.assertEquals(2, extendedProperties.size());
+        Object parentUwi = extendedProperties.get(1).get("WellUWI");
+        Assert.assertTrue(parentUwi.toString().contains("UWI-1"));
+        Assert.assertEquals(parentUwi, extendedProperties.get(0).get("WellUWI"));
+        Assert.assertEquals("Fresh Well", extendedProperties.get(0).get("WellName"));
+        verify(this.searchClient, times(0)).search(any(List.class), any(), any(), any(), anyInt());
+    }
+
+    private AugmenterConfiguration getChildToParentConfiguration(String code, String parentKind, String parentIdPath, Map<String, String> valuePaths) throws JsonProcessingException {
+        List<Map<String, Object>> configurations = new ArrayList<>();
+        for (Map.Entry<String, String> valuePath : valuePaths.entrySet()) {
+            Map<String, Object> path = new HashMap<>();
+            path.put("RelatedObjectsSpec.RelatedObjectID", parentIdPath);
+            path.put("RelatedObjectsSpec.RelatedObjectKind", parentKind);
+            path.put("RelatedObjectsSpec.RelationshipDirection", "ChildToParent");
+            path.put("ValueExtraction.ValuePath", valuePath.getValue());
+            configurations.add(Map.of("Name", valuePath.getKey(), "Policy", "ExtractFirstMatch", "Paths", List.of(path)));
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        String data = objectMapper.writeValueAsString(Map.of("Code", code, "Configurations", configurations));
+        return objectMapper.readValue(data, AugmenterConfiguration.class);
+    }
+
     private void verifyMap(Map<String, Object> expectedExtendedProperties, Map<String, Object> extendedProperties) {
         Assert.assertEquals(expectedExtendedProperties.size(), extendedProperties.size());
 
@@ -491,6 +569,7 @@ public class AugmenterConfigurationServiceImplTest {
         searchRecord.setId(recordId);
         searchRecord.setData(previousDataMap);
         when(this.searchClient.search(anyString(), any(), any(), any(), anyInt())).thenReturn(List.of(searchRecord));
+        watchPropertyPaths("p1", "p2");
 
         this.sut.cacheDataRecord(recordId, kind, dataMap);
 
@@ -533,6 +612,7 @@ public class AugmenterConfigurationServiceImplTest {
 
         when(this.searchClient.search(anyString(), any(), any(), any(), anyInt())).thenReturn(List.of(searchRecord));
         when(this.recordChangeInfoCache.get(any())).thenReturn(previousChangedInfo);
+        watchPropertyPaths("p1", "p2");
 
         this.sut.cacheDataRecord(recordId, kind, dataMap);
 
@@ -587,6 +667,46 @@ public class AugmenterConfigurationServiceImplTest {
         Assert.assertEquals("v1", dataMapArgumentCaptor.getValue().getData().get("p1"));
     }
 
+    @Test
+    public void cacheDataRecord_update_record_only_compares_watched_properties() throws Exception {
+        ArgumentCaptor<RecordChangeInfo> recordInfoArgumentCaptor = ArgumentCaptor.forClass(RecordChangeInfo.class);
+        String recordId = "anyId";
+        String kind = "anyKind";
+        Map<String, Object> dataMap = new HashMap<>();
+        dataMap.put("p1", "v1");
+        dataMap.put("p2", 2.0);
+        dataMap.put("p3", "v3");
+        Map<String, Object> previousDataMap = new HashMap<>();
+        previousDataMap.put("p1", "v10");
+        previousDataMap.put("p2", 2);
+        previousDataMap.put("p3", "v30");
+
+        SearchRecord searchRecord = new SearchRecord();
+        searchRecord.setKind(kind);
+        searchRecord.setId(recordId);
+        searchRecord.setData(previousDataMap);
+        when(this.searchClient.search(anyString(), any(), any(), any(), anyInt())).thenReturn(List.of(searchRecord));
+        watchPropertyPaths("p1", "p2");
+
+        this.sut.cacheDataRecord(recordId, kind, dataMap);
+
+        verify(this.recordChangeInfoCache, times(1)).put(any(), recordInfoArgumentCaptor.capture());
+        RecordChangeInfo changedInfo = recordInfoArgumentCaptor.getValue();
+        Assert.assertEquals(OperationType.update.getValue(), changedInfo.getRecordInfo().getOp());
+        Assert.assertEquals(List.of("p1"), changedInfo.getUpdatedProperties());
+    }
+
+    private void watchPropertyPaths(String... paths) {
+        ParentChildRelationshipSpec spec = new ParentChildRelationshipSpec();
+        spec.getChildValuePaths().addAll(Arrays.asList(paths));
+        ParentChildRelationshipSpecs specs = new ParentChildRelationshipSpecs();
+        specs.setSpecList(List.of(spec));
+        ChildrenKinds childrenKinds = new ChildrenKinds();
+        childrenKinds.setKinds(new ArrayList<>());
+        when(this.parentChildRelationshipSpecsCache.get(any())).thenReturn(specs);
+        when(this.childrenKindsCache.get(any())).thenReturn(childrenKinds);
+    }
+
     @Test
     public void updateAssociatedRecords_updateAssociatedParentRecords_for_created_childRecord() throws Exception {
         updateAssociatedRecords_updateAssociatedParentRecords_for_created_delete(OperationType.create);
@@ -658,6 +778,85 @@ public class AugmenterConfigurationServiceImplTest {
         Assert.assertEquals(parentId, infoList.get(0).getId());
     }
 
+    @Test
+    public void updateAssociatedRecords_updateAssociatedParentRecords_coalesced_into_pending_message() throws Exception {
+        when(this.chasingMessageCache.get(any())).thenReturn(new ChasingMessageInfo(childKind, System.currentTimeMillis()));
+
+        updateAssociatedRecords_for_updated_childRecord_with_extendedPropertyChanged();
+
+        verify(this.indexerQueueTaskBuilder,times(0)).createWorkerTask(any(), any(), any());
+        verify(this.chasingMessageCache,times(0)).put(any(), any());
+    }
+
+    @Test
+    public void updateAssociatedRecords_updateAssociatedParentRecords_published_after_coalesce_window() throws Exception {
+        when(this.chasingMessageCache.get(any())).thenReturn(new ChasingMessageInfo(childKind, System.currentTimeMillis() - 60000));
+
+        updateAssociatedRecords_for_updated_childRecord_with_extendedPropertyChanged();
+
+        verify(this.indexerQueueTaskBuilder,times(1)).createWorkerTask(any(), any(), any());
+        ArgumentCaptor<ChasingMessageInfo> infoArgumentCaptor = ArgumentCaptor.forClass(ChasingMessageInfo.class);
+        verify(this.chasingMessageCache,times(1)).put(any(), infoArgumentCaptor.capture());
+        Assert.assertEquals(childKind, infoArgumentCaptor.getValue().getAncestors());
+    }
+
+    @Test
+    public void updateAssociatedRecords_updateAssociatedParentRecords_published_with_own_ancestors_when_pending_message_excludes_more() throws Exception {
+        String pendingAncestors = "osdu:wks:master-data--Field:1.0.0";
+        when(this.chasingMessageCache.get(any())).thenReturn(new ChasingMessageInfo(pendingAncestors, System.currentTimeMillis()));
+
+        updateAssociatedRecords_for_updated_childRecord_with_extendedPropertyChanged();
+
+        ArgumentCaptor<String> payloadArgumentCaptor = ArgumentCaptor.forClass(String.class);
+        verify(this.indexerQueueTaskBuilder,times(1)).createWorkerTask(payloadArgumentCaptor.capture(), any(), any());
+        RecordChangedMessages newMessages = gson.fromJson(payloadArgumentCaptor.getValue(), RecordChangedMessages.class);
+        Assert.assertEquals(childKind, newMessages.getAttributes().get(Constants.ANCESTRY_KINDS));
+        ArgumentCaptor<ChasingMessageInfo> infoArgumentCaptor = ArgumentCaptor.forClass(ChasingMessageInfo.class);
+        verify(this.chasingMessageCache,times(1)).put(any(), infoArgumentCaptor.capture());
+        Assert.assertEquals(childKind, infoArgumentCaptor.getValue().getAncestors());
+    }
+
+    @Test
+    public void updateAssociatedRecords_updateAssociatedParentRecords_not_recorded_as_pending_when_publish_fails() throws Exception {
+        doThrow(new AppException(HttpStatus.SC_SERVICE_UNAVAILABLE, "Queue error", "Failed to publish"))
+                .when(this.indexerQueueTaskBuilder).createWorkerTask(any(), any(), any());
+
+        Assert.assertThrows(AppException.class, this::updateAssociatedRecords_for_updated_childRecord_with_extendedPropertyChanged);
+
+        verify(this.chasingMessageCache,times(0)).put(any(), any());
+    }
+
+    @Test
+    public void updateAssociatedRecords_updateAssociatedParentRecords_not_coalesced_when_queue_ignores_delay() throws Exception {
+        when(this.indexerQueueTaskBuilder.isDelayedDeliverySupported()).thenReturn(false);
+        when(this.chasingMessageCache.get(any())).thenReturn(new ChasingMessageInfo(childKind, System.currentTimeMillis()));
+
+        updateAssociatedRecords_for_updated_childRecord_with_extendedPropertyChanged();
+
+        verify(this.indexerQueueTaskBuilder,times(1)).createWorkerTask(any(), any(), any());
+        verify(this.chasingMessageCache,times(0)).get(any());
+        verify(this.chasingMessageCache,times(0)).put(any(), any());
+    }
+
+    private void updateAssociatedRecords_for_updated_childRecord_with_extendedPropertyChanged() throws Exception {
+        updateAssociatedRecords_updateAssociatedParentRecords_baseSetup();
+
+        RecordChangeInfo recordChangeInfo = new RecordChangeInfo();
+        RecordInfo recordInfo = new RecordInfo();
+        recordInfo.setKind(childKind);
+        recordInfo.setId(childId);
+        recordInfo.setOp(OperationType.update.getValue());
+        recordChangeInfo.setRecordInfo(recordInfo);
+        recordChangeInfo.setUpdatedProperties(Arrays.asList("Curves[].Mnemonic"));
+        when(this.recordChangeInfoCache.get(any())).thenReturn(recordChangeInfo);
+
+        RecordChangedMessages recordChangedMessages = new RecordChangedMessages();
+        recordChangedMessages.setAttributes(new HashMap<>());
+        Map<String, List<String>> upsertKindIds = new HashMap<>();
+        upsertKindIds.put(childKind, Arrays.asList(childId));
+        this.sut.updateAssociatedRecords(recordChangedMessages, upsertKindIds, new HashMap<>(), new ArrayList<>());
+    }
+
     @Test
     public void updateAssociatedRecords_updateAssociatedParentRecords_for_updated_childRecord_without_extendedPropertyChanged() throws Exception {
         updateAssociatedRecords_updateAssociatedParentRecords_baseSetup();
@@ -749,6 +948,13 @@ public class AugmenterConfigurationServiceImplTest {
             return records;
         });
 
+        // The streaming search hands the records of the search above to the consumer as a single page
+        doAnswer(invocation -> {
+            List<SearchRecord> records = this.searchClient.search((List<String>) invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3), invocation.getArgument(4));
+            ((SearchClient.PageConsumer) invocation.getArgument(5)).accept(records);
+            return null;
+        }).when(this.searchClient).search(any(List.class), any(), any(), any(), anyInt(), any(SearchClient.PageConsumer.class));
+
         // setup headers
         DpsHeaders dpsHeaders = new DpsHeaders();
         dpsHeaders.put(DpsHeaders.AUTHORIZATION, "testAuth");
@@ -829,6 +1035,131 @@ public class AugmenterConfigurationServiceImplTest {
         verify(this.searchClient,times(4)).search(any(List.class), any(), any(), any(), anyInt());
     }
 
+    @Test
+    public void updateAssociatedRecords_updateAssociatedChildrenRecords_enqueues_chasing_tasks_page_by_page() throws Exception {
+        updateAssociatedRecords_updateAssociatedChildrenRecords_baseSetup();
+        when(this.configurationProperties.getStorageRecordsByKindBatchSize()).thenReturn(3);
+
+        // Children of the parent are returned in two pages of two records
+        doAnswer(invocation -> {
+            List<String> kinds = invocation.getArgument(0);
+            SearchClient.PageConsumer pageConsumer = invocation.getArgument(5);
+            if (kinds.get(0).contains("osdu:wks:master-data--Well:1.")) {
+                pageConsumer.accept(createChildRecords(0, 2));
+                verify(this.indexerQueueTaskBuilder, times(0)).createWorkerTask(any(), any(), any());
+                pageConsumer.accept(createChildRecords(2, 2));
+                verify(this.indexerQueueTaskBuilder, times(1)).createWorkerTask(any(), any(), any());
+            } else {
+                pageConsumer.accept(this.searchClient.search(kinds, invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3), invocation.getArgument(4)));
+            }
+            return null;
+        }).when(this.searchClient).search(any(List.class), any(), any(), any(), anyInt(), any(SearchClient.PageConsumer.class));
+
+        // Test
+        RecordChangedMessages recordChangedMessages = new RecordChangedMessages();
+        recordChangedMessages.setAttributes(new HashMap<>());
+        Map<String, List<String>> upsertKindIds = new HashMap<>();
+        upsertKindIds.put(parentKind, Arrays.asList(parentId));
+        this.sut.updateAssociatedRecords(recordChangedMessages, upsertKindIds, new HashMap<>(), new ArrayList<>());
+
+        // Verify
+        ArgumentCaptor<String> payloadArgumentCaptor = ArgumentCaptor.forClass(String.class);
+        verify(this.indexerQueueTaskBuilder, times(2)).createWorkerTask(payloadArgumentCaptor.capture(), any(), any());
+        Type type = new TypeToken<List<RecordInfo>>() {}.getType();
+        List<Integer> batchSizes = new ArrayList<>();
+        for (String payload : payloadArgumentCaptor.getAllValues()) {
+            RecordChangedMessages newMessages = gson.fromJson(payload, RecordChangedMessages.class);
+            List<RecordInfo> infoList = gson.fromJson(newMessages.getData(), type);
+            batchSizes.add(infoList.size());
+        }
+        Assert.assertEquals(Arrays.asList(3, 1), batchSizes);
+    }
+
+    @Test
+    public void updateAssociatedRecords_updateAssociatedChildrenRecords_rethrows_chasing_task_publish_failure() throws Exception {
+        updateAssociatedRecords_updateAssociatedChildrenRecords_baseSetup();
+        when(this.configurationProperties.getStorageRecordsByKindBatchSize()).thenReturn(1);
+        doAnswer(invocation -> {
+            List<String> kinds = invocation.getArgument(0);
+            SearchClient.PageConsumer pageConsumer = invocation.getArgument(5);
+            if (kinds.get(0).contains("osdu:wks:master-data--Well:1.")) {
+                pageConsumer.accept(createChildRecords(0, 1));
+            } else {
+                pageConsumer.accept(this.searchClient.search(kinds, invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3), invocation.getArgument(4)));
+            }
+            return null;
+        }).when(this.searchClient).search(any(List.class), any(), any(), any(), anyInt(), any(SearchClient.PageConsumer.class));
+        AppException publishFailure = new AppException(HttpStatus.SC_SERVICE_UNAVAILABLE, "Queue error", "Failed to publish");
+        doThrow(publishFailure).when(this.indexerQueueTaskBuilder).createWorkerTask(any(), any(), any());
+
+        RecordChangedMessages recordChangedMessages = new RecordChangedMessages();
+        recordChangedMessages.setAttributes(new HashMap<>());
+        Map<String, List<String>> upsertKindIds = new HashMap<>();
+        upsertKindIds.put(parentKind, Arrays.asList(parentId));
+
+        AppException exception = Assert.assertThrows(AppException.class,
+                () -> this.sut.updateAssociatedRecords(recordChangedMessages, upsertKindIds, new HashMap<>(), new ArrayList<>()));
+        Assert.assertSame(publishFailure, exception);
+    }
+
+    @Test
+    public void updateAssociatedRecords_updateAssociatedChildrenRecords_looks_up_children_with_chunked_terms_queries() throws Exception {
+        updateAssociatedRecords_updateAssociatedChildrenRecords_baseSetup();
+        this.sut.maxIdsPerQuery = 1;
+        String otherParentId = "anyOtherParentId";
+        List<Query> childrenQueries = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<String> kinds = invocation.getArgument(0);
+            SearchClient.PageConsumer pageConsumer = invocation.getArgument(5);
+            if (kinds.get(0).contains("osdu:wks:master-data--Well:1.")) {
+                childrenQueries.add(invocation.getArgument(1));
+                // the child is associated with both parents, so each chunk finds it
+                SearchRecord searchRecord = new SearchRecord();
+                searchRecord.setKind(childKind);
+                searchRecord.setId(childId);
+                searchRecord.setData(Map.of("AssociatedIdentities", Arrays.asList(parentId, otherParentId)));
+                pageConsumer.accept(List.of(searchRecord));
+            } else {
+                pageConsumer.accept(this.searchClient.search(kinds, invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3), invocation.getArgument(4)));
+            }
+            return null;
+        }).when(this.searchClient).search(any(List.class), any(), any(), any(), anyInt(), any(SearchClient.PageConsumer.class));
+
+        RecordChangedMessages recordChangedMessages = new RecordChangedMessages();
+        recordChangedMessages.setAttributes(new HashMap<>());
+        Map<String, List<String>> upsertKindIds = new HashMap<>();
+        upsertKindIds.put(parentKind, Arrays.asList(parentId, otherParentId));
+        this.sut.updateAssociatedRecords(recordChangedMessages, upsertKindIds, new HashMap<>(), new ArrayList<>());
+
+        Assert.assertEquals(2, childrenQueries.size());
+        for (Query childrenQuery : childrenQueries) {
+            Assert.assertTrue(childrenQuery.isBool());
+            Query termsQuery = childrenQuery.bool().should().get(0);
+            Assert.assertEquals("data.AssociatedIdentities", termsQuery.terms().field());
+            Assert.assertEquals(1, termsQuery.terms().terms().value().size());
+        }
+        ArgumentCaptor<String> payloadArgumentCaptor = ArgumentCaptor.forClass(String.class);
+        verify(this.indexerQueueTaskBuilder, times(1)).createWorkerTask(payloadArgumentCaptor.capture(), any(), any());
+        RecordChangedMessages newMessages = gson.fromJson(payloadArgumentCaptor.getValue(), RecordChangedMessages.class);
+        List<RecordInfo> infoList = gson.fromJson(newMessages.getData(), new TypeToken<List<RecordInfo>>() {}.getType());
+        Assert.assertEquals(1, infoList.size());
+        Assert.assertEquals(childId, infoList.get(0).getId());
+    }
+
+    private List<SearchRecord> createChildRecords(int start, int count) {
+        List<SearchRecord> records = new ArrayList<>();
+        for (int i = start; i < start + count; i++) {
+            SearchRecord searchRecord = new SearchRecord();
+            Map<String, Object> childDataMap = new HashMap<>();
+            childDataMap.put("AssociatedIdentities", Arrays.asList(parentId));
+            searchRecord.setKind(childKind);
+            searchRecord.setId(childId + i);
+            searchRecord.setData(childDataMap);
+            records.add(searchRecord);
+        }
+        return records;
+    }
+
     @Test
     public void updateAssociatedRecords_updateAssociatedChildrenRecords_for_updated_parentRecord_without_extendedPropertyChanged() throws Exception {
         updateAssociatedRecords_updateAssociatedChildrenRecords_baseSetup();
@@ -921,6 +1252,13 @@ public class AugmenterConfigurationServiceImplTest {
             return records;
         });
 
+        // The streaming search hands the records of the search above to the consumer as a single page
+        doAnswer(invocation -> {
+            List<SearchRecord> records = this.searchClient.search((List<String>) invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3), invocation.getArgument(4));
+            ((SearchClient.PageConsumer) invocation.getArgument(5)).accept(records);
+            return null;
+        }).when(this.searchClient).search(any(List.class), any(), any(), any(), anyInt(), any(SearchClient.PageConsumer.class));
+
         // setup headers
         DpsHeaders dpsHeaders = new DpsHeaders();
         dpsHeaders.put(DpsHeaders.AUTHORIZATION, "testAuth");
@@ -929,6 +1267,14 @@ public class AugmenterConfigurationServiceImplTest {
         when(this.requestInfo.getHeadersWithDwdAuthZ()).thenReturn(dpsHeaders);
     }
 
+    @Test
+    public void removeDataRecords_deletes_records_from_relatedObjectCache() {
+        sut.removeDataRecords(Arrays.asList("id1", "id2"));
+
+        verify(this.relatedObjectCache, times(1)).delete("id1");
+        verify(this.relatedObjectCache, times(1)).delete("id2");
+    }
+
     @Test
     public void getRelatedKindsOfConfigurations_returns_empty_list_when_configurationIds_is_null_or_empty() {
         List<String> relatedKinds = sut.getRelatedKindsOfConfigurations(null);
@@ -15,7 +15,9 @@
 package org.opengroup.osdu.indexer.service;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
@@ -34,6 +36,7 @@ import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.elasticsearch._types.ElasticsearchException;
 import co.elastic.clients.elasticsearch._types.ErrorCause;
 import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import co.elastic.clients.elasticsearch._types.mapping.Property;
 import co.elastic.clients.elasticsearch._types.mapping.TypeMapping;
 import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
 import co.elastic.clients.elasticsearch.indices.GetMappingRequest;
@@ -54,6 +57,7 @@ import org.elasticsearch.client.RestClient;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -70,7 +74,9 @@ import org.opengroup.osdu.indexer.model.XcollaborationHolder;
 import org.opengroup.osdu.indexer.service.exception.ElasticsearchMappingException;
 import org.opengroup.osdu.indexer.util.CustomIndexAnalyzerSetting;
 import org.opengroup.osdu.indexer.util.ElasticClientHandler;
+import org.opengroup.osdu.indexer.util.PropertyUtil;
 import org.opengroup.osdu.indexer.util.TypeMapper;
+import org.opengroup.osdu.indexer.util.geo.decimator.ShapeResolutionLevels;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -108,6 +114,8 @@ public class IndexerMappingServiceTest {
     private IFeatureFlag featureFlag;
     @Mock
     private CustomIndexAnalyzerSetting customIndexAnalyzerSetting;
+    @Spy
+    private ShapeResolutionLevels shapeResolutionLevels = new ShapeResolutionLevels();
 
     @Spy
     @InjectMocks
@@ -376,4 +384,77 @@ public class IndexerMappingServiceTest {
         String actualMapping = this.sut.getIndexMapping(elasticsearchClient, "index");
         assertEquals(mapping, actualMapping);
     }
+
+    @Test
+    public void should_map_coarse_default_location_levels_as_geo_shape_createMappingTest() throws Exception {
+        this.shapeResolutionLevels.setCoarseEpsilonMeters("1000, 100");
+        Map<String, Object> dataSchema = new HashMap<>();
+        dataSchema.put(PropertyUtil.VIRTUAL_DEFAULT_LOCATION_WGS84_PATH, "geo_shape");
+        IndexSchema schema = IndexSchema.builder().kind(kind).type(type).dataSchema(dataSchema).metaSchema(getMetaAttributeMapping()).build();
+        PutMappingResponse putMappingResponse = mock(PutMappingResponse.class);
+        when(putMappingResponse.acknowledged()).thenReturn(true);
+        when(indicesClient.putMapping(any(PutMappingRequest.class))).thenReturn(putMappingResponse);
+
+        String mapping = this.sut.createMapping(elasticsearchClient, schema, index, false);
+
+        Map<String, Object> dataProperties = getDataProperties(mapping);
+        assertEquals(Map.of("type", "geo_shape"), dataProperties.get(PropertyUtil.VIRTUAL_DEFAULT_LOCATION_WGS84_PATH));
+        assertEquals(Map.of("type", "geo_shape"), dataProperties.get(PropertyUtil.VIRTUAL_DEFAULT_LOCATION_WGS84_PATH + "100m"));
+        assertEquals(Map.of("type", "geo_shape"), dataProperties.get(PropertyUtil.VIRTUAL_DEFAULT_LOCATION_WGS84_PATH + "1000m"));
+    }
+
+    @Test
+    public void should_not_map_coarse_levels_without_default_location_createMappingTest() throws Exception {
+        this.shapeResolutionLevels.setCoarseEpsilonMeters("100");
+        PutMappingResponse putMappingResponse = mock(PutMappingResponse.class);
+        when(putMappingResponse.acknowledged()).thenReturn(true);
+        when(indicesClient.putMapping(any(PutMappingRequest.class))).thenReturn(putMappingResponse);
+
+        String mapping = this.sut.createMapping(elasticsearchClient, indexSchema, index, false);
+
+        assertFalse(getDataProperties(mapping).containsKey(PropertyUtil.VIRTUAL_DEFAULT_LOCATION_WGS84_PATH + "100m"));
+    }
+
+    @Test
+    public void should_add_missing_coarse_default_location_levels_givenExistingIndex() throws Exception {
+        this.shapeResolutionLevels.setCoarseEpsilonMeters("100, 1000");
+        final String cacheKey = String.format("metaAttributeMappingSynced-%s", index);
+        final String mapping = "{\"dynamic\":\"false\",\"properties\":{\"acl\":{\"properties\":{\"owners\":{\"type\":\"keyword\"},\"viewers\":{\"type\":\"keyword\"}}},\"ancestry\":{\"properties\":{\"parents\":{\"type\":\"keyword\"}}},\"authority\":{\"type\":\"constant_keyword\",\"value\":\"opendes\"},\"createTime\":{\"type\":\"date\"},\"createUser\":{\"type\":\"keyword\"},\"data\":{\"properties\":{\"VirtualProperties\":{\"properties\":{\"DefaultLocation\":{\"properties\":{\"Wgs84Coordinates\":{\"type\":\"geo_shape\"},\"Wgs84Coordinates1000m\":{\"type\":\"geo_shape\"}}}}}}},\"id\":{\"type\":\"keyword\"},\"index\":{\"properties\":{\"lastUpdateTime\":{\"type\":\"date\"},\"statusCode\":{\"type\":\"integer\"},\"trace\":{\"type\":\"text\"}}},\"kind\":{\"type\":\"keyword\"},\"legal\":{\"properties\":{\"legaltags\":{\"type\":\"keyword\"},\"otherRelevantDataCountries\":{\"type\":\"keyword\"},\"status\":{\"type\":\"keyword\"}}},\"modifyTime\":{\"type\":\"date\"},\"modifyUser\":{\"type\":\"keyword\"},\"namespace\":{\"type\":\"keyword\"},\"source\":{\"type\":\"constant_keyword\",\"value\":\"test\"},\"tags\":{\"type\":\"flattened\"},\"type\":{\"type\":\"keyword\"},\"version\":{\"type\":\"long\"},\"x-acl\":{\"type\":\"keyword\"},\"bagOfWords\":{\"search_analyzer\":\"whitespace\",\"analyzer\":\"detailExtractor\",\"store\":true,\"type\":\"text\",\"fields\":{\"autocomplete\":{\"type\":\"completion\",\"analyzer\":\"detailExtractor\",\"search_analyzer\":\"whitespace\",\"max_input_length\":256}}}}}";
+        doReturn(mapping).when(this.sut).getIndexMapping(elasticsearchClient, index);
+
+        when(this.elasticsearchClient.indices()).thenReturn(this.indicesClient);
+        GetMappingResponse mappingResponse = mock(GetMappingResponse.class);
+        when(this.indicesClient.getMapping(any(GetMappingRequest.class))).thenReturn(mappingResponse);
+        PutMappingResponse putMappingResponse = mock(PutMappingResponse.class);
+        when(putMappingResponse.acknowledged()).thenReturn(true);
+        when(indicesClient.putMapping(any(PutMappingRequest.class))).thenReturn(putMappingResponse);
+
+        this.sut.syncMetaAttributeIndexMappingIfRequired(elasticsearchClient, noDataIndexSchema);
+
+        ArgumentCaptor<PutMappingRequest> requestCaptor = ArgumentCaptor.forClass(PutMappingRequest.class);
+        verify(this.indicesClient, times(1)).putMapping(requestCaptor.capture());
+        Map<String, Property> dataProperties = requestCaptor.getValue().properties().get("data").object().properties();
+        assertTrue(dataProperties.get(PropertyUtil.VIRTUAL_DEFAULT_LOCATION_WGS84_PATH + "100m").isGeoShape());
+        assertFalse(dataProperties.containsKey(PropertyUtil.VIRTUAL_DEFAULT_LOCATION_WGS84_PATH + "1000m"));
+        verify(this.indexCache, times(1)).put(cacheKey, true);
+    }
+
+    @Test
+    public void should_not_add_coarse_levels_givenExistingIndex_withoutDefaultLocation() throws Exception {
+        this.shapeResolutionLevels.setCoarseEpsilonMeters("100");
+        final String cacheKey = String.format("metaAttributeMappingSynced-%s", index);
+        final String mapping = "{\"dynamic\":\"false\",\"properties\":{\"acl\":{\"properties\":{\"owners\":{\"type\":\"keyword\"},\"viewers\":{\"type\":\"keyword\"}}},\"ancestry\":{\"properties\":{\"parents\":{\"type\":\"keyword\"}}},\"authority\":{\"type\":\"constant_keyword\",\"value\":\"opendes\"},\"createTime\":{\"type\":\"date\"},\"createUser\":{\"type\":\"keyword\"},\"data\":{\"properties\":{\"message\":{\"type\":\"text\"}}},\"id\":{\"type\":\"keyword\"},\"index\":{\"properties\":{\"lastUpdateTime\":{\"type\":\"date\"},\"statusCode\":{\"type\":\"integer\"},\"trace\":{\"type\":\"text\"}}},\"kind\":{\"type\":\"keyword\"},\"legal\":{\"properties\":{\"legaltags\":{\"type\":\"keyword\"},\"otherRelevantDataCountries\":{\"type\":\"keyword\"},\"status\":{\"type\":\"keyword\"}}},\"modifyTime\":{\"type\":\"date\"},\"modifyUser\":{\"type\":\"keyword\"},\"namespace\":{\"type\":\"keyword\"},\"source\":{\"type\":\"constant_keyword\",\"value\":\"test\"},\"tags\":{\"type\":\"flattened\"},\"type\":{\"type\":\"keyword\"},\"version\":{\"type\":\"long\"},\"x-acl\":{\"type\":\"keyword\"},\"bagOfWords\":{\"type\":\"text\"}}}";
+        doReturn(mapping).when(this.sut).getIndexMapping(elasticsearchClient, index);
+
+        this.sut.syncMetaAttributeIndexMappingIfRequired(elasticsearchClient, noDataIndexSchema);
+
+        verify(this.indicesClient, times(0)).putMapping(any(PutMappingRequest.class));
+        verify(this.indexCache, times(1)).put(cacheKey, true);
+    }
+
+    private Map<String, Object> getDataProperties(String mapping) {
+        Map<String, Object> mappingMap = new Gson().fromJson(mapping, Map.class);
+        Map<String, Object> properties = (Map<String, Object>) mappingMap.get("properties");
+        return (Map<String, Object>) ((Map<String, Object>) properties.get("data")).get("properties");
+    }
 }
@@ -68,8 +68,11 @@ import org.opengroup.osdu.core.common.model.storage.Schema;
 import org.opengroup.osdu.core.common.model.storage.SchemaItem;
 import org.opengroup.osdu.core.common.search.ElasticIndexNameResolver;
 import org.opengroup.osdu.indexer.cache.partitionsafe.FlattenedSchemaCache;
+import org.opengroup.osdu.indexer.cache.partitionsafe.FlattenedSchemaObjectCache;
+import org.opengroup.osdu.indexer.cache.partitionsafe.SchemaAccessorPlanCache;
 import org.opengroup.osdu.indexer.cache.partitionsafe.SchemaCache;
 import org.opengroup.osdu.indexer.cache.partitionsafe.VirtualPropertiesSchemaCache;
+import org.opengroup.osdu.indexer.model.VersionedIndexSchema;
 import org.opengroup.osdu.indexer.model.indexproperty.AugmenterConfiguration;
 import org.opengroup.osdu.indexer.schema.converter.exeption.SchemaProcessingException;
 import org.opengroup.osdu.indexer.service.exception.ElasticsearchMappingException;
@@ -100,8 +103,12 @@ public class IndexerSchemaServiceTest {
     @Mock
     private FlattenedSchemaCache flattenedSchemaCache;
     @Mock
+    private FlattenedSchemaObjectCache flattenedSchemaObjectCache;
+    @Mock
     private VirtualPropertiesSchemaCache virtualPropertiesSchemaCache;
     @Mock
+    private SchemaAccessorPlanCache schemaAccessorPlanCache;
+    @Mock
     private AugmenterConfigurationService augmenterConfigurationService;
     @Mock
     private AugmenterSetting augmenterSetting;
@@ -163,6 +170,57 @@ public class IndexerSchemaServiceTest {
         verify(this.flattenedSchemaCache, times(2)).put(any(String.class), any(String.class));
     }
 
+    @Test
+    public void should_returnTypedSchema_givenFlattenedSchemaObjectCacheHit_getIndexerInputSchemaTest() throws Exception {
+        IndexSchema cachedSchema = IndexSchema.builder().kind(kind).type("test").dataSchema(new HashMap<>()).build();
+        when(this.schemaCache.get(kind)).thenReturn(someSchema);
+        when(this.flattenedSchemaObjectCache.get(kind)).thenReturn(new VersionedIndexSchema(IndexSchemaServiceImpl.hashSchema(someSchema), cachedSchema));
+
+        IndexSchema indexSchema = this.sut.getIndexerInputSchema(kind, false);
+
+        assertTrue(cachedSchema == indexSchema);
+        verify(this.flattenedSchemaCache, never()).get(any());
+        verify(this.schemaService, never()).getSchema(any());
+    }
+
+    @Test
+    public void should_rebuildTypedSchema_givenSchemaChangedOnOtherPod_getIndexerInputSchemaTest() throws Exception {
+        IndexSchema staleSchema = IndexSchema.builder().kind(kind).type("test").dataSchema(new HashMap<>()).build();
+        Map<String, Object> dataSchema = new HashMap<>();
+        dataSchema.put("test-path", "text");
+        IndexSchema flattenedSchema = IndexSchema.builder().kind(kind).type("test").dataSchema(dataSchema).metaSchema(new HashMap<>()).build();
+        when(this.schemaCache.get(kind)).thenReturn(someSchema);
+        when(this.flattenedSchemaObjectCache.get(kind)).thenReturn(new VersionedIndexSchema(IndexSchemaServiceImpl.hashSchema("{\"kind\":\"previous\"}"), staleSchema));
+        when(this.flattenedSchemaCache.get(kind)).thenReturn(new Gson().toJson(flattenedSchema));
+
+        IndexSchema indexSchema = this.sut.getIndexerInputSchema(kind, false);
+
+        assertFalse(staleSchema == indexSchema);
+        assertEquals("text", indexSchema.getDataSchema().get("test-path"));
+        verify(this.flattenedSchemaObjectCache, times(1)).put(eq(kind), eq(new VersionedIndexSchema(IndexSchemaServiceImpl.hashSchema(someSchema), indexSchema)));
+    }
+
+    @Test
+    public void should_cacheReadOnlyTypedSchema_givenFlattenedSchemaCacheHit_getIndexerInputSchemaTest() throws Exception {
+        Map<String, Object> dataSchema = new HashMap<>();
+        dataSchema.put("test-path", "text");
+        IndexSchema flattenedSchema = IndexSchema.builder().kind(kind).type("test").dataSchema(dataSchema).metaSchema(new HashMap<>()).build();
+        when(this.schemaCache.get(kind)).thenReturn(someSchema);
+        when(this.flattenedSchemaCache.get(kind)).thenReturn(new Gson().toJson(flattenedSchema));
+
+        IndexSchema indexSchema = this.sut.getIndexerInputSchema(kind, false);
+
+        assertEquals(kind, indexSchema.getKind());
+        assertEquals("text", indexSchema.getDataSchema().get("test-path"));
+        verify(this.flattenedSchemaObjectCache, times(1)).put(kind, new VersionedIndexSchema(IndexSchemaServiceImpl.hashSchema(someSchema), indexSchema));
+        try {
+            indexSchema.getDataSchema().put("other-path", "text");
+            fail("Should throw exception");
+        } catch (UnsupportedOperationException e) {
+            // cached schemas are shared and must not be modified
+        }
+    }
+
     @Test
     public void should_throw500_givenInvalidSchemaCacheHit_getIndexerInputSchemaTest() {
         try {
@@ -341,6 +399,8 @@ public class IndexerSchemaServiceTest {
         assertEquals(4, indexSchema.getDataSchema().size());
         verify(this.schemaCache, times(1)).delete(any());
         verify(this.flattenedSchemaCache, times(1)).delete(any());
+        verify(this.flattenedSchemaObjectCache, times(1)).delete(any());
+        verify(this.schemaAccessorPlanCache, times(1)).delete(any());
         verify(this.virtualPropertiesSchemaCache, times(1)).delete(any());
     }
 
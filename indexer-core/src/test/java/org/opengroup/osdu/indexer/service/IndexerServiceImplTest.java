@@ -17,6 +17,7 @@ package org.opengroup.osdu.indexer.service;
 
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -41,6 +42,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import org.apache.http.HttpStatus;
 import org.junit.After;
 import org.junit.Before;
@@ -50,10 +52,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.opengroup.osdu.core.common.feature.IFeatureFlag;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.opengroup.osdu.core.common.model.entitlements.Acl;
+import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.indexer.*;
 import org.opengroup.osdu.core.common.model.search.RecordChangedMessages;
@@ -63,11 +67,16 @@ import org.opengroup.osdu.core.common.search.ElasticIndexNameResolver;
 import org.opengroup.osdu.indexer.logging.AuditLogger;
 import org.opengroup.osdu.indexer.model.XcollaborationHolder;
 import org.opengroup.osdu.indexer.model.indexproperty.AugmenterConfiguration;
+import org.opengroup.osdu.indexer.model.indexproperty.AugmenterRecord;
 import org.opengroup.osdu.indexer.provider.interfaces.IPublisher;
 import org.opengroup.osdu.indexer.service.exception.ElasticsearchMappingException;
 import org.opengroup.osdu.indexer.util.AugmenterSetting;
 import org.opengroup.osdu.indexer.util.IndexerQueueTaskBuilder;
 import org.opengroup.osdu.indexer.util.RequestScopedElasticsearchClient;
+import org.opengroup.osdu.indexer.util.bulk.AdaptiveBulkSizeController;
+import org.opengroup.osdu.indexer.util.bulk.BulkRequestDispatcher;
+import org.opengroup.osdu.indexer.util.concurrent.ParallelRecordMapper;
+import org.opengroup.osdu.indexer.util.concurrent.RequestContextPropagator;
 
 @RunWith(MockitoJUnitRunner.class)
 public class IndexerServiceImplTest {
@@ -114,6 +123,12 @@ public class IndexerServiceImplTest {
     private XcollaborationHolder xcollaborationHolder;
     @Mock
     private RequestScopedElasticsearchClient requestScopedClient;
+    @Spy
+    private AdaptiveBulkSizeController bulkSizeController = new AdaptiveBulkSizeController();
+    @Spy
+    private BulkRequestDispatcher bulkRequestDispatcher = new BulkRequestDispatcher();
+    @Spy
+    private ParallelRecordMapper parallelRecordMapper = new ParallelRecordMapper();
 
     private List<RecordInfo> recordInfos = new ArrayList<>();
 
@@ -285,6 +300,9 @@ public class IndexerServiceImplTest {
             assertEquals(1, deleteKindIds.get(kind1).size());
             assertEquals(2, deleteKindIds.get(kind2).size());
             assertEquals(1, deleteKindIds.get(kind3).size());
+            ArgumentCaptor<List<String>> removedArgumentCaptor = ArgumentCaptor.forClass(List.class);
+            verify(this.augmenterConfigurationService, times(1)).removeDataRecords(removedArgumentCaptor.capture());
+            assertEquals(4, removedArgumentCaptor.getValue().size());
         } catch (Exception e) {
             fail("Should not throw this exception" + e.getMessage());
         }
@@ -294,6 +312,7 @@ public class IndexerServiceImplTest {
     public void should_mergeExtendedProperties_givenValidCreateAndUpdateRecords_and_kindsHavingPropertyConfigurations() {
         try {
             prepareTestDataAndEnv(this.pubsubMsg);
+            this.sut.augmenterBatchResolutionEnabled = false;
 
             // setup property configuration
             when(this.augmenterConfigurationService.isConfigurationEnabled(eq(kind1))).thenReturn(true);
@@ -313,6 +332,120 @@ public class IndexerServiceImplTest {
         }
     }
 
+    @Test
+    public void should_mergeExtendedPropertiesOfWholeBatch_givenBatchResolutionEnabled() {
+        try {
+            prepareTestDataAndEnv(this.pubsubMsg);
+            this.sut.augmenterBatchResolutionEnabled = true;
+
+            // setup property configuration
+            when(this.augmenterConfigurationService.isConfigurationEnabled(eq(kind1))).thenReturn(true);
+            when(this.augmenterConfigurationService.isConfigurationEnabled(eq(kind2))).thenReturn(true);
+            when(this.augmenterConfigurationService.getRelatedKindsOfConfigurations(any())).thenReturn(new ArrayList<>());
+            when(this.augmenterConfigurationService.getConfiguration(any())).thenReturn(new AugmenterConfiguration());
+            when(this.augmenterConfigurationService.getExtendedProperties(anyList())).thenAnswer(invocation -> {
+                List<Map<String, Object>> extendedDataMaps = new ArrayList<>();
+                for (Object ignored : invocation.getArgument(0, List.class)) {
+                    extendedDataMaps.add(Map.of("ExtendedProperty", "value"));
+                }
+                return extendedDataMaps;
+            });
+
+            // test
+            this.sut.processRecordChangedMessages(recordChangedMessages, recordInfos);
+
+            // validate
+            ArgumentCaptor<List<AugmenterRecord>> argumentCaptor = ArgumentCaptor.forClass(List.class);
+            verify(this.augmenterConfigurationService, times(1)).getExtendedProperties(argumentCaptor.capture());
+            verify(this.augmenterConfigurationService, never()).getExtendedProperties(any(), any(), any());
+            assertEquals(2, argumentCaptor.getValue().size());
+            for (AugmenterRecord augmenterRecord : argumentCaptor.getValue()) {
+                assertEquals("value", augmenterRecord.getDataMap().get("ExtendedProperty"));
+            }
+            verify(this.augmenterConfigurationService, times(3)).cacheDataRecord(any(), any(), any());
+        } catch (Exception e) {
+            fail("Should not throw this exception" + e.getMessage());
+        }
+    }
+
+    @Test
+    public void should_mergeExtendedPropertiesOfWholeMessage_givenSeveralStorageBatches() {
+        try {
+            prepareTestDataAndEnv(this.pubsubMsg);
+            streamStorageRecordsInBatchesOfOne();
+
+            // setup property configuration
+            when(this.augmenterConfigurationService.isConfigurationEnabled(eq(kind2))).thenReturn(true);
+            when(this.augmenterConfigurationService.getRelatedKindsOfConfigurations(any())).thenReturn(new ArrayList<>());
+            when(this.augmenterConfigurationService.getConfiguration(any())).thenReturn(new AugmenterConfiguration());
+            when(this.augmenterConfigurationService.getExtendedProperties(anyList())).thenAnswer(invocation -> {
+                List<Map<String, Object>> extendedDataMaps = new ArrayList<>();
+                for (Object ignored : invocation.getArgument(0, List.class)) {
+                    extendedDataMaps.add(new HashMap<>());
+                }
+                return extendedDataMaps;
+            });
+
+            // test
+            this.sut.processRecordChangedMessages(recordChangedMessages, recordInfos);
+
+            // validate
+            ArgumentCaptor<List<AugmenterRecord>> argumentCaptor = ArgumentCaptor.forClass(List.class);
+            verify(this.augmenterConfigurationService, times(1)).getExtendedProperties(argumentCaptor.capture());
+            assertEquals(2, argumentCaptor.getValue().size());
+        } catch (Exception e) {
+            fail("Should not throw this exception" + e.getMessage());
+        }
+    }
+
+    @Test
+    public void should_resolveExtendedPropertiesRecordByRecord_givenBatchResolutionFailure() {
+        try {
+            prepareTestDataAndEnv(this.pubsubMsg);
+
+            // setup property configuration
+            when(this.augmenterConfigurationService.isConfigurationEnabled(eq(kind2))).thenReturn(true);
+            when(this.augmenterConfigurationService.getRelatedKindsOfConfigurations(any())).thenReturn(new ArrayList<>());
+            when(this.augmenterConfigurationService.getConfiguration(any())).thenReturn(new AugmenterConfiguration());
+            when(this.augmenterConfigurationService.getExtendedProperties(anyList())).thenThrow(new IllegalStateException("search failed"));
+            when(this.augmenterConfigurationService.getExtendedProperties(eq(recordId2), any(), any())).thenReturn(Map.of("ExtendedProperty", "value"));
+            when(this.augmenterConfigurationService.getExtendedProperties(eq(recordId3), any(), any())).thenThrow(new IllegalStateException("bad record"));
+
+            // test
+            JobStatus jobStatus = this.sut.processRecordChangedMessages(recordChangedMessages, recordInfos);
+
+            // validate
+            verify(this.augmenterConfigurationService, times(2)).getExtendedProperties(any(), any(), any());
+            verify(this.augmenterConfigurationService, times(1)).cacheDataRecord(eq(recordId2), eq(kind2), any());
+            verify(this.augmenterConfigurationService, never()).cacheDataRecord(eq(recordId3), any(), any());
+            // only the record that cannot be resolved loses its extended properties
+            assertTrue(jobStatus.getIdsByIndexingStatus(IndexingStatus.SUCCESS).contains(recordId2));
+        } catch (Exception e) {
+            fail("Should not throw this exception" + e.getMessage());
+        }
+    }
+
+    @Test
+    public void should_syncMappingOncePerKind_givenMessageFetchedInSeveralStorageBatches() {
+        try {
+            prepareTestDataAndEnv(this.pubsubMsg);
+            streamStorageRecordsInBatchesOfOne();
+            when(this.indicesService.isIndexReady(any(), any())).thenReturn(true);
+
+            // test
+            this.sut.processRecordChangedMessages(recordChangedMessages, recordInfos);
+
+            // validate
+            verify(this.mappingService, times(1)).syncMetaAttributeIndexMappingIfRequired(any(), argThat(schema -> kind2.equals(schema.getKind())));
+            verify(this.mappingService, times(1)).syncMetaAttributeIndexMappingIfRequired(any(), argThat(schema -> kind3.equals(schema.getKind())));
+            ArgumentCaptor<BulkRequest> bulkCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(restHighLevelClient, atLeastOnce()).bulk(bulkCaptor.capture());
+            assertEquals(3, bulkCaptor.getAllValues().get(0).operations().size());
+        } catch (Exception e) {
+            fail("Should not throw this exception" + e.getMessage());
+        }
+    }
+
     @Test
     public void should_updateSchemaMappingOfRelatedKinds_givenValidCreateAndUpdateRecords() {
         try {
@@ -365,7 +498,10 @@ public class IndexerServiceImplTest {
         validRecords.add(Records.Entity.builder().id(recordId4).kind(kind3).data(storageData).build());
         List<ConversionStatus> conversionStatus = new LinkedList<>();
         Records storageRecords = Records.builder().records(validRecords).conversionStatuses(conversionStatus).build();
-        when(this.storageService.getStorageRecords(any(), any())).thenReturn(storageRecords);
+        doAnswer(invocation -> {
+            invocation.<StorageService.RecordsBatchConsumer>getArgument(2).accept(storageRecords);
+            return null;
+        }).when(this.storageService).streamStorageRecords(any(), any(), any());
 
         // setup elastic, index and mapped document
         when(this.indicesService.createIndex(any(), any(), any(), any())).thenReturn(true);
@@ -387,6 +523,22 @@ public class IndexerServiceImplTest {
         when(this.bulkResponse.items()).thenReturn(items);
     }
 
+    private void streamStorageRecordsInBatchesOfOne() throws Exception {
+        Map<String, Object> storageData = new HashMap<>();
+        storageData.put("schema1", "test-value");
+        List<Records.Entity> validRecords = new ArrayList<>();
+        validRecords.add(Records.Entity.builder().id(recordId2).kind(kind2).data(storageData).build());
+        validRecords.add(Records.Entity.builder().id(recordId3).kind(kind2).data(storageData).build());
+        validRecords.add(Records.Entity.builder().id(recordId4).kind(kind3).data(storageData).build());
+        doAnswer(invocation -> {
+            for (Records.Entity validRecord : validRecords) {
+                invocation.<StorageService.RecordsBatchConsumer>getArgument(2).accept(
+                        Records.builder().records(new ArrayList<>(List.of(validRecord))).conversionStatuses(new LinkedList<>()).build());
+            }
+            return null;
+        }).when(this.storageService).streamStorageRecords(any(), any(), any());
+    }
+
     private void preparePartiallyValidTestData(String pubsubMsg) throws Exception {
 
         // setup headers
@@ -418,7 +570,10 @@ public class IndexerServiceImplTest {
         validRecords.add(Records.Entity.builder().id(recordId5).kind(kind4).data(storageData).build());
         List<ConversionStatus> conversionStatus = new LinkedList<>();
         Records storageRecords = Records.builder().records(validRecords).conversionStatuses(conversionStatus).build();
-        when(this.storageService.getStorageRecords(any(), any())).thenReturn(storageRecords);
+        doAnswer(invocation -> {
+            invocation.<StorageService.RecordsBatchConsumer>getArgument(2).accept(storageRecords);
+            return null;
+        }).when(this.storageService).streamStorageRecords(any(), any(), any());
 
         // setup elastic, index and mapped document
         when(this.indicesService.createIndex(any(), any(), any(), any())).thenReturn(true);
@@ -528,6 +683,60 @@ public class IndexerServiceImplTest {
         }
     }
 
+    @Test
+    public void testGetIndexerPayload_ShouldKeepRecordOrderAndStatuses_whenMappedInParallel() throws Exception {
+        String kind = "test:kind:type:1.0.0";
+        Map<String, OperationType> operations = new HashMap<>();
+        List<Records.Entity> storageRecords = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            String id = "record" + i;
+            operations.put(id, OperationType.create);
+            Map<String, Object> data = new HashMap<>();
+            data.put("field", "value" + i);
+            storageRecords.add(Records.Entity.builder().id(id).kind(kind).data(data).build());
+        }
+        Map<String, Map<String, OperationType>> upsertRecordMap = new HashMap<>();
+        upsertRecordMap.put(kind, operations);
+        Map<String, IndexSchema> kindSchemaMap = new HashMap<>();
+        kindSchemaMap.put(kind, IndexSchema.builder().kind(kind).dataSchema(createSchema()).build());
+        Records records = Records.builder().records(storageRecords).build();
+
+        this.jobStatus.initialize(storageRecords.stream().map(record -> {
+            RecordInfo recordInfo = new RecordInfo();
+            recordInfo.setId(record.getId());
+            recordInfo.setKind(kind);
+            recordInfo.setOp("create");
+            return recordInfo;
+        }).collect(Collectors.toList()));
+        this.parallelRecordMapper.setParallelism(3);
+        this.parallelRecordMapper.setParallelThreshold(2);
+        this.parallelRecordMapper.setContextPropagator(new RequestContextPropagator());
+        when(asIngestedCoordinatesFeatureFlag.isFeatureEnabled(anyString())).thenReturn(false);
+        when(this.storageIndexerPayloadMapper.mapDataPayload(any(), any(), any(), any())).thenAnswer(invocation -> {
+            String id = invocation.getArgument(3);
+            if ("record3".equals(id)) {
+                throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "mapping error", "failed to map record3");
+            }
+            Map<String, Object> dataMap = new HashMap<>();
+            dataMap.put("field", id);
+            return dataMap;
+        });
+
+        try {
+            java.lang.reflect.Method method = sut.getClass().getDeclaredMethod("getIndexerPayload", Map.class, Map.class, Records.class);
+            method.setAccessible(true);
+            RecordIndexerPayload result = (RecordIndexerPayload) method.invoke(sut, upsertRecordMap, kindSchemaMap, records);
+
+            List<String> ids = result.getRecords().stream().map(RecordIndexerPayload.Record::getId).collect(Collectors.toList());
+            assertEquals(Arrays.asList("record0", "record1", "record2", "record3", "record4", "record5"), ids);
+            assertEquals("record5", result.getRecords().get(5).getData().get("field"));
+            assertEquals(singletonList("record3"), this.jobStatus.getIdsByIndexingStatus(IndexingStatus.FAIL));
+            verify(this.storageIndexerPayloadMapper, times(6)).mapDataPayload(any(), any(), any(), any());
+        } finally {
+            this.parallelRecordMapper.destroy();
+        }
+    }
+
     private Map<String, Object> createSchema() {
         Map<String, Object> schema = new HashMap<>();
         schema.put("schema1", "keyword");
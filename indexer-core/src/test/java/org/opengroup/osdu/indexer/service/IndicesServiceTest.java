@@ -43,11 +43,14 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.search.IndexInfo;
 import org.opengroup.osdu.core.common.search.ElasticIndexNameResolver;
 import org.opengroup.osdu.indexer.cache.partitionsafe.IndexCache;
 import org.opengroup.osdu.indexer.util.CustomIndexAnalyzerSetting;
 import org.opengroup.osdu.indexer.util.RequestScopedElasticsearchClient;
+import org.opengroup.osdu.indexer.util.concurrent.AsyncRetryExecutor;
+import org.opengroup.osdu.indexer.util.concurrent.RequestContextPropagator;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -87,6 +90,10 @@ public class IndicesServiceTest {
     private CustomIndexAnalyzerSetting customIndexAnalyzerSetting;
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    private DpsHeaders headers;
+    @Spy
+    private AsyncRetryExecutor retryExecutor = new AsyncRetryExecutor();
     @InjectMocks
     private IndicesServiceImpl sut;
 
@@ -103,6 +110,7 @@ public class IndicesServiceTest {
         when(requestScopedClient.getClient()).thenReturn(restHighLevelClient);
         setFieldValueForClass(sut, "healthRetryThreshold", 1);
         setFieldValueForClass(sut, "healthRetrySleepPeriodInMilliseconds", 1);
+        retryExecutor.setContextPropagator(new RequestContextPropagator());
     }
 
     @Test
@@ -13,7 +13,9 @@ import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.indexer.IndexSchema;
 import org.opengroup.osdu.core.common.model.indexer.JobStatus;
+import org.opengroup.osdu.indexer.cache.SchemaAccessorPlanCacheVmImpl;
 import org.opengroup.osdu.indexer.cache.partitionsafe.FeatureFlagCache;
+import org.opengroup.osdu.indexer.cache.partitionsafe.SchemaAccessorPlanCache;
 import org.opengroup.osdu.indexer.cache.partitionsafe.VirtualPropertiesSchemaCache;
 import org.opengroup.osdu.indexer.schema.converter.config.SchemaConverterPropertiesConfig;
 import org.opengroup.osdu.indexer.schema.converter.exeption.SchemaProcessingException;
@@ -24,7 +26,9 @@ import org.opengroup.osdu.indexer.service.mock.ServiceAccountJwtClientMock;
 import org.opengroup.osdu.indexer.service.mock.VirtualPropertiesSchemaCacheMock;
 import org.opengroup.osdu.indexer.util.geo.decimator.DouglasPeuckerReducer;
 import org.opengroup.osdu.indexer.util.geo.decimator.GeoShapeDecimator;
+import org.opengroup.osdu.indexer.cache.DecimatedShapeCache;
 import org.opengroup.osdu.indexer.util.geo.decimator.GeometryDecimator;
+import org.opengroup.osdu.indexer.util.geo.decimator.ShapeResolutionLevels;
 import org.opengroup.osdu.indexer.util.geo.extractor.PointExtractor;
 import org.opengroup.osdu.indexer.util.parser.*;
 import org.opengroup.osdu.indexer.util.BooleanFeatureFlagClient;
@@ -47,9 +51,10 @@ import static org.opengroup.osdu.indexer.model.Constants.AS_INGESTED_COORDINATES
 @RunWith(SpringRunner.class)
 @SpringBootTest(classes = {StorageIndexerPayloadMapper.class, AttributeParsingServiceImpl.class, NumberParser.class,
         BooleanParser.class, DateTimeParser.class, GeoShapeParser.class, DouglasPeuckerReducer.class, GeoShapeDecimator.class,
-        GeometryDecimator.class, PointExtractor.class, GeometryConversionService.class, FeatureFlagCache.class,
+        GeometryDecimator.class, DecimatedShapeCache.class, ShapeResolutionLevels.class, PointExtractor.class, GeometryConversionService.class, FeatureFlagCache.class,
         DpsHeaders.class, JobStatus.class, SchemaConverterPropertiesConfig.class, JaxRsDpsLog.class,
         ServiceAccountJwtClientMock.class, VirtualPropertiesSchemaCacheMock.class, VirtualPropertiesSchemaCache.class, RequestInfoMock.class,
+        SchemaAccessorPlanCacheVmImpl.class, SchemaAccessorPlanCache.class,
         IFeatureFlag.class, StringParser.class, BooleanFeatureFlagClient.class}
 )
 public class StorageIndexerPayloadMapperTest {
@@ -84,6 +89,9 @@ public class StorageIndexerPayloadMapperTest {
     @Autowired
     private VirtualPropertiesSchemaCache virtualPropertiesSchemaCache;
 
+    @Autowired
+    private ShapeResolutionLevels shapeResolutionLevels;
+
     @MockBean
     protected IFeatureFlag featureFlagChecker;
 
@@ -140,6 +148,49 @@ public class StorageIndexerPayloadMapperTest {
         storageRecordData.put("DateProperty", "2021-03-02T00:17:20.640Z");
     }
 
+    @Test
+    public void mapDataPayloadTestNestedPathsAndSchemaGrowth() {
+        Map<String, Object> dataSchema = new HashMap<>();
+        dataSchema.put("Outer.Inner.TextProperty", "text");
+        dataSchema.put("Outer.Missing.DoubleProperty", "double");
+        dataSchema.put("Outer.Flattened.Name", "text");
+        IndexSchema schema = IndexSchema.builder().kind("plan-kind").type(Constants.TYPE).dataSchema(dataSchema).build();
+
+        Map<String, Object> recordData = new HashMap<>();
+        recordData.put("Outer", ImmutableMap.of("Inner", ImmutableMap.of("TextProperty", "inner-text", "Count", "5")));
+        recordData.put("Outer.Flattened.Name", "flattened-name");
+
+        Map<String, Object> mapped = payloadMapper.mapDataPayload(emptyAsIngestedCoordinatesPaths, schema, recordData, RECORD_TEST_ID);
+
+        assertEquals("inner-text", mapped.get("Outer.Inner.TextProperty"));
+        assertEquals("flattened-name", mapped.get("Outer.Flattened.Name"));
+        assertFalse(mapped.containsKey("Outer.Missing.DoubleProperty"));
+        assertFalse(mapped.containsKey("Outer.Inner.Count"));
+
+        // a schema that grew after the plan was compiled must be mapped with its new properties
+        dataSchema.put("Outer.Inner.Count", "integer");
+        mapped = payloadMapper.mapDataPayload(emptyAsIngestedCoordinatesPaths, schema, recordData, RECORD_TEST_ID);
+
+        assertEquals(5, mapped.get("Outer.Inner.Count"));
+        assertEquals("inner-text", mapped.get("Outer.Inner.TextProperty"));
+    }
+
+    @Test
+    public void mapDataPayloadTestReplacedSchemaOfSameSize() {
+        Map<String, Object> recordData = new HashMap<>();
+        recordData.put("Count", "5");
+        IndexSchema schema = IndexSchema.builder().kind("replaced-plan-kind").type(Constants.TYPE)
+                .dataSchema(new HashMap<>(Map.of("Count", "text"))).build();
+
+        assertEquals("5", payloadMapper.mapDataPayload(emptyAsIngestedCoordinatesPaths, schema, recordData, RECORD_TEST_ID).get("Count"));
+
+        // a schema change yields a new typed schema of the kind, which must not be mapped with the plan of the old one
+        IndexSchema changedSchema = IndexSchema.builder().kind("replaced-plan-kind").type(Constants.TYPE)
+                .dataSchema(new HashMap<>(Map.of("Count", "integer"))).build();
+
+        assertEquals(5, payloadMapper.mapDataPayload(emptyAsIngestedCoordinatesPaths, changedSchema, recordData, RECORD_TEST_ID).get("Count"));
+    }
+
     @Test
     public void mapDataPayloadTestNested() {
         Map<String, Object> stringObjectMap = payloadMapper.mapDataPayload(emptyAsIngestedCoordinatesPaths, indexSchema, storageRecordData,
@@ -259,6 +310,33 @@ public class StorageIndexerPayloadMapperTest {
         assertEquals(11, spatialLocationCoordinates.size());
     }
 
+    @Test
+    public void coarse_geoshapes_are_added_with_virtual_spatial_location() {
+        final String kind = "osdu:wks:master-data--SeismicAcquisitionSurvey:1.0.0";
+        final String record_id = "opendes:master-data--SeismicAcquisitionSurvey:WD86-BO_WD86-PR1228-FS-11";
+        VirtualProperties virtualProperties = loadObject("/converter/index-virtual-properties/virtual-properties.json", VirtualProperties.class);
+        virtualPropertiesSchemaCache.put(kind, virtualProperties);
+
+        IndexSchema indexSchema = loadObject("/converter/index-virtual-properties/survey_storage_schema.json", IndexSchema.class);
+        Map<String, Object> storageRecordData = new HashMap<>();
+        storageRecordData = loadObject("/converter/index-virtual-properties/survey_storage_data.json", storageRecordData.getClass());
+
+        shapeResolutionLevels.setCoarseEpsilonMeters("100,1000");
+        try {
+            Map<String, Object> dataCollectorMap = payloadMapper.mapDataPayload(emptyAsIngestedCoordinatesPaths, indexSchema, storageRecordData, record_id);
+
+            List<Object> defaultLocationCoordinates = getCoordinates("VirtualProperties.DefaultLocation.Wgs84Coordinates", dataCollectorMap);
+            List<Object> coordinates100m = getCoordinates("VirtualProperties.DefaultLocation.Wgs84Coordinates100m", dataCollectorMap);
+            List<Object> coordinates1000m = getCoordinates("VirtualProperties.DefaultLocation.Wgs84Coordinates1000m", dataCollectorMap);
+            assertEquals(11, defaultLocationCoordinates.size());
+            assertTrue(coordinates100m.size() <= defaultLocationCoordinates.size());
+            assertTrue(coordinates1000m.size() <= coordinates100m.size());
+            assertTrue(coordinates1000m.size() >= 2);
+        } finally {
+            shapeResolutionLevels.setCoarseEpsilonMeters("");
+        }
+    }
+
     @Test
     public void geoshape_decimation_is_executed_without_virtual_spatial_location() {
         virtualPropertiesSchemaCache.clearAll();
@@ -18,9 +18,13 @@ import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -42,6 +46,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
+import org.opengroup.osdu.core.common.http.FetchServiceHttpRequest;
 import org.opengroup.osdu.core.common.http.IHttpClientHandler;
 import org.opengroup.osdu.core.common.http.IUrlFetchService;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
@@ -58,6 +63,9 @@ import org.opengroup.osdu.core.common.model.indexer.Records;
 import org.opengroup.osdu.core.common.provider.interfaces.IRequestInfo;
 import org.opengroup.osdu.indexer.config.IndexerConfigurationProperties;
 import org.opengroup.osdu.indexer.model.XcollaborationHolder;
+import org.opengroup.osdu.indexer.util.concurrent.PartitionRateLimiter;
+import org.opengroup.osdu.indexer.util.concurrent.RequestContextPropagator;
+import org.opengroup.osdu.indexer.util.concurrent.StorageFetchExecutor;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -79,6 +87,10 @@ public class StorageServiceImplTest {
     private XcollaborationHolder xcollaborationHolder;
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private StorageFetchExecutor storageFetchExecutor = new StorageFetchExecutor();
+    @Spy
+    private PartitionRateLimiter rateLimiter = new PartitionRateLimiter();
     @InjectMocks
     private StorageServiceImpl sut;
 
@@ -363,6 +375,96 @@ public class StorageServiceImplTest {
         assertEquals("conversion error occurred", storageRecords.getConversionStatuses().get(0).getErrors().get(0));
     }
 
+    @Test
+    public void should_streamBatchesInOrder_whilePrefetchingNextBatches_streamStorageRecordsTest() throws Exception {
+        List<String> recordIds = Arrays.asList("tenant:doc:1", "tenant:doc:2", "tenant:doc:3", "tenant:doc:4");
+        List<RecordInfo> recordChangeInfos = new ArrayList<>();
+        Map<String, HttpResponse> responses = new HashMap<>();
+        for (String recordId : recordIds) {
+            recordChangeInfos.add(RecordInfo.builder().id(recordId).kind("tenant:test:test:1.0.0").op(OperationType.create.getValue()).build());
+            HttpResponse httpResponse = mock(HttpResponse.class);
+            when(httpResponse.getBody()).thenReturn("{\"records\":[{\"id\":\"" + recordId + "\", \"version\":1, \"kind\":\"tenant:test:test:1.0.0\"}],\"notFound\":[], \"conversionStatuses\": []}");
+            responses.put(recordId, httpResponse);
+        }
+        when(configurationProperties.getStorageRecordsBatchSize()).thenReturn(1);
+        when(configurationProperties.getStorageRecordsPrefetchBatches()).thenReturn(2);
+        this.storageFetchExecutor.setContextPropagator(new RequestContextPropagator());
+
+        List<String> fetchThreads = Collections.synchronizedList(new ArrayList<>());
+        when(this.urlFetchService.sendRequest(any())).thenAnswer(invocation -> {
+            fetchThreads.add(Thread.currentThread().getName());
+            String requestBody = invocation.<FetchServiceHttpRequest>getArgument(0).getBody();
+            return responses.get(recordIds.stream().filter(requestBody::contains).findFirst().orElseThrow());
+        });
+
+        List<String> consumedIds = new ArrayList<>();
+        try {
+            this.sut.streamStorageRecords(recordIds, recordChangeInfos, records -> records.getRecords().forEach(record -> consumedIds.add(record.getId())));
+        } finally {
+            this.storageFetchExecutor.destroy();
+        }
+
+        assertEquals(recordIds, consumedIds);
+        assertEquals(4, fetchThreads.size());
+        assertTrue(fetchThreads.stream().allMatch(threadName -> threadName.startsWith("storage-records-fetcher-")));
+    }
+
+    @Test
+    public void should_mergeConcurrentBatchesInOrder_givenFetchParallelism_getStorageRecordsTest() throws Exception {
+        List<String> recordIds = Arrays.asList("tenant:doc:1", "tenant:doc:2", "tenant:doc:3", "tenant:doc:4");
+        List<RecordInfo> recordChangeInfos = new ArrayList<>();
+        for (String recordId : recordIds) {
+            recordChangeInfos.add(RecordInfo.builder().id(recordId).kind("tenant:test:test:1.0.0").op(OperationType.create.getValue()).build());
+        }
+        // first batch misses tenant:doc:2, second batch reports tenant:doc:4 as not found
+        HttpResponse firstBatchResponse = mockRecordsResponse("[{\"id\":\"tenant:doc:1\", \"version\":1, \"kind\":\"tenant:test:test:1.0.0\"}]", "[]");
+        HttpResponse secondBatchResponse = mockRecordsResponse("[{\"id\":\"tenant:doc:3\", \"version\":1, \"kind\":\"tenant:test:test:1.0.0\"}]", "[\"tenant:doc:4\"]");
+        when(configurationProperties.getStorageRecordsBatchSize()).thenReturn(2);
+        when(configurationProperties.getStorageRecordsFetchParallelism()).thenReturn(2);
+        when(configurationProperties.getStorageRecordsFetchRatePerSecond()).thenReturn(100);
+        when(configurationProperties.getStorageRecordsFetchBurst()).thenReturn(5);
+        this.storageFetchExecutor.setContextPropagator(new RequestContextPropagator());
+        when(this.urlFetchService.sendRequest(any())).thenAnswer(invocation ->
+                invocation.<FetchServiceHttpRequest>getArgument(0).getBody().contains("tenant:doc:1") ? firstBatchResponse : secondBatchResponse);
+
+        Records storageRecords;
+        try {
+            storageRecords = this.sut.getStorageRecords(recordIds, recordChangeInfos);
+        } finally {
+            this.storageFetchExecutor.destroy();
+        }
+
+        assertEquals(Arrays.asList("tenant:doc:1", "tenant:doc:3"), storageRecords.getRecords().stream().map(Records.Entity::getId).toList());
+        assertEquals(singletonList("tenant:doc:4"), storageRecords.getNotFound());
+        assertEquals(singletonList("tenant:doc:2"), storageRecords.getMissingRetryRecords());
+        verify(this.storageFetchExecutor, times(2)).submit(any());
+        verify(this.rateLimiter, times(2)).acquire(any(), eq(100.0), eq(5));
+    }
+
+    private HttpResponse mockRecordsResponse(String records, String notFound) {
+        HttpResponse httpResponse = mock(HttpResponse.class);
+        when(httpResponse.getBody()).thenReturn("{\"records\":" + records + ",\"notFound\":" + notFound + ", \"conversionStatuses\": []}");
+        return httpResponse;
+    }
+
+    @Test
+    public void should_fetchOnCallingThread_givenSingleBatch_streamStorageRecordsTest() throws Exception {
+        String validDataFromStorage = "{\"records\":[{\"id\":\"testid\", \"version\":1, \"kind\":\"tenant:test:test:1.0.0\"}],\"notFound\":[], \"conversionStatuses\": []}";
+        List<RecordInfo> recordChangeInfos = Arrays.asList(RecordInfo.builder().id("testid").kind("tenant:test:test:1.0.0").op(OperationType.create.getValue()).build());
+        when(configurationProperties.getStorageRecordsPrefetchBatches()).thenReturn(2);
+
+        HttpResponse httpResponse = mock(HttpResponse.class);
+        when(httpResponse.getBody()).thenReturn(validDataFromStorage);
+        when(this.urlFetchService.sendRequest(ArgumentMatchers.any())).thenReturn(httpResponse);
+
+        List<Records> batches = new ArrayList<>();
+        this.sut.streamStorageRecords(singletonList("testid"), recordChangeInfos, batches::add);
+
+        assertEquals(1, batches.size());
+        assertEquals(1, batches.get(0).getRecords().size());
+        verify(this.storageFetchExecutor, never()).submit(any());
+    }
+
     private void should_return404_getValidStorageRecordsTest() {
         List<RecordInfo> recordChangeInfos = Arrays.asList(RecordInfo.builder().id("testid").kind("tenant:test:test:1.0.0").op(OperationType.update.getValue()).build());
         try {
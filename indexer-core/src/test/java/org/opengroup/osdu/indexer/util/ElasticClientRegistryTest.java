@@ -0,0 +1,134 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.model.indexer.IElasticSettingService;
+import org.opengroup.osdu.core.common.model.search.ClusterSettings;
+import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ElasticClientRegistryTest {
+
+    private static final String PARTITION = "opendes";
+
+    @Mock
+    private ElasticClientHandler elasticClientHandler;
+    @Mock
+    private IElasticSettingService elasticSettingService;
+    @Mock
+    private TenantInfo tenantInfo;
+    @InjectMocks
+    private ElasticClientRegistry registry;
+
+    private final ClusterSettings clusterSettings = new ClusterSettings("test-host", 9200, "user:pass");
+
+    @Before
+    public void setup() {
+        when(tenantInfo.getDataPartitionId()).thenReturn(PARTITION);
+        when(elasticSettingService.getElasticClusterInformation()).thenReturn(clusterSettings);
+    }
+
+    @Test
+    public void should_reuse_client_across_leases_of_same_partition() {
+        ElasticsearchClient client = mock(ElasticsearchClient.class);
+        when(elasticClientHandler.createRestClient(clusterSettings)).thenReturn(client);
+
+        ElasticClientRegistry.Lease first = registry.acquire();
+        first.release();
+        ElasticClientRegistry.Lease second = registry.acquire();
+
+        assertSame(client, second.getClient());
+        verify(elasticClientHandler, times(1)).createRestClient(clusterSettings);
+        ElasticClientRegistry.ClientStatistics.Snapshot snapshot = registry.getStatistics().get(PARTITION);
+        assertEquals(1, snapshot.created());
+        assertEquals(1, snapshot.reused());
+        assertEquals(1, snapshot.activeLeases());
+    }
+
+    @Test
+    public void should_rebuild_client_when_cluster_settings_change_and_close_old_one_after_release() throws Exception {
+        ElasticsearchClient oldClient = mock(ElasticsearchClient.class);
+        ElasticsearchTransport oldTransport = mock(ElasticsearchTransport.class);
+        when(oldClient._transport()).thenReturn(oldTransport);
+        ElasticsearchClient newClient = mock(ElasticsearchClient.class);
+        ClusterSettings changedSettings = new ClusterSettings("new-host", 9200, "user:pass");
+        when(elasticClientHandler.createRestClient(clusterSettings)).thenReturn(oldClient);
+        when(elasticClientHandler.createRestClient(changedSettings)).thenReturn(newClient);
+
+        ElasticClientRegistry.Lease oldLease = registry.acquire();
+        when(elasticSettingService.getElasticClusterInformation()).thenReturn(changedSettings);
+        ElasticClientRegistry.Lease newLease = registry.acquire();
+
+        assertSame(newClient, newLease.getClient());
+        // the in-flight lease keeps the replaced client open
+        verify(oldTransport, never()).close();
+
+        oldLease.release();
+        verify(oldTransport, times(1)).close();
+        assertEquals(1, registry.getStatistics().get(PARTITION).rebuilt());
+    }
+
+    @Test
+    public void should_evict_idle_clients_without_active_leases() throws Exception {
+        ElasticsearchClient client = mock(ElasticsearchClient.class);
+        ElasticsearchTransport transport = mock(ElasticsearchTransport.class);
+        when(client._transport()).thenReturn(transport);
+        when(elasticClientHandler.createRestClient(clusterSettings)).thenReturn(client);
+        registry.setIdleEvictionSeconds(0);
+
+        ElasticClientRegistry.Lease lease = registry.acquire();
+        registry.evictIdleClients();
+        verify(transport, never()).close();
+        assertTrue(registry.getStatistics().get(PARTITION).pooled());
+
+        lease.release();
+        Thread.sleep(5);
+        registry.evictIdleClients();
+        verify(transport, times(1)).close();
+        assertFalse(registry.getStatistics().get(PARTITION).pooled());
+        assertEquals(1, registry.getStatistics().get(PARTITION).evicted());
+    }
+
+    @Test
+    public void should_release_lease_only_once() {
+        ElasticsearchClient client = mock(ElasticsearchClient.class);
+        when(elasticClientHandler.createRestClient(clusterSettings)).thenReturn(client);
+
+        ElasticClientRegistry.Lease lease = registry.acquire();
+        lease.release();
+        lease.release();
+
+        assertEquals(0, registry.getStatistics().get(PARTITION).activeLeases());
+    }
+}
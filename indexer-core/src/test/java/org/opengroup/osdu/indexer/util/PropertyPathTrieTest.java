@@ -0,0 +1,69 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opengroup.osdu.indexer.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PropertyPathTrieTest {
+    private final List<String> paths = Arrays.asList("FacilityName", "ProjectedBottomHoleLocation", "ProjectedBottomHoleLocation.Wgs84Coordinates",
+            "VerticalMeasurements[].VerticalMeasurementID", "SpatialLocation.Wgs84Coordinates");
+    private final List<String> properties = Arrays.asList("FacilityName", "FacilityNameAlias", "Facility", "ProjectedBottomHoleLocation",
+            "ProjectedBottomHoleLocation.Wgs84Coordinates.type", "ProjectedBottomHole", "VerticalMeasurements[]",
+            "VerticalMeasurements[].VerticalMeasurementID", "VerticalMeasurements[].VerticalMeasurement", "SpatialLocation",
+            "SpatialLocation.Wgs84Coordinates.geometries", "SpatialLocation.SpatialGeometryTypeID", "", null);
+
+    @Test
+    public void empty_trie_matches_nothing() {
+        PropertyPathTrie trie = PropertyPathTrie.of(null);
+
+        Assert.assertTrue(trie.isEmpty());
+        Assert.assertSame(PropertyPathTrie.empty(), PropertyPathTrie.of(Arrays.asList("", null)));
+        Assert.assertFalse(trie.touches("FacilityName"));
+        Assert.assertTrue(trie.getMatchedPaths("FacilityName").isEmpty());
+    }
+
+    @Test
+    public void duplicated_paths_are_counted_once() {
+        Assert.assertEquals(2, PropertyPathTrie.of(Arrays.asList("a.b", "a", "a.b")).size());
+    }
+
+    @Test
+    public void getMatchedPaths_is_same_as_isPropertyPathMatched() {
+        PropertyPathTrie trie = PropertyPathTrie.of(paths);
+        for (String property : properties) {
+            List<String> expected = new ArrayList<>();
+            for (String path : paths) {
+                if (PropertyUtil.isPropertyPathMatched(property, path)) {
+                    expected.add(path);
+                }
+            }
+            Assert.assertEquals(String.valueOf(property), expected, trie.getMatchedPaths(property));
+        }
+    }
+
+    @Test
+    public void touches_is_same_as_isPropertyPathMatched_in_both_directions() {
+        PropertyPathTrie trie = PropertyPathTrie.of(paths);
+        for (String property : properties) {
+            boolean expected = paths.stream().anyMatch(path ->
+                    PropertyUtil.isPropertyPathMatched(property, path) || PropertyUtil.isPropertyPathMatched(path, property));
+            Assert.assertEquals(String.valueOf(property), expected, trie.touches(property));
+        }
+    }
+}
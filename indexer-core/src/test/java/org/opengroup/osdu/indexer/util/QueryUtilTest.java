@@ -15,6 +15,7 @@
 
 package org.opengroup.osdu.indexer.util;
 
+import co.elastic.clients.elasticsearch._types.FieldValue;
 import co.elastic.clients.elasticsearch._types.SortOptions;
 import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
@@ -64,13 +65,39 @@ public class QueryUtilTest {
     }
 
     @Test
-    public void createIdsFilter_with_emptyIdList() {
-        Assert.assertEquals("", QueryUtil.createIdsFilter(new ArrayList<String>()));
+    public void createIdsQuery_with_idList() {
+        Query query = QueryUtil.createIdsQuery(List.of("id1", "id2:", "id1:"));
+        Assert.assertTrue(query.isTerms());
+        Assert.assertEquals("id", query.terms().field());
+        List<String> values = query.terms().terms().value().stream().map(FieldValue::stringValue).toList();
+        Assert.assertEquals(List.of("id1", "id2"), values);
     }
 
     @Test
-    public void createIdsFilter_with_idList() {
-        Assert.assertEquals("\"id1\" OR \"id2\"", QueryUtil.createIdsFilter(List.of("id1", "id2:")));
+    public void createReferencesQuery_with_idList() {
+        Query query = QueryUtil.createReferencesQuery("data.WellboreID", List.of("id1:", "id2", "id1"));
+        Assert.assertTrue(query.isBool());
+        Assert.assertEquals("1", query.bool().minimumShouldMatch());
+        List<Query> shouldQueries = query.bool().should();
+        Assert.assertEquals(List.of("data.WellboreID", "data.WellboreID.keyword"),
+                shouldQueries.stream().map(q -> q.terms().field()).toList());
+        for (Query shouldQuery : shouldQueries) {
+            List<String> values = shouldQuery.terms().terms().value().stream().map(FieldValue::stringValue).toList();
+            Assert.assertEquals(List.of("id1", "id2"), values);
+        }
+    }
+
+    @Test
+    public void partitionIds_with_largeIdList() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < QueryUtil.MAX_IDS_PER_QUERY * 2 + 1; i++) {
+            ids.add("id" + i);
+        }
+        List<List<String>> chunks = QueryUtil.partitionIds(ids);
+        Assert.assertEquals(3, chunks.size());
+        Assert.assertEquals(QueryUtil.MAX_IDS_PER_QUERY, chunks.get(0).size());
+        Assert.assertEquals(1, chunks.get(2).size());
+        Assert.assertEquals(2, QueryUtil.partitionIds(List.of("id1", "id2", "id3"), 2).size());
     }
 
     @Test
@@ -33,12 +33,15 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.search.ElasticIndexNameResolver;
 import org.opengroup.osdu.indexer.model.SearchRecord;
+import org.opengroup.osdu.indexer.util.concurrent.AsyncRetryExecutor;
+import org.opengroup.osdu.indexer.util.concurrent.RequestContextPropagator;
 
-import java.lang.reflect.Type;
 import java.util.*;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -63,14 +66,20 @@ public class SearchClientTest {
     @Mock
     private ElasticsearchClient client;
 
+    @Mock
+    private DpsHeaders headers;
+
+    @Spy
+    private AsyncRetryExecutor retryExecutor = new AsyncRetryExecutor();
+
     @Mock
     private Query query;
 
     @Mock
-    private HitsMetadata<Map<String, Object>> searchHits;
+    private HitsMetadata<SearchRecord> searchHits;
 
     @Mock
-    private Hit<Map<String, Object>> searchHit;
+    private Hit<SearchRecord> searchHit;
 
     private static final String kind = "a:b:c:1.0.0";
 
@@ -78,6 +87,7 @@ public class SearchClientTest {
 
     @Before
     public void init() {
+        retryExecutor.setContextPropagator(new RequestContextPropagator());
         doReturn(client).when(requestScopedClient).getClient();
         when(elasticIndexNameResolver.getIndexNameFromKind(anyString())).thenAnswer(invocation -> {
             String kind = invocation.getArgument(0);
@@ -87,12 +97,12 @@ public class SearchClientTest {
 
     @Test
     public void search_with_normalQuery_whenSearchHitsIsNotEmpty() throws Exception {
-        List<Hit<Map<String, Object>>> hits = new ArrayList<>();
+        List<Hit<SearchRecord>> hits = new ArrayList<>();
         hits.add(searchHit);
-        Map<String, Object> hitFields = new HashMap<>();
+        SearchRecord hitFields = new SearchRecord();
 
         SearchResponse searchResponse = mock(SearchResponse.class);
-        doReturn(searchResponse).when(client).search(any(SearchRequest.class), eq((Type)Map.class));
+        doReturn(searchResponse).when(client).search(any(SearchRequest.class), eq(SearchRecord.class));
         doReturn(searchHits).when(searchResponse).hits();
         doReturn(hits).when(searchHits).hits();
         doReturn(hitFields).when(searchHit).source();
@@ -102,7 +112,7 @@ public class SearchClientTest {
 
         // assert
         ArgumentCaptor<SearchRequest> searchRequestArgumentCaptor = ArgumentCaptor.forClass(SearchRequest.class);
-        verify(client, times(1)).search(searchRequestArgumentCaptor.capture(), eq((Type)Map.class));
+        verify(client, times(1)).search(searchRequestArgumentCaptor.capture(), eq(SearchRecord.class));
         verify(client, times(0)).openPointInTime(any(OpenPointInTimeRequest.class));
         SearchRequest searchRequest = searchRequestArgumentCaptor.getValue();
         assertNull(searchRequest.pit());
@@ -113,9 +123,9 @@ public class SearchClientTest {
 
     @Test
     public void search_with_normalQuery_and_retry_when_few_exceptions() throws Exception {
-        List<Hit<Map<String, Object>>> hits = new ArrayList<>();
+        List<Hit<SearchRecord>> hits = new ArrayList<>();
         hits.add(searchHit);
-        Map<String, Object> hitFields = new HashMap<>();
+        SearchRecord hitFields = new SearchRecord();
 
         SearchResponse searchResponse = mock(SearchResponse.class);
         doReturn(searchHits).when(searchResponse).hits();
@@ -126,7 +136,7 @@ public class SearchClientTest {
         errorResponses.add(ErrorResponse.of(es -> es.status(408).error(ErrorCause.of(ec -> ec.causedBy(by -> by.type("Exception").reason("Request Timeout"))))));
         errorResponses.add(ErrorResponse.of(es -> es.status(429).error(ErrorCause.of(ec -> ec.causedBy(by -> by.type("Exception").reason("Too Many Requests"))))));
         errorResponses.add(ErrorResponse.of(es -> es.status(500).error(ErrorCause.of(ec -> ec.causedBy(by -> by.type("Exception").reason("Internal Server Error"))))));
-        when(client.search(any(SearchRequest.class), eq((Type)Map.class))).thenAnswer(invocationOnMock -> {
+        when(client.search(any(SearchRequest.class), eq(SearchRecord.class))).thenAnswer(invocationOnMock -> {
             if(!errorResponses.isEmpty()) {
                 ErrorResponse errorResponse = errorResponses.remove(0);
                 throw new ElasticsearchException("bala", errorResponse);
@@ -143,14 +153,15 @@ public class SearchClientTest {
 
         // assert
         ArgumentCaptor<SearchRequest> searchRequestArgumentCaptor = ArgumentCaptor.forClass(SearchRequest.class);
-        verify(client, times(4)).search(searchRequestArgumentCaptor.capture(), eq((Type)Map.class));
+        verify(client, times(4)).search(searchRequestArgumentCaptor.capture(), eq(SearchRecord.class));
         verify(client, times(0)).openPointInTime(any(OpenPointInTimeRequest.class));
         SearchRequest searchRequest = searchRequestArgumentCaptor.getValue();
         assertNull(searchRequest.pit());
         assertEquals(searchRequest.sort().size(), 0);
         assertEquals(searchRequest.source().filter().includes().size(), 0);
         assertEquals(records.size(), 1);
-        assertEquals(seconds, 14);
+        // 2s, 4s and 8s backoff, each jittered within its upper half
+        assertTrue(seconds >= 7 && seconds <= 14);
     }
 
     @Test
@@ -161,7 +172,7 @@ public class SearchClientTest {
         errorResponses.add(ErrorResponse.of(es -> es.status(429).error(ErrorCause.of(ec -> ec.causedBy(by -> by.type("Exception").reason("Too Many Requests"))))));
         errorResponses.add(ErrorResponse.of(es -> es.status(500).error(ErrorCause.of(ec -> ec.causedBy(by -> by.type("Exception").reason("Internal Server Error"))))));
         errorResponses.add(ErrorResponse.of(es -> es.status(500).error(ErrorCause.of(ec -> ec.causedBy(by -> by.type("Exception").reason("Internal Server Error"))))));
-        when(client.search(any(SearchRequest.class), eq((Type)Map.class))).thenAnswer(invocationOnMock -> {
+        when(client.search(any(SearchRequest.class), eq(SearchRecord.class))).thenAnswer(invocationOnMock -> {
             if(!errorResponses.isEmpty()) {
                 ErrorResponse errorResponse = errorResponses.remove(0);
                 throw new ElasticsearchException("bala", errorResponse);
@@ -177,9 +188,10 @@ public class SearchClientTest {
         long seconds = (System.currentTimeMillis() - startTime)/1000;
 
         // assert
-        verify(client, times(4)).search(any(SearchRequest.class), eq((Type)Map.class));
+        verify(client, times(4)).search(any(SearchRequest.class), eq(SearchRecord.class));
         verify(client, times(0)).openPointInTime(any(OpenPointInTimeRequest.class));
-        assertEquals(seconds, 14);
+        // 2s, 4s and 8s backoff, each jittered within its upper half
+        assertTrue(seconds >= 7 && seconds <= 14);
     }
 
     @Test
@@ -187,7 +199,7 @@ public class SearchClientTest {
         SearchResponse searchResponse = mock(SearchResponse.class);
         List<ErrorResponse> errorResponses = new ArrayList<>();
         errorResponses.add(ErrorResponse.of(es -> es.status(400).error(ErrorCause.of(ec -> ec.causedBy(by -> by.type("Exception").reason("Bad Request"))))));
-        when(client.search(any(SearchRequest.class), eq((Type)Map.class))).thenAnswer(invocationOnMock -> {
+        when(client.search(any(SearchRequest.class), eq(SearchRecord.class))).thenAnswer(invocationOnMock -> {
             if(!errorResponses.isEmpty()) {
                 ErrorResponse errorResponse = errorResponses.remove(0);
                 throw new ElasticsearchException("bala", errorResponse);
@@ -203,7 +215,7 @@ public class SearchClientTest {
         long seconds = (System.currentTimeMillis() - startTime)/1000;
 
         // assert
-        verify(client, times(1)).search(any(SearchRequest.class), eq((Type)Map.class));
+        verify(client, times(1)).search(any(SearchRequest.class), eq(SearchRecord.class));
         verify(client, times(0)).openPointInTime(any(OpenPointInTimeRequest.class));
         assertEquals(seconds, 0);
     }
@@ -211,12 +223,12 @@ public class SearchClientTest {
 
     @Test
     public void search_with_whenSortOptionsAndReturnedFieldsAreNotEmpty() throws Exception {
-        List<Hit<Map<String, Object>>> hits = new ArrayList<>();
+        List<Hit<SearchRecord>> hits = new ArrayList<>();
         hits.add(searchHit);
-        Map<String, Object> hitFields = new HashMap<>();
+        SearchRecord hitFields = new SearchRecord();
 
         SearchResponse searchResponse = mock(SearchResponse.class);
-        doReturn(searchResponse).when(client).search(any(SearchRequest.class), eq((Type)Map.class));
+        doReturn(searchResponse).when(client).search(any(SearchRequest.class), eq(SearchRecord.class));
         doReturn(searchHits).when(searchResponse).hits();
         doReturn(hits).when(searchHits).hits();
         doReturn(hitFields).when(searchHit).source();
@@ -228,7 +240,7 @@ public class SearchClientTest {
 
         // assert
         ArgumentCaptor<SearchRequest> searchRequestArgumentCaptor = ArgumentCaptor.forClass(SearchRequest.class);
-        verify(client, times(1)).search(searchRequestArgumentCaptor.capture(), eq((Type)Map.class));
+        verify(client, times(1)).search(searchRequestArgumentCaptor.capture(), eq(SearchRecord.class));
         verify(client, times(0)).openPointInTime(any(OpenPointInTimeRequest.class));
         SearchRequest searchRequest = searchRequestArgumentCaptor.getValue();
         assertEquals(searchRequest.sort(), sortOptions);
@@ -252,7 +264,7 @@ public class SearchClientTest {
 
         // assert
         ArgumentCaptor<SearchRequest> searchRequestArgumentCaptor = ArgumentCaptor.forClass(SearchRequest.class);
-        verify(client, times(3)).search(searchRequestArgumentCaptor.capture(), eq((Type)Map.class));
+        verify(client, times(3)).search(searchRequestArgumentCaptor.capture(), eq(SearchRecord.class));
         verify(client, times(1)).openPointInTime(any(OpenPointInTimeRequest.class));
         verify(client, times(1)).closePointInTime(any(ClosePointInTimeRequest.class));
         SearchRequest searchRequest = searchRequestArgumentCaptor.getValue();
@@ -276,7 +288,7 @@ public class SearchClientTest {
 
         // assert
         ArgumentCaptor<SearchRequest> searchRequestArgumentCaptor = ArgumentCaptor.forClass(SearchRequest.class);
-        verify(client, times(5)).search(searchRequestArgumentCaptor.capture(), eq((Type)Map.class));
+        verify(client, times(5)).search(searchRequestArgumentCaptor.capture(), eq(SearchRecord.class));
         verify(client, times(1)).openPointInTime(any(OpenPointInTimeRequest.class));
         verify(client, times(1)).closePointInTime(any(ClosePointInTimeRequest.class));
         SearchRequest searchRequest = searchRequestArgumentCaptor.getValue();
@@ -289,9 +301,26 @@ public class SearchClientTest {
         assertEquals(records.size(), totalRecordCount);
     }
 
+    @Test
+    public void search_with_pageConsumer_receivesPitPagesOneByOne() throws Exception {
+        List<String> returnedFields = List.of("id", "kind");
+
+        int totalRecordCount = 15000;
+        prepare_search_with_queryWithPIT(totalRecordCount);
+        List<Integer> pageSizes = new ArrayList<>();
+
+        // act
+        sut.search(List.of(kind), query, null, returnedFields, -1, page -> pageSizes.add(page.size()));
+
+        // assert
+        verify(client, times(5)).search(any(SearchRequest.class), eq(SearchRecord.class));
+        verify(client, times(1)).closePointInTime(any(ClosePointInTimeRequest.class));
+        assertEquals(List.of(5000, 5000, 5000, 0), pageSizes);
+    }
+
     private void prepare_search_with_queryWithPIT(int totalRecordCount) throws Exception {
-        List<List<Hit<Map<String, Object>>>> batches = new ArrayList<>();
-        List<Hit<Map<String, Object>>> hits = new ArrayList<>();
+        List<List<Hit<SearchRecord>>> batches = new ArrayList<>();
+        List<Hit<SearchRecord>> hits = new ArrayList<>();
         for(int i = 0; i < totalRecordCount; i++) {
             if(i % 5000 == 0 && i > 0) {
                 batches.add(hits);
@@ -303,7 +332,7 @@ public class SearchClientTest {
             batches.add(hits);
         int batchCount = batches.size();
 
-        Map<String, Object> hitFields = new HashMap<>();
+        SearchRecord hitFields = new SearchRecord();
         Map<String, Integer> searchCallsCount = new HashMap<>();
         searchCallsCount.put("Count", 0);
         List<FieldValue> fieldValues = new ArrayList<>();
@@ -311,7 +340,7 @@ public class SearchClientTest {
         OpenPointInTimeResponse openResponse = mock(OpenPointInTimeResponse.class);
         SearchResponse searchResponse = mock(SearchResponse.class);
         doReturn(openResponse).when(client).openPointInTime(any(OpenPointInTimeRequest.class));
-        when(client.search(any(SearchRequest.class), eq((Type)Map.class))).thenAnswer(
+        when(client.search(any(SearchRequest.class), eq(SearchRecord.class))).thenAnswer(
                 invocationOnMock -> {
                     searchCallsCount.put("Count", searchCallsCount.get("Count") + 1);
                     return searchResponse;
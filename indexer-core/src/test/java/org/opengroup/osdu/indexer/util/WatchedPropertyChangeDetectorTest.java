@@ -0,0 +1,112 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opengroup.osdu.indexer.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WatchedPropertyChangeDetectorTest {
+
+    @Test
+    public void getChangedProperties_without_watched_paths() {
+        Map<String, Object> previousData = Map.of("Name", "a");
+        Map<String, Object> data = Map.of("Name", "b");
+
+        Assert.assertTrue(WatchedPropertyChangeDetector.getChangedProperties(previousData, data, null).isEmpty());
+        Assert.assertTrue(WatchedPropertyChangeDetector.getChangedProperties(previousData, data, List.of()).isEmpty());
+    }
+
+    @Test
+    public void getChangedProperties_ignores_unwatched_properties() {
+        Map<String, Object> previousData = Map.of("Name", "a", "Description", "old");
+        Map<String, Object> data = Map.of("Name", "a", "Description", "new");
+
+        Assert.assertTrue(WatchedPropertyChangeDetector.getChangedProperties(previousData, data, List.of("Name")).isEmpty());
+        Assert.assertEquals(List.of("Description"), WatchedPropertyChangeDetector.getChangedProperties(previousData, data, List.of("Name", "Description")));
+    }
+
+    @Test
+    public void getChangedProperties_null_value_is_same_as_absent_property() {
+        Map<String, Object> previousData = new HashMap<>();
+        previousData.put("Name", null);
+        Map<String, Object> data = new HashMap<>();
+
+        Assert.assertTrue(WatchedPropertyChangeDetector.getChangedProperties(previousData, data, List.of("Name")).isEmpty());
+        Assert.assertEquals(List.of("Name"), WatchedPropertyChangeDetector.getChangedProperties(previousData, Map.of("Name", "a"), List.of("Name")));
+        Assert.assertEquals(List.of("Name"), WatchedPropertyChangeDetector.getChangedProperties(null, Map.of("Name", "a"), List.of("Name")));
+    }
+
+    @Test
+    public void getChangedProperties_integer_is_same_as_double() {
+        Map<String, Object> previousData = Map.of("Depth", 10, "Elevation", 1.5);
+        Map<String, Object> data = Map.of("Depth", 10.0, "Elevation", 1.5);
+
+        Assert.assertTrue(WatchedPropertyChangeDetector.getChangedProperties(previousData, data, List.of("Depth", "Elevation")).isEmpty());
+        Assert.assertEquals(List.of("Elevation"),
+                WatchedPropertyChangeDetector.getChangedProperties(previousData, Map.of("Depth", 10L, "Elevation", 1.25), List.of("Depth", "Elevation")));
+    }
+
+    @Test
+    public void getChangedProperties_nested_object_paths() {
+        Map<String, Object> previousData = Map.of("Location", Map.of("Country", "NO", "Field", "A"));
+        Map<String, Object> data = Map.of("Location", Map.of("Country", "NO", "Field", "B"));
+
+        Assert.assertTrue(WatchedPropertyChangeDetector.getChangedProperties(previousData, data, List.of("Location.Country")).isEmpty());
+        Assert.assertEquals(List.of("Location.Field"), WatchedPropertyChangeDetector.getChangedProperties(previousData, data, List.of("Location.Country", "Location.Field")));
+        Assert.assertEquals(List.of("Location"), WatchedPropertyChangeDetector.getChangedProperties(previousData, data, List.of("Location")));
+    }
+
+    @Test
+    public void getChangedProperties_flattened_keys() {
+        Map<String, Object> previousData = Map.of("Location", Map.of("Country", "NO"));
+        Map<String, Object> data = Map.of("Location.Country", "NO");
+
+        Assert.assertTrue(WatchedPropertyChangeDetector.getChangedProperties(previousData, data, List.of("Location.Country")).isEmpty());
+    }
+
+    @Test
+    public void getChangedProperties_map_entry_order_does_not_matter() {
+        Map<String, Object> previous = new LinkedHashMap<>();
+        previous.put("a", 1);
+        previous.put("b", "x");
+        Map<String, Object> current = new LinkedHashMap<>();
+        current.put("b", "x");
+        current.put("a", 1);
+        current.put("c", null);
+
+        Assert.assertTrue(WatchedPropertyChangeDetector.getChangedProperties(Map.of("Object", previous), Map.of("Object", current), List.of("Object")).isEmpty());
+    }
+
+    @Test
+    public void getChangedProperties_nested_array_paths() {
+        Map<String, Object> previousData = Map.of("Markers", List.of(Map.of("Name", "m1", "Depth", 1), Map.of("Name", "m2", "Depth", 2)));
+        Map<String, Object> data = Map.of("Markers", List.of(Map.of("Name", "m1", "Depth", 1), Map.of("Name", "m2", "Depth", 3)));
+
+        Assert.assertTrue(WatchedPropertyChangeDetector.getChangedProperties(previousData, data, List.of("Markers[].Name")).isEmpty());
+        Assert.assertEquals(List.of("Markers[].Depth"), WatchedPropertyChangeDetector.getChangedProperties(previousData, data, List.of("Markers[].Name", "Markers[].Depth")));
+
+        // item order and item count are part of the value
+        Map<String, Object> reordered = Map.of("Markers", List.of(Map.of("Name", "m2", "Depth", 2), Map.of("Name", "m1", "Depth", 1)));
+        Assert.assertEquals(List.of("Markers[].Name"), WatchedPropertyChangeDetector.getChangedProperties(previousData, reordered, List.of("Markers[].Name")));
+        List<Object> markers = new ArrayList<>((List<?>) previousData.get("Markers"));
+        markers.add(Map.of("Depth", 4));
+        Assert.assertEquals(List.of("Markers[].Name"), WatchedPropertyChangeDetector.getChangedProperties(previousData, Map.of("Markers", markers), List.of("Markers[].Name")));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.bulk;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdaptiveBulkSizeControllerTest {
+
+    private static final String PARTITION = "opendes";
+
+    private AdaptiveBulkSizeController sut;
+
+    @Before
+    public void setup() {
+        sut = new AdaptiveBulkSizeController();
+        sut.setMinBytes(1000);
+        sut.setMaxBytes(10000);
+        sut.setInitialBytes(4000);
+        sut.setIncreaseStepBytes(1000);
+        sut.setTargetTookMillis(100);
+    }
+
+    @Test
+    public void should_start_with_initial_limit() {
+        assertEquals(4000, sut.getByteLimit(PARTITION));
+    }
+
+    @Test
+    public void should_increase_additively_on_fast_bulk_up_to_max() {
+        sut.onCompleted(PARTITION, 50);
+        assertEquals(5000, sut.getByteLimit(PARTITION));
+
+        for (int i = 0; i < 10; i++) {
+            sut.onCompleted(PARTITION, 50);
+        }
+        assertEquals(10000, sut.getByteLimit(PARTITION));
+    }
+
+    @Test
+    public void should_decrease_multiplicatively_on_slow_or_throttled_bulk_down_to_min() {
+        sut.onCompleted(PARTITION, 500);
+        assertEquals(2000, sut.getByteLimit(PARTITION));
+
+        sut.onThrottled(PARTITION);
+        assertEquals(1000, sut.getByteLimit(PARTITION));
+
+        sut.onThrottled(PARTITION);
+        assertEquals(1000, sut.getByteLimit(PARTITION));
+    }
+
+    @Test
+    public void should_keep_limits_per_partition() {
+        sut.onThrottled(PARTITION);
+
+        assertEquals(2000, sut.getByteLimit(PARTITION));
+        assertEquals(4000, sut.getByteLimit("other"));
+        assertEquals(4000, sut.getByteLimit(null));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.bulk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.DeleteOperation;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BulkRequestDispatcherTest {
+
+    private BulkRequestDispatcher sut;
+    private ElasticsearchClient client;
+
+    @Before
+    public void setup() {
+        sut = new BulkRequestDispatcher();
+        sut.setMaxConcurrentRequests(2);
+        sut.setDispatcherThreads(4);
+        client = mock(ElasticsearchClient.class);
+    }
+
+    @After
+    public void tearDown() {
+        sut.destroy();
+    }
+
+    @Test
+    public void should_return_outcomes_in_sub_bulk_order() throws Exception {
+        List<SplittingBulkRequestBuilder.SubBulk> subBulks = subBulks(5, 10);
+        BulkResponse[] responses = new BulkResponse[5];
+        for (int i = 0; i < 5; i++) {
+            responses[i] = mock(BulkResponse.class);
+            when(client.bulk(subBulks.get(i).request())).thenReturn(responses[i]);
+        }
+
+        List<BulkRequestDispatcher.Outcome> outcomes = sut.dispatch(client, "opendes", subBulks);
+
+        assertEquals(5, outcomes.size());
+        for (int i = 0; i < 5; i++) {
+            assertSame(responses[i], outcomes.get(i).response());
+            assertNull(outcomes.get(i).failure());
+        }
+    }
+
+    @Test
+    public void should_capture_failure_of_single_sub_bulk() throws Exception {
+        List<SplittingBulkRequestBuilder.SubBulk> subBulks = subBulks(3, 10);
+        IOException failure = new IOException("timeout");
+        when(client.bulk(any(BulkRequest.class))).thenReturn(mock(BulkResponse.class));
+        when(client.bulk(subBulks.get(1).request())).thenThrow(failure);
+
+        List<BulkRequestDispatcher.Outcome> outcomes = sut.dispatch(client, "opendes", subBulks);
+
+        assertSame(failure, outcomes.get(1).failure());
+        assertNull(outcomes.get(0).failure());
+        assertNull(outcomes.get(2).failure());
+    }
+
+    @Test
+    public void should_bound_concurrent_requests_per_partition() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(client.bulk(any(BulkRequest.class))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return mock(BulkResponse.class);
+        });
+
+        sut.dispatch(client, "opendes", subBulks(8, 10));
+
+        verify(client, times(8)).bulk(any(BulkRequest.class));
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    public void should_bound_in_flight_bytes() throws Exception {
+        sut.setMaxConcurrentRequests(8);
+        sut.setMaxInFlightBytes(2048);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(client.bulk(any(BulkRequest.class))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return mock(BulkResponse.class);
+        });
+
+        // each sub-bulk takes half of the byte budget
+        sut.dispatch(client, "opendes", subBulks(6, 1024));
+
+        verify(client, times(6)).bulk(any(BulkRequest.class));
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    private List<SplittingBulkRequestBuilder.SubBulk> subBulks(int count, long bytesEach) {
+        SplittingBulkRequestBuilder builder = new SplittingBulkRequestBuilder(bytesEach, 1, null);
+        for (int i = 0; i < count; i++) {
+            String id = String.valueOf(i);
+            builder.add(new BulkOperation.Builder().delete(DeleteOperation.of(b -> b.index("index").id(id))).build(), bytesEach);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.bulk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.json.stream.JsonGenerator;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.entitlements.Acl;
+import org.opengroup.osdu.core.common.model.indexer.RecordIndexerPayload;
+
+public class IndexerDocumentTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonpMapper jsonpMapper = new JacksonJsonpMapper(objectMapper);
+
+    @Test
+    public void should_writeMetaAndData_withoutCopyingRecord() throws Exception {
+        RecordIndexerPayload.Record payloadRecord = createRecord();
+
+        Map<String, Object> source = serialize(new IndexerDocument(payloadRecord, null));
+
+        assertEquals("tenant1:wks:well:1.0.0", source.get("kind"));
+        assertEquals("tenant1:wks", source.get("namespace"));
+        assertEquals("well", source.get("type"));
+        assertEquals(3, ((Number) source.get("version")).intValue());
+        assertEquals(Map.of("Name", "well-1", "Depth", 1500.5, "Aliases", List.of("W1", "W-1")), source.get("data"));
+        assertEquals(Set.of("data.viewers@tenant1.example.com", "data.owners@tenant1.example.com"), new HashSet<>((List<?>) source.get("x-acl")));
+        assertTrue(source.containsKey("tags"));
+        assertNull(source.get("tags"));
+        assertFalse(source.containsKey("ancestry"));
+        assertFalse(source.containsKey("modifyUser"));
+        assertFalse(source.containsKey("x-collaboration"));
+    }
+
+    @Test
+    public void should_writeCollaborationId_whenPresent() throws Exception {
+        Map<String, Object> source = serialize(new IndexerDocument(createRecord(), "a99cef48-2ed6-4beb-8a43-002373431f21"));
+
+        assertEquals("a99cef48-2ed6-4beb-8a43-002373431f21", source.get("x-collaboration"));
+    }
+
+    @Test
+    public void should_skipData_whenRecordHasNoData() throws Exception {
+        RecordIndexerPayload.Record payloadRecord = createRecord();
+        payloadRecord.setData(null);
+
+        assertFalse(serialize(new IndexerDocument(payloadRecord, null)).containsKey("data"));
+    }
+
+    @Test
+    public void should_estimateSize_includingMetaAttributes() {
+        RecordIndexerPayload.Record payloadRecord = createRecord();
+        IndexerDocument document = new IndexerDocument(payloadRecord, null);
+
+        assertTrue(document.estimateSize() > BulkDocumentSizeEstimator.estimate(payloadRecord.getData()));
+        assertEquals(document.estimateSize(), BulkDocumentSizeEstimator.estimate(document));
+    }
+
+    private RecordIndexerPayload.Record createRecord() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("Name", "well-1");
+        data.put("Depth", 1500.5);
+        data.put("Aliases", List.of("W1", "W-1"));
+
+        Acl acl = new Acl();
+        acl.setViewers(new String[]{"data.viewers@tenant1.example.com"});
+        acl.setOwners(new String[]{"data.owners@tenant1.example.com"});
+
+        RecordIndexerPayload.Record payloadRecord = new RecordIndexerPayload.Record();
+        payloadRecord.setId("tenant1:well:1");
+        payloadRecord.setKind("tenant1:wks:well:1.0.0");
+        payloadRecord.setAuthority("tenant1");
+        payloadRecord.setSource("wks");
+        payloadRecord.setNamespace("tenant1:wks");
+        payloadRecord.setType("well");
+        payloadRecord.setVersion(3L);
+        payloadRecord.setAcl(acl);
+        payloadRecord.setCreateUser("user@tenant1.example.com");
+        payloadRecord.setCreateTime("2024-01-01T00:00:00.000Z");
+        payloadRecord.setData(data);
+        return payloadRecord;
+    }
+
+    private Map<String, Object> serialize(IndexerDocument document) throws Exception {
+        return objectMapper.readValue(write(document), new TypeReference<Map<String, Object>>() {
+        });
+    }
+
+    private String write(IndexerDocument document) {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = jsonpMapper.jsonProvider().createGenerator(writer)) {
+            document.serialize(generator, jsonpMapper);
+        }
+        return writer.toString();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.bulk;
+
+import static org.junit.Assert.assertEquals;
+
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.DeleteOperation;
+import java.util.List;
+import org.junit.Test;
+
+public class SplittingBulkRequestBuilderTest {
+
+    private static final Time TIMEOUT = Time.of(builder -> builder.time("1m"));
+
+    @Test
+    public void should_split_by_byte_limit() {
+        SplittingBulkRequestBuilder builder = new SplittingBulkRequestBuilder(100, 1000, TIMEOUT);
+        builder.add(deleteOperation("1"), 60)
+                .add(deleteOperation("2"), 30)
+                .add(deleteOperation("3"), 30)
+                .add(deleteOperation("4"), 10);
+
+        List<SplittingBulkRequestBuilder.SubBulk> subBulks = builder.build();
+
+        assertEquals(2, subBulks.size());
+        assertEquals(2, subBulks.get(0).request().operations().size());
+        assertEquals(90, subBulks.get(0).estimatedBytes());
+        assertEquals(2, subBulks.get(1).request().operations().size());
+        assertEquals("3", subBulks.get(1).request().operations().get(0).delete().id());
+        assertEquals(TIMEOUT, subBulks.get(1).request().timeout());
+    }
+
+    @Test
+    public void should_split_by_operation_count() {
+        SplittingBulkRequestBuilder builder = new SplittingBulkRequestBuilder(Long.MAX_VALUE, 2, TIMEOUT);
+        for (int i = 0; i < 5; i++) {
+            builder.add(deleteOperation(String.valueOf(i)), 1);
+        }
+
+        List<SplittingBulkRequestBuilder.SubBulk> subBulks = builder.build();
+
+        assertEquals(3, subBulks.size());
+        assertEquals(1, subBulks.get(2).request().operations().size());
+        assertEquals("4", subBulks.get(2).request().operations().get(0).delete().id());
+    }
+
+    @Test
+    public void should_send_oversized_operation_alone() {
+        SplittingBulkRequestBuilder builder = new SplittingBulkRequestBuilder(100, 1000, TIMEOUT);
+        builder.add(deleteOperation("1"), 10)
+                .add(deleteOperation("2"), 500)
+                .add(deleteOperation("3"), 10);
+
+        List<SplittingBulkRequestBuilder.SubBulk> subBulks = builder.build();
+
+        assertEquals(3, subBulks.size());
+        assertEquals("2", subBulks.get(1).request().operations().get(0).delete().id());
+    }
+
+    @Test
+    public void should_return_no_sub_bulk_when_empty() {
+        assertEquals(0, new SplittingBulkRequestBuilder(100, 10, TIMEOUT).build().size());
+    }
+
+    private BulkOperation deleteOperation(String id) {
+        return new BulkOperation.Builder().delete(DeleteOperation.of(builder -> builder.index("index").id(id))).build();
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.http.HttpStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.http.AppException;
+
+public class AsyncRetryExecutorTest {
+
+    private static final RetryPolicy<String> RETRY_ON_IO = RetryPolicy.onException(3, 1, 2, e -> e instanceof IOException);
+
+    private AsyncRetryExecutor sut;
+
+    @Before
+    public void setup() {
+        sut = new AsyncRetryExecutor();
+        sut.setContextPropagator(new RequestContextPropagator());
+    }
+
+    @After
+    public void tearDown() {
+        sut.destroy();
+    }
+
+    @Test
+    public void should_retryOnAnotherThread_untilAttemptSucceeds() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        Thread caller = Thread.currentThread();
+
+        String result = AsyncRetryExecutor.await(sut.executeAsync("opendes", RETRY_ON_IO, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                assertSame(caller, Thread.currentThread());
+            }
+            if (attempts.get() < 3) {
+                throw new IOException("connection reset");
+            }
+            assertFalse(caller == Thread.currentThread());
+            return "ok";
+        }));
+
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void should_failWithLastException_whenRetriesExhausted() {
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            AsyncRetryExecutor.await(sut.executeAsync("opendes", RETRY_ON_IO, () -> {
+                throw new IOException("attempt " + attempts.incrementAndGet());
+            }));
+            fail("expected IOException");
+        } catch (Exception e) {
+            assertTrue(e instanceof IOException);
+            assertEquals("attempt 4", e.getMessage());
+        }
+        assertEquals(4, attempts.get());
+    }
+
+    @Test
+    public void should_notRetry_nonRetryableException() {
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            AsyncRetryExecutor.await(sut.executeAsync("opendes", RETRY_ON_IO, () -> {
+                attempts.incrementAndGet();
+                throw new IllegalArgumentException("bad request");
+            }));
+            fail("expected IllegalArgumentException");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void should_retryOnResult_andReturnLastResult() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        RetryPolicy<Integer> policy = RetryPolicy.onResult(2, 1, result -> result < 10);
+
+        int result = AsyncRetryExecutor.await(sut.executeAsync("opendes", policy, attempts::incrementAndGet));
+
+        assertEquals(3, result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void should_failFast_whenCircuitIsOpen_andCloseAfterSuccessfulTrial() throws Exception {
+        sut.setCircuitFailureThreshold(2);
+        sut.setCircuitOpenMillis(200);
+        RetryPolicy<String> noRetry = RetryPolicy.onException(0, 1, 1, e -> e instanceof IOException);
+        for (int i = 0; i < 2; i++) {
+            try {
+                AsyncRetryExecutor.await(sut.executeAsync("opendes", noRetry, () -> {
+                    throw new IOException("unavailable");
+                }));
+                fail("expected IOException");
+            } catch (IOException expected) {
+                // open the circuit
+            }
+        }
+
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            AsyncRetryExecutor.await(sut.executeAsync("opendes", noRetry, () -> String.valueOf(attempts.incrementAndGet())));
+            fail("expected AppException");
+        } catch (AppException e) {
+            assertEquals(HttpStatus.SC_SERVICE_UNAVAILABLE, e.getError().getCode());
+        }
+        assertEquals(0, attempts.get());
+        // other partitions are not affected
+        assertEquals("1", AsyncRetryExecutor.await(sut.executeAsync("tenant1", noRetry, () -> String.valueOf(attempts.incrementAndGet()))));
+
+        TimeUnit.MILLISECONDS.sleep(250);
+        assertEquals("2", AsyncRetryExecutor.await(sut.executeAsync("opendes", noRetry, () -> String.valueOf(attempts.incrementAndGet()))));
+        assertEquals("3", AsyncRetryExecutor.await(sut.executeAsync("opendes", noRetry, () -> String.valueOf(attempts.incrementAndGet()))));
+    }
+
+    @Test
+    public void should_stopRetrying_whenRetryBudgetIsSpent() {
+        sut.setRetryBudgetMax(2);
+        sut.setRetryBudgetRatio(0);
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            AsyncRetryExecutor.await(sut.executeAsync("opendes", RETRY_ON_IO, () -> {
+                attempts.incrementAndGet();
+                throw new IOException("unavailable");
+            }));
+            fail("expected IOException");
+        } catch (Exception e) {
+            assertTrue(e instanceof IOException);
+        }
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void should_leaveCircuitOpen_whenTrialFailsWithNonRetryableException() throws Exception {
+        sut.setCircuitFailureThreshold(2);
+        sut.setCircuitOpenMillis(100);
+        RetryPolicy<String> noRetry = RetryPolicy.onException(0, 1, 1, e -> e instanceof IOException);
+        for (int i = 0; i < 2; i++) {
+            try {
+                AsyncRetryExecutor.await(sut.executeAsync("opendes", noRetry, () -> {
+                    throw new IOException("unavailable");
+                }));
+                fail("expected IOException");
+            } catch (IOException expected) {
+                // open the circuit
+            }
+        }
+        TimeUnit.MILLISECONDS.sleep(150);
+
+        try {
+            AsyncRetryExecutor.await(sut.executeAsync("opendes", noRetry, () -> {
+                throw new IllegalArgumentException("bad request");
+            }));
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // the trial tells nothing about the cluster, the next call is a trial again
+        }
+        try {
+            AsyncRetryExecutor.await(sut.executeAsync("opendes", noRetry, () -> {
+                throw new IOException("unavailable");
+            }));
+            fail("expected IOException");
+        } catch (IOException expected) {
+            // a failed trial opens the circuit again
+        }
+
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            AsyncRetryExecutor.await(sut.executeAsync("opendes", noRetry, () -> String.valueOf(attempts.incrementAndGet())));
+            fail("expected AppException");
+        } catch (AppException e) {
+            assertEquals(HttpStatus.SC_SERVICE_UNAVAILABLE, e.getError().getCode());
+        }
+        assertEquals(0, attempts.get());
+    }
+
+    @Test
+    public void should_notSpendRetryBudget_whenRetryingOnResult() throws Exception {
+        sut.setRetryBudgetMax(1);
+        sut.setRetryBudgetRatio(0);
+        AtomicInteger polls = new AtomicInteger();
+        RetryPolicy<Integer> poll = RetryPolicy.onResult(3, 1, result -> result < 10);
+
+        int result = AsyncRetryExecutor.await(sut.executeAsync("opendes", poll, polls::incrementAndGet));
+
+        assertEquals(4, result);
+        AtomicInteger attempts = new AtomicInteger();
+        String retried = AsyncRetryExecutor.await(sut.executeAsync("opendes", RETRY_ON_IO, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException("connection reset");
+            }
+            return "ok";
+        }));
+        assertEquals("ok", retried);
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void should_jitterDelay_withinUpperHalfOfExponentialBackoff() {
+        RetryPolicy<String> policy = RetryPolicy.onException(5, 1000, 4000, e -> true);
+        for (int i = 0; i < 100; i++) {
+            long first = policy.delayMillis(1);
+            long third = policy.delayMillis(3);
+            long capped = policy.delayMillis(5);
+            assertTrue(first >= 500 && first <= 1000);
+            assertTrue(third >= 2000 && third <= 4000);
+            assertTrue(capped >= 2000 && capped <= 4000);
+        }
+    }
+}
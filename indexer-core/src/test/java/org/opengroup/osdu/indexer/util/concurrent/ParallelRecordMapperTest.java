@@ -0,0 +1,210 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.http.HttpStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.indexer.IndexingStatus;
+import org.opengroup.osdu.core.common.model.indexer.JobStatus;
+import org.opengroup.osdu.core.common.model.indexer.RecordInfo;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+public class ParallelRecordMapperTest {
+
+    private static final String JOB_STATUS_TARGET = "scopedTarget.jobStatus";
+
+    private ParallelRecordMapper sut;
+    private ServletRequestAttributes requestAttributes;
+    private JobStatus jobStatus;
+
+    @Before
+    public void setup() {
+        sut = new ParallelRecordMapper();
+        sut.setParallelism(4);
+        sut.setParallelThreshold(2);
+        sut.setContextPropagator(new RequestContextPropagator());
+
+        jobStatus = new JobStatus();
+        List<RecordInfo> recordInfos = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            RecordInfo recordInfo = new RecordInfo();
+            recordInfo.setId("id" + i);
+            recordInfo.setKind("tenant:source:type:1.0.0");
+            recordInfo.setOp("create");
+            recordInfos.add(recordInfo);
+        }
+        jobStatus.initialize(recordInfos);
+
+        requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        requestAttributes.setAttribute(JOB_STATUS_TARGET, jobStatus, RequestAttributes.SCOPE_REQUEST);
+        requestAttributes.setAttribute("scopedTarget.dpsHeaders", "caller-headers", RequestAttributes.SCOPE_REQUEST);
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        sut.destroy();
+    }
+
+    @Test
+    public void should_useParallelMapping_onlyForLargeEnoughBatches() {
+        assertFalse(sut.isParallel(1));
+        assertTrue(sut.isParallel(2));
+
+        sut.setParallelism(1);
+        assertFalse(sut.isParallel(100));
+    }
+
+    @Test
+    public void should_returnResultsInInputOrder_withCallerScopeAttached() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add("id" + i);
+        }
+
+        List<ParallelRecordMapper.Mapped<String>> results = sut.map(ids, id -> {
+            Object headers = RequestContextHolder.currentRequestAttributes().getAttribute("scopedTarget.dpsHeaders", RequestAttributes.SCOPE_REQUEST);
+            return id + ":" + headers + ":" + Thread.currentThread().getName().startsWith("indexer-payload-mapper-");
+        });
+
+        assertEquals(20, results.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("id" + i + ":caller-headers:true", results.get(i).get(jobStatus));
+        }
+        assertSame(requestAttributes, RequestContextHolder.getRequestAttributes());
+    }
+
+    @Test
+    public void should_bufferStatusUpdates_andReplayThemWhenResultIsRead() throws Exception {
+        List<String> ids = Arrays.asList("id0", "id1", "id2", "id3");
+
+        List<ParallelRecordMapper.Mapped<String>> results = sut.map(ids, id -> {
+            JobStatus workerJobStatus = (JobStatus) RequestContextHolder.currentRequestAttributes().getAttribute(JOB_STATUS_TARGET, RequestAttributes.SCOPE_REQUEST);
+            if (!"id0".equals(id)) {
+                workerJobStatus.addOrUpdateRecordStatus(id, IndexingStatus.WARN, HttpStatus.SC_BAD_REQUEST, "warning of " + id);
+            }
+            return id;
+        });
+
+        // nothing is applied to the request's job status until the results are read
+        assertTrue(jobStatus.getIdsByIndexingStatus(IndexingStatus.WARN).isEmpty());
+
+        results.get(2).get(jobStatus);
+        assertEquals(Arrays.asList("id2"), jobStatus.getIdsByIndexingStatus(IndexingStatus.WARN));
+
+        results.get(0).get(jobStatus);
+        results.get(1).get(jobStatus);
+        results.get(3).get(jobStatus);
+        assertEquals(3, jobStatus.getIdsByIndexingStatus(IndexingStatus.WARN).size());
+    }
+
+    @Test
+    public void should_rethrowMappingFailure_afterReplayingStatuses() {
+        List<ParallelRecordMapper.Mapped<String>> results = sut.map(Arrays.asList("id0", "id1"), id -> {
+            JobStatus workerJobStatus = (JobStatus) RequestContextHolder.currentRequestAttributes().getAttribute(JOB_STATUS_TARGET, RequestAttributes.SCOPE_REQUEST);
+            workerJobStatus.addOrUpdateRecordStatus(id, IndexingStatus.WARN, HttpStatus.SC_BAD_REQUEST, "warning of " + id);
+            if ("id1".equals(id)) {
+                throw new IllegalStateException("cannot map " + id);
+            }
+            return id;
+        });
+
+        try {
+            results.get(1).get(jobStatus);
+            fail("Should throw exception");
+        } catch (Exception e) {
+            assertEquals("cannot map id1", e.getMessage());
+        }
+        assertEquals(Arrays.asList("id1"), jobStatus.getIdsByIndexingStatus(IndexingStatus.WARN));
+    }
+
+    @Test
+    public void should_mapOnCallingThread_whenPoolIsShutDown() throws Exception {
+        sut.map(Arrays.asList("id0", "id1"), id -> id);
+        sut.destroy();
+
+        List<ParallelRecordMapper.Mapped<String>> results = sut.map(Arrays.asList("id0", "id1"), id -> id + ":" + Thread.currentThread().getName());
+
+        String callerThread = Thread.currentThread().getName();
+        assertEquals("id0:" + callerThread, results.get(0).get(jobStatus));
+        assertEquals("id1:" + callerThread, results.get(1).get(jobStatus));
+        assertSame(requestAttributes, RequestContextHolder.getRequestAttributes());
+    }
+
+    @Test
+    public void should_replayBufferedUpdatesOnlyOnce() {
+        JobStatusBuffer buffer = new JobStatusBuffer();
+        buffer.addOrUpdateRecordStatus("id0", IndexingStatus.FAIL, HttpStatus.SC_INTERNAL_SERVER_ERROR, "failure", "debug");
+        assertEquals(1, buffer.getPendingUpdateCount());
+
+        buffer.replayTo(jobStatus);
+        buffer.replayTo(jobStatus);
+
+        assertEquals(0, buffer.getPendingUpdateCount());
+        assertEquals(Arrays.asList("id0"), jobStatus.getIdsByIndexingStatus(IndexingStatus.FAIL));
+    }
+
+    @Test
+    public void should_bufferWholeMutatingApi_andDebugInfos() {
+        JobStatusBuffer buffer = new JobStatusBuffer();
+        buffer.addOrUpdateRecordStatus(Arrays.asList("id0", "id1"), IndexingStatus.WARN, HttpStatus.SC_BAD_REQUEST, "warning");
+        buffer.addOrUpdateRecordStatus(Arrays.asList("id2"), IndexingStatus.FAIL, HttpStatus.SC_BAD_REQUEST, "failure", "debug");
+        buffer.getDebugInfos().add("worker debug info");
+        assertTrue(jobStatus.getIdsByIndexingStatus(IndexingStatus.WARN).isEmpty());
+        assertEquals(3, buffer.getPendingUpdateCount());
+
+        buffer.replayTo(jobStatus);
+
+        assertEquals(Arrays.asList("id0", "id1"), jobStatus.getIdsByIndexingStatus(IndexingStatus.WARN));
+        assertEquals(Arrays.asList("id2"), jobStatus.getIdsByIndexingStatus(IndexingStatus.FAIL));
+        assertTrue(jobStatus.getDebugInfos().contains("worker debug info"));
+        assertEquals(0, buffer.getPendingUpdateCount());
+    }
+
+    @Test
+    public void should_shareScopedBeanCreatedByWorkers() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add("id" + i);
+        }
+
+        List<ParallelRecordMapper.Mapped<Object>> results = sut.map(ids, id -> {
+            RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+            attributes.setAttribute("scopedTarget.lazyBean", new Object(), RequestAttributes.SCOPE_REQUEST);
+            return attributes.getAttribute("scopedTarget.lazyBean", RequestAttributes.SCOPE_REQUEST);
+        });
+
+        Object created = requestAttributes.getAttribute("scopedTarget.lazyBean", RequestAttributes.SCOPE_REQUEST);
+        for (ParallelRecordMapper.Mapped<Object> result : results) {
+            assertSame(created, result.get(jobStatus));
+        }
+    }
+}
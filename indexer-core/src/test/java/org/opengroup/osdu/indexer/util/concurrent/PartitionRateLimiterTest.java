@@ -0,0 +1,72 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class PartitionRateLimiterTest {
+
+    @Test
+    public void should_serveBurstImmediately_thenPaceRequests() {
+        PartitionRateLimiter.TokenBucket bucket = new PartitionRateLimiter.TokenBucket(10, 2);
+        long now = System.nanoTime();
+
+        assertEquals(0, bucket.reserve(now));
+        assertEquals(0, bucket.reserve(now));
+        long waitNanos = bucket.reserve(now);
+        assertTrue(waitNanos > TimeUnit.MILLISECONDS.toNanos(90) && waitNanos <= TimeUnit.MILLISECONDS.toNanos(100));
+        long nextWaitNanos = bucket.reserve(now);
+        assertTrue(nextWaitNanos > TimeUnit.MILLISECONDS.toNanos(190) && nextWaitNanos <= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void should_refillUpToBurst_afterIdlePeriod() {
+        PartitionRateLimiter.TokenBucket bucket = new PartitionRateLimiter.TokenBucket(10, 2);
+        long now = System.nanoTime();
+        bucket.reserve(now);
+        bucket.reserve(now);
+        bucket.reserve(now);
+
+        long later = now + TimeUnit.SECONDS.toNanos(10);
+        assertEquals(0, bucket.reserve(later));
+        assertEquals(0, bucket.reserve(later));
+        assertTrue(bucket.reserve(later) > 0);
+    }
+
+    @Test
+    public void should_notWait_givenUnlimitedRate() throws InterruptedException {
+        PartitionRateLimiter rateLimiter = new PartitionRateLimiter();
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.acquire("opendes", 0, 1);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void should_keepSeparateBuckets_perPartition() throws InterruptedException {
+        PartitionRateLimiter rateLimiter = new PartitionRateLimiter();
+        long start = System.nanoTime();
+        rateLimiter.acquire("tenant1", 1, 1);
+        rateLimiter.acquire("tenant2", 1, 1);
+        rateLimiter.acquire("tenant3", 1, 1);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+    }
+}
@@ -21,12 +21,14 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
+import org.opengroup.osdu.indexer.model.geojson.PackedPositions;
 import org.opengroup.osdu.indexer.model.geojson.Position;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 @RunWith(SpringRunner.class)
@@ -54,6 +56,30 @@ public class DouglasPeuckerReducerTest {
         Assert.assertEquals(indexesToExpected, indexesToKeep);
     }
 
+    @Test
+    public void should_mark_points_to_keep_of_packed_line() {
+        String coordinatesJson = "[[178.11226380138962, -36.390207464157314], [178.1123772202456, -36.39023861556822], [178.11251344088177, -36.3902777929863], [178.11264907210185, -36.390307990851994], [178.11278588251707, -36.39035614732104], [178.11291040784653, -36.39038682152853], [178.11304662894693, -36.390425998293146], [178.11318226056676, -36.39045619551308], [178.11329685929155, -36.39050530474071], [178.11343249111647, -36.39053550165624], [178.11356871267787, -36.39057467778047], [178.113693828242, -36.39061433048508], [178.11383005004217, -36.39065350628816], [178.11396568226678, -36.39068370255791], [178.11407969203833, -36.390723831598926], [178.11421591417854, -36.39076300692875], [178.7285555264073, -36.68661856799342], [178.72867223805497, -36.68668495001179]]";
+        PackedPositions coordinates = PackedPositions.of(convertToPositionList(coordinatesJson));
+        BitSet pointsToKeep = sut.getPointsToKeep(coordinates, 100000, 10);
+        BitSet pointsExpected = new BitSet();
+        pointsExpected.set(0);
+        pointsExpected.set(15);
+        pointsExpected.set(17);
+        Assert.assertEquals(pointsExpected, pointsToKeep);
+    }
+
+    @Test
+    public void should_decimate_line_with_many_points() {
+        // Points on a circle arc, every one of them is kept with a tiny epsilon
+        List<Position> coordinates = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            double angle = Math.PI * i / 100000;
+            coordinates.add(new Position(10 * Math.cos(angle), 10 * Math.sin(angle)));
+        }
+        BitSet pointsToKeep = sut.getPointsToKeep(PackedPositions.of(coordinates), 100000, 0.00001);
+        Assert.assertEquals(coordinates.size(), pointsToKeep.cardinality());
+    }
+
     @Test
     public void should_not_decimate_line_with_few_points() {
         String coordinatesJson = "[[178.11226380138962, -36.390207464157314], [178.1123772202456, -36.39023861556822], [178.11251344088177, -36.3902777929863], [178.7285555264073, -36.68661856799342], [178.72867223805497, -36.68668495001179]]";
@@ -24,9 +24,12 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.stubbing.Answer;
+import org.opengroup.osdu.indexer.cache.DecimatedShapeCache;
 import org.opengroup.osdu.indexer.model.GeoJsonObject;
 import org.opengroup.osdu.indexer.model.geojson.*;
+import org.opengroup.osdu.indexer.model.geojson.jackson.GeoJsonMapper;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.io.BufferedReader;
@@ -35,10 +38,17 @@ import java.io.InputStreamReader;
 import java.lang.reflect.Type;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @RunWith(SpringRunner.class)
 public class GeoShapeDecimatorTest {
@@ -50,6 +60,9 @@ public class GeoShapeDecimatorTest {
     @Mock
     private GeometryDecimator decimator;
 
+    @Spy
+    private DecimatedShapeCache decimatedShapeCache = new DecimatedShapeCache();
+
 
     private final Answer<Boolean> answer = invocation -> {
         GeometryCollection geometryCollection = invocation.getArgument(0);
@@ -68,7 +81,8 @@ public class GeoShapeDecimatorTest {
 
     @Before
     public void setup() {
-        doAnswer(answer).when(decimator).decimate(any());
+        doAnswer(answer).when(decimator).decimate(any(), anyDouble());
+        decimatedShapeCache.setMinPointCount(100);
     }
 
     @Test
@@ -113,6 +127,84 @@ public class GeoShapeDecimatorTest {
         assertFalse(result.isDecimated);
     }
 
+    @Test
+    public void should_decimate_copy_of_parsed_shape() throws Exception {
+        Map<String, Object> shapeObj = getShapeObj("geometrycollection_linestring.json");
+        GeoShapeMap parsedShape = new GeoShapeMap(GeoJsonMapper.toGeometryCollection(shapeObj));
+        int positionCount = parsedShape.getPositionCount();
+        doAnswer(invocation -> {
+            GeometryCollection geometryCollection = invocation.getArgument(0);
+            ((LineString) geometryCollection.getGeometries().get(0)).getCoordinates().remove(1);
+            return true;
+        }).when(decimator).decimate(any(), anyDouble());
+
+        DecimatedResult result = sut.decimateShapeObj(parsedShape);
+
+        assertTrue(result.isDecimated);
+        GeoShapeMap decimatedShape = (GeoShapeMap) result.getDecimatedShapeObj();
+        assertEquals(positionCount - 1, decimatedShape.getPositionCount());
+        assertNotNull(parsedShape.getGeometryCollection());
+        assertEquals(positionCount, parsedShape.getPositionCount());
+        assertEquals(shapeObj, parsedShape);
+    }
+
+    @Test
+    public void should_reuse_decimation_of_same_shape() throws JsonProcessingException {
+        DecimatedResult firstResult = sut.decimateShapeObj(getShapeObj("geometrycollection_polygon.json"));
+        DecimatedResult secondResult = sut.decimateShapeObj(getShapeObj("geometrycollection_polygon.json"));
+
+        assertTrue(secondResult.isDecimated);
+        assertSame(((GeoShapeMap) firstResult.getDecimatedShapeObj()).getGeometryCollection(),
+                ((GeoShapeMap) secondResult.getDecimatedShapeObj()).getGeometryCollection());
+        verify(decimator, times(1)).decimate(any(), anyDouble());
+        assertEquals(1, decimatedShapeCache.getHits().get());
+        assertEquals(0.5, decimatedShapeCache.getHitRatio());
+    }
+
+    @Test
+    public void should_not_reuse_decimation_of_other_epsilon() throws JsonProcessingException {
+        sut.decimateShapeObj(getShapeObj("geometrycollection_polygon.json"));
+        sut.decimateShapeObj(getShapeObj("geometrycollection_polygon.json"), 1000);
+
+        verify(decimator, times(1)).decimate(any(), eq(GeometryDecimator.NORMAL_SHAPE_DECIMATION_EPSILON));
+        verify(decimator, times(1)).decimate(any(), eq(1000.0));
+        assertEquals(0, decimatedShapeCache.getHits().get());
+    }
+
+    @Test
+    public void should_decimate_again_when_cache_is_disabled() throws JsonProcessingException {
+        decimatedShapeCache.setEnabled(false);
+
+        sut.decimateShapeObj(getShapeObj("geometrycollection_polygon.json"));
+        sut.decimateShapeObj(getShapeObj("geometrycollection_polygon.json"));
+
+        verify(decimator, times(2)).decimate(any(), anyDouble());
+        assertEquals(0, decimatedShapeCache.getHits().get());
+    }
+
+    @Test
+    public void should_not_cache_shape_below_point_threshold() throws JsonProcessingException {
+        decimatedShapeCache.setMinPointCount(1000);
+
+        sut.decimateShapeObj(getShapeObj("geometrycollection_polygon.json"));
+        sut.decimateShapeObj(getShapeObj("geometrycollection_polygon.json"));
+
+        verify(decimator, times(2)).decimate(any(), anyDouble());
+        assertEquals(0, decimatedShapeCache.getHits().get());
+        assertEquals(0, decimatedShapeCache.getMisses().get());
+    }
+
+    @Test
+    public void should_not_cache_points() throws JsonProcessingException {
+        decimatedShapeCache.setMinPointCount(1);
+
+        sut.decimateShapeObj(getShapeObj("geometrycollection_multipoint.json"));
+        sut.decimateShapeObj(getShapeObj("geometrycollection_multipoint.json"));
+
+        assertEquals(0, decimatedShapeCache.getHits().get());
+        assertEquals(0, decimatedShapeCache.getMisses().get());
+    }
+
     private Map<String, Object>  getShapeObj(String file) {
         String shapeJson = getGeoShapeFromFile(file);
         Type type = new TypeToken<Map<String, Object>>() {}.getType();
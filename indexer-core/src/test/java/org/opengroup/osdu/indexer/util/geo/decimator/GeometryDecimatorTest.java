@@ -36,14 +36,18 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyDouble;
-import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
+import static org.opengroup.osdu.indexer.testutils.ReflectionTestUtil.setFieldValueForClass;
 
 @RunWith(SpringRunner.class)
 public class GeometryDecimatorTest {
@@ -56,17 +60,15 @@ public class GeometryDecimatorTest {
     @Mock
     private DouglasPeuckerReducer reducer;
 
-    private final Answer<List<Integer>> answer = invocation -> {
-        List<Position> coordinates = invocation.getArgument(0);
-        List<Integer> indexes = new ArrayList<>();
+    private final Answer<BitSet> answer = invocation -> {
+        PackedPositions coordinates = invocation.getArgument(0);
+        BitSet indexes = new BitSet();
         if(coordinates.size() < 6) {
-            for(int i = 0; i < coordinates.size(); i++) {
-                indexes.add(0);
-            }
+            indexes.set(0, coordinates.size());
         }
         else {
-            indexes.add(0);
-            indexes.add(coordinates.size() -1);
+            indexes.set(0);
+            indexes.set(coordinates.size() -1);
         }
         return indexes;
     };
@@ -75,7 +77,7 @@ public class GeometryDecimatorTest {
     @Before
     public void setup() {
         deserializerMapper = createDeserializerMapper();
-        doAnswer(answer).when(reducer).getPointIndexesToKeep(anyList(), anyDouble(), anyDouble());
+        doAnswer(answer).when(reducer).getPointsToKeep(any(), anyDouble(), anyDouble());
     }
 
     @Test
@@ -85,6 +87,24 @@ public class GeometryDecimatorTest {
         assertTrue(decimated);
     }
 
+    @Test
+    public void should_decimate_parsed_polyline_in_its_packed_positions() throws JsonProcessingException {
+        GeometryCollection geometryCollection = getGeometryCollection("geometrycollection_linestring.json");
+        List<Position> coordinates = ((LineString) geometryCollection.getGeometries().get(0)).getCoordinates();
+        Position firstPoint = coordinates.get(0);
+        Position lastPoint = coordinates.get(coordinates.size() - 1);
+
+        boolean decimated = decimator.decimate(geometryCollection);
+
+        assertTrue(decimated);
+        List<Position> decimatedCoordinates = ((LineString) geometryCollection.getGeometries().get(0)).getCoordinates();
+        assertTrue(decimatedCoordinates instanceof PackedPositions);
+        assertSame(coordinates, decimatedCoordinates);
+        assertEquals(2, decimatedCoordinates.size());
+        assertEquals(firstPoint, decimatedCoordinates.get(0));
+        assertEquals(lastPoint, decimatedCoordinates.get(1));
+    }
+
     @Test
     public void should_decimate_multipolyline() throws JsonProcessingException {
         GeometryCollection geometryCollection = getGeometryCollection("geometrycollection_multilinestring.json");
@@ -120,6 +140,46 @@ public class GeometryDecimatorTest {
         assertFalse(decimated);
     }
 
+    @Test
+    public void should_decimate_down_sampled_line_in_place() {
+        List<Position> coordinates = new ArrayList<>();
+        for(int i = 0; i < 400000; i++) {
+            coordinates.add(new Position(i * 0.0001, i % 2 == 0 ? 0.0 : 0.1));
+        }
+        Position lastPoint = coordinates.get(coordinates.size() - 1);
+        doAnswer(invocation -> {
+            PackedPositions sampledCoordinates = invocation.getArgument(0);
+            BitSet indexes = new BitSet();
+            indexes.set(0, sampledCoordinates.size());
+            return indexes;
+        }).when(reducer).getPointsToKeep(any(), anyDouble(), anyDouble());
+        GeometryCollection geometryCollection = new GeometryCollection();
+        geometryCollection.add(new LineString(coordinates.toArray(new Position[0])));
+
+        boolean decimated = decimator.decimate(geometryCollection);
+
+        assertTrue(decimated);
+        List<Position> decimatedCoordinates = ((LineString) geometryCollection.getGeometries().get(0)).getCoordinates();
+        assertEquals(200001, decimatedCoordinates.size());
+        assertEquals(coordinates.get(2), decimatedCoordinates.get(1));
+        assertEquals(lastPoint, decimatedCoordinates.get(decimatedCoordinates.size() - 1));
+    }
+
+    @Test
+    public void should_decimate_in_parallel_as_sequentially() throws JsonProcessingException {
+        GeometryDecimator sequentialDecimator = createDecimator(1);
+        GeometryDecimator parallelDecimator = createDecimator(4);
+        try {
+            GeometryCollection expected = getGeometryCollection("geometrycollection_multipolygon_with_holes.json");
+            GeometryCollection actual = getGeometryCollection("geometrycollection_multipolygon_with_holes.json");
+
+            assertEquals(sequentialDecimator.decimate(expected), parallelDecimator.decimate(actual));
+            assertEquals(deserializerMapper.writeValueAsString(expected), deserializerMapper.writeValueAsString(actual));
+        } finally {
+            parallelDecimator.destroy();
+        }
+    }
+
     @Test
     public void should_not_decimate_small_geometry() throws JsonProcessingException {
         GeometryCollection geometryCollection = getGeometryCollection("geometrycollection_small_multilinestring.json");
@@ -127,6 +187,14 @@ public class GeometryDecimatorTest {
         assertFalse(decimated);
     }
 
+    private GeometryDecimator createDecimator(int parallelism) {
+        GeometryDecimator geometryDecimator = new GeometryDecimator();
+        setFieldValueForClass(geometryDecimator, "reducer", new DouglasPeuckerReducer());
+        geometryDecimator.setParallelism(parallelism);
+        geometryDecimator.setParallelThreshold(0);
+        return geometryDecimator;
+    }
+
     private GeometryCollection getGeometryCollection(String file) throws JsonProcessingException  {
         String shapeJson = getGeoShapeFromFile(file);
         Type type = new TypeToken<Map<String, Object>>() {}.getType();
@@ -0,0 +1,51 @@
+/*
+ * Copyright © Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0 *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.indexer.util.geo.decimator;
+
+import org.junit.Test;
+import org.opengroup.osdu.indexer.util.geo.decimator.ShapeResolutionLevels.Level;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ShapeResolutionLevelsTest {
+
+    @Test
+    public void should_parse_levels_once_from_finest_to_coarsest() {
+        ShapeResolutionLevels sut = new ShapeResolutionLevels();
+        sut.setCoarseEpsilonMeters(" 1000, 100,,1000, 5");
+
+        assertEquals(List.of(
+                new Level(100, "VirtualProperties.DefaultLocation.Wgs84Coordinates100m"),
+                new Level(1000, "VirtualProperties.DefaultLocation.Wgs84Coordinates1000m")), sut.getLevels());
+        assertEquals(sut.getLevels(), sut.getLevels());
+    }
+
+    @Test
+    public void should_have_no_level_by_default() {
+        ShapeResolutionLevels sut = new ShapeResolutionLevels();
+        sut.init();
+
+        assertTrue(sut.getLevels().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_invalid_level() {
+        new ShapeResolutionLevels().setCoarseEpsilonMeters("100,1km");
+    }
+}
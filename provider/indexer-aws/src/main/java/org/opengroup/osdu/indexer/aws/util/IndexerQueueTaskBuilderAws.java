@@ -82,6 +82,12 @@ public class IndexerQueueTaskBuilderAws extends IndexerQueueTaskBuilder {
     public  void createWorkerTask(String payload, Long countDownMillis, DpsHeaders headers){
         this.createTask(payload, headers);
     }
+
+    @Override
+    public boolean isDelayedDeliverySupported() {
+        // the countdown is ignored, tasks are delivered right away
+        return false;
+    }
     @Override
     public void createReIndexTask(String payload,DpsHeaders headers) {
         Map<String, MessageAttributeValue> messageAttributes = new HashMap<>();
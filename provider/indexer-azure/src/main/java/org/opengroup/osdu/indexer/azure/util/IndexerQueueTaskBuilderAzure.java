@@ -95,6 +95,12 @@ public class IndexerQueueTaskBuilderAzure extends IndexerQueueTaskBuilder {
         createWorkerTasks(payload, headers);
     }
 
+    @Override
+    public boolean isDelayedDeliverySupported() {
+        // the countdown is ignored, tasks are delivered right away
+        return false;
+    }
+
     @Override
     public void createReIndexTask(String payload, DpsHeaders headers) {
         publishAllRecordsToServiceBus(payload, headers);
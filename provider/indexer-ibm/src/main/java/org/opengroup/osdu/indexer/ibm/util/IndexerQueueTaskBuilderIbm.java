@@ -81,6 +81,12 @@ public class IndexerQueueTaskBuilderIbm extends IndexerQueueTaskBuilder {
 		createTask(payload, headers);
     }
 
+	@Override
+	public boolean isDelayedDeliverySupported() {
+		// the countdown is ignored, tasks are delivered right away
+		return false;
+	}
+
 	private void createTask(String payload, DpsHeaders headers) {
 
 		try {